@@ -1,173 +0,0 @@
-package com.github.rholder.retry;
-
-import com.github.rholder.retry.Strategy.BlockStrategy;
-import com.github.rholder.retry.Strategy.StopStrategy;
-import com.github.rholder.retry.Strategy.WaitStrategy;
-import com.github.rholder.retry.Strategy.factory.BlockStrategies;
-import com.github.rholder.retry.Strategy.factory.StopStrategies;
-import com.github.rholder.retry.Strategy.factory.WaitStrategies;
-import com.github.rholder.retry.listener.RetryListener;
-import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
-import com.github.rholder.retry.timelimit.AttemptTimeLimiters;
-import com.google.common.base.Preconditions;
-import com.google.common.base.Predicates;
-import com.google.common.base.Predicate;
-
-import javax.annotation.Nonnull;
-import java.util.ArrayList;
-import java.util.List;
-
-/**
- * Function: 配置和创建 {@link Retryer}.
- *
- * @author liujianlong[liujl24@yusys.com.cn]
- * @description:
- * @date 2022/4/18 16:46:35
- */
-public class RetryerBuilder<V> {
-
-    private AttemptTimeLimiter<V> attemptTimeLimiter;
-    private StopStrategy stopStrategy;
-    private WaitStrategy waitStrategy;
-    private BlockStrategy blockStrategy;
-    private Predicate<Attempt<V>> rejectionPredicate = Predicates.alwaysFalse();
-    private List<RetryListener> listeners = new ArrayList<RetryListener>();
-
-    private RetryerBuilder() {
-    }
-
-    /**
-     *
-     * @param <V>
-     * @return
-     * @Study <V>返回值前加：
-     *      Class<T>中的方法是在new一个对象出来的时候指定的,
-     *      而静态方法其实不需要new一个对象就可以直接使用，
-     *      这个时候用Class.静态方法（会报错无法从静态上下文引用）,那么这个泛型到底是什么类型呢？
-     *      所以只能用 public static <T> void test 这种方式提前定义好泛型
-     */
-    public static <V> RetryerBuilder<V> newBuilder() {
-        return new RetryerBuilder<V>();
-    }
-
-    /**
-     * 添加监听器
-     */
-    public RetryerBuilder<V> withRetryListener(@Nonnull RetryListener listener) {
-        Preconditions.checkNotNull(listener, "listener may not be null");
-        listeners.add(listener);
-        return this;
-    }
-
-    public RetryerBuilder<V> withWaitStrategy(@Nonnull WaitStrategy waitStrategy) throws IllegalStateException {
-        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
-        Preconditions.checkState(this.waitStrategy == null, "a wait strategy has already been set %s", this.waitStrategy);
-        this.waitStrategy = waitStrategy;
-        return this;
-    }
-
-    public RetryerBuilder<V> withStopStrategy(@Nonnull StopStrategy stopStrategy) throws IllegalStateException {
-        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
-        Preconditions.checkState(this.stopStrategy == null, "a stop strategy has already been set %s", this.stopStrategy);
-        this.stopStrategy = stopStrategy;
-        return this;
-    }
-
-    public RetryerBuilder<V> withBlockStrategy(@Nonnull BlockStrategy blockStrategy) throws IllegalStateException {
-        Preconditions.checkNotNull(blockStrategy, "blockStrategy may not be null");
-        Preconditions.checkState(this.blockStrategy == null, "a block strategy has already been set %s", this.blockStrategy);
-        this.blockStrategy = blockStrategy;
-        return this;
-    }
-
-    public RetryerBuilder<V> withAttemptTimeLimiter(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter) {
-        Preconditions.checkNotNull(attemptTimeLimiter);
-        this.attemptTimeLimiter = attemptTimeLimiter;
-        return this;
-    }
-
-    public RetryerBuilder<V> retryIfException() {
-        rejectionPredicate = Predicates.or(rejectionPredicate, new ExceptionClassPredicate<V>(Exception.class));
-        return this;
-    }
-
-    public RetryerBuilder<V> retryIfRuntimeException() {
-        rejectionPredicate = Predicates.or(rejectionPredicate, new ExceptionClassPredicate<V>(RuntimeException.class));
-        return this;
-    }
-
-    public RetryerBuilder<V> retryIfExceptionOfType(@Nonnull Class<? extends Throwable> exceptionClass) {
-        Preconditions.checkNotNull(exceptionClass, "exceptionClass may not be null");
-        rejectionPredicate = Predicates.or(rejectionPredicate, new ExceptionClassPredicate<V>(exceptionClass));
-        return this;
-    }
-
-    public RetryerBuilder<V> retryIfException(@Nonnull Predicate<Throwable> exceptionPredicate) {
-        Preconditions.checkNotNull(exceptionPredicate, "exceptionPredicate may not be null");
-        rejectionPredicate = Predicates.or(rejectionPredicate, new ExceptionPredicate<V>(exceptionPredicate));
-        return this;
-    }
-
-    public RetryerBuilder<V> retryIfResult(@Nonnull Predicate<V> resultPredicate) {
-        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
-        rejectionPredicate = Predicates.or(rejectionPredicate, new ResultPredicate<V>(resultPredicate));
-        return this;
-    }
-    public Retryer<V> build() {
-        AttemptTimeLimiter<V> theAttemptTimeLimiter = attemptTimeLimiter == null ? AttemptTimeLimiters.<V>noTimeLimit() : attemptTimeLimiter;
-        StopStrategy theStopStrategy = stopStrategy == null ? StopStrategies.neverStop() : stopStrategy;
-        WaitStrategy theWaitStrategy = waitStrategy == null ? WaitStrategies.noWait() : waitStrategy;
-        BlockStrategy theBlockStrategy = blockStrategy == null ? BlockStrategies.threadSleepStrategy() : blockStrategy;
-
-        return new Retryer<V>(theAttemptTimeLimiter, theStopStrategy, theWaitStrategy, theBlockStrategy, rejectionPredicate, listeners);
-    }
-
-    private static final class ExceptionClassPredicate<V> implements Predicate<Attempt<V>> {
-
-        private Class<? extends Throwable> exceptionClass;
-
-        public ExceptionClassPredicate(Class<? extends Throwable> exceptionClass) {
-            this.exceptionClass = exceptionClass;
-        }
-
-        public boolean apply(Attempt<V> attempt) {
-            if (!attempt.hasException()) {
-                return false;
-            }
-            return exceptionClass.isAssignableFrom(attempt.getExceptionCause().getClass());
-        }
-    }
-
-    private static final class ResultPredicate<V> implements Predicate<Attempt<V>> {
-
-        private Predicate<V> delegate;
-
-        public ResultPredicate(Predicate<V> delegate) {
-            this.delegate = delegate;
-        }
-
-        public boolean apply(Attempt<V> attempt) {
-            if (!attempt.hasResult()) {
-                return false;
-            }
-            V result = attempt.getResult();
-            return delegate.apply(result);
-        }
-    }
-
-    private static final class ExceptionPredicate<V> implements Predicate<Attempt<V>> {
-
-        private Predicate<Throwable> delegate;
-
-        public ExceptionPredicate(Predicate<Throwable> delegate) {
-            this.delegate = delegate;
-        }
-
-        public boolean apply(Attempt<V> attempt) {
-            if (!attempt.hasException()) {
-                return false;
-            }
-            return delegate.apply(attempt.getExceptionCause());
-        }
-    }
-}
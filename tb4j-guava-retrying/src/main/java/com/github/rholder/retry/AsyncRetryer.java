@@ -0,0 +1,271 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Collection;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Function: 异步版本的 {@link Retryer}，被调用方返回 future，下一次attempt在上一次 future 完成后发起
+ * 判定条件作用于 future 完成时的结果或异常；等待通过 {@link ScheduledExecutorService} 调度，不阻塞任何线程；
+ * 单次attempt超时同样由调度器触发，超时后取消该attempt的 future 并以 {@link TimeoutException} 参与判定。
+ * 通过 {@link RetryerBuilder#buildAsync(ScheduledExecutorService)} 创建。
+ *
+ * 返回的 future：成功时为结果；不需要重试的异常原样作为失败原因；停止时以 {@link RetryException} 失败。
+ * 取消返回的 future 会同时取消进行中的attempt或等待。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 16:58:21
+ */
+@ThreadSafe
+public final class AsyncRetryer<V> {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private final StopStrategy stopStrategy;
+    private final WaitStrategy waitStrategy;
+    private final Predicate<Attempt<V>> rejectionPredicate;
+    private final Collection<RetryListener> listeners;
+    private final Ticker ticker;
+    private final ScheduledExecutorService scheduler;
+    private final long attemptTimeoutNanos;
+
+    /**
+     * @param attemptTimeout 单次attempt超时，小于 0 表示不限制
+     */
+    public AsyncRetryer(@Nonnull StopStrategy stopStrategy,
+                        @Nonnull WaitStrategy waitStrategy,
+                        @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                        @Nonnull Collection<RetryListener> listeners,
+                        @Nonnull Ticker ticker,
+                        @Nonnull ScheduledExecutorService scheduler,
+                        long attemptTimeout,
+                        @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        Preconditions.checkNotNull(rejectionPredicate, "rejectionPredicate may not be null");
+        Preconditions.checkNotNull(listeners, "listeners may not null");
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+
+        this.stopStrategy = stopStrategy;
+        this.waitStrategy = waitStrategy;
+        this.rejectionPredicate = rejectionPredicate;
+        this.listeners = listeners;
+        this.ticker = ticker;
+        this.scheduler = scheduler;
+        this.attemptTimeoutNanos = attemptTimeout < 0L ? -1L : timeUnit.toNanos(attemptTimeout);
+    }
+
+    /**
+     * 发起调用，第一次attempt在调用线程上发起
+     */
+    public ListenableFuture<V> call(@Nonnull AsyncCallable<V> callable) {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        Execution execution = new Execution(callable);
+        execution.run();
+        return execution.result;
+    }
+
+    /**
+     * 以 {@link CompletionStage} 形式发起调用，语义同 {@link #call(AsyncCallable)}；
+     * 失败原因若被包装为 {@link CompletionException} 会先解开再参与判定
+     */
+    public CompletableFuture<V> callStage(@Nonnull final Supplier<? extends CompletionStage<V>> supplier) {
+        Preconditions.checkNotNull(supplier, "supplier may not be null");
+        final ListenableFuture<V> future = call(new AsyncCallable<V>() {
+            public ListenableFuture<V> call() {
+                return toListenableFuture(supplier.get());
+            }
+        });
+        final CompletableFuture<V> stage = new CompletableFuture<V>();
+        future.addListener(new Runnable() {
+            public void run() {
+                try {
+                    stage.complete(Uninterruptibles.getUninterruptibly(future));
+                } catch (ExecutionException e) {
+                    stage.completeExceptionally(e.getCause());
+                } catch (CancellationException e) {
+                    stage.cancel(false);
+                }
+            }
+        }, DIRECT);
+        stage.whenComplete(new BiConsumer<V, Throwable>() {
+            public void accept(V value, Throwable t) {
+                if (stage.isCancelled()) {
+                    future.cancel(true);
+                }
+            }
+        });
+        return stage;
+    }
+
+    private static <V> ListenableFuture<V> toListenableFuture(final CompletionStage<V> stage) {
+        Preconditions.checkNotNull(stage, "the supplier returned a null CompletionStage");
+        final SettableFuture<V> future = SettableFuture.create();
+        stage.whenComplete(new BiConsumer<V, Throwable>() {
+            public void accept(V value, Throwable t) {
+                if (t == null) {
+                    future.set(value);
+                } else {
+                    future.setException(t instanceof CompletionException && t.getCause() != null ? t.getCause() : t);
+                }
+            }
+        });
+        future.addListener(new Runnable() {
+            public void run() {
+                if (future.isCancelled()) {
+                    try {
+                        stage.toCompletableFuture().cancel(true);
+                    } catch (UnsupportedOperationException ignored) {
+                        // 该 stage 不支持转换，无法向下传播取消
+                    }
+                }
+            }
+        }, DIRECT);
+        return future;
+    }
+
+    /**
+     * 一次调用的执行过程；各次attempt依次发生，attemptNumber 由前一次完成 happens-before 下一次发起保证可见
+     */
+    private final class Execution implements Runnable {
+        private final AsyncCallable<V> callable;
+        private final SettableFuture<V> result = SettableFuture.create();
+        private final long startTime = ticker.read();
+        private int attemptNumber;
+        /**
+         * 进行中的attempt或等待，用于传播取消
+         */
+        private volatile Future<?> pending;
+
+        Execution(AsyncCallable<V> callable) {
+            this.callable = callable;
+            result.addListener(new Runnable() {
+                public void run() {
+                    Future<?> current = pending;
+                    if (result.isCancelled() && current != null) {
+                        current.cancel(true);
+                    }
+                }
+            }, DIRECT);
+        }
+
+        /**
+         * 发起下一次attempt
+         */
+        public void run() {
+            if (result.isDone()) {
+                return;
+            }
+            final int number = ++attemptNumber;
+            final ListenableFuture<V> future;
+            try {
+                future = Preconditions.checkNotNull(callable.call(), "the callable returned a null future");
+            } catch (Throwable t) {
+                onAttempt(Attempts.<V>newExceptionAttempt(t, number, elapsedMillis()));
+                return;
+            }
+            pending = future;
+            if (result.isCancelled()) {
+                future.cancel(true);
+                return;
+            }
+
+            final AtomicBoolean completed = new AtomicBoolean();
+            if (attemptTimeoutNanos >= 0L) {
+                final ScheduledFuture<?> timeout = scheduler.schedule(new Runnable() {
+                    public void run() {
+                        if (completed.compareAndSet(false, true)) {
+                            future.cancel(true);
+                            onAttempt(Attempts.<V>newExceptionAttempt(new TimeoutException("attempt " + number + " timed out after "
+                                    + TimeUnit.NANOSECONDS.toMillis(attemptTimeoutNanos) + "ms"), number, elapsedMillis()));
+                        }
+                    }
+                }, attemptTimeoutNanos, TimeUnit.NANOSECONDS);
+                future.addListener(new Runnable() {
+                    public void run() {
+                        timeout.cancel(false);
+                    }
+                }, DIRECT);
+            }
+            future.addListener(new Runnable() {
+                public void run() {
+                    if (!completed.compareAndSet(false, true)) {
+                        return;
+                    }
+                    Attempt<V> attempt;
+                    try {
+                        attempt = Attempts.<V>newResultAttempt(Uninterruptibles.getUninterruptibly(future), number, elapsedMillis());
+                    } catch (ExecutionException e) {
+                        attempt = Attempts.<V>newExceptionAttempt(e.getCause(), number, elapsedMillis());
+                    } catch (Throwable t) {
+                        attempt = Attempts.<V>newExceptionAttempt(t, number, elapsedMillis());
+                    }
+                    onAttempt(attempt);
+                }
+            }, DIRECT);
+        }
+
+        private void onAttempt(Attempt<V> attempt) {
+            try {
+                for (RetryListener listener : listeners) {
+                    listener.onRetry(attempt);
+                }
+                if (!rejectionPredicate.apply(attempt)) {
+                    if (attempt.hasResult()) {
+                        result.set(attempt.getResult());
+                    } else {
+                        result.setException(attempt.getExceptionCause());
+                    }
+                    return;
+                }
+                if (stopStrategy.shouldStop(attempt)) {
+                    result.setException(new RetryException((int) attempt.getAttemptNumber(), attempt));
+                    return;
+                }
+                long sleepTime = waitStrategy.computeSleepTime(attempt);
+                if (!result.isDone()) {
+                    pending = scheduler.schedule(this, sleepTime, TimeUnit.MILLISECONDS);
+                }
+            } catch (Throwable t) {
+                result.setException(t);
+            }
+        }
+
+        private long elapsedMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(ticker.read() - startTime);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.function.LongSupplier;
+
+/**
+ * Function: 在 Guava 类型与 core 使用的 java.util.function 类型之间转换
+ * Guava 的 {@link Predicate} 本身就是 java.util.function.Predicate，可以直接交给 core；
+ * 这里只处理 {@link Ticker} 到纳秒时钟，以及 core 组合出的判定条件回到 Guava {@link Predicate}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 14:12:36
+ */
+final class GuavaAdapters {
+
+    private GuavaAdapters() {
+    }
+
+    /**
+     * @return 读取 ticker 的纳秒时钟；ticker 本身已是 LongSupplier(如 ManualTicker)时原样返回，
+     * ticker 同时是 {@link BlockStrategy} 时返回的时钟也是，使 core 同样能把它作为默认阻塞策略
+     */
+    static LongSupplier nanoClock(Ticker ticker) {
+        if (ticker instanceof LongSupplier) {
+            return (LongSupplier) ticker;
+        }
+        return ticker instanceof BlockStrategy ? new BlockingTickerClock(ticker) : new TickerClock(ticker);
+    }
+
+    static <T> Predicate<T> predicate(final java.util.function.Predicate<T> predicate) {
+        if (predicate instanceof Predicate) {
+            return (Predicate<T>) predicate;
+        }
+        return new Predicate<T>() {
+            public boolean apply(T input) {
+                return predicate.test(input);
+            }
+        };
+    }
+
+    @Immutable
+    private static class TickerClock implements LongSupplier {
+        final Ticker ticker;
+
+        TickerClock(Ticker ticker) {
+            this.ticker = ticker;
+        }
+
+        public long getAsLong() {
+            return ticker.read();
+        }
+    }
+
+    @Immutable
+    private static final class BlockingTickerClock extends TickerClock implements BlockStrategy {
+
+        BlockingTickerClock(Ticker ticker) {
+            super(ticker);
+        }
+
+        public void block(long sleepTime) throws InterruptedException {
+            ((BlockStrategy) ticker).block(sleepTime);
+        }
+    }
+}
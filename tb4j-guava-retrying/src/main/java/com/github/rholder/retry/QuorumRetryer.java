@@ -0,0 +1,199 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.cancel.CancellationRegistration;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.exception.QuorumException;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Function: 向 N 个副本并行发起调用，每个副本按同一个 {@link Retryer} 的策略独立重试，K 个副本成功即返回
+ * 凑齐 quorum 或失败的副本多到不可能凑齐时立即结束，并取消其余副本：正在等待的重试立即结束，正在执行的attempt被中断。
+ * 因此延迟取决于第 K 快的副本而不是最慢的副本。executor 应能同时运行全部副本，否则排队的副本会拖慢 quorum。
+ * 通过 {@link RetryerBuilder#buildQuorum(Executor)} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 21:05:51
+ */
+@ThreadSafe
+public final class QuorumRetryer<V> {
+
+    private final Retryer<V> retryer;
+    private final Executor executor;
+
+    QuorumRetryer(Retryer<V> retryer, Executor executor) {
+        this.retryer = retryer;
+        this.executor = executor;
+    }
+
+    /**
+     * @see #call(List, int, CancellationToken)
+     */
+    public List<V> call(@Nonnull List<? extends Callable<V>> replicas, int quorum) throws QuorumException, InterruptedException {
+        return call(replicas, quorum, CancellationToken.none());
+    }
+
+    /**
+     * @param quorum 需要成功的副本数，在 [1, replicas.size()] 之内
+     * @param token 被取消时放弃整个调用并取消全部副本
+     * @return 最先成功的 quorum 个结果，按完成的先后顺序
+     * @throws QuorumException 失败的副本多到不可能凑齐 quorum
+     * @throws InterruptedException 等待期间调用线程被中断，此时全部副本已被取消
+     * @throws CancellationException token 被取消
+     */
+    public List<V> call(@Nonnull List<? extends Callable<V>> replicas, int quorum, @Nonnull CancellationToken token)
+            throws QuorumException, InterruptedException, CancellationException {
+        Preconditions.checkNotNull(replicas, "replicas may not be null");
+        Preconditions.checkNotNull(token, "token may not be null");
+        Preconditions.checkArgument(quorum >= 1 && quorum <= replicas.size(),
+                "quorum must be in [1, %s] but is %s", replicas.size(), quorum);
+        token.throwIfCancellationRequested();
+
+        final Round<V> round = new Round<V>(replicas.size(), quorum);
+        for (int i = 0; i < replicas.size(); i++) {
+            round.tasks.add(newReplicaTask(round, i, Preconditions.checkNotNull(replicas.get(i), "replica may not be null")));
+        }
+        CancellationRegistration registration = token.onCancel(new Runnable() {
+            public void run() {
+                round.abort();
+            }
+        });
+        try {
+            for (FutureTask<Void> task : round.tasks) {
+                executor.execute(task);
+            }
+            round.await();
+        } finally {
+            // 长期存在的 token 不再持有已结束的本轮
+            registration.unregister();
+            round.cancelRemaining(-1);
+        }
+        return round.result();
+    }
+
+    private FutureTask<Void> newReplicaTask(final Round<V> round, final int index, final Callable<V> replica) {
+        final CancellationSource source = CancellationSource.newSource();
+        round.sources.add(source);
+        return new FutureTask<Void>(new Runnable() {
+            public void run() {
+                RetryOutcome<V> outcome;
+                try {
+                    outcome = retryer.tryCall(replica, source.getToken());
+                } catch (CancellationException e) {
+                    // 开始前已被取消，本轮已经结束
+                    return;
+                } catch (RuntimeException e) {
+                    outcome = unexpectedFailure(e);
+                } catch (Error e) {
+                    outcome = unexpectedFailure(e);
+                }
+                round.complete(index, outcome);
+            }
+        }, null);
+    }
+
+    /**
+     * 监听器或策略本身抛出的异常同样计为副本失败
+     */
+    private static <V> RetryOutcome<V> unexpectedFailure(Throwable t) {
+        return new RetryOutcome<V>(RetryOutcome.Status.FAILED, Attempts.<V>newExceptionAttempt(t, 1L, 0L), 1,
+                new RetryStats(1L, 0L, 0L, 0L, 0L));
+    }
+
+    /**
+     * 一次 quorum 调用的状态，完成判定在锁内，取消其余副本在锁外
+     */
+    @ThreadSafe
+    private static final class Round<V> {
+        private final int replicas;
+        private final int quorum;
+        private final List<CancellationSource> sources;
+        private final List<FutureTask<Void>> tasks;
+        private final CountDownLatch done = new CountDownLatch(1);
+        @GuardedBy("this")
+        private final List<V> results;
+        @GuardedBy("this")
+        private final List<RetryOutcome<?>> failures = new ArrayList<RetryOutcome<?>>();
+        @GuardedBy("this")
+        private boolean finished;
+        @GuardedBy("this")
+        private boolean aborted;
+
+        Round(int replicas, int quorum) {
+            this.replicas = replicas;
+            this.quorum = quorum;
+            this.sources = new ArrayList<CancellationSource>(replicas);
+            this.tasks = new ArrayList<FutureTask<Void>>(replicas);
+            this.results = new ArrayList<V>(quorum);
+        }
+
+        void complete(int index, RetryOutcome<V> outcome) {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                if (outcome.isSuccess()) {
+                    results.add(outcome.getValue());
+                } else {
+                    failures.add(outcome);
+                }
+                if (results.size() < quorum && replicas - failures.size() >= quorum) {
+                    return;
+                }
+                finished = true;
+            }
+            done.countDown();
+            cancelRemaining(index);
+        }
+
+        void abort() {
+            synchronized (this) {
+                if (finished) {
+                    return;
+                }
+                finished = true;
+                aborted = true;
+            }
+            done.countDown();
+            cancelRemaining(-1);
+        }
+
+        void await() throws InterruptedException {
+            done.await();
+        }
+
+        /**
+         * @param except 不取消的副本，即调用此方法的副本自身
+         */
+        void cancelRemaining(int except) {
+            for (int i = 0; i < sources.size(); i++) {
+                if (i != except) {
+                    sources.get(i).cancel();
+                    tasks.get(i).cancel(true);
+                }
+            }
+        }
+
+        synchronized List<V> result() throws QuorumException, CancellationException {
+            if (aborted) {
+                throw new CancellationException("quorum call cancelled");
+            }
+            if (results.size() < quorum) {
+                throw new QuorumException(quorum, replicas, results.size(), new ArrayList<RetryOutcome<?>>(failures));
+            }
+            return new ArrayList<V>(results);
+        }
+    }
+}
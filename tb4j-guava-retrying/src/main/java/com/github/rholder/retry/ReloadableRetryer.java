@@ -0,0 +1,101 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.policy.RetryPolicies;
+import com.github.rholder.retry.policy.RetryPolicy;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 策略可热更新的 {@link Retryer}
+ * 当前策略保存在一个不可变快照中，每次调用只做一次 volatile 读；{@link #update(RetryPolicy)} 原子替换快照，
+ * 已在进行中的调用继续使用旧策略，之后的调用使用新策略。通过 {@link RetryerBuilder#buildReloadable(RetryPolicy)} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 15:02:33
+ */
+@ThreadSafe
+public final class ReloadableRetryer<V> {
+
+    private final RetryerBuilder<V> template;
+    private volatile Snapshot<V> snapshot;
+
+    ReloadableRetryer(RetryerBuilder<V> template, RetryPolicy policy) {
+        this.template = template;
+        this.snapshot = new Snapshot<V>(policy, template.build(policy));
+    }
+
+    /**
+     * @see Retryer#call(Callable)
+     */
+    public V call(Callable<V> callable) throws ExecutionException, RetryException {
+        return snapshot.retryer.call(callable);
+    }
+
+    /**
+     * @see Retryer#tryCall(Callable)
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable) {
+        return snapshot.retryer.tryCall(callable);
+    }
+
+    /**
+     * @see Retryer#call(Callable, CancellationToken)
+     */
+    public V call(Callable<V> callable, @Nonnull CancellationToken token) throws ExecutionException, RetryException {
+        return snapshot.retryer.call(callable, token);
+    }
+
+    /**
+     * @see Retryer#tryCall(Callable, CancellationToken)
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable, @Nonnull CancellationToken token) {
+        return snapshot.retryer.tryCall(callable, token);
+    }
+
+    /**
+     * 替换当前策略
+     */
+    public void update(@Nonnull RetryPolicy policy) {
+        Preconditions.checkNotNull(policy, "policy may not be null");
+        snapshot = new Snapshot<V>(policy, template.build(policy));
+    }
+
+    /**
+     * 解析规格并替换当前策略，timeout 沿用当前策略的执行器
+     * @throws IllegalArgumentException 规格非法，此时策略不变
+     * @see RetryPolicies#parse(String)
+     */
+    public void update(@Nonnull String spec) throws IllegalArgumentException {
+        update(RetryPolicies.parse(spec).withTimeLimitExecutorOf(snapshot.policy));
+    }
+
+    public RetryPolicy getPolicy() {
+        return snapshot.policy;
+    }
+
+    /**
+     * @return 当前策略对应的 {@link Retryer}
+     */
+    public Retryer<V> getRetryer() {
+        return snapshot.retryer;
+    }
+
+    @Immutable
+    private static final class Snapshot<V> {
+        private final RetryPolicy policy;
+        private final Retryer<V> retryer;
+
+        Snapshot(RetryPolicy policy, Retryer<V> retryer) {
+            this.policy = policy;
+            this.retryer = retryer;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.BlockStrategies;
+import com.github.rholder.retry.cancel.CancellableCallable;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiters;
+import com.github.rholder.retry.tracing.RetryTracer;
+import com.github.rholder.retry.tracing.RetryTracers;
+import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+
+/**
+ * Function: 以 Guava {@link Predicate}、{@link Ticker} 配置的重试器
+ * 重试循环、监听器、attempt历史、追踪与取消都由 core 的 {@link com.github.rholder.retry.core.Retryer} 实现，
+ * 这里只把 Guava 类型转换后委托给它。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2022/4/18 16:55:53
+ */
+public final class Retryer<V> {
+
+    private final com.github.rholder.retry.core.Retryer<V> delegate;
+
+    public Retryer(@Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate) {
+
+        this(AttemptTimeLimiters.<V>noTimeLimit(), stopStrategy, waitStrategy, BlockStrategies.threadSleepStrategy(), rejectionPredicate);
+    }
+
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, BlockStrategies.threadSleepStrategy(), rejectionPredicate);
+    }
+
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy, rejectionPredicate, new ArrayList<RetryListener>());
+    }
+    @Beta
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull Collection<RetryListener> listeners) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy, rejectionPredicate, listeners, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker 计时来源，attempt 的延迟以及基于延迟的停止策略都以它为准
+     */
+    @Beta
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull Collection<RetryListener> listeners,
+                   @Nonnull Ticker ticker) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy, rejectionPredicate, listeners, ticker, 0);
+    }
+
+    /**
+     * @param attemptHistoryCapacity 每次调用保留的attempt历史条数，见 {@link DetailedAttempt#getHistory()}
+     */
+    @Beta
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull Collection<RetryListener> listeners,
+                   @Nonnull Ticker ticker,
+                   int attemptHistoryCapacity) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy, rejectionPredicate, listeners, ticker, attemptHistoryCapacity, null);
+    }
+
+    /**
+     * @param tracer 追踪，为 null 或 {@link RetryTracers#noop()} 时不追踪
+     */
+    @Beta
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull Collection<RetryListener> listeners,
+                   @Nonnull Ticker ticker,
+                   int attemptHistoryCapacity,
+                   @Nullable RetryTracer tracer) {
+        Preconditions.checkNotNull(rejectionPredicate, "rejectionPredicate may not be null");
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        this.delegate = new com.github.rholder.retry.core.Retryer<V>(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy,
+                rejectionPredicate, GuavaAdapters.nanoClock(ticker), listeners, attemptHistoryCapacity, tracer);
+    }
+
+    /**
+     * 由 {@link RetryerBuilder} 创建，配置已由 core 的 builder 解析
+     */
+    Retryer(com.github.rholder.retry.core.Retryer<V> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     *  当执行时命中拒绝策略,停止策略用于决定是否进行重试，等待策略用于决定等待时间
+     */
+    public V call(Callable<V> callable) throws ExecutionException, RetryException {
+        return delegate.call(callable);
+    }
+
+    /**
+     * 与 {@link #call(Callable)} 相同，token 被取消时立即结束等待并不再开始新的attempt
+     * @throws CancellationException 重试因 token 被取消或到期而结束
+     */
+    public V call(Callable<V> callable, @Nonnull CancellationToken token)
+            throws ExecutionException, RetryException, CancellationException {
+        return delegate.call(callable, token);
+    }
+
+    /**
+     * 与 {@link #call(Callable, CancellationToken)} 相同，token 同时传给每次attempt供其主动检查
+     */
+    public V call(CancellableCallable<V> callable, @Nonnull CancellationToken token)
+            throws ExecutionException, RetryException, CancellationException {
+        return delegate.call(callable, token);
+    }
+
+    /**
+     * 与 {@link #call(Callable)} 相同，但以 {@link RetryOutcome} 返回结果或最终失败而不抛出异常，
+     * 热点循环中重试耗尽时不必构造和展开异常
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable) {
+        return delegate.tryCall(callable);
+    }
+
+    /**
+     * 与 {@link #tryCall(Callable)} 相同，token 被取消时以 {@link RetryOutcome.Status#CANCELLED} 结束
+     * @throws CancellationException 调用开始前 token 已被取消，此时还没有任何attempt
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable, @Nonnull CancellationToken token) throws CancellationException {
+        return delegate.tryCall(callable, token);
+    }
+
+    /**
+     * @see #tryCall(Callable, CancellationToken)
+     */
+    public RetryOutcome<V> tryCall(CancellableCallable<V> callable, @Nonnull CancellationToken token) throws CancellationException {
+        return delegate.tryCall(callable, token);
+    }
+
+    /**
+     * 在 executor 上执行重试；返回的 future 被取消时一并取消重试，等待中的重试立即结束，
+     * 而不是像直接提交 {@link #wrap(Callable)} 那样只能依靠中断
+     */
+    public Future<V> submit(@Nonnull Executor executor, Callable<V> callable) {
+        return delegate.submit(executor, callable);
+    }
+
+    /**
+     * 封装callable成RetryerCallable
+     */
+    public RetryerCallable<V> wrap(Callable<V> callable) {
+        return new RetryerCallable<V>(delegate.wrap(callable));
+    }
+
+    /**
+     * A {@link Callable} which wraps another {@link Callable} in order to add
+     * retrying behavior from a given {@link Retryer} instance.
+     *
+     * @author JB
+     */
+    public static class RetryerCallable<X> implements Callable<X> {
+        private final com.github.rholder.retry.core.Retryer.RetryerCallable<X> delegate;
+
+        private RetryerCallable(com.github.rholder.retry.core.Retryer.RetryerCallable<X> delegate) {
+            this.delegate = delegate;
+        }
+
+        /**
+         * Makes the enclosing retryer call the wrapped callable.
+         *
+         * @see Retryer#call(Callable, CancellationToken)
+         */
+        public X call() throws ExecutionException, RetryException {
+            return delegate.call();
+        }
+
+        /**
+         * 取消进行中以及之后的调用，见 {@link CancellationSource#cancel()}
+         */
+        public void cancel() {
+            delegate.cancel();
+        }
+
+        public CancellationToken getCancellationToken() {
+            return delegate.getCancellationToken();
+        }
+    }
+}
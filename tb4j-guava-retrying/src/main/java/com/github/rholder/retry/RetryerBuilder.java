@@ -0,0 +1,411 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.budget.RetryBudget;
+import com.github.rholder.retry.bulk.BulkConfig;
+import com.github.rholder.retry.bulk.BulkRetryer;
+import com.github.rholder.retry.deadletter.DeadLetterRetryer;
+import com.github.rholder.retry.deadletter.DeadLetterSink;
+import com.github.rholder.retry.failover.EndpointPool;
+import com.github.rholder.retry.failover.FailoverRetryer;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.policy.RetryPolicy;
+import com.github.rholder.retry.primitive.BooleanRetryer;
+import com.github.rholder.retry.primitive.IntRetryer;
+import com.github.rholder.retry.primitive.LongRetryer;
+import com.github.rholder.retry.primitive.VoidRetryer;
+import com.github.rholder.retry.schedule.AttemptSchedule;
+import com.github.rholder.retry.scheduler.BatchDispatcherConfig;
+import com.github.rholder.retry.scheduler.BatchFunction;
+import com.github.rholder.retry.scheduler.BatchRetryDispatcher;
+import com.github.rholder.retry.scheduler.RetryExecutor;
+import com.github.rholder.retry.scheduler.RetryExecutorConfig;
+import com.github.rholder.retry.scheduler.TenantRetryScheduler;
+import com.github.rholder.retry.scheduler.TenantSchedulerConfig;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.tracing.RetryTracer;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+/**
+ * Function: 配置和创建 {@link Retryer}.
+ * 配置保存在 core 的 {@link com.github.rholder.retry.core.RetryerBuilder} 中，这里只转换 Guava 的 Predicate、Ticker，
+ * 并从同一份配置创建异步、调度、基本类型等其他重试器。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2022/4/18 16:46:35
+ */
+public class RetryerBuilder<V> {
+
+    private static final LongPredicate NEVER_LONG = new LongPredicate() {
+        public boolean test(long value) {
+            return false;
+        }
+    };
+    private static final IntPredicate NEVER_INT = new IntPredicate() {
+        public boolean test(int value) {
+            return false;
+        }
+    };
+
+    private final com.github.rholder.retry.core.RetryerBuilder<V> delegate;
+    /**
+     * 异步、调度类重试器使用 Guava Ticker，保留原对象；core 中使用的是由它转换的纳秒时钟
+     */
+    private Ticker ticker;
+    private long asyncAttemptTimeoutNanos = -1L;
+
+    private RetryerBuilder(com.github.rholder.retry.core.RetryerBuilder<V> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     *
+     * @param <V>
+     * @return
+     * @Study <V>返回值前加：
+     *      Class<T>中的方法是在new一个对象出来的时候指定的,
+     *      而静态方法其实不需要new一个对象就可以直接使用，
+     *      这个时候用Class.静态方法（会报错无法从静态上下文引用）,那么这个泛型到底是什么类型呢？
+     *      所以只能用 public static <T> void test 这种方式提前定义好泛型
+     */
+    public static <V> RetryerBuilder<V> newBuilder() {
+        return new RetryerBuilder<V>(com.github.rholder.retry.core.RetryerBuilder.<V>newBuilder());
+    }
+
+    /**
+     * 添加监听器
+     */
+    public RetryerBuilder<V> withRetryListener(@Nonnull RetryListener listener) {
+        delegate.withRetryListener(listener);
+        return this;
+    }
+
+    public RetryerBuilder<V> withWaitStrategy(@Nonnull WaitStrategy waitStrategy) throws IllegalStateException {
+        delegate.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    public RetryerBuilder<V> withStopStrategy(@Nonnull StopStrategy stopStrategy) throws IllegalStateException {
+        delegate.withStopStrategy(stopStrategy);
+        return this;
+    }
+
+    public RetryerBuilder<V> withBlockStrategy(@Nonnull BlockStrategy blockStrategy) throws IllegalStateException {
+        delegate.withBlockStrategy(blockStrategy);
+        return this;
+    }
+
+    /**
+     * 重试预算：停止策略允许重试时，还需从预算中取得重试机会
+     */
+    public RetryerBuilder<V> withRetryBudget(@Nonnull RetryBudget retryBudget) throws IllegalStateException {
+        delegate.withRetryBudget(retryBudget);
+        return this;
+    }
+
+    /**
+     * 计时来源，默认 {@link Ticker#systemTicker()}；
+     * 若 ticker 同时是 {@link BlockStrategy}(如 {@link com.github.rholder.retry.time.ManualTicker})且未设置阻塞策略，则同时作为阻塞策略
+     */
+    public RetryerBuilder<V> withTicker(@Nonnull Ticker ticker) throws IllegalStateException {
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkState(this.ticker == null, "a ticker has already been set %s", this.ticker);
+        delegate.withNanoClock(GuavaAdapters.nanoClock(ticker));
+        this.ticker = ticker;
+        return this;
+    }
+
+    /**
+     * 追踪每次调用、attempt与等待，见 {@link RetryTracer}；默认不追踪。
+     * 只能设置一次，多个 tracer 用 {@link com.github.rholder.retry.tracing.RetryTracers#composite(RetryTracer...)} 组合
+     */
+    public RetryerBuilder<V> withRetryTracer(@Nonnull RetryTracer tracer) throws IllegalStateException {
+        delegate.withRetryTracer(tracer);
+        return this;
+    }
+
+    /**
+     * 每次调用保留最近 capacity 次attempt的历史，策略可通过 {@link DetailedAttempt#getHistory()} 读取
+     */
+    public RetryerBuilder<V> withAttemptHistory(int capacity) throws IllegalStateException {
+        delegate.withAttemptHistory(capacity);
+        return this;
+    }
+
+    /**
+     * 使用时间表作为等待策略；时间表设置了终止attempt时同时作为停止策略
+     * @throws IllegalArgumentException 时间表包含超时，需使用 {@link #withAttemptSchedule(AttemptSchedule, ExecutorService)}
+     */
+    public RetryerBuilder<V> withAttemptSchedule(@Nonnull AttemptSchedule schedule) throws IllegalStateException, IllegalArgumentException {
+        delegate.withAttemptSchedule(schedule);
+        return this;
+    }
+
+    /**
+     * 使用时间表作为等待、停止策略，并按时间表限制各次attempt的执行时间，
+     * 见 {@link com.github.rholder.retry.core.AttemptTimeLimiters#scheduledTimeLimit(AttemptSchedule, ExecutorService)}
+     */
+    public RetryerBuilder<V> withAttemptSchedule(@Nonnull AttemptSchedule schedule, @Nonnull ExecutorService executorService) throws IllegalStateException {
+        delegate.withAttemptSchedule(schedule, executorService);
+        return this;
+    }
+
+    public RetryerBuilder<V> withAttemptTimeLimiter(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter) {
+        delegate.withAttemptTimeLimiter(attemptTimeLimiter);
+        return this;
+    }
+
+    /**
+     * {@link AsyncRetryer} 的单次attempt超时，由调度器触发而不占用线程；仅作用于 {@link #buildAsync(ScheduledExecutorService)}
+     */
+    public RetryerBuilder<V> withAsyncAttemptTimeout(long duration, @Nonnull TimeUnit timeUnit) throws IllegalStateException {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkArgument(duration >= 0L, "duration must be >= 0 but is %d", duration);
+        Preconditions.checkState(asyncAttemptTimeoutNanos < 0L, "an async attempt timeout has already been set");
+        this.asyncAttemptTimeoutNanos = timeUnit.toNanos(duration);
+        return this;
+    }
+
+    public RetryerBuilder<V> retryIfException() {
+        delegate.retryIfException();
+        return this;
+    }
+
+    public RetryerBuilder<V> retryIfRuntimeException() {
+        delegate.retryIfRuntimeException();
+        return this;
+    }
+
+    public RetryerBuilder<V> retryIfExceptionOfType(@Nonnull Class<? extends Throwable> exceptionClass) {
+        delegate.retryIfExceptionOfType(exceptionClass);
+        return this;
+    }
+
+    /**
+     * Guava 的 Predicate 同时是 java.util.function.Predicate，直接交给 core
+     */
+    public RetryerBuilder<V> retryIfException(@Nonnull Predicate<Throwable> exceptionPredicate) {
+        delegate.retryIfException(exceptionPredicate);
+        return this;
+    }
+
+    public RetryerBuilder<V> retryIfResult(@Nonnull Predicate<V> resultPredicate) {
+        delegate.retryIfResult(resultPredicate);
+        return this;
+    }
+
+    public Retryer<V> build() {
+        return new Retryer<V>(delegate.build());
+    }
+
+    /**
+     * 创建 {@link FailoverRetryer}，每次attempt由 pool 选择端点；retryIfResult 等判定要求重试的结果同样计为端点失败
+     */
+    public <E> FailoverRetryer<E, V> buildFailover(@Nonnull EndpointPool<E> pool) {
+        Preconditions.checkNotNull(pool, "pool may not be null");
+        return new FailoverRetryer<E, V>(build(), pool, effectiveTicker(), rejectionPredicate());
+    }
+
+    /**
+     * 创建 {@link QuorumRetryer}，各副本在 executor 上按 {@link #build()} 的策略独立重试
+     */
+    public QuorumRetryer<V> buildQuorum(@Nonnull Executor executor) {
+        Preconditions.checkNotNull(executor, "executor may not be null");
+        return new QuorumRetryer<V>(build(), executor);
+    }
+
+    /**
+     * 创建 {@link BulkRetryer}，各元素在 executor 上按 {@link #build()} 的策略独立重试
+     */
+    public BulkRetryer<V> buildBulk(@Nonnull Executor executor, @Nonnull BulkConfig config) {
+        Preconditions.checkNotNull(executor, "executor may not be null");
+        return new BulkRetryer<V>(build(), executor, config);
+    }
+
+    /**
+     * 创建 {@link DeadLetterRetryer}，失败调用的输入交给 sink
+     */
+    public <T> DeadLetterRetryer<T, V> buildDeadLetter(@Nonnull DeadLetterSink<? super T> sink) {
+        Preconditions.checkNotNull(sink, "sink may not be null");
+        return new DeadLetterRetryer<T, V>(build(), sink);
+    }
+
+    /**
+     * 创建 {@link AsyncRetryer}，等待与单次attempt超时由 scheduler 调度；阻塞策略不参与异步重试
+     * @throws IllegalStateException 设置了基于线程的 {@link AttemptTimeLimiter}(异步场景应使用 {@link #withAsyncAttemptTimeout(long, TimeUnit)})、
+     * 追踪或attempt历史，它们只由 {@link Retryer} 实现
+     */
+    public AsyncRetryer<V> buildAsync(@Nonnull ScheduledExecutorService scheduler) throws IllegalStateException {
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        delegate.checkRetryerOnly("AsyncRetryer");
+        return new AsyncRetryer<V>(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), rejectionPredicate(),
+                delegate.buildListeners(), effectiveTicker(), scheduler, asyncAttemptTimeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 创建有界、按优先级调度的 {@link RetryExecutor}，等待由 scheduler 调度，attempt 在 config 指定的线程池上执行
+     * @throws IllegalStateException 设置了 RetryExecutor 不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public RetryExecutor<V> buildExecutor(@Nonnull ScheduledExecutorService scheduler, @Nonnull RetryExecutorConfig config)
+            throws IllegalStateException {
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        checkScheduled("RetryExecutor");
+        return new RetryExecutor<V>(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), rejectionPredicate(),
+                delegate.buildListeners(), effectiveTicker(), scheduler, config);
+    }
+
+    /**
+     * 创建按租户加权公平调度的 {@link TenantRetryScheduler}，等待由 scheduler 调度，attempt 在 config 指定的线程池上执行
+     * @throws IllegalStateException 设置了 TenantRetryScheduler 不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public <K> TenantRetryScheduler<K, V> buildTenantScheduler(@Nonnull ScheduledExecutorService scheduler,
+                                                               @Nonnull TenantSchedulerConfig<K> config) throws IllegalStateException {
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        checkScheduled("TenantRetryScheduler");
+        return new TenantRetryScheduler<K, V>(delegate.buildStopStrategy(), delegate.buildWaitStrategy(),
+                rejectionPredicate(), delegate.buildListeners(), effectiveTicker(), scheduler, config);
+    }
+
+    /**
+     * 创建把同时到期的attempt合并为批量调用的 {@link BatchRetryDispatcher}，等待与 linger 由 scheduler 调度
+     * @throws IllegalStateException 设置了 BatchRetryDispatcher 不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public <T> BatchRetryDispatcher<T, V> buildBatchDispatcher(@Nonnull ScheduledExecutorService scheduler,
+                                                               @Nonnull BatchFunction<T, V> function,
+                                                               @Nonnull BatchDispatcherConfig config) throws IllegalStateException {
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        checkScheduled("BatchRetryDispatcher");
+        return new BatchRetryDispatcher<T, V>(delegate.buildStopStrategy(), delegate.buildWaitStrategy(),
+                rejectionPredicate(), delegate.buildListeners(), effectiveTicker(), scheduler, function, config);
+    }
+
+    /**
+     * 创建结果为 long、只按异常重试的 {@link LongRetryer}
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public LongRetryer buildLong() throws IllegalStateException {
+        return buildLong(NEVER_LONG);
+    }
+
+    /**
+     * 创建结果为 long 的 {@link LongRetryer}，全程不装箱
+     * @param resultPredicate 结果满足时重试
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public LongRetryer buildLong(@Nonnull LongPredicate resultPredicate) throws IllegalStateException {
+        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+        checkScheduled("LongRetryer");
+        return new LongRetryer(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), delegate.buildBlockStrategy(),
+                exceptionPredicate(), delegate.buildListeners(), effectiveTicker(), resultPredicate);
+    }
+
+    /**
+     * 创建结果为 int、只按异常重试的 {@link IntRetryer}
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public IntRetryer buildInt() throws IllegalStateException {
+        return buildInt(NEVER_INT);
+    }
+
+    /**
+     * 创建结果为 int 的 {@link IntRetryer}，全程不装箱
+     * @param resultPredicate 结果满足时重试
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public IntRetryer buildInt(@Nonnull IntPredicate resultPredicate) throws IllegalStateException {
+        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+        checkScheduled("IntRetryer");
+        return new IntRetryer(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), delegate.buildBlockStrategy(),
+                exceptionPredicate(), delegate.buildListeners(), effectiveTicker(), resultPredicate);
+    }
+
+    /**
+     * 创建结果为 boolean、只按异常重试的 {@link BooleanRetryer}
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public BooleanRetryer buildBoolean() throws IllegalStateException {
+        checkScheduled("BooleanRetryer");
+        return new BooleanRetryer(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), delegate.buildBlockStrategy(),
+                exceptionPredicate(), delegate.buildListeners(), effectiveTicker(), null);
+    }
+
+    /**
+     * 创建结果为 boolean 的 {@link BooleanRetryer}
+     * @param retryOn 结果等于该值时重试，如轮询直至 true 时传入 false
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public BooleanRetryer buildBoolean(boolean retryOn) throws IllegalStateException {
+        checkScheduled("BooleanRetryer");
+        return new BooleanRetryer(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), delegate.buildBlockStrategy(),
+                exceptionPredicate(), delegate.buildListeners(), effectiveTicker(), retryOn);
+    }
+
+    /**
+     * 创建无返回值、只按异常重试的 {@link VoidRetryer}
+     * @throws IllegalStateException 设置了基本类型重试器不支持的配置，见 {@link #checkScheduled(String)}
+     */
+    public VoidRetryer buildVoid() throws IllegalStateException {
+        checkScheduled("VoidRetryer");
+        return new VoidRetryer(delegate.buildStopStrategy(), delegate.buildWaitStrategy(), delegate.buildBlockStrategy(),
+                exceptionPredicate(), delegate.buildListeners(), effectiveTicker());
+    }
+
+    /**
+     * 创建可热更新策略的 {@link ReloadableRetryer}，停止、等待策略与单次attempt超时由 policy 提供，
+     * 其余配置(判定条件、监听器、阻塞策略等)在此刻固定
+     * @throws IllegalStateException 已通过本 builder 设置了停止策略、等待策略或时间限制器
+     */
+    public ReloadableRetryer<V> buildReloadable(@Nonnull RetryPolicy policy) throws IllegalStateException {
+        Preconditions.checkNotNull(policy, "policy may not be null");
+        RetryerBuilder<V> template = new RetryerBuilder<V>(delegate.copy());
+        template.ticker = ticker;
+        return new ReloadableRetryer<V>(template, policy);
+    }
+
+    /**
+     * 使用 policy 中的策略创建 {@link Retryer}
+     * @throws IllegalStateException 已通过本 builder 设置了停止策略、等待策略或时间限制器
+     */
+    Retryer<V> build(RetryPolicy policy) throws IllegalStateException {
+        return new Retryer<V>(delegate.build(policy.getStopStrategy(), policy.getWaitStrategy(), policy.<V>newAttemptTimeLimiter()));
+    }
+
+    /**
+     * scheduler 包中的调度器与 primitive 包中的基本类型重试器自行执行attempt，不经过 {@link Retryer}，因此不支持
+     * 时间限制器、追踪、attempt历史与异步attempt超时，设置了这些配置时报错而不是静默忽略
+     * @param target 创建的重试器名称，用于错误信息
+     */
+    private void checkScheduled(String target) throws IllegalStateException {
+        delegate.checkRetryerOnly(target);
+        Preconditions.checkState(asyncAttemptTimeoutNanos < 0L, "an async attempt timeout is not supported by %s", target);
+    }
+
+    /**
+     * 基本类型重试器的结果按类型判定，retryIf 条件只对抛出异常的attempt求值，retryIfResult 不作用于它们
+     */
+    @SuppressWarnings("unchecked")
+    private Predicate<Attempt<?>> exceptionPredicate() {
+        return (Predicate) rejectionPredicate();
+    }
+
+    private Predicate<Attempt<V>> rejectionPredicate() {
+        return GuavaAdapters.predicate(delegate.buildRejectionPredicate());
+    }
+
+    private Ticker effectiveTicker() {
+        return ticker == null ? Ticker.systemTicker() : ticker;
+    }
+}
@@ -0,0 +1,381 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.budget.RetryBudget;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.policy.RetryPolicies;
+import com.github.rholder.retry.policy.RetryPolicy;
+import com.github.rholder.retry.tracing.RetryTracer;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Function: 按名称管理 {@link ReloadableRetryer}
+ * 首次按名称获取时用默认策略(或该名称的覆盖策略)懒加载创建，之后的获取只有一次 map 读；
+ * 所有 retryer 共享同一个单次attempt超时线程池、监听器、阻塞策略与重试预算，并按名称统计调用指标。
+ *
+ * <pre>
+ * RetryerRegistry registry = RetryerRegistry.newBuilder()
+ *         .withDefaultPolicy("stopAfterAttempt=3,exponentialWait=50ms..2s,jitter=full")
+ *         .withPolicy("payment", "stopAfterAttempt=5,timeout=500ms")
+ *         .build();
+ * registry.&lt;Order&gt;retryer("payment").call(callable);
+ * </pre>
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 15:46:10
+ */
+@ThreadSafe
+public final class RetryerRegistry {
+
+    private final ConcurrentMap<String, ReloadableRetryer<Object>> retryers = new ConcurrentHashMap<String, ReloadableRetryer<Object>>();
+    private final ConcurrentMap<String, RetryPolicy> overrides;
+    private final ConcurrentMap<String, RetryerMetrics> metrics = new ConcurrentHashMap<String, RetryerMetrics>();
+    private final RetryPolicy defaultPolicy;
+    private final List<Predicate<Throwable>> exceptionPredicates;
+    private final List<Predicate<Object>> resultPredicates;
+    private final List<RetryListener> listeners;
+    private final BlockStrategy blockStrategy;
+    private final RetryBudget retryBudget;
+    private final Ticker ticker;
+    private final RetryTracer tracer;
+    private final boolean ownsTimeLimitExecutor;
+    private volatile ExecutorService timeLimitExecutor;
+    private volatile boolean shutdown;
+    private final Function<String, ReloadableRetryer<Object>> factory = new Function<String, ReloadableRetryer<Object>>() {
+        public ReloadableRetryer<Object> apply(String name) {
+            return create(name);
+        }
+    };
+
+    private RetryerRegistry(RegistryBuilder builder) {
+        this.defaultPolicy = builder.defaultPolicy;
+        this.overrides = new ConcurrentHashMap<String, RetryPolicy>(builder.policies);
+        this.exceptionPredicates = ImmutableList.copyOf(builder.exceptionPredicates);
+        this.resultPredicates = ImmutableList.copyOf(builder.resultPredicates);
+        this.listeners = ImmutableList.copyOf(builder.listeners);
+        this.blockStrategy = builder.blockStrategy;
+        this.retryBudget = builder.retryBudget;
+        this.ticker = builder.ticker;
+        this.tracer = builder.tracer;
+        this.timeLimitExecutor = builder.timeLimitExecutor;
+        this.ownsTimeLimitExecutor = builder.timeLimitExecutor == null;
+    }
+
+    public static RegistryBuilder newBuilder() {
+        return new RegistryBuilder();
+    }
+
+    /**
+     * 获取或懒加载创建指定名称的 retryer
+     * @throws IllegalStateException 注册表已经 {@link #shutdown()}，且该名称的 retryer 尚未创建
+     */
+    @SuppressWarnings("unchecked")
+    public <V> ReloadableRetryer<V> retryer(@Nonnull String name) throws IllegalStateException {
+        Preconditions.checkNotNull(name, "name may not be null");
+        ReloadableRetryer<Object> retryer = retryers.get(name);
+        if (retryer == null) {
+            retryer = retryers.computeIfAbsent(name, factory);
+        }
+        return (ReloadableRetryer<V>) (ReloadableRetryer<?>) retryer;
+    }
+
+    /**
+     * 更新指定名称的策略；已创建的 retryer 立即生效，未创建的在创建时使用
+     * @throws IllegalArgumentException 规格非法，此时策略不变
+     */
+    public void update(@Nonnull String name, @Nonnull String spec) throws IllegalArgumentException {
+        Preconditions.checkNotNull(name, "name may not be null");
+        final RetryPolicy policy = RetryPolicies.parse(spec);
+        overrides.put(name, policy);
+        // 与正在进行的懒加载创建互斥，保证创建时读到旧策略的 retryer 也会被更新
+        retryers.computeIfPresent(name, new BiFunction<String, ReloadableRetryer<Object>, ReloadableRetryer<Object>>() {
+            public ReloadableRetryer<Object> apply(String key, ReloadableRetryer<Object> retryer) {
+                retryer.update(withSharedExecutor(policy));
+                return retryer;
+            }
+        });
+    }
+
+    /**
+     * @return 已创建的 retryer 名称
+     */
+    public Set<String> names() {
+        return ImmutableSet.copyOf(retryers.keySet());
+    }
+
+    /**
+     * @return 已创建的 retryer 当前使用的策略
+     */
+    public Map<String, RetryPolicy> policies() {
+        Map<String, RetryPolicy> policies = new LinkedHashMap<String, RetryPolicy>();
+        for (Map.Entry<String, ReloadableRetryer<Object>> entry : retryers.entrySet()) {
+            policies.put(entry.getKey(), entry.getValue().getPolicy());
+        }
+        return ImmutableMap.copyOf(policies);
+    }
+
+    /**
+     * @return 指定名称的调用指标，未创建时为 null
+     */
+    public RetryerMetrics metrics(@Nonnull String name) {
+        return metrics.get(name);
+    }
+
+    public RetryPolicy getDefaultPolicy() {
+        return defaultPolicy;
+    }
+
+    /**
+     * 关闭由注册表自行创建的共享线程池；之后不再创建新的 retryer，已创建的仍可获取
+     */
+    public void shutdown() {
+        shutdown = true;
+        ExecutorService executor = timeLimitExecutor;
+        if (ownsTimeLimitExecutor && executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * 在 computeIfAbsent 中执行，与 shutdown 并发时抛出的异常不会留下映射
+     */
+    private ReloadableRetryer<Object> create(String name) {
+        Preconditions.checkState(!shutdown, "registry has been shut down, cannot create retryer %s", name);
+        RetryerMetrics retryerMetrics = new RetryerMetrics(name);
+        metrics.put(name, retryerMetrics);
+
+        RetryerBuilder<Object> builder = RetryerBuilder.newBuilder();
+        if (exceptionPredicates.isEmpty() && resultPredicates.isEmpty()) {
+            builder.retryIfException();
+        }
+        for (Predicate<Throwable> exceptionPredicate : exceptionPredicates) {
+            builder.retryIfException(exceptionPredicate);
+        }
+        for (Predicate<Object> resultPredicate : resultPredicates) {
+            builder.retryIfResult(resultPredicate);
+        }
+        for (RetryListener listener : listeners) {
+            builder.withRetryListener(listener);
+        }
+        builder.withRetryListener(retryerMetrics);
+        if (blockStrategy != null) {
+            builder.withBlockStrategy(blockStrategy);
+        }
+        if (retryBudget != null) {
+            builder.withRetryBudget(retryBudget);
+        }
+        if (ticker != null) {
+            builder.withTicker(ticker);
+        }
+        if (tracer != null) {
+            builder.withRetryTracer(tracer);
+        }
+        RetryPolicy policy = overrides.get(name);
+        return builder.buildReloadable(withSharedExecutor(policy == null ? defaultPolicy : policy));
+    }
+
+    private RetryPolicy withSharedExecutor(RetryPolicy policy) {
+        if (policy.getAttemptTimeoutMillis() < 0L) {
+            return policy;
+        }
+        return policy.withTimeLimitExecutor(timeLimitExecutor());
+    }
+
+    private ExecutorService timeLimitExecutor() {
+        ExecutorService executor = timeLimitExecutor;
+        if (executor == null) {
+            synchronized (this) {
+                executor = timeLimitExecutor;
+                if (executor == null) {
+                    executor = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                            .setNameFormat("retryer-registry-time-limit-%d")
+                            .setDaemon(true)
+                            .build());
+                    timeLimitExecutor = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Function: 按名称统计的调用指标
+     */
+    @ThreadSafe
+    public static final class RetryerMetrics implements RetryListener {
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder attempts = new LongAdder();
+        private final LongAdder failedAttempts = new LongAdder();
+
+        RetryerMetrics(String name) {
+            this.name = name;
+        }
+
+        public <V> void onRetry(Attempt<V> attempt) {
+            attempts.increment();
+            if (attempt.getAttemptNumber() == 1L) {
+                calls.increment();
+            }
+            if (attempt.hasException()) {
+                failedAttempts.increment();
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        public long getAttempts() {
+            return attempts.sum();
+        }
+
+        /**
+         * @return 重试次数，即除第一次以外的attempt数
+         */
+        public long getRetries() {
+            return attempts.sum() - calls.sum();
+        }
+
+        /**
+         * @return 抛出异常的attempt数
+         */
+        public long getFailedAttempts() {
+            return failedAttempts.sum();
+        }
+
+        @Override
+        public String toString() {
+            return name + "{calls=" + getCalls() + ", attempts=" + getAttempts() + ", failedAttempts=" + getFailedAttempts() + "}";
+        }
+    }
+
+    /**
+     * Function: 配置和创建 {@link RetryerRegistry}
+     */
+    public static final class RegistryBuilder {
+        private RetryPolicy defaultPolicy = RetryPolicies.parse("stopAfterAttempt=3");
+        private final Map<String, RetryPolicy> policies = new LinkedHashMap<String, RetryPolicy>();
+        private final List<Predicate<Throwable>> exceptionPredicates = new ArrayList<Predicate<Throwable>>();
+        private final List<Predicate<Object>> resultPredicates = new ArrayList<Predicate<Object>>();
+        private final List<RetryListener> listeners = new ArrayList<RetryListener>();
+        private BlockStrategy blockStrategy;
+        private RetryBudget retryBudget;
+        private Ticker ticker;
+        private RetryTracer tracer;
+        private ExecutorService timeLimitExecutor;
+
+        private RegistryBuilder() {
+        }
+
+        /**
+         * 默认策略，未单独配置的名称使用；默认 stopAfterAttempt=3
+         */
+        public RegistryBuilder withDefaultPolicy(@Nonnull String spec) {
+            this.defaultPolicy = RetryPolicies.parse(spec);
+            return this;
+        }
+
+        /**
+         * 指定名称的覆盖策略
+         */
+        public RegistryBuilder withPolicy(@Nonnull String name, @Nonnull String spec) {
+            Preconditions.checkNotNull(name, "name may not be null");
+            policies.put(name, RetryPolicies.parse(spec));
+            return this;
+        }
+
+        /**
+         * 异常重试条件；未配置任何条件时对所有 {@link Exception} 重试
+         */
+        public RegistryBuilder retryIfException(@Nonnull Predicate<Throwable> exceptionPredicate) {
+            Preconditions.checkNotNull(exceptionPredicate, "exceptionPredicate may not be null");
+            exceptionPredicates.add(exceptionPredicate);
+            return this;
+        }
+
+        public RegistryBuilder retryIfResult(@Nonnull Predicate<Object> resultPredicate) {
+            Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+            resultPredicates.add(resultPredicate);
+            return this;
+        }
+
+        /**
+         * 所有 retryer 共享的监听器
+         */
+        public RegistryBuilder withRetryListener(@Nonnull RetryListener listener) {
+            Preconditions.checkNotNull(listener, "listener may not be null");
+            listeners.add(listener);
+            return this;
+        }
+
+        public RegistryBuilder withBlockStrategy(@Nonnull BlockStrategy blockStrategy) {
+            Preconditions.checkNotNull(blockStrategy, "blockStrategy may not be null");
+            this.blockStrategy = blockStrategy;
+            return this;
+        }
+
+        /**
+         * 所有 retryer 共享的重试预算
+         */
+        public RegistryBuilder withRetryBudget(@Nonnull RetryBudget retryBudget) {
+            Preconditions.checkNotNull(retryBudget, "retryBudget may not be null");
+            this.retryBudget = retryBudget;
+            return this;
+        }
+
+        public RegistryBuilder withTicker(@Nonnull Ticker ticker) {
+            Preconditions.checkNotNull(ticker, "ticker may not be null");
+            this.ticker = ticker;
+            return this;
+        }
+
+        /**
+         * 所有 retryer 共享的追踪
+         */
+        public RegistryBuilder withRetryTracer(@Nonnull RetryTracer tracer) {
+            Preconditions.checkNotNull(tracer, "tracer may not be null");
+            this.tracer = tracer;
+            return this;
+        }
+
+        /**
+         * 所有 retryer 共享的单次attempt超时线程池；未设置时在首次需要时创建一个守护线程池
+         */
+        public RegistryBuilder withTimeLimitExecutor(@Nonnull ExecutorService executorService) {
+            Preconditions.checkNotNull(executorService, "executorService may not be null");
+            this.timeLimitExecutor = executorService;
+            return this;
+        }
+
+        public RetryerRegistry build() {
+            return new RetryerRegistry(this);
+        }
+    }
+}
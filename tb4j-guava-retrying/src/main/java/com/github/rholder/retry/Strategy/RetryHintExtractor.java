@@ -0,0 +1,24 @@
+package com.github.rholder.retry.Strategy;
+
+import com.github.rholder.retry.Attempt;
+
+/**
+ * Function: 从失败的attempt(结果或异常)中提取服务端给出的重试提示，如 Retry-After
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 09:12:40
+ */
+public interface RetryHintExtractor {
+
+    /**
+     * 无提示
+     */
+    long NO_HINT = -1L;
+
+    /**
+     * @param failedAttempt
+     * @return 服务端要求的最短等待时长，毫秒为单位；没有提示时返回 {@link #NO_HINT}
+     */
+    long extractHint(Attempt failedAttempt);
+}
@@ -0,0 +1,120 @@
+package com.github.rholder.retry.Strategy.factory;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.RetryHintExtractor;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.List;
+
+/**
+ * Function: factory for {@link RetryHintExtractor}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 09:20:13
+ */
+public final class RetryHintExtractors {
+
+    private RetryHintExtractors() {
+    }
+
+    /**
+     * 从指定类型的异常中提取提示，function 返回 null 表示无提示
+     */
+    public static <T extends Throwable> RetryHintExtractor fromException(@Nonnull Class<T> exceptionClass,
+                                                                        @Nonnull Function<T, Long> function) {
+        Preconditions.checkNotNull(exceptionClass, "exceptionClass may not be null");
+        Preconditions.checkNotNull(function, "function may not be null");
+        return new ExceptionHintExtractor<T>(exceptionClass, function);
+    }
+
+    /**
+     * 从指定类型的返回结果中提取提示，function 返回 null 表示无提示
+     */
+    public static <T> RetryHintExtractor fromResult(@Nonnull Class<T> resultClass,
+                                                    @Nonnull Function<T, Long> function) {
+        Preconditions.checkNotNull(resultClass, "resultClass may not be null");
+        Preconditions.checkNotNull(function, "function may not be null");
+        return new ResultHintExtractor<T>(resultClass, function);
+    }
+
+    /**
+     * 依次尝试，返回第一个有效提示
+     */
+    public static RetryHintExtractor firstOf(RetryHintExtractor... extractors) {
+        Preconditions.checkState(extractors.length > 0, "Must have at least one hint extractor");
+        List<RetryHintExtractor> extractorList = Lists.newArrayList(extractors);
+        Preconditions.checkState(!extractorList.contains(null), "Cannot have a null hint extractor");
+        return new FirstOfHintExtractor(extractorList);
+    }
+
+    private static long toHint(Long hint) {
+        return hint == null || hint < 0L ? RetryHintExtractor.NO_HINT : hint;
+    }
+
+    @Immutable
+    private static final class ExceptionHintExtractor<T extends Throwable> implements RetryHintExtractor {
+        private final Class<T> exceptionClass;
+        private final Function<T, Long> function;
+
+        public ExceptionHintExtractor(Class<T> exceptionClass, Function<T, Long> function) {
+            this.exceptionClass = exceptionClass;
+            this.function = function;
+        }
+
+        @SuppressWarnings("unchecked")
+        public long extractHint(Attempt failedAttempt) {
+            if (failedAttempt.hasException()) {
+                Throwable cause = failedAttempt.getExceptionCause();
+                if (exceptionClass.isInstance(cause)) {
+                    return toHint(function.apply((T) cause));
+                }
+            }
+            return NO_HINT;
+        }
+    }
+
+    @Immutable
+    private static final class ResultHintExtractor<T> implements RetryHintExtractor {
+        private final Class<T> resultClass;
+        private final Function<T, Long> function;
+
+        public ResultHintExtractor(Class<T> resultClass, Function<T, Long> function) {
+            this.resultClass = resultClass;
+            this.function = function;
+        }
+
+        public long extractHint(Attempt failedAttempt) {
+            if (failedAttempt.hasResult()) {
+                Object result = failedAttempt.getResult();
+                if (resultClass.isInstance(result)) {
+                    return toHint(function.apply(resultClass.cast(result)));
+                }
+            }
+            return NO_HINT;
+        }
+    }
+
+    @Immutable
+    private static final class FirstOfHintExtractor implements RetryHintExtractor {
+        private final List<RetryHintExtractor> extractors;
+
+        public FirstOfHintExtractor(List<RetryHintExtractor> extractors) {
+            this.extractors = extractors;
+        }
+
+        public long extractHint(Attempt failedAttempt) {
+            for (RetryHintExtractor extractor : extractors) {
+                long hint = extractor.extractHint(failedAttempt);
+                if (hint >= 0L) {
+                    return hint;
+                }
+            }
+            return NO_HINT;
+        }
+    }
+}
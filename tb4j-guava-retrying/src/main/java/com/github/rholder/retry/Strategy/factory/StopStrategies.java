@@ -0,0 +1,243 @@
+package com.github.rholder.retry.Strategy.factory;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.DetailedAttempt;
+import com.github.rholder.retry.Strategy.HistoryDependentStopStrategy;
+import com.github.rholder.retry.Strategy.RetryHintExtractor;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.saturation.SaturationMonitor;
+import com.google.common.base.Preconditions;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: factory for  {@link StopStrategy}实例的工厂类
+ * 不依赖 Guava 的基础策略由 {@link com.github.rholder.retry.core.StopStrategies} 实现，这里直接返回它们
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2022/4/18 14:05:42
+ * @study final 修饰类表类不可被继承，用于不可拓展的类上
+ */
+public final class StopStrategies {
+
+    /**
+     * @study 工厂方法私有构造，统一对象创建入口
+     */
+    private StopStrategies(){}
+
+    /**
+     * 返回重不停止策略
+     * @return
+     * @study 不可变的策略直接声明static返回
+     */
+    public static StopStrategy neverStop(){
+        return com.github.rholder.retry.core.StopStrategies.neverStop();
+    }
+
+    /**
+     * 返回一个失败N次后停止策略
+     * @param attemptNumber
+     * @return
+     */
+    public static StopStrategy stopAfterAttempt(int attemptNumber) {
+        return com.github.rholder.retry.core.StopStrategies.stopAfterAttempt(attemptNumber);
+    }
+
+    /**
+     * 返回一个给定延迟后停止策略
+     * @param delayInMillis
+     * @return
+     * @deprecated Use {@link #stopAfterDelay(long, TimeUnit)} instead.
+     */
+    @Deprecated
+    public static StopStrategy stopAfterDelay(long delayInMillis){
+        return stopAfterDelay(delayInMillis,TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 返回一个给定延迟后停止策略
+     * @param duration
+     * @param timeUnit
+     * @return
+     * @Study todo
+     */
+    public static StopStrategy stopAfterDelay(long duration, @Nonnull TimeUnit timeUnit) {
+        return com.github.rholder.retry.core.StopStrategies.stopAfterDelay(duration, timeUnit);
+    }
+
+    /**
+     * 返回一个结合服务端提示的延迟停止策略：若按提示等待后下一次尝试已超过给定延迟，则立即停止，
+     * 不再等到截止时间才放弃
+     * @param extractor 服务端提示提取器
+     * @param duration
+     * @param timeUnit
+     * @return
+     */
+    public static StopStrategy stopAfterHintedDelay(@Nonnull RetryHintExtractor extractor, long duration, @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(extractor, "extractor may not be null");
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        return new StopAfterHintedDelayStrategy(extractor, timeUnit.toMillis(duration));
+    }
+
+    /**
+     * 返回一个按本地饱和度削减重试的停止策略：饱和度低于 lowWatermark 时不停止，高于 highWatermark 时总是停止，
+     * 两者之间按比例随机停止，使进程在拒绝真实请求之前先放弃重试；
+     * 与次数、时长等限制一起使用时以 {@link #anyOf(StopStrategy...)} 组合
+     * @param monitor 饱和度监控
+     * @param lowWatermark
+     * @param highWatermark
+     * @return
+     */
+    public static StopStrategy stopWhenSaturated(@Nonnull SaturationMonitor monitor, double lowWatermark, double highWatermark) {
+        Preconditions.checkNotNull(monitor, "monitor may not be null");
+        return new SaturationStopStrategy(monitor, lowWatermark, highWatermark);
+    }
+
+    /**
+     * 返回一个连续 count 次attempt抛出 exceptionClass(或其子类)后停止的策略，如连续三次超时即放弃；
+     * count 大于 1 时依赖 {@link com.github.rholder.retry.RetryerBuilder#withAttemptHistory(int)}，
+     * 历史容量小于 count 时 build 抛出 IllegalStateException；与其他停止条件一起使用时以 {@link #anyOf(StopStrategy...)} 组合
+     * @param exceptionClass
+     * @param count
+     * @return
+     */
+    public static StopStrategy stopAfterConsecutiveFailuresOf(@Nonnull Class<? extends Throwable> exceptionClass, int count) {
+        Preconditions.checkNotNull(exceptionClass, "exceptionClass may not be null");
+        return new ConsecutiveFailuresStopStrategy(exceptionClass, count);
+    }
+
+    /**
+     * 组合停止策略，任一策略要求停止即停止，按给定顺序询问，遇到第一个停止的策略后不再询问其余策略；
+     * 需要的历史容量取各策略中的最大值
+     */
+    public static StopStrategy anyOf(@Nonnull StopStrategy... stopStrategies) {
+        Preconditions.checkNotNull(stopStrategies, "stopStrategies may not be null");
+        Preconditions.checkArgument(stopStrategies.length > 0, "Must have at least one stop strategy");
+        for (StopStrategy stopStrategy : stopStrategies) {
+            Preconditions.checkArgument(stopStrategy != null, "Cannot have a null stop strategy");
+        }
+        return new AnyOfStopStrategy(stopStrategies.clone());
+    }
+
+    /**
+     * 服务端提示的等待时长会越过截止时间时停止
+     */
+    @Immutable
+    private static final class StopAfterHintedDelayStrategy implements StopStrategy {
+
+        private final RetryHintExtractor extractor;
+        private final long maxDelay;
+
+        public StopAfterHintedDelayStrategy(RetryHintExtractor extractor, long maxDelay) {
+            Preconditions.checkArgument(maxDelay >= 0L, "maxDelay must be >= 0 but is %d", maxDelay);
+            this.extractor = extractor;
+            this.maxDelay = maxDelay;
+        }
+
+        public boolean shouldStop(Attempt failedAttempt) {
+            long delay = failedAttempt.getDelaySinceFirstAttempt();
+            if (delay >= maxDelay) {
+                return true;
+            }
+            long hint = extractor.extractHint(failedAttempt);
+            return hint >= 0L && hint >= maxDelay - delay;
+        }
+    }
+
+    /**
+     * 任一策略停止即停止
+     */
+    @Immutable
+    private static final class AnyOfStopStrategy implements HistoryDependentStopStrategy {
+        private final StopStrategy[] stopStrategies;
+        private final int requiredHistoryCapacity;
+
+        public AnyOfStopStrategy(StopStrategy[] stopStrategies) {
+            this.stopStrategies = stopStrategies;
+            int required = 0;
+            for (StopStrategy stopStrategy : stopStrategies) {
+                if (stopStrategy instanceof HistoryDependentStopStrategy) {
+                    required = Math.max(required, ((HistoryDependentStopStrategy) stopStrategy).getRequiredHistoryCapacity());
+                }
+            }
+            this.requiredHistoryCapacity = required;
+        }
+
+        public int getRequiredHistoryCapacity() {
+            return requiredHistoryCapacity;
+        }
+
+        public boolean shouldStop(Attempt failedAttempt) {
+            for (StopStrategy stopStrategy : stopStrategies) {
+                if (stopStrategy.shouldStop(failedAttempt)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 本地饱和时按比例停止
+     */
+    @Immutable
+    private static final class SaturationStopStrategy implements StopStrategy {
+
+        private static final Random RANDOM = new Random();
+        private final SaturationMonitor monitor;
+        private final double lowWatermark;
+        private final double highWatermark;
+
+        public SaturationStopStrategy(SaturationMonitor monitor, double lowWatermark, double highWatermark) {
+            Preconditions.checkArgument(lowWatermark >= 0.0d, "lowWatermark must be >= 0 but is %s", lowWatermark);
+            Preconditions.checkArgument(highWatermark > lowWatermark && highWatermark <= 1.0d,
+                    "highWatermark must be in (lowWatermark, 1] but is %s", highWatermark);
+            this.monitor = monitor;
+            this.lowWatermark = lowWatermark;
+            this.highWatermark = highWatermark;
+        }
+
+        public boolean shouldStop(Attempt failedAttempt) {
+            double saturation = monitor.getSaturation();
+            if (saturation <= lowWatermark) {
+                return false;
+            }
+            if (saturation >= highWatermark) {
+                return true;
+            }
+            return RANDOM.nextDouble() < (saturation - lowWatermark) / (highWatermark - lowWatermark);
+        }
+    }
+
+    /**
+     * 连续若干次抛出同类异常后停止
+     */
+    @Immutable
+    private static final class ConsecutiveFailuresStopStrategy implements HistoryDependentStopStrategy {
+        private final Class<? extends Throwable> exceptionClass;
+        private final int count;
+
+        public ConsecutiveFailuresStopStrategy(Class<? extends Throwable> exceptionClass, int count) {
+            Preconditions.checkArgument(count >= 1, "count must be >= 1 but is %d", count);
+            this.exceptionClass = exceptionClass;
+            this.count = count;
+        }
+
+        /**
+         * count 为 1 时只看最近一次attempt
+         */
+        public int getRequiredHistoryCapacity() {
+            return count == 1 ? 0 : count;
+        }
+
+        public boolean shouldStop(Attempt failedAttempt) {
+            if (failedAttempt instanceof DetailedAttempt && ((DetailedAttempt<?>) failedAttempt).getHistory().size() > 0) {
+                return ((DetailedAttempt<?>) failedAttempt).getHistory().consecutiveExceptionsOf(exceptionClass) >= count;
+            }
+            return count == 1 && failedAttempt.hasException() && exceptionClass.isInstance(failedAttempt.getExceptionCause());
+        }
+    }
+}
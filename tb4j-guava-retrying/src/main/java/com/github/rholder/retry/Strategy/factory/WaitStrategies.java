@@ -0,0 +1,253 @@
+package com.github.rholder.retry.Strategy.factory;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.RetryHintExtractor;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.saturation.SaturationMonitor;
+import com.google.common.base.Function;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: factory for {@link WaitStrategy}
+ * 不依赖 Guava 的基础策略由 {@link com.github.rholder.retry.core.WaitStrategies} 实现，这里直接返回它们
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2022/4/18 14:53:33
+ */
+public final class WaitStrategies {
+
+    private WaitStrategies() {
+    }
+
+    /**
+     * 重试前不等待
+     * @return
+     */
+    public static WaitStrategy noWait(){
+        return com.github.rholder.retry.core.WaitStrategies.noWait();
+    }
+
+    /**
+     * 固定等待时长策略
+     */
+    public static WaitStrategy fixedWait(long sleepTime, @Nonnull TimeUnit timeUnit) throws IllegalStateException {
+        return com.github.rholder.retry.core.WaitStrategies.fixedWait(sleepTime, timeUnit);
+    }
+
+    /**
+     * 随机时长等待策略
+     */
+    public static WaitStrategy randomWait(long maximumTime, @Nonnull TimeUnit timeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.randomWait(maximumTime, timeUnit);
+    }
+
+    /**
+     * 随机时长等待策略
+     */
+    public static WaitStrategy randomWait(long minimumTime,
+                                          @Nonnull TimeUnit minimumTimeUnit,
+                                          long maximumTime,
+                                          @Nonnull TimeUnit maximumTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.randomWait(minimumTime, minimumTimeUnit, maximumTime, maximumTimeUnit);
+    }
+
+
+    /**
+     * 递增等待策略
+     */
+    public static WaitStrategy incrementingWait(long initialSleepTime,
+                                                @Nonnull TimeUnit initialSleepTimeUnit,
+                                                long increment,
+                                                @Nonnull TimeUnit incrementTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.incrementingWait(initialSleepTime, initialSleepTimeUnit, increment, incrementTimeUnit);
+    }
+
+    /**
+     * 指数等待策略
+     */
+    public static WaitStrategy exponentialWait() {
+        return com.github.rholder.retry.core.WaitStrategies.exponentialWait(1, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    public static WaitStrategy exponentialWait(long maximumTime,
+                                               @Nonnull TimeUnit maximumTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.exponentialWait(1, maximumTime, maximumTimeUnit);
+    }
+
+    public static WaitStrategy exponentialWait(long multiplier,
+                                               long maximumTime,
+                                               @Nonnull TimeUnit maximumTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.exponentialWait(multiplier, maximumTime, maximumTimeUnit);
+    }
+
+
+    /**
+     * 斐波那契数列等待策略
+     */
+    public static WaitStrategy fibonacciWait() {
+        return com.github.rholder.retry.core.WaitStrategies.fibonacciWait(1, Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    public static WaitStrategy fibonacciWait(long maximumTime,
+                                             @Nonnull TimeUnit maximumTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.fibonacciWait(1, maximumTime, maximumTimeUnit);
+    }
+
+    public static WaitStrategy fibonacciWait(long multiplier,
+                                             long maximumTime,
+                                             @Nonnull TimeUnit maximumTimeUnit) {
+        return com.github.rholder.retry.core.WaitStrategies.fibonacciWait(multiplier, maximumTime, maximumTimeUnit);
+    }
+
+    /**
+     * 符合等待策略，各策略等待时长之和，溢出时取 {@link Long#MAX_VALUE}；
+     * 全部为 {@link DeterministicWaitStrategy} 时结果同样是确定性的
+     */
+    public static WaitStrategy join(WaitStrategy... waitStrategies) {
+        return com.github.rholder.retry.core.WaitStrategies.join(waitStrategies);
+    }
+
+    /**
+     * 全抖动：在 [0, delegate] 中随机等待
+     */
+    public static WaitStrategy fullJitter(@Nonnull WaitStrategy delegate) {
+        return com.github.rholder.retry.core.WaitStrategies.fullJitter(delegate);
+    }
+
+    /**
+     * 全抖动，随机数取自 random；以固定种子的 random 创建时抖动序列可复现，如用于 {@link com.github.rholder.retry.simulation.RetryStormSimulation}
+     */
+    public static WaitStrategy fullJitter(@Nonnull WaitStrategy delegate, @Nonnull Random random) {
+        return com.github.rholder.retry.core.WaitStrategies.fullJitter(delegate, random);
+    }
+
+    /**
+     * 等值抖动：在 [delegate / 2, delegate] 中随机等待
+     */
+    public static WaitStrategy equalJitter(@Nonnull WaitStrategy delegate) {
+        return com.github.rholder.retry.core.WaitStrategies.equalJitter(delegate);
+    }
+
+    /**
+     * 等值抖动，随机数取自 random，见 {@link #fullJitter(WaitStrategy, Random)}
+     */
+    public static WaitStrategy equalJitter(@Nonnull WaitStrategy delegate, @Nonnull Random random) {
+        return com.github.rholder.retry.core.WaitStrategies.equalJitter(delegate, random);
+    }
+
+    /**
+     * 异常等待策略
+     */
+    public static <T extends Throwable> WaitStrategy exceptionWait(@Nonnull Class<T> exceptionClass,
+                                                                   @Nonnull final Function<T, Long> function) {
+        Preconditions.checkNotNull(function, "function may not be null");
+        return com.github.rholder.retry.core.WaitStrategies.exceptionWait(exceptionClass, new java.util.function.Function<T, Long>() {
+            public Long apply(T cause) {
+                return function.apply(cause);
+            }
+        });
+    }
+
+    /**
+     * 服务端提示等待策略：优先使用 extractor 提取的提示(如 Retry-After)，无提示时使用 fallback，结果不超过 maximumTime
+     */
+    public static WaitStrategy hintedWait(@Nonnull RetryHintExtractor extractor,
+                                          @Nonnull WaitStrategy fallback,
+                                          long maximumTime,
+                                          @Nonnull TimeUnit maximumTimeUnit) {
+        return hintedWait(extractor, fallback, 0.0d, maximumTime, maximumTimeUnit);
+    }
+
+    /**
+     * 服务端提示等待策略，并在提示时长上叠加 [0, hint * jitterFactor] 的随机抖动，避免所有客户端在同一时刻重试
+     */
+    public static WaitStrategy hintedWait(@Nonnull RetryHintExtractor extractor,
+                                          @Nonnull WaitStrategy fallback,
+                                          double jitterFactor,
+                                          long maximumTime,
+                                          @Nonnull TimeUnit maximumTimeUnit) {
+        Preconditions.checkNotNull(extractor, "extractor may not be null");
+        Preconditions.checkNotNull(fallback, "fallback may not be null");
+        Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
+        return new HintedWaitStrategy(extractor, fallback, jitterFactor, maximumTimeUnit.toMillis(maximumTime));
+    }
+
+    /**
+     * 按本地饱和度拉长等待：等待时长 = delegate * (1 + saturation * (maxStretch - 1))
+     */
+    public static WaitStrategy saturationStretchedWait(@Nonnull WaitStrategy delegate,
+                                                       @Nonnull SaturationMonitor monitor,
+                                                       double maxStretch) {
+        Preconditions.checkNotNull(delegate, "delegate may not be null");
+        Preconditions.checkNotNull(monitor, "monitor may not be null");
+        return new SaturationStretchedWaitStrategy(delegate, monitor, maxStretch);
+    }
+
+    /**
+     * 服务端提示等待策略
+     * 提示优先于 fallback，抖动只会在提示基础上增加等待，不会早于服务端要求的时间
+     */
+    @Immutable
+    private static final class HintedWaitStrategy implements WaitStrategy {
+
+        private static final Random RANDOM = new Random();
+        private final RetryHintExtractor extractor;
+        private final WaitStrategy fallback;
+        private final double jitterFactor;
+        private final long maximumWait;
+
+        public HintedWaitStrategy(RetryHintExtractor extractor, WaitStrategy fallback, double jitterFactor, long maximumWait) {
+            Preconditions.checkArgument(jitterFactor >= 0.0d, "jitterFactor must be >= 0 but is %s", jitterFactor);
+            Preconditions.checkArgument(maximumWait >= 0L, "maximumWait must be >= 0 but is %d", maximumWait);
+            this.extractor = extractor;
+            this.fallback = fallback;
+            this.jitterFactor = jitterFactor;
+            this.maximumWait = maximumWait;
+        }
+
+        public long computeSleepTime(Attempt failedAttempt) {
+            long hint = extractor.extractHint(failedAttempt);
+            long result;
+            if (hint >= 0L) {
+                long jitter = (long) (hint * jitterFactor * RANDOM.nextDouble());
+                result = hint + jitter;
+                if (result < 0L) {
+                    result = maximumWait;
+                }
+            } else {
+                result = fallback.computeSleepTime(failedAttempt);
+            }
+            return Math.min(result, maximumWait);
+        }
+    }
+
+    /**
+     * 按本地饱和度拉长等待
+     */
+    @Immutable
+    private static final class SaturationStretchedWaitStrategy implements WaitStrategy {
+        private final WaitStrategy delegate;
+        private final SaturationMonitor monitor;
+        private final double maxStretch;
+
+        public SaturationStretchedWaitStrategy(WaitStrategy delegate, SaturationMonitor monitor, double maxStretch) {
+            Preconditions.checkArgument(maxStretch >= 1.0d, "maxStretch must be >= 1 but is %s", maxStretch);
+            this.delegate = delegate;
+            this.monitor = monitor;
+            this.maxStretch = maxStretch;
+        }
+
+        public long computeSleepTime(Attempt failedAttempt) {
+            long sleepTime = delegate.computeSleepTime(failedAttempt);
+            double stretched = sleepTime * (1.0d + monitor.getSaturation() * (maxStretch - 1.0d));
+            return stretched >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) stretched;
+        }
+    }
+}
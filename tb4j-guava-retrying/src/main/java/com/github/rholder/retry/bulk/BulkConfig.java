@@ -0,0 +1,89 @@
+package com.github.rholder.retry.bulk;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Function: {@link BulkRetryer} 的并发、发出顺序与失败处理配置
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:18:11
+ */
+@Immutable
+public final class BulkConfig {
+
+    private final int maxInFlight;
+    private final boolean ordered;
+    private final FailureMode failureMode;
+
+    private BulkConfig(Builder builder) {
+        this.maxInFlight = builder.maxInFlight;
+        this.ordered = builder.ordered;
+        this.failureMode = builder.failureMode;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    public FailureMode getFailureMode() {
+        return failureMode;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkConfig{maxInFlight=" + maxInFlight + ", ordered=" + ordered + ", failureMode=" + failureMode + "}";
+    }
+
+    @NotThreadSafe
+    public static final class Builder {
+        private int maxInFlight = 16;
+        private boolean ordered = true;
+        private FailureMode failureMode = FailureMode.FAIL_FAST;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxInFlight 已读取但尚未发出的元素数上限，含正在重试与等待发出的元素，默认 16
+         */
+        public Builder withMaxInFlight(int maxInFlight) {
+            Preconditions.checkArgument(maxInFlight >= 1, "maxInFlight must be >= 1 but is %s", maxInFlight);
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * @param ordered 为 true 时按数据源的顺序发出结果，默认 true；为 false 时按完成的顺序发出，慢元素不阻塞其余元素
+         */
+        public Builder withOrdered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * @param failureMode 元素重试失败后的处理方式，默认 {@link FailureMode#FAIL_FAST}
+         */
+        public Builder withFailureMode(@Nonnull FailureMode failureMode) {
+            Preconditions.checkNotNull(failureMode, "failureMode may not be null");
+            this.failureMode = failureMode;
+            return this;
+        }
+
+        public BulkConfig build() {
+            return new BulkConfig(this);
+        }
+    }
+}
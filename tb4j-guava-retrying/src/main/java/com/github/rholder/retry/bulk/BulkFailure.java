@@ -0,0 +1,46 @@
+package com.github.rholder.retry.bulk;
+
+import com.github.rholder.retry.RetryOutcome;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: 重试失败的一个元素
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:14:21
+ */
+@Immutable
+public final class BulkFailure<T> {
+
+    private final long index;
+    private final T item;
+    private final RetryOutcome<?> outcome;
+
+    BulkFailure(long index, T item, RetryOutcome<?> outcome) {
+        this.index = index;
+        this.item = item;
+        this.outcome = outcome;
+    }
+
+    /**
+     * @return 元素在数据源中的序号，从 0 开始
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    public RetryOutcome<?> getOutcome() {
+        return outcome;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkFailure{index=" + index + ", item=" + item + ", " + outcome + "}";
+    }
+}
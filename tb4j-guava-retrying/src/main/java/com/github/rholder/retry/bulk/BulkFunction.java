@@ -0,0 +1,13 @@
+package com.github.rholder.retry.bulk;
+
+/**
+ * Function: 对单个元素执行的远程调用，由 {@link BulkRetryer} 按 {@link com.github.rholder.retry.Retryer} 的策略重试
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:12:40
+ */
+public interface BulkFunction<T, V> {
+
+    V apply(T item) throws Exception;
+}
@@ -0,0 +1,46 @@
+package com.github.rholder.retry.bulk;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Function: 一次 {@link BulkRetryer} 处理的汇总
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:15:02
+ */
+@Immutable
+public final class BulkReport<T> {
+
+    private final long succeeded;
+    private final long failed;
+    private final List<BulkFailure<T>> failures;
+
+    BulkReport(long succeeded, long failed, List<BulkFailure<T>> failures) {
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return 失败的元素，按发出的顺序；只在 {@link FailureMode#COLLECT} 下记录
+     */
+    public List<BulkFailure<T>> getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkReport{succeeded=" + succeeded + ", failed=" + failed + "}";
+    }
+}
@@ -0,0 +1,260 @@
+package com.github.rholder.retry.bulk;
+
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.Retryer;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.deadletter.DeadLetterSink;
+import com.github.rholder.retry.exception.BulkException;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+
+/**
+ * Function: 以有界并发对数据源的每个元素执行 {@link BulkFunction}，每个元素按同一个 {@link Retryer} 的策略独立重试
+ * 调用线程只在有空余名额时才读取下一个元素，已读取但尚未发出的元素不超过 {@link BulkConfig#getMaxInFlight()}，
+ * 因此数据源不会被提前读空，也不会堆积无界的 future。结果在调用线程上交给 sink，按数据源顺序或完成顺序发出。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildBulk(Executor, BulkConfig)} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:21:47
+ */
+@ThreadSafe
+public final class BulkRetryer<V> {
+
+    private final Retryer<V> retryer;
+    private final Executor executor;
+    private final BulkConfig config;
+
+    /**
+     * @param executor 执行元素的线程池，应能同时运行 maxInFlight 个元素
+     */
+    public BulkRetryer(@Nonnull Retryer<V> retryer, @Nonnull Executor executor, @Nonnull BulkConfig config) {
+        this.retryer = Preconditions.checkNotNull(retryer, "retryer may not be null");
+        this.executor = Preconditions.checkNotNull(executor, "executor may not be null");
+        this.config = Preconditions.checkNotNull(config, "config may not be null");
+    }
+
+    /**
+     * @see #map(Iterable, BulkFunction, BiConsumer)
+     */
+    public <T> BulkReport<T> map(@Nonnull Stream<? extends T> items, @Nonnull BulkFunction<? super T, ? extends V> function,
+                                 @Nonnull BiConsumer<? super T, ? super V> sink) throws BulkException, InterruptedException {
+        Preconditions.checkNotNull(items, "items may not be null");
+        return map(items.iterator(), function, sink, null);
+    }
+
+    /**
+     * 处理全部元素后返回；提前结束时执行中的元素被取消
+     * @param sink 在调用线程上接收每个成功元素与其结果；它抛出的异常结束批处理
+     * @throws BulkException {@link FailureMode#FAIL_FAST} 下有元素重试失败
+     * @throws InterruptedException 等待期间调用线程被中断，此时执行中的元素已被取消
+     */
+    public <T> BulkReport<T> map(@Nonnull Iterable<? extends T> items, @Nonnull BulkFunction<? super T, ? extends V> function,
+                                 @Nonnull BiConsumer<? super T, ? super V> sink) throws BulkException, InterruptedException {
+        Preconditions.checkNotNull(items, "items may not be null");
+        return map(items.iterator(), function, sink, null);
+    }
+
+    /**
+     * @see #map(Iterable, BulkFunction, BiConsumer, DeadLetterSink)
+     */
+    public <T> BulkReport<T> map(@Nonnull Stream<? extends T> items, @Nonnull BulkFunction<? super T, ? extends V> function,
+                                 @Nonnull BiConsumer<? super T, ? super V> sink, @Nonnull DeadLetterSink<? super T> deadLetters)
+            throws BulkException, InterruptedException {
+        Preconditions.checkNotNull(items, "items may not be null");
+        Preconditions.checkNotNull(deadLetters, "deadLetters may not be null");
+        return map(items.iterator(), function, sink, deadLetters);
+    }
+
+    /**
+     * 同 {@link #map(Iterable, BulkFunction, BiConsumer)}，此外每个失败的元素在按 {@link FailureMode} 处理前交给 deadLetters
+     */
+    public <T> BulkReport<T> map(@Nonnull Iterable<? extends T> items, @Nonnull BulkFunction<? super T, ? extends V> function,
+                                 @Nonnull BiConsumer<? super T, ? super V> sink, @Nonnull DeadLetterSink<? super T> deadLetters)
+            throws BulkException, InterruptedException {
+        Preconditions.checkNotNull(items, "items may not be null");
+        Preconditions.checkNotNull(deadLetters, "deadLetters may not be null");
+        return map(items.iterator(), function, sink, deadLetters);
+    }
+
+    private <T> BulkReport<T> map(Iterator<? extends T> source, BulkFunction<? super T, ? extends V> function,
+                                  BiConsumer<? super T, ? super V> sink, @Nullable DeadLetterSink<? super T> deadLetters)
+            throws BulkException, InterruptedException {
+        Preconditions.checkNotNull(function, "function may not be null");
+        Preconditions.checkNotNull(sink, "sink may not be null");
+        Run<T> run = new Run<T>(function, sink, deadLetters);
+        try {
+            return run.execute(source);
+        } finally {
+            run.cancelRemaining();
+        }
+    }
+
+    public BulkConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 一次批处理的状态；读取、重排与发出都在调用线程上，工作线程只向 completions 投递结果
+     */
+    @NotThreadSafe
+    private final class Run<T> {
+        private final BulkFunction<? super T, ? extends V> function;
+        private final BiConsumer<? super T, ? super V> sink;
+        @Nullable
+        private final DeadLetterSink<? super T> deadLetters;
+        private final CancellationSource cancellation = CancellationSource.newSource();
+        private final Set<FutureTask<Void>> running = Collections.newSetFromMap(new ConcurrentHashMap<FutureTask<Void>, Boolean>());
+        private final BlockingQueue<Completion<T, V>> completions = new LinkedBlockingQueue<Completion<T, V>>();
+        private final List<BulkFailure<T>> failures = new ArrayList<BulkFailure<T>>();
+        private long succeeded;
+        private long failed;
+
+        Run(BulkFunction<? super T, ? extends V> function, BiConsumer<? super T, ? super V> sink,
+            @Nullable DeadLetterSink<? super T> deadLetters) {
+            this.function = function;
+            this.sink = sink;
+            this.deadLetters = deadLetters;
+        }
+
+        BulkReport<T> execute(Iterator<? extends T> source) throws BulkException, InterruptedException {
+            int maxInFlight = config.getMaxInFlight();
+            // 顺序发出时暂存先完成的元素，大小不超过 maxInFlight
+            Map<Long, Completion<T, V>> reorder = config.isOrdered() ? new HashMap<Long, Completion<T, V>>() : null;
+            long nextIndex = 0L;
+            long nextEmit = 0L;
+            int outstanding = 0;
+            while (true) {
+                while (outstanding < maxInFlight && source.hasNext()) {
+                    submit(nextIndex++, source.next());
+                    outstanding++;
+                }
+                if (outstanding == 0) {
+                    return new BulkReport<T>(succeeded, failed, failures);
+                }
+                Completion<T, V> completion = completions.take();
+                if (reorder == null) {
+                    outstanding--;
+                    emit(completion);
+                    continue;
+                }
+                reorder.put(completion.index, completion);
+                for (completion = reorder.remove(nextEmit); completion != null; completion = reorder.remove(nextEmit)) {
+                    nextEmit++;
+                    outstanding--;
+                    emit(completion);
+                }
+            }
+        }
+
+        private void submit(final long index, final T item) {
+            final CancellationToken token = cancellation.getToken();
+            final Callable<V> callable = new Callable<V>() {
+                public V call() throws Exception {
+                    return function.apply(item);
+                }
+            };
+            FutureTask<Void> task = new FutureTask<Void>(new Runnable() {
+                public void run() {
+                    RetryOutcome<V> outcome = null;
+                    Throwable error = null;
+                    try {
+                        outcome = retryer.tryCall(callable, token);
+                    } catch (CancellationException e) {
+                        // 开始前批处理已经结束
+                        return;
+                    } catch (Throwable t) {
+                        error = t;
+                    }
+                    completions.add(new Completion<T, V>(index, item, outcome, error));
+                }
+            }, null) {
+                @Override
+                protected void done() {
+                    running.remove(this);
+                }
+            };
+            running.add(task);
+            executor.execute(task);
+        }
+
+        private void emit(Completion<T, V> completion) throws BulkException {
+            if (completion.error instanceof RuntimeException) {
+                // 监听器或策略本身的异常不属于元素失败
+                throw (RuntimeException) completion.error;
+            }
+            if (completion.error instanceof Error) {
+                throw (Error) completion.error;
+            }
+            RetryOutcome<V> outcome = completion.outcome;
+            if (outcome.isSuccess()) {
+                succeeded++;
+                sink.accept(completion.item, outcome.getValue());
+                return;
+            }
+            failed++;
+            if (deadLetters != null) {
+                deadLetters.offer(completion.item, outcome);
+            }
+            BulkFailure<T> failure = new BulkFailure<T>(completion.index, completion.item, outcome);
+            switch (config.getFailureMode()) {
+                case FAIL_FAST:
+                    throw new BulkException(failure, succeeded);
+                case COLLECT:
+                    failures.add(failure);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * 正在等待的重试立即结束，正在执行的attempt被中断，尚未开始的元素不再执行
+         */
+        void cancelRemaining() {
+            cancellation.cancel();
+            for (FutureTask<Void> task : running) {
+                task.cancel(true);
+            }
+        }
+    }
+
+    @Immutable
+    private static final class Completion<T, V> {
+        private final long index;
+        private final T item;
+        @Nullable
+        private final RetryOutcome<V> outcome;
+        @Nullable
+        private final Throwable error;
+
+        Completion(long index, T item, @Nullable RetryOutcome<V> outcome, @Nullable Throwable error) {
+            this.index = index;
+            this.item = item;
+            this.outcome = outcome;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.rholder.retry.bulk;
+
+/**
+ * Function: 元素重试失败后 {@link BulkRetryer} 如何处理
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:13:05
+ */
+public enum FailureMode {
+    /**
+     * 停止读取数据源，取消执行中的元素，以 {@link com.github.rholder.retry.exception.BulkException} 结束
+     */
+    FAIL_FAST,
+    /**
+     * 继续处理，失败的元素记录在 {@link BulkReport#getFailures()} 中
+     */
+    COLLECT,
+    /**
+     * 继续处理，失败的元素只计数
+     */
+    SKIP
+}
@@ -0,0 +1,107 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: 一个死信：失败调用的输入、最后一次attempt的异常摘要与耗时
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:45:12
+ */
+@Immutable
+public final class DeadLetter<T> {
+
+    /**
+     * 异常消息或放弃时结果的最大长度
+     */
+    static final int MAX_MESSAGE_LENGTH = 512;
+
+    private final T item;
+    private final long timestampMillis;
+    private final RetryOutcome.Status status;
+    private final int attemptCount;
+    private final long totalNanos;
+    private final String failureType;
+    private final String failureMessage;
+
+    DeadLetter(T item, long timestampMillis, RetryOutcome.Status status, int attemptCount, long totalNanos,
+               @Nullable String failureType, @Nullable String failureMessage) {
+        this.item = item;
+        this.timestampMillis = timestampMillis;
+        this.status = status;
+        this.attemptCount = attemptCount;
+        this.totalNanos = totalNanos;
+        this.failureType = failureType;
+        this.failureMessage = failureMessage;
+    }
+
+    static <T> DeadLetter<T> of(T item, RetryOutcome<?> outcome) {
+        Throwable cause = outcome.getFailureCause();
+        String failureType;
+        String failureMessage;
+        if (cause != null) {
+            failureType = cause.getClass().getName();
+            failureMessage = cause.getMessage();
+        } else {
+            failureType = null;
+            failureMessage = outcome.getLastAttempt().hasResult() ? "result: " + outcome.getLastAttempt().getResult() : null;
+        }
+        if (failureMessage != null && failureMessage.length() > MAX_MESSAGE_LENGTH) {
+            failureMessage = failureMessage.substring(0, MAX_MESSAGE_LENGTH);
+        }
+        return new DeadLetter<T>(item, System.currentTimeMillis(), outcome.getStatus(), outcome.getAttemptCount(),
+                outcome.getStats().getTotalNanos(), failureType, failureMessage);
+    }
+
+    public T getItem() {
+        return item;
+    }
+
+    /**
+     * @return 进入死信的时间
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public RetryOutcome.Status getStatus() {
+        return status;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    /**
+     * @return 整个调用的耗时，纳秒
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return 最后一次attempt的异常类名，因结果而放弃时为 null
+     */
+    @Nullable
+    public String getFailureType() {
+        return failureType;
+    }
+
+    /**
+     * @return 异常消息或放弃时的结果，截断到 512 个字符
+     */
+    @Nullable
+    public String getFailureMessage() {
+        return failureMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "DeadLetter{" + status + ", attempts=" + attemptCount + ", failure=" + failureType + ": " + failureMessage
+                + ", item=" + item + "}";
+    }
+}
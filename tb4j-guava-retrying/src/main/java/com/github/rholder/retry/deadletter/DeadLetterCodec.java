@@ -0,0 +1,17 @@
+package com.github.rholder.retry.deadletter;
+
+import java.io.IOException;
+
+/**
+ * Function: 死信元素与字节之间的转换，由 {@link DeadLetterLog} 写入、{@link DeadLetterReader} 读取时使用
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:41:02
+ */
+public interface DeadLetterCodec<T> {
+
+    byte[] encode(T item) throws IOException;
+
+    T decode(byte[] bytes) throws IOException;
+}
@@ -0,0 +1,56 @@
+package com.github.rholder.retry.deadletter;
+
+import javax.annotation.concurrent.Immutable;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Function: factory for {@link DeadLetterCodec}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:42:17
+ */
+public final class DeadLetterCodecs {
+
+    private static final DeadLetterCodec<String> UTF8_CODEC = new Utf8Codec();
+    private static final DeadLetterCodec<byte[]> BYTES_CODEC = new BytesCodec();
+
+    private DeadLetterCodecs() {
+    }
+
+    /**
+     * 字符串按 UTF-8 存储
+     */
+    public static DeadLetterCodec<String> utf8() {
+        return UTF8_CODEC;
+    }
+
+    /**
+     * 原样存储字节
+     */
+    public static DeadLetterCodec<byte[]> bytes() {
+        return BYTES_CODEC;
+    }
+
+    @Immutable
+    private static final class Utf8Codec implements DeadLetterCodec<String> {
+        public byte[] encode(String item) {
+            return item.getBytes(StandardCharsets.UTF_8);
+        }
+
+        public String decode(byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    @Immutable
+    private static final class BytesCodec implements DeadLetterCodec<byte[]> {
+        public byte[] encode(byte[] item) {
+            return item;
+        }
+
+        public byte[] decode(byte[] bytes) {
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Function: 死信文件的记录格式：magic、负载长度、负载 CRC32 各 4 字节，随后是负载
+ * 负载依次为时间、状态、attempt次数、耗时、异常摘要与编码后的元素。崩溃时写了一半的尾部记录
+ * 无法通过长度或 CRC 校验，读取时视为文件结尾，重新打开写入时被截掉。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:48:55
+ */
+final class DeadLetterFormat {
+
+    static final int MAGIC = 0x444C5131;
+    static final int HEADER_SIZE = 12;
+    static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+
+    private DeadLetterFormat() {
+    }
+
+    /**
+     * 把一条记录追加到 out
+     */
+    static <T> void write(DeadLetter<T> letter, DeadLetterCodec<T> codec, ByteArrayOutputStream out) throws IOException {
+        byte[] item = codec.encode(letter.getItem());
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(64 + item.length);
+        DataOutputStream data = new DataOutputStream(payload);
+        data.writeLong(letter.getTimestampMillis());
+        data.writeUTF(letter.getStatus().name());
+        data.writeInt(letter.getAttemptCount());
+        data.writeLong(letter.getTotalNanos());
+        writeNullableUTF(data, letter.getFailureType());
+        writeNullableUTF(data, letter.getFailureMessage());
+        data.writeInt(item.length);
+        data.write(item);
+        data.flush();
+        if (payload.size() > MAX_PAYLOAD_SIZE) {
+            throw new IOException("dead letter of " + payload.size() + " bytes exceeds " + MAX_PAYLOAD_SIZE);
+        }
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeInt(payload.size());
+        header.writeInt(crc(payload.toByteArray()));
+        payload.writeTo(out);
+    }
+
+    static <T> DeadLetter<T> read(byte[] payload, DeadLetterCodec<T> codec) throws IOException {
+        DataInputStream data = new DataInputStream(new ByteArrayInputStream(payload));
+        long timestampMillis = data.readLong();
+        RetryOutcome.Status status = RetryOutcome.Status.valueOf(data.readUTF());
+        int attemptCount = data.readInt();
+        long totalNanos = data.readLong();
+        String failureType = readNullableUTF(data);
+        String failureMessage = readNullableUTF(data);
+        byte[] item = new byte[data.readInt()];
+        data.readFully(item);
+        return new DeadLetter<T>(codec.decode(item), timestampMillis, status, attemptCount, totalNanos, failureType,
+                failureMessage);
+    }
+
+    static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    private static void writeNullableUTF(DataOutputStream data, @Nullable String value) throws IOException {
+        data.writeBoolean(value != null);
+        if (value != null) {
+            data.writeUTF(value);
+        }
+    }
+
+    @Nullable
+    private static String readNullableUTF(DataInputStream data) throws IOException {
+        return data.readBoolean() ? data.readUTF() : null;
+    }
+}
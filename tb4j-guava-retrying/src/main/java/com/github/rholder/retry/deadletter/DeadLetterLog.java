@@ -0,0 +1,314 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Function: 把死信追加写入本地文件的 {@link DeadLetterSink}，由 {@link DeadLetterReader} 读取与重放
+ * offer 只把死信放入有界队列，编码与写文件都在单独的写线程上：写线程把队列中积累的死信合并为一次写入和一次 fsync
+ * (group commit)，因此写入速度跟得上失败的速度时每条死信的开销很小，磁盘变慢或写入失败也不会阻塞调用方。
+ * 写入失败的一批死信在退避后重写；队列满时新的死信被丢弃并计数。同一个文件同时只能由一个 DeadLetterLog 写入。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:08:43
+ */
+@ThreadSafe
+public final class DeadLetterLog<T> implements DeadLetterSink<T>, Closeable {
+
+    private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(10L);
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    private final Path file;
+    private final DeadLetterCodec<T> codec;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final boolean fsync;
+    private final BlockingQueue<DeadLetter<T>> queue;
+    private final FileChannel channel;
+    private final Thread writer;
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong writeFailureCount = new AtomicLong();
+    private volatile boolean closed;
+
+    private DeadLetterLog(Builder<T> builder, FileChannel channel) {
+        this.file = builder.file;
+        this.codec = builder.codec;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.lingerNanos = builder.lingerNanos;
+        this.fsync = builder.fsync;
+        this.queue = new ArrayBlockingQueue<DeadLetter<T>>(builder.capacity);
+        this.channel = channel;
+        this.writer = new Thread(new Runnable() {
+            public void run() {
+                writeLoop();
+            }
+        }, "dead-letter-writer-" + file.getFileName());
+        this.writer.setDaemon(true);
+    }
+
+    public static <T> Builder<T> newBuilder() {
+        return new Builder<T>();
+    }
+
+    /**
+     * 不会阻塞；队列已满或已关闭时丢弃该死信
+     */
+    public boolean offer(T item, RetryOutcome<?> outcome) {
+        Preconditions.checkNotNull(outcome, "outcome may not be null");
+        if (closed || !queue.offer(DeadLetter.of(item, outcome))) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 停止接收，写完队列中剩余的死信后关闭文件；剩余死信持续写入失败时丢弃它们
+     */
+    public void close() throws IOException {
+        closed = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            channel.close();
+        }
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return 已写入文件的死信数
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * @return 因队列已满、已关闭或无法编码而丢弃的死信数
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return 写入失败的次数，每次失败后整批重写
+     */
+    public long getWriteFailureCount() {
+        return writeFailureCount.get();
+    }
+
+    /**
+     * @return 等待写入的死信数
+     */
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    private void writeLoop() {
+        List<DeadLetter<T>> batch = new ArrayList<DeadLetter<T>>(maxBatchSize);
+        while (true) {
+            try {
+                DeadLetter<T> first = queue.poll(100L, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+            } catch (InterruptedException e) {
+                // 写线程只由 close 结束，中断不丢弃死信
+                continue;
+            }
+            writeWithRetry(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * 在 linger 时间内继续收集，凑满一批或时间到为止
+     */
+    private void collect(List<DeadLetter<T>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + lingerNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0L || closed) {
+                return;
+            }
+            DeadLetter<T> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void writeWithRetry(List<DeadLetter<T>> batch) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * batch.size());
+        int encoded = 0;
+        for (DeadLetter<T> letter : batch) {
+            try {
+                DeadLetterFormat.write(letter, codec, out);
+                encoded++;
+            } catch (IOException e) {
+                droppedCount.incrementAndGet();
+            } catch (RuntimeException e) {
+                droppedCount.incrementAndGet();
+            }
+        }
+        if (encoded == 0) {
+            return;
+        }
+        byte[] bytes = out.toByteArray();
+        long delayNanos = MIN_RETRY_DELAY_NANOS;
+        while (true) {
+            try {
+                append(bytes);
+                writtenCount.addAndGet(encoded);
+                return;
+            } catch (IOException e) {
+                writeFailureCount.incrementAndGet();
+                if (closed) {
+                    droppedCount.addAndGet(encoded);
+                    return;
+                }
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                // 同 writeLoop
+            }
+            delayNanos = Math.min(delayNanos * 2L, MAX_RETRY_DELAY_NANOS);
+        }
+    }
+
+    /**
+     * 失败时截掉本批已写出的部分，文件中不留下写了一半的记录
+     */
+    private void append(byte[] bytes) throws IOException {
+        long start = channel.size();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            channel.position(start);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(start);
+            } catch (IOException ignored) {
+                // 下次打开时按校验截掉
+            }
+            throw e;
+        }
+    }
+
+    @NotThreadSafe
+    public static final class Builder<T> {
+        private Path file;
+        private DeadLetterCodec<T> codec;
+        private int capacity = 65536;
+        private int maxBatchSize = 512;
+        private long lingerNanos = TimeUnit.MILLISECONDS.toNanos(5L);
+        private boolean fsync = true;
+
+        private Builder() {
+        }
+
+        /**
+         * @param file 死信文件，不存在时创建，存在时追加
+         */
+        public Builder<T> withFile(@Nonnull Path file) {
+            this.file = Preconditions.checkNotNull(file, "file may not be null");
+            return this;
+        }
+
+        public Builder<T> withCodec(@Nonnull DeadLetterCodec<T> codec) {
+            this.codec = Preconditions.checkNotNull(codec, "codec may not be null");
+            return this;
+        }
+
+        /**
+         * @param capacity 等待写入的死信数上限，默认 65536
+         */
+        public Builder<T> withCapacity(int capacity) {
+            Preconditions.checkArgument(capacity >= 1, "capacity must be >= 1 but is %s", capacity);
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize 一次写入的死信数上限，默认 512
+         * @param linger 收到第一条死信后最多再等待多久凑成一批，默认 5 毫秒；为 0 时只合并已在队列中的死信
+         */
+        public Builder<T> withBatching(int maxBatchSize, long linger, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkArgument(maxBatchSize >= 1, "maxBatchSize must be >= 1 but is %s", maxBatchSize);
+            Preconditions.checkArgument(linger >= 0L, "linger must be >= 0 but is %s", linger);
+            Preconditions.checkNotNull(timeUnit, "timeUnit may not be null");
+            this.maxBatchSize = maxBatchSize;
+            this.lingerNanos = timeUnit.toNanos(linger);
+            return this;
+        }
+
+        /**
+         * @param fsync 每批写入后是否强制刷盘，默认 true
+         */
+        public Builder<T> withFsync(boolean fsync) {
+            this.fsync = fsync;
+            return this;
+        }
+
+        /**
+         * 打开文件并启动写线程；文件尾部写了一半的记录被截掉。
+         * 文件中间有损坏的记录时不会截断，以免丢掉其后完好的死信，此时文件保持原样，需要移走后再打开
+         * @throws IOException 打开失败，或文件中间有损坏的记录
+         * @throws IllegalStateException 未设置文件或 codec
+         */
+        public DeadLetterLog<T> build() throws IOException, IllegalStateException {
+            Preconditions.checkState(file != null, "file is not set");
+            Preconditions.checkState(codec != null, "codec is not set");
+            long validLength = Files.exists(file) ? DeadLetterReader.validLength(file) : 0L;
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                if (channel.size() > validLength) {
+                    channel.truncate(validLength);
+                }
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            DeadLetterLog<T> log = new DeadLetterLog<T>(this, channel);
+            log.writer.start();
+            return log;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.bulk.BulkFunction;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Function: 按写入顺序读取 {@link DeadLetterLog} 写出的死信文件，并可把死信交给 {@link DeadLetterRetryer} 重放
+ * 写了一半的尾部记录(其后只有文件结尾或补零)视为文件结尾；之后仍有数据的损坏记录不会被跳过，读到它时抛出 IOException。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:55:31
+ */
+@NotThreadSafe
+public final class DeadLetterReader<T> implements Closeable {
+
+    private final DataInputStream in;
+    private final DeadLetterCodec<T> codec;
+    private long position;
+    private boolean finished;
+
+    private DeadLetterReader(DataInputStream in, DeadLetterCodec<T> codec) {
+        this.in = in;
+        this.codec = codec;
+    }
+
+    public static <T> DeadLetterReader<T> open(@Nonnull Path file, @Nonnull DeadLetterCodec<T> codec) throws IOException {
+        Preconditions.checkNotNull(file, "file may not be null");
+        Preconditions.checkNotNull(codec, "codec may not be null");
+        return new DeadLetterReader<T>(new DataInputStream(new BufferedInputStream(Files.newInputStream(file))), codec);
+    }
+
+    /**
+     * @return 下一个死信，到达文件结尾时为 null
+     * @throws IOException 读取失败，文件中间有损坏的记录，或 codec 无法解码元素
+     */
+    @Nullable
+    public DeadLetter<T> next() throws IOException {
+        byte[] payload = nextPayload();
+        return payload == null ? null : DeadLetterFormat.read(payload, codec);
+    }
+
+    /**
+     * 依次重放全部剩余死信；仍然失败的元素进入 retryer 的 {@link DeadLetterSink}，它应写入另一个文件
+     * @return 重放成功的死信数
+     */
+    public <V> long replay(@Nonnull DeadLetterRetryer<T, V> retryer, @Nonnull BulkFunction<? super T, ? extends V> function)
+            throws IOException {
+        Preconditions.checkNotNull(retryer, "retryer may not be null");
+        Preconditions.checkNotNull(function, "function may not be null");
+        long succeeded = 0L;
+        for (DeadLetter<T> letter = next(); letter != null; letter = next()) {
+            RetryOutcome<V> outcome = retryer.tryCall(letter.getItem(), function);
+            if (outcome.isSuccess()) {
+                succeeded++;
+            }
+        }
+        return succeeded;
+    }
+
+    /**
+     * @return 已读取的完整记录的字节数
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @return 文件中完整记录的总字节数，其后为写了一半的尾部
+     * @throws IOException 文件中间有损坏的记录
+     */
+    static long validLength(Path file) throws IOException {
+        DeadLetterReader<byte[]> reader = open(file, DeadLetterCodecs.bytes());
+        try {
+            while (reader.nextPayload() != null) {
+                // 只校验不解码
+            }
+            return reader.position;
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Nullable
+    private byte[] nextPayload() throws IOException {
+        if (finished) {
+            return null;
+        }
+        try {
+            int magic = in.readInt();
+            int length = in.readInt();
+            int crc = in.readInt();
+            if (magic != DeadLetterFormat.MAGIC || length < 0 || length > DeadLetterFormat.MAX_PAYLOAD_SIZE) {
+                // 头部完整却无效，只有全零(文件系统补零)才是写了一半的尾部
+                finished = true;
+                if (magic == 0 && length == 0 && crc == 0 && onlyZerosRemain()) {
+                    return null;
+                }
+                throw corrupt("invalid header");
+            }
+            byte[] payload = new byte[length];
+            in.readFully(payload);
+            if (DeadLetterFormat.crc(payload) != crc) {
+                finished = true;
+                if (onlyZerosRemain()) {
+                    return null;
+                }
+                throw corrupt("checksum mismatch");
+            }
+            position += DeadLetterFormat.HEADER_SIZE + length;
+            return payload;
+        } catch (EOFException e) {
+            finished = true;
+            return null;
+        }
+    }
+
+    /**
+     * 读完剩余内容
+     * @return 损坏记录之后是否只有零字节，即它是最后一条记录
+     */
+    private boolean onlyZerosRemain() throws IOException {
+        byte[] buffer = new byte[8192];
+        for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+            for (int i = 0; i < n; i++) {
+                if (buffer[i] != 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private IOException corrupt(String reason) {
+        return new IOException("corrupt dead letter record at offset " + position + " (" + reason
+                + ") followed by more data; the records after it cannot be read");
+    }
+}
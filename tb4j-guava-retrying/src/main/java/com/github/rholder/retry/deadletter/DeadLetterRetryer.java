@@ -0,0 +1,60 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.Retryer;
+import com.github.rholder.retry.bulk.BulkFunction;
+import com.github.rholder.retry.exception.RetryException;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 失败调用的输入交给 {@link DeadLetterSink} 的 {@link Retryer}
+ * 放弃重试、抛出不需要重试的异常或等待时被中断的调用都进入死信；sink 无法接收时调用方照常得到失败结果。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildDeadLetter(DeadLetterSink)} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:02:14
+ */
+@ThreadSafe
+public final class DeadLetterRetryer<T, V> {
+
+    private final Retryer<V> retryer;
+    private final DeadLetterSink<? super T> sink;
+
+    public DeadLetterRetryer(@Nonnull Retryer<V> retryer, @Nonnull DeadLetterSink<? super T> sink) {
+        this.retryer = Preconditions.checkNotNull(retryer, "retryer may not be null");
+        this.sink = Preconditions.checkNotNull(sink, "sink may not be null");
+    }
+
+    /**
+     * @see Retryer#call(Callable)
+     */
+    public V call(T item, @Nonnull BulkFunction<? super T, ? extends V> function) throws ExecutionException, RetryException {
+        return tryCall(item, function).get();
+    }
+
+    /**
+     * @see Retryer#tryCall(Callable)
+     */
+    public RetryOutcome<V> tryCall(final T item, @Nonnull final BulkFunction<? super T, ? extends V> function) {
+        Preconditions.checkNotNull(function, "function may not be null");
+        RetryOutcome<V> outcome = retryer.tryCall(new Callable<V>() {
+            public V call() throws Exception {
+                return function.apply(item);
+            }
+        });
+        if (!outcome.isSuccess()) {
+            sink.offer(item, outcome);
+        }
+        return outcome;
+    }
+
+    public DeadLetterSink<? super T> getSink() {
+        return sink;
+    }
+}
@@ -0,0 +1,21 @@
+package com.github.rholder.retry.deadletter;
+
+import com.github.rholder.retry.RetryOutcome;
+
+/**
+ * Function: 接收重试失败的元素，供事后重放
+ * 调用方不会因为死信而阻塞：实现不得在 offer 中等待 I/O，无法接收时返回 false。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:43:30
+ */
+public interface DeadLetterSink<T> {
+
+    /**
+     * @param item 调用的输入，写入完成前不应再被修改
+     * @param outcome 失败调用的结果，提供最后一次attempt的异常与耗时
+     * @return 是否接收了该元素
+     */
+    boolean offer(T item, RetryOutcome<?> outcome);
+}
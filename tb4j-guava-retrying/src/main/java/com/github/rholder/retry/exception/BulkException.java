@@ -0,0 +1,45 @@
+package com.github.rholder.retry.exception;
+
+import com.github.rholder.retry.bulk.BulkFailure;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: {@link com.github.rholder.retry.bulk.FailureMode#FAIL_FAST} 下有元素重试失败，批处理已停止
+ * cause 为该元素最后一次attempt的异常，因结果而放弃时为 null
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 23:16:38
+ */
+@Immutable
+public final class BulkException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BulkFailure<?> failure;
+    private final long succeeded;
+
+    public BulkException(BulkFailure<?> failure, long succeeded) {
+        super(null, failure.getOutcome().getFailureCause());
+        this.failure = failure;
+        this.succeeded = succeeded;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Bulk processing stopped at item " + failure.getIndex() + " after " + succeeded + " succeeded: "
+                + failure.getOutcome();
+    }
+
+    public BulkFailure<?> getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return 停止前已成功发出的元素数
+     */
+    public long getSucceeded() {
+        return succeeded;
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.rholder.retry.exception;
+
+import com.github.rholder.retry.RetryOutcome;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Function: 失败的副本过多，{@link com.github.rholder.retry.QuorumRetryer} 已不可能凑齐 quorum
+ * cause 为第一个失败副本最后一次attempt的异常，副本因结果而放弃时可能为 null
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 21:02:14
+ */
+@Immutable
+public final class QuorumException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int quorum;
+    private final int replicas;
+    private final int successes;
+    private final List<RetryOutcome<?>> failures;
+
+    public QuorumException(int quorum, int replicas, int successes, List<RetryOutcome<?>> failures) {
+        super(null, failures.isEmpty() ? null : failures.get(0).getFailureCause());
+        this.quorum = quorum;
+        this.replicas = replicas;
+        this.successes = successes;
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    @Override
+    public String getMessage() {
+        return "Quorum of " + quorum + " out of " + replicas + " replicas is unreachable: "
+                + successes + " succeeded, " + failures.size() + " failed";
+    }
+
+    public int getQuorum() {
+        return quorum;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return 放弃时已成功的副本数
+     */
+    public int getSuccesses() {
+        return successes;
+    }
+
+    /**
+     * @return 各失败副本的结果，按失败的先后顺序
+     */
+    public List<RetryOutcome<?>> getFailures() {
+        return failures;
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.rholder.retry.failover;
+
+/**
+ * Function: 针对某个端点执行的attempt，端点由 {@link FailoverRetryer} 为每次attempt选择
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 21:24:10
+ */
+public interface EndpointCallable<E, V> {
+
+    V call(E endpoint) throws Exception;
+}
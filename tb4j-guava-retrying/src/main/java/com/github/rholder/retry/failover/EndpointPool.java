@@ -0,0 +1,402 @@
+package com.github.rholder.retry.failover;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 一组可互相替代的端点以及它们的健康状况，供 {@link FailoverRetryer} 为每次attempt选择端点
+ * 每个端点维护延迟与错误率的 EWMA 以及进行中的请求数；选择时随机取两个候选，取代价较低者(power of two choices)。
+ * 错误率在没有新样本时随时间衰减，失败过而不再被选中的端点会逐渐重新获得流量。
+ * 错误率超过阈值的端点被摘除一段时间，摘除时长随连续摘除次数翻倍；到期后在恢复窗口内按比例逐步恢复流量，
+ * 而不是立即承接全部流量。被摘除的端点不超过 maxEjectedFraction，避免全部摘除后无端点可用。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 21:26:45
+ */
+@ThreadSafe
+public final class EndpointPool<E> {
+
+    private static final int MAX_EJECTION_DOUBLINGS = 6;
+
+    private final List<EndpointState<E>> states;
+    private final Map<E, EndpointState<E>> statesByEndpoint;
+    private final double alpha;
+    private final double errorRateThreshold;
+    private final int minimumSamples;
+    private final long baseEjectionNanos;
+    private final long readmissionNanos;
+    private final double errorDecayNanos;
+    private final int maxEjected;
+    private final Ticker ticker;
+
+    private EndpointPool(Builder<E> builder) {
+        this.alpha = builder.alpha;
+        this.errorRateThreshold = builder.errorRateThreshold;
+        this.minimumSamples = builder.minimumSamples;
+        this.baseEjectionNanos = builder.baseEjectionNanos;
+        this.readmissionNanos = builder.readmissionNanos;
+        this.errorDecayNanos = builder.errorDecayNanos;
+        this.maxEjected = (int) Math.floor(builder.endpoints.size() * builder.maxEjectedFraction);
+        this.ticker = builder.ticker == null ? Ticker.systemTicker() : builder.ticker;
+        this.states = new ArrayList<EndpointState<E>>(builder.endpoints.size());
+        this.statesByEndpoint = new HashMap<E, EndpointState<E>>();
+        for (E endpoint : builder.endpoints) {
+            EndpointState<E> state = new EndpointState<E>(endpoint);
+            states.add(state);
+            statesByEndpoint.put(endpoint, state);
+        }
+    }
+
+    public static <E> Builder<E> newBuilder() {
+        return new Builder<E>();
+    }
+
+    /**
+     * 为下一次attempt选择端点
+     * @param exclude 不希望选中的端点，通常是刚刚失败的端点；只有它可用时仍会返回它
+     */
+    public E select(@Nullable E exclude) {
+        long now = ticker.read();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = states.size();
+        EndpointState<E> first = null;
+        EndpointState<E> second = null;
+        int eligible = 0;
+        // 蓄水池抽样取两个可用候选，不分配临时集合
+        for (int i = 0; i < size; i++) {
+            EndpointState<E> state = states.get(i);
+            if (state.endpoint.equals(exclude) || state.isEjected(now)) {
+                continue;
+            }
+            eligible++;
+            if (eligible == 1) {
+                first = state;
+            } else if (eligible == 2) {
+                second = state;
+            } else {
+                int slot = random.nextInt(eligible);
+                if (slot == 0) {
+                    first = state;
+                } else if (slot == 1) {
+                    second = state;
+                }
+            }
+        }
+        if (first == null) {
+            return fallback(exclude, now);
+        }
+        if (second == null) {
+            return first.endpoint;
+        }
+        double firstCost = first.cost(now, readmissionNanos, errorDecayNanos, random);
+        double secondCost = second.cost(now, readmissionNanos, errorDecayNanos, random);
+        if (firstCost == secondCost) {
+            // 代价相同(如都还没有记录)时随机选择，避免总是偏向列表靠前的端点
+            return random.nextBoolean() ? first.endpoint : second.endpoint;
+        }
+        return firstCost < secondCost ? first.endpoint : second.endpoint;
+    }
+
+    /**
+     * 没有可用候选时，选择最早恢复的被摘除端点，最后才是被排除的端点
+     */
+    private E fallback(@Nullable E exclude, long now) {
+        EndpointState<E> best = null;
+        for (EndpointState<E> state : states) {
+            if (!state.endpoint.equals(exclude) && (best == null || state.ejectedUntil(now) < best.ejectedUntil(now))) {
+                best = state;
+            }
+        }
+        return best == null ? states.get(0).endpoint : best.endpoint;
+    }
+
+    /**
+     * attempt开始，计入进行中的请求数
+     */
+    void onStart(E endpoint) {
+        state(endpoint).onStart();
+    }
+
+    /**
+     * attempt结束，更新 EWMA，错误率超过阈值时摘除该端点
+     */
+    void onComplete(E endpoint, long latencyNanos, boolean success) {
+        EndpointState<E> state = state(endpoint);
+        long now = ticker.read();
+        if (state.onComplete(latencyNanos, success, alpha, errorRateThreshold, minimumSamples, errorDecayNanos, now)) {
+            tryEject(state, now);
+        }
+    }
+
+    private synchronized void tryEject(EndpointState<E> state, long now) {
+        int ejected = 0;
+        for (EndpointState<E> other : states) {
+            if (other.isEjected(now)) {
+                ejected++;
+            }
+        }
+        if (ejected < maxEjected) {
+            state.eject(now, baseEjectionNanos, readmissionNanos, MAX_EJECTION_DOUBLINGS);
+        }
+    }
+
+    private EndpointState<E> state(E endpoint) {
+        EndpointState<E> state = statesByEndpoint.get(endpoint);
+        Preconditions.checkArgument(state != null, "unknown endpoint %s", endpoint);
+        return state;
+    }
+
+    public List<E> getEndpoints() {
+        List<E> endpoints = new ArrayList<E>(states.size());
+        for (EndpointState<E> state : states) {
+            endpoints.add(state.endpoint);
+        }
+        return endpoints;
+    }
+
+    public boolean isEjected(E endpoint) {
+        return state(endpoint).isEjected(ticker.read());
+    }
+
+    /**
+     * @return 延迟的 EWMA，纳秒；尚无记录时为 0
+     */
+    public long getLatencyNanos(E endpoint) {
+        return state(endpoint).latencyNanos();
+    }
+
+    /**
+     * @return 错误率的 EWMA，含随时间的衰减，[0, 1]
+     */
+    public double getErrorRate(E endpoint) {
+        return state(endpoint).errorRate(ticker.read(), errorDecayNanos);
+    }
+
+    @Override
+    public String toString() {
+        long now = ticker.read();
+        StringBuilder sb = new StringBuilder("EndpointPool{");
+        for (int i = 0; i < states.size(); i++) {
+            EndpointState<E> state = states.get(i);
+            sb.append(i == 0 ? "" : ", ").append(state.endpoint)
+                    .append(String.format(Locale.ROOT, "[latency=%.3fms errors=%.2f%s]", state.latencyNanos() / 1e6d,
+                            state.errorRate(now, errorDecayNanos), state.isEjected(now) ? " ejected" : ""));
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * 单个端点的统计，以自身为锁
+     */
+    @ThreadSafe
+    private static final class EndpointState<E> {
+        private final E endpoint;
+        @GuardedBy("this")
+        private double latencyNanos;
+        @GuardedBy("this")
+        private double errorRate;
+        @GuardedBy("this")
+        private long errorRateTime;
+        @GuardedBy("this")
+        private int samples;
+        @GuardedBy("this")
+        private int inflight;
+        @GuardedBy("this")
+        private int ejections;
+        @GuardedBy("this")
+        private long ejectedUntil;
+        @GuardedBy("this")
+        private long readmittedUntil;
+        @GuardedBy("this")
+        private boolean everEjected;
+
+        EndpointState(E endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        synchronized void onStart() {
+            inflight++;
+        }
+
+        /**
+         * @return 是否应被摘除
+         */
+        synchronized boolean onComplete(long latency, boolean success, double alpha, double threshold, int minimumSamples,
+                                        double decayNanos, long now) {
+            inflight--;
+            latencyNanos = samples == 0 ? latency : latencyNanos + alpha * (latency - latencyNanos);
+            errorRate = errorRate(now, decayNanos);
+            errorRateTime = now;
+            errorRate += alpha * ((success ? 0d : 1d) - errorRate);
+            samples++;
+            if (success && everEjected && !isEjected(now) && errorRate < threshold / 2d) {
+                // 恢复后重新稳定，之后再被摘除时从基础时长开始
+                ejections = 0;
+            }
+            return !success && samples >= minimumSamples && errorRate >= threshold && !isEjected(now);
+        }
+
+        synchronized void eject(long now, long baseNanos, long readmissionNanos, int maxDoublings) {
+            long duration = baseNanos << Math.min(ejections, maxDoublings);
+            ejections++;
+            everEjected = true;
+            ejectedUntil = now + duration;
+            readmittedUntil = ejectedUntil + readmissionNanos;
+            // 恢复后的流量由恢复窗口限制，错误率从零开始，需要重新积累证据才会再次被摘除
+            samples = 0;
+            errorRate = 0d;
+            errorRateTime = ejectedUntil;
+        }
+
+        synchronized boolean isEjected(long now) {
+            return everEjected && now - ejectedUntil < 0L;
+        }
+
+        synchronized long ejectedUntil(long now) {
+            return isEjected(now) ? ejectedUntil : now;
+        }
+
+        /**
+         * 延迟、进行中请求数与错误率共同决定的代价；恢复窗口内按已恢复的比例放大代价，流量随之逐步回升
+         */
+        synchronized double cost(long now, long readmissionNanos, double decayNanos, ThreadLocalRandom random) {
+            double cost = (latencyNanos + 1d) * (inflight + 1) / Math.max(1d - errorRate(now, decayNanos), 0.01d);
+            if (everEjected && readmissionNanos > 0L && now - readmittedUntil < 0L) {
+                double admitted = 1d - (double) (readmittedUntil - now) / readmissionNanos;
+                if (random.nextDouble() >= admitted) {
+                    return Double.MAX_VALUE;
+                }
+            }
+            return cost;
+        }
+
+        synchronized long latencyNanos() {
+            return (long) latencyNanos;
+        }
+
+        /**
+         * 自上次样本起按时间常数 decayNanos 指数衰减
+         */
+        synchronized double errorRate(long now, double decayNanos) {
+            long elapsed = now - errorRateTime;
+            return elapsed <= 0L ? errorRate : errorRate * Math.exp(-elapsed / decayNanos);
+        }
+    }
+
+    @NotThreadSafe
+    public static final class Builder<E> {
+        private final List<E> endpoints = new ArrayList<E>();
+        private double alpha = 0.3d;
+        private double errorRateThreshold = 0.5d;
+        private int minimumSamples = 5;
+        private long baseEjectionNanos = TimeUnit.SECONDS.toNanos(30L);
+        private long readmissionNanos = TimeUnit.SECONDS.toNanos(30L);
+        private double maxEjectedFraction = 0.5d;
+        private double errorDecayNanos = TimeUnit.SECONDS.toNanos(10L);
+        private Ticker ticker;
+
+        private Builder() {
+        }
+
+        public Builder<E> withEndpoint(@Nonnull E endpoint) {
+            Preconditions.checkNotNull(endpoint, "endpoint may not be null");
+            Preconditions.checkArgument(!endpoints.contains(endpoint), "duplicate endpoint %s", endpoint);
+            endpoints.add(endpoint);
+            return this;
+        }
+
+        public Builder<E> withEndpoints(@Nonnull Iterable<? extends E> endpoints) {
+            Preconditions.checkNotNull(endpoints, "endpoints may not be null");
+            for (E endpoint : endpoints) {
+                withEndpoint(endpoint);
+            }
+            return this;
+        }
+
+        /**
+         * @param alpha EWMA 中最新一次样本的权重，(0, 1]，默认 0.3
+         */
+        public Builder<E> withSmoothing(double alpha) {
+            Preconditions.checkArgument(alpha > 0d && alpha <= 1d, "alpha must be in (0, 1] but is %s", alpha);
+            this.alpha = alpha;
+            return this;
+        }
+
+        /**
+         * @param errorRateThreshold 错误率 EWMA 达到该值时摘除，默认 0.5
+         * @param minimumSamples 至少记录多少次attempt后才会摘除，默认 5
+         */
+        public Builder<E> withOutlierEjection(double errorRateThreshold, int minimumSamples) {
+            Preconditions.checkArgument(errorRateThreshold > 0d && errorRateThreshold <= 1d,
+                    "errorRateThreshold must be in (0, 1] but is %s", errorRateThreshold);
+            Preconditions.checkArgument(minimumSamples >= 1, "minimumSamples must be >= 1 but is %s", minimumSamples);
+            this.errorRateThreshold = errorRateThreshold;
+            this.minimumSamples = minimumSamples;
+            return this;
+        }
+
+        /**
+         * @param duration 第一次摘除的时长，此后每次连续摘除翻倍，默认 30 秒
+         */
+        public Builder<E> withEjectionDuration(long duration, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(duration > 0L, "duration must be > 0 but is %s", duration);
+            this.baseEjectionNanos = timeUnit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * @param duration 摘除结束后流量从 0 线性恢复到全部所用的时长，为 0 时立即全部恢复，默认 30 秒
+         */
+        public Builder<E> withReadmissionWindow(long duration, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(duration >= 0L, "duration must be >= 0 but is %s", duration);
+            this.readmissionNanos = timeUnit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * @param duration 没有新样本时错误率衰减的时间常数，经过该时长衰减为约 37%，默认 10 秒
+         */
+        public Builder<E> withErrorDecay(long duration, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(duration > 0L, "duration must be > 0 but is %s", duration);
+            this.errorDecayNanos = timeUnit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * @param fraction 同时被摘除的端点最多占比，[0, 1)，默认 0.5
+         */
+        public Builder<E> withMaxEjectedFraction(double fraction) {
+            Preconditions.checkArgument(fraction >= 0d && fraction < 1d, "fraction must be in [0, 1) but is %s", fraction);
+            this.maxEjectedFraction = fraction;
+            return this;
+        }
+
+        public Builder<E> withTicker(@Nonnull Ticker ticker) {
+            Preconditions.checkNotNull(ticker, "ticker may not be null");
+            this.ticker = ticker;
+            return this;
+        }
+
+        public EndpointPool<E> build() {
+            Preconditions.checkState(!endpoints.isEmpty(), "at least one endpoint is required");
+            return new EndpointPool<E>(this);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.github.rholder.retry.failover;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Attempts;
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.Retryer;
+import com.github.rholder.retry.exception.RetryException;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Predicates;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Function: 每次attempt由 {@link EndpointPool} 选择端点的 {@link Retryer}
+ * 重试不会落在刚刚失败的端点上(除非只剩它可用)，每次attempt的耗时与成败回馈给端点池，
+ * 使重试和后续调用都流向健康的端点。抛出异常计为端点的错误；返回的结果被 rejectionPredicate 判定需要重试时同样计为错误，否则计为成功。
+ * 设置了 {@link com.github.rholder.retry.timelimit.AttemptTimeLimiter} 时，超时的attempt在选择下一个端点时即视为失败，
+ * 不必等待它真正结束。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildFailover(EndpointPool)} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 21:41:27
+ */
+@ThreadSafe
+public final class FailoverRetryer<E, V> {
+
+    private final Retryer<V> retryer;
+    private final EndpointPool<E> pool;
+    private final Ticker ticker;
+    private final Predicate<Attempt<V>> rejectionPredicate;
+
+    /**
+     * 返回结果总是计为端点成功
+     */
+    public FailoverRetryer(@Nonnull Retryer<V> retryer, @Nonnull EndpointPool<E> pool) {
+        this(retryer, pool, Ticker.systemTicker());
+    }
+
+    /**
+     * 返回结果总是计为端点成功
+     * @param ticker 计量attempt耗时
+     */
+    public FailoverRetryer(@Nonnull Retryer<V> retryer, @Nonnull EndpointPool<E> pool, @Nonnull Ticker ticker) {
+        this(retryer, pool, ticker, Predicates.<Attempt<V>>alwaysFalse());
+    }
+
+    /**
+     * @param ticker 计量attempt耗时
+     * @param rejectionPredicate 与 retryer 相同的重试判定，它要求重试的结果计为端点失败
+     */
+    public FailoverRetryer(@Nonnull Retryer<V> retryer, @Nonnull EndpointPool<E> pool, @Nonnull Ticker ticker,
+                           @Nonnull Predicate<Attempt<V>> rejectionPredicate) {
+        Preconditions.checkNotNull(retryer, "retryer may not be null");
+        Preconditions.checkNotNull(pool, "pool may not be null");
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkNotNull(rejectionPredicate, "rejectionPredicate may not be null");
+        this.retryer = retryer;
+        this.pool = pool;
+        this.ticker = ticker;
+        this.rejectionPredicate = rejectionPredicate;
+    }
+
+    /**
+     * @see Retryer#call(Callable)
+     */
+    public V call(@Nonnull EndpointCallable<E, V> callable) throws ExecutionException, RetryException {
+        return retryer.call(new FailoverCallable<E, V>(pool, ticker, rejectionPredicate, callable));
+    }
+
+    /**
+     * @see Retryer#tryCall(Callable)
+     */
+    public RetryOutcome<V> tryCall(@Nonnull EndpointCallable<E, V> callable) {
+        return retryer.tryCall(new FailoverCallable<E, V>(pool, ticker, rejectionPredicate, callable));
+    }
+
+    public EndpointPool<E> getPool() {
+        return pool;
+    }
+
+    /**
+     * 一次调用内的状态：上一次attempt选中的端点；它没有成功(包括超时后仍未结束)时下一次attempt避开它。
+     * 设置了时间限制器时各次attempt在不同线程上执行，超时的attempt可能仍在运行，因此状态都经由 volatile 字段传递
+     */
+    @ThreadSafe
+    private static final class FailoverCallable<E, V> implements Callable<V> {
+        private final EndpointPool<E> pool;
+        private final Ticker ticker;
+        private final Predicate<Attempt<V>> rejectionPredicate;
+        private final EndpointCallable<E, V> callable;
+        private final AtomicLong attemptNumber = new AtomicLong();
+        private final long startTime;
+        private volatile Selection<E> lastSelection;
+
+        FailoverCallable(EndpointPool<E> pool, Ticker ticker, Predicate<Attempt<V>> rejectionPredicate, EndpointCallable<E, V> callable) {
+            Preconditions.checkNotNull(callable, "callable may not be null");
+            this.pool = pool;
+            this.ticker = ticker;
+            this.rejectionPredicate = rejectionPredicate;
+            this.callable = callable;
+            this.startTime = ticker.read();
+        }
+
+        public V call() throws Exception {
+            Selection<E> previous = lastSelection;
+            E endpoint = pool.select(previous == null || previous.succeeded ? null : previous.endpoint);
+            // 在调用前登记，超时的attempt即使还没有结束也不会被再次选中
+            Selection<E> selection = new Selection<E>(endpoint);
+            lastSelection = selection;
+            long number = attemptNumber.incrementAndGet();
+            pool.onStart(endpoint);
+            long start = ticker.read();
+            boolean success = false;
+            try {
+                V result = callable.call(endpoint);
+                success = !isRejected(result, number, start);
+                selection.succeeded = success;
+                return result;
+            } finally {
+                pool.onComplete(endpoint, ticker.read() - start, success);
+            }
+        }
+
+        /**
+         * 判定本身抛出的异常由 retryer 再次判定时抛出，这里按成功计
+         */
+        private boolean isRejected(V result, long number, long start) {
+            try {
+                long delayMillis = TimeUnit.NANOSECONDS.toMillis(start - startTime);
+                return rejectionPredicate.apply(Attempts.newResultAttempt(result, number, delayMillis));
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 一次attempt选中的端点，succeeded 只由该attempt自己的线程写入
+     */
+    @ThreadSafe
+    private static final class Selection<E> {
+        private final E endpoint;
+        private volatile boolean succeeded;
+
+        Selection(E endpoint) {
+            this.endpoint = endpoint;
+        }
+    }
+}
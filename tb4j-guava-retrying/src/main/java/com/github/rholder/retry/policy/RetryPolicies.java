@@ -0,0 +1,186 @@
+package com.github.rholder.retry.policy;
+
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.schedule.AttemptSchedules;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 把紧凑的文本规格解析为 {@link RetryPolicy}，解析结果直接使用现有的策略工厂
+ *
+ * <pre>
+ *   stopAfterAttempt=5,exponentialWait=100ms..10s,jitter=full,timeout=250ms
+ * </pre>
+ *
+ * 支持的配置项(以逗号分隔，时长单位 ms/s/m/h，省略单位为毫秒)：
+ * <ul>
+ *   <li>停止：neverStop、stopAfterAttempt=N、stopAfterDelay=时长，最多一个</li>
+ *   <li>等待：noWait、fixedWait=时长、randomWait=最小..最大、incrementingWait=初始+增量、
+ *       exponentialWait=首次..最大、fibonacciWait=首次..最大，多个时叠加({@link WaitStrategies#join})</li>
+ *   <li>jitter=none|full|equal，作用于叠加后的等待</li>
+ *   <li>timeout=时长，单次attempt超时</li>
+ * </ul>
+ * 使用 stopAfterAttempt 且等待是确定性的时，等待在解析时编译为 {@link com.github.rholder.retry.schedule.AttemptSchedule}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 14:40:08
+ */
+public final class RetryPolicies {
+
+    /**
+     * 解析时预先编译的等待项上限
+     */
+    private static final int MAX_COMPILED_ATTEMPTS = 1024;
+
+    private RetryPolicies() {
+    }
+
+    /**
+     * 解析规格；包含 timeout 时需再通过 {@link RetryPolicy#withTimeLimitExecutor(ExecutorService)} 指定执行器
+     * @throws IllegalArgumentException 规格非法
+     */
+    public static RetryPolicy parse(@Nonnull String spec) throws IllegalArgumentException {
+        Preconditions.checkNotNull(spec, "spec may not be null");
+        StopStrategy stopStrategy = null;
+        List<WaitStrategy> waitStrategies = new ArrayList<WaitStrategy>();
+        String jitter = "none";
+        long timeoutMillis = -1L;
+        int maxAttempts = 0;
+
+        for (String entry : spec.split(",")) {
+            String item = entry.trim();
+            if (item.isEmpty()) {
+                continue;
+            }
+            int eq = item.indexOf('=');
+            String key = eq < 0 ? item : item.substring(0, eq).trim();
+            String value = eq < 0 ? null : item.substring(eq + 1).trim();
+
+            if ("neverStop".equals(key) || "stopAfterAttempt".equals(key) || "stopAfterDelay".equals(key)) {
+                Preconditions.checkArgument(stopStrategy == null, "more than one stop strategy in spec: %s", spec);
+                if ("neverStop".equals(key)) {
+                    stopStrategy = StopStrategies.neverStop();
+                } else if ("stopAfterAttempt".equals(key)) {
+                    maxAttempts = parseInt(key, required(key, value));
+                    stopStrategy = StopStrategies.stopAfterAttempt(maxAttempts);
+                } else {
+                    stopStrategy = StopStrategies.stopAfterDelay(parseDuration(required(key, value)), TimeUnit.MILLISECONDS);
+                }
+            } else if ("noWait".equals(key)) {
+                waitStrategies.add(WaitStrategies.noWait());
+            } else if ("fixedWait".equals(key)) {
+                waitStrategies.add(WaitStrategies.fixedWait(parseDuration(required(key, value)), TimeUnit.MILLISECONDS));
+            } else if ("randomWait".equals(key)) {
+                long[] range = parseRange(key, required(key, value), "..");
+                waitStrategies.add(WaitStrategies.randomWait(range[0], TimeUnit.MILLISECONDS, range[1], TimeUnit.MILLISECONDS));
+            } else if ("incrementingWait".equals(key)) {
+                long[] range = parseRange(key, required(key, value), "+");
+                waitStrategies.add(WaitStrategies.incrementingWait(range[0], TimeUnit.MILLISECONDS, range[1], TimeUnit.MILLISECONDS));
+            } else if ("exponentialWait".equals(key)) {
+                // 指数等待第一次为 multiplier * 2
+                long[] range = parseRange(key, required(key, value), "..");
+                waitStrategies.add(WaitStrategies.exponentialWait(Math.max(1L, range[0] / 2), range[1], TimeUnit.MILLISECONDS));
+            } else if ("fibonacciWait".equals(key)) {
+                long[] range = parseRange(key, required(key, value), "..");
+                waitStrategies.add(WaitStrategies.fibonacciWait(Math.max(1L, range[0]), range[1], TimeUnit.MILLISECONDS));
+            } else if ("jitter".equals(key)) {
+                jitter = required(key, value).toLowerCase(Locale.ROOT);
+                Preconditions.checkArgument("none".equals(jitter) || "full".equals(jitter) || "equal".equals(jitter),
+                        "jitter must be one of none, full, equal but is %s", jitter);
+            } else if ("timeout".equals(key)) {
+                timeoutMillis = parseDuration(required(key, value));
+            } else {
+                throw new IllegalArgumentException("unknown retry policy item '" + key + "' in spec: " + spec);
+            }
+        }
+
+        WaitStrategy waitStrategy;
+        if (waitStrategies.isEmpty()) {
+            waitStrategy = WaitStrategies.noWait();
+        } else if (waitStrategies.size() == 1) {
+            waitStrategy = waitStrategies.get(0);
+        } else {
+            waitStrategy = WaitStrategies.join(waitStrategies.toArray(new WaitStrategy[waitStrategies.size()]));
+        }
+        if (!waitStrategies.isEmpty() && maxAttempts > 1 && waitStrategy instanceof DeterministicWaitStrategy) {
+            waitStrategy = AttemptSchedules.compile(waitStrategy, Math.min(maxAttempts - 1, MAX_COMPILED_ATTEMPTS));
+        }
+        if ("full".equals(jitter)) {
+            waitStrategy = WaitStrategies.fullJitter(waitStrategy);
+        } else if ("equal".equals(jitter)) {
+            waitStrategy = WaitStrategies.equalJitter(waitStrategy);
+        }
+        return new RetryPolicy(spec, stopStrategy == null ? StopStrategies.neverStop() : stopStrategy,
+                waitStrategy, timeoutMillis, null);
+    }
+
+    /**
+     * 解析规格，timeout 使用给定执行器
+     * @throws IllegalArgumentException 规格非法
+     */
+    public static RetryPolicy parse(@Nonnull String spec, @Nonnull ExecutorService timeLimitExecutor) throws IllegalArgumentException {
+        return parse(spec).withTimeLimitExecutor(timeLimitExecutor);
+    }
+
+    /**
+     * 解析时长，如 250ms、10s、1m、2h，省略单位为毫秒
+     */
+    static long parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        TimeUnit timeUnit;
+        String number;
+        if (value.endsWith("ms")) {
+            timeUnit = TimeUnit.MILLISECONDS;
+            number = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("s")) {
+            timeUnit = TimeUnit.SECONDS;
+            number = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("m")) {
+            timeUnit = TimeUnit.MINUTES;
+            number = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("h")) {
+            timeUnit = TimeUnit.HOURS;
+            number = value.substring(0, value.length() - 1);
+        } else {
+            timeUnit = TimeUnit.MILLISECONDS;
+            number = value;
+        }
+        try {
+            long duration = Long.parseLong(number.trim());
+            Preconditions.checkArgument(duration >= 0L, "duration must be >= 0 but is %s", text);
+            return timeUnit.toMillis(duration);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid duration '" + text + "'", e);
+        }
+    }
+
+    private static long[] parseRange(String key, String value, String separator) {
+        int index = value.indexOf(separator);
+        Preconditions.checkArgument(index > 0, "%s expects a value like a%sb but is %s", key, separator, value);
+        return new long[]{parseDuration(value.substring(0, index)), parseDuration(value.substring(index + separator.length()))};
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " expects an integer but is '" + value + "'", e);
+        }
+    }
+
+    private static String required(String key, String value) {
+        Preconditions.checkArgument(value != null && !value.isEmpty(), "%s requires a value", key);
+        return value;
+    }
+}
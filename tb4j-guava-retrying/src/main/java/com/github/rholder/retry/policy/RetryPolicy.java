@@ -0,0 +1,111 @@
+package com.github.rholder.retry.policy;
+
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiters;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 不可变的重试策略快照：停止策略、等待策略与单次attempt超时
+ * 通常由 {@link RetryPolicies#parse(String)} 从文本规格解析得到
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 14:32:50
+ */
+@Immutable
+public final class RetryPolicy {
+
+    private final String spec;
+    private final StopStrategy stopStrategy;
+    private final WaitStrategy waitStrategy;
+    private final long attemptTimeoutMillis;
+    private final ExecutorService timeLimitExecutor;
+
+    RetryPolicy(String spec,
+                @Nonnull StopStrategy stopStrategy,
+                @Nonnull WaitStrategy waitStrategy,
+                long attemptTimeoutMillis,
+                @Nullable ExecutorService timeLimitExecutor) {
+        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        this.spec = spec;
+        this.stopStrategy = stopStrategy;
+        this.waitStrategy = waitStrategy;
+        this.attemptTimeoutMillis = attemptTimeoutMillis;
+        this.timeLimitExecutor = timeLimitExecutor;
+    }
+
+    /**
+     * 由给定策略直接构造，不限制单次attempt时长
+     */
+    public static RetryPolicy of(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy) {
+        return new RetryPolicy(null, stopStrategy, waitStrategy, -1L, null);
+    }
+
+    public StopStrategy getStopStrategy() {
+        return stopStrategy;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * @return 单次attempt超时，毫秒；未设置时为 -1
+     */
+    public long getAttemptTimeoutMillis() {
+        return attemptTimeoutMillis;
+    }
+
+    /**
+     * 按超时设置创建时间限制器，未设置超时时返回 {@link AttemptTimeLimiters#noTimeLimit()}
+     * @throws IllegalStateException 设置了超时但没有执行器，见 {@link #withTimeLimitExecutor(ExecutorService)}
+     */
+    public <V> AttemptTimeLimiter<V> newAttemptTimeLimiter() throws IllegalStateException {
+        if (attemptTimeoutMillis < 0L) {
+            return AttemptTimeLimiters.noTimeLimit();
+        }
+        Preconditions.checkState(timeLimitExecutor != null, "an attempt timeout requires an ExecutorService: %s", this);
+        return AttemptTimeLimiters.fixedTimeLimit(attemptTimeoutMillis, TimeUnit.MILLISECONDS, timeLimitExecutor);
+    }
+
+    /**
+     * 基于本策略返回一个新的策略，单次attempt超时使用给定执行器
+     */
+    public RetryPolicy withTimeLimitExecutor(@Nonnull ExecutorService executorService) {
+        Preconditions.checkNotNull(executorService, "executorService may not be null");
+        return new RetryPolicy(spec, stopStrategy, waitStrategy, attemptTimeoutMillis, executorService);
+    }
+
+    /**
+     * 本策略未指定执行器时沿用 other 的执行器，用于热更新时保留原有的时间限制线程池
+     */
+    public RetryPolicy withTimeLimitExecutorOf(@Nonnull RetryPolicy other) {
+        Preconditions.checkNotNull(other, "other may not be null");
+        if (timeLimitExecutor != null || other.timeLimitExecutor == null) {
+            return this;
+        }
+        return new RetryPolicy(spec, stopStrategy, waitStrategy, attemptTimeoutMillis, other.timeLimitExecutor);
+    }
+
+    /**
+     * @return 解析来源的文本规格，直接构造时为 null
+     */
+    @Nullable
+    public String getSpec() {
+        return spec;
+    }
+
+    @Override
+    public String toString() {
+        return spec != null ? spec : "RetryPolicy{" + stopStrategy + ", " + waitStrategy + "}";
+    }
+}
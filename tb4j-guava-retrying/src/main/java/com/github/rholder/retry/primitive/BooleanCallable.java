@@ -0,0 +1,12 @@
+package com.github.rholder.retry.primitive;
+
+/**
+ * Function: 返回 boolean 的调用，配合 {@link BooleanRetryer} 使用
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:12:55
+ */
+public interface BooleanCallable {
+    boolean call() throws Exception;
+}
@@ -0,0 +1,75 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 结果为 boolean 的 retryer，常用于轮询健康检查直至返回 true
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildBoolean(boolean)} 创建
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:31:17
+ */
+public final class BooleanRetryer extends PrimitiveRetryer {
+
+    /**
+     * 0 不按结果重试，1 结果为 false 时重试，2 结果为 true 时重试
+     */
+    private final int retryOn;
+
+    /**
+     * @param retryOn 结果等于该值时重试，为 null 时只按异常重试
+     */
+    public BooleanRetryer(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy, @Nonnull BlockStrategy blockStrategy,
+                          @Nonnull Predicate<Attempt<?>> exceptionPredicate, @Nonnull Collection<RetryListener> listeners,
+                          @Nonnull Ticker ticker, @Nullable Boolean retryOn) {
+        super(stopStrategy, waitStrategy, blockStrategy, exceptionPredicate, listeners, ticker);
+        this.retryOn = retryOn == null ? 0 : retryOn ? 2 : 1;
+    }
+
+    /**
+     * @see com.github.rholder.retry.Retryer#call(java.util.concurrent.Callable)
+     */
+    public boolean call(@Nonnull BooleanCallable callable) throws ExecutionException, RetryException {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        BooleanAttempt attempt = new BooleanAttempt(callable, retryOn);
+        retry(attempt);
+        return attempt.value;
+    }
+
+    private static final class BooleanAttempt extends MutableAttempt<Boolean> {
+        private final BooleanCallable callable;
+        private final int retryOn;
+        private boolean value;
+
+        BooleanAttempt(BooleanCallable callable, int retryOn) {
+            this.callable = callable;
+            this.retryOn = retryOn;
+        }
+
+        void invoke() throws Exception {
+            value = callable.call();
+        }
+
+        boolean rejectsResult() {
+            return retryOn != 0 && value == (retryOn == 2);
+        }
+
+        Boolean boxedResult() {
+            return Boolean.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.rholder.retry.primitive;
+
+/**
+ * Function: 返回 int 的调用，配合 {@link IntRetryer} 避免装箱
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:12:31
+ */
+public interface IntCallable {
+    int call() throws Exception;
+}
@@ -0,0 +1,70 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.function.IntPredicate;
+
+/**
+ * Function: 结果为 int 的 retryer，结果判定使用 {@link IntPredicate}，全程不装箱
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildInt(IntPredicate)} 创建
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:28:40
+ */
+public final class IntRetryer extends PrimitiveRetryer {
+
+    private final IntPredicate resultPredicate;
+
+    public IntRetryer(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy, @Nonnull BlockStrategy blockStrategy,
+                      @Nonnull Predicate<Attempt<?>> exceptionPredicate, @Nonnull Collection<RetryListener> listeners,
+                      @Nonnull Ticker ticker, @Nonnull IntPredicate resultPredicate) {
+        super(stopStrategy, waitStrategy, blockStrategy, exceptionPredicate, listeners, ticker);
+        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+        this.resultPredicate = resultPredicate;
+    }
+
+    /**
+     * @see com.github.rholder.retry.Retryer#call(java.util.concurrent.Callable)
+     */
+    public int call(@Nonnull IntCallable callable) throws ExecutionException, RetryException {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        IntAttempt attempt = new IntAttempt(callable, resultPredicate);
+        retry(attempt);
+        return attempt.value;
+    }
+
+    private static final class IntAttempt extends MutableAttempt<Integer> {
+        private final IntCallable callable;
+        private final IntPredicate resultPredicate;
+        private int value;
+
+        IntAttempt(IntCallable callable, IntPredicate resultPredicate) {
+            this.callable = callable;
+            this.resultPredicate = resultPredicate;
+        }
+
+        void invoke() throws Exception {
+            value = callable.call();
+        }
+
+        boolean rejectsResult() {
+            return resultPredicate.test(value);
+        }
+
+        Integer boxedResult() {
+            return value;
+        }
+    }
+}
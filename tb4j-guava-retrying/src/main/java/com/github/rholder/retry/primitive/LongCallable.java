@@ -0,0 +1,12 @@
+package com.github.rholder.retry.primitive;
+
+/**
+ * Function: 返回 long 的调用，配合 {@link LongRetryer} 避免装箱
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:12:04
+ */
+public interface LongCallable {
+    long call() throws Exception;
+}
@@ -0,0 +1,70 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongPredicate;
+
+/**
+ * Function: 结果为 long 的 retryer，结果判定使用 {@link LongPredicate}，全程不装箱
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildLong(LongPredicate)} 创建
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:26:03
+ */
+public final class LongRetryer extends PrimitiveRetryer {
+
+    private final LongPredicate resultPredicate;
+
+    public LongRetryer(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy, @Nonnull BlockStrategy blockStrategy,
+                       @Nonnull Predicate<Attempt<?>> exceptionPredicate, @Nonnull Collection<RetryListener> listeners,
+                       @Nonnull Ticker ticker, @Nonnull LongPredicate resultPredicate) {
+        super(stopStrategy, waitStrategy, blockStrategy, exceptionPredicate, listeners, ticker);
+        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+        this.resultPredicate = resultPredicate;
+    }
+
+    /**
+     * @see com.github.rholder.retry.Retryer#call(java.util.concurrent.Callable)
+     */
+    public long call(@Nonnull LongCallable callable) throws ExecutionException, RetryException {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        LongAttempt attempt = new LongAttempt(callable, resultPredicate);
+        retry(attempt);
+        return attempt.value;
+    }
+
+    private static final class LongAttempt extends MutableAttempt<Long> {
+        private final LongCallable callable;
+        private final LongPredicate resultPredicate;
+        private long value;
+
+        LongAttempt(LongCallable callable, LongPredicate resultPredicate) {
+            this.callable = callable;
+            this.resultPredicate = resultPredicate;
+        }
+
+        void invoke() throws Exception {
+            value = callable.call();
+        }
+
+        boolean rejectsResult() {
+            return resultPredicate.test(value);
+        }
+
+        Long boxedResult() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Attempts;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 一次调用内各次attempt共用的可变 {@link Attempt}，结果以基本类型保存，只有 {@link #getResult()} 才装箱
+ * 仅在监听器、停止和等待策略的回调期间有效；需要保留时使用 {@link #snapshot()}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:15:42
+ */
+@NotThreadSafe
+abstract class MutableAttempt<V> implements Attempt<V> {
+
+    private long attemptNumber;
+    private long delaySinceFirstAttempt;
+    private Throwable exception;
+
+    /**
+     * 执行一次调用并记录结果
+     */
+    abstract void invoke() throws Exception;
+
+    /**
+     * 结果是否需要重试
+     */
+    abstract boolean rejectsResult();
+
+    abstract V boxedResult();
+
+    final void reset(long attemptNumber) {
+        this.attemptNumber = attemptNumber;
+        this.exception = null;
+    }
+
+    final void setException(Throwable exception) {
+        this.exception = exception;
+    }
+
+    final void setDelaySinceFirstAttempt(long delaySinceFirstAttempt) {
+        this.delaySinceFirstAttempt = delaySinceFirstAttempt;
+    }
+
+    /**
+     * @return 当前状态的不可变副本
+     */
+    final Attempt<V> snapshot() {
+        return exception == null
+                ? Attempts.newResultAttempt(boxedResult(), attemptNumber, delaySinceFirstAttempt)
+                : Attempts.<V>newExceptionAttempt(exception, attemptNumber, delaySinceFirstAttempt);
+    }
+
+    public V get() throws ExecutionException {
+        if (exception != null) {
+            throw new ExecutionException(exception);
+        }
+        return boxedResult();
+    }
+
+    public boolean hasResult() {
+        return exception == null;
+    }
+
+    public boolean hasException() {
+        return exception != null;
+    }
+
+    public V getResult() throws IllegalStateException {
+        Preconditions.checkState(exception == null, "The attempt resulted in an exception, not in a result");
+        return boxedResult();
+    }
+
+    public Throwable getExceptionCause() throws IllegalStateException {
+        Preconditions.checkState(exception != null, "The attempt resulted in a result, not in an exception");
+        return exception;
+    }
+
+    public long getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    public long getDelaySinceFirstAttempt() {
+        return delaySinceFirstAttempt;
+    }
+}
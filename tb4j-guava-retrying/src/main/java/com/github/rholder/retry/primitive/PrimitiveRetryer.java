@@ -0,0 +1,88 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 基本类型 retryer 共用的重试循环，语义与 {@link com.github.rholder.retry.Retryer#call} 相同；
+ * 每次调用只分配一个 {@link MutableAttempt}，attempt之间不再分配对象。
+ * 配置来自 {@link com.github.rholder.retry.RetryerBuilder}，通过其 buildLong、buildInt、buildBoolean、buildVoid 创建
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:20:16
+ */
+abstract class PrimitiveRetryer {
+
+    private final StopStrategy stopStrategy;
+    private final WaitStrategy waitStrategy;
+    private final BlockStrategy blockStrategy;
+    private final Predicate<Attempt<?>> exceptionPredicate;
+    private final RetryListener[] listeners;
+    private final Ticker ticker;
+
+    /**
+     * @param exceptionPredicate 只对抛出异常的attempt求值，命中时重试；结果由子类按类型判定
+     */
+    PrimitiveRetryer(StopStrategy stopStrategy, WaitStrategy waitStrategy, BlockStrategy blockStrategy,
+                     Predicate<Attempt<?>> exceptionPredicate, Collection<RetryListener> listeners, Ticker ticker) {
+        this.stopStrategy = Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        this.waitStrategy = Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        this.blockStrategy = Preconditions.checkNotNull(blockStrategy, "blockStrategy may not be null");
+        this.exceptionPredicate = Preconditions.checkNotNull(exceptionPredicate, "exceptionPredicate may not be null");
+        this.listeners = Preconditions.checkNotNull(listeners, "listeners may not be null")
+                .toArray(new RetryListener[listeners.size()]);
+        this.ticker = Preconditions.checkNotNull(ticker, "ticker may not be null");
+    }
+
+    /**
+     * 重试直至结果不需要重试，返回时 attempt 中保存着最终结果
+     */
+    final void retry(MutableAttempt<?> attempt) throws ExecutionException, RetryException {
+        long startTime = ticker.read();
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            attempt.reset(attemptNumber);
+            try {
+                attempt.invoke();
+            } catch (Throwable t) {
+                attempt.setException(t);
+            }
+            attempt.setDelaySinceFirstAttempt(TimeUnit.NANOSECONDS.toMillis(ticker.read() - startTime));
+
+            for (RetryListener listener : listeners) {
+                listener.onRetry(attempt);
+            }
+
+            boolean rejected = attempt.hasException()
+                    ? exceptionPredicate.apply(attempt)
+                    : attempt.rejectsResult();
+            if (!rejected) {
+                if (attempt.hasException()) {
+                    throw new ExecutionException(attempt.getExceptionCause());
+                }
+                return;
+            }
+            if (stopStrategy.shouldStop(attempt)) {
+                throw new RetryException(attemptNumber, attempt.snapshot());
+            }
+            long sleepTime = waitStrategy.computeSleepTime(attempt);
+            try {
+                blockStrategy.block(sleepTime);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RetryException(attemptNumber, attempt.snapshot());
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.rholder.retry.primitive;
+
+/**
+ * Function: 无返回值的调用，与 {@link Runnable} 不同，可以抛出受检异常；配合 {@link VoidRetryer} 使用
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:13:20
+ */
+public interface VoidCallable {
+    void call() throws Exception;
+}
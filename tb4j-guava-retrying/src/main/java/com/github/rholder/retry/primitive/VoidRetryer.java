@@ -0,0 +1,72 @@
+package com.github.rholder.retry.primitive;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 无返回值的 retryer，只按异常重试；attempt 的结果恒为 null
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildVoid()} 创建
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:33:58
+ */
+public final class VoidRetryer extends PrimitiveRetryer {
+
+    public VoidRetryer(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy, @Nonnull BlockStrategy blockStrategy,
+                       @Nonnull Predicate<Attempt<?>> exceptionPredicate, @Nonnull Collection<RetryListener> listeners,
+                       @Nonnull Ticker ticker) {
+        super(stopStrategy, waitStrategy, blockStrategy, exceptionPredicate, listeners, ticker);
+    }
+
+    /**
+     * @see com.github.rholder.retry.Retryer#call(java.util.concurrent.Callable)
+     */
+    public void call(@Nonnull VoidCallable callable) throws ExecutionException, RetryException {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        retry(new VoidAttempt(callable));
+    }
+
+    /**
+     * 执行 {@link Runnable}，只有运行时异常会参与判定
+     */
+    public void run(@Nonnull final Runnable runnable) throws ExecutionException, RetryException {
+        Preconditions.checkNotNull(runnable, "runnable may not be null");
+        call(new VoidCallable() {
+            public void call() {
+                runnable.run();
+            }
+        });
+    }
+
+    private static final class VoidAttempt extends MutableAttempt<Void> {
+        private final VoidCallable callable;
+
+        VoidAttempt(VoidCallable callable) {
+            this.callable = callable;
+        }
+
+        void invoke() throws Exception {
+            callable.call();
+        }
+
+        boolean rejectsResult() {
+            return false;
+        }
+
+        Void boxedResult() {
+            return null;
+        }
+    }
+}
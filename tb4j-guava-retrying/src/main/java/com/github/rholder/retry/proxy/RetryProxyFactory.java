@@ -0,0 +1,253 @@
+package com.github.rholder.retry.proxy;
+
+import com.github.rholder.retry.ReloadableRetryer;
+import com.github.rholder.retry.RetryerRegistry;
+import com.github.rholder.retry.exception.RetryException;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Function: 为接口创建重试代理，标注了 {@link Retryable} 的方法通过注册表中同名的 retryer 执行
+ * 公开接口使用按接口生成的代理类（见 {@link RetryProxyGenerator}），直接调用目标方法，不分配参数数组、不装箱参数；
+ * 其他接口退回 {@link Proxy}，目标方法在创建代理时预先绑定为 {@link MethodHandle}。
+ * retryer 在创建时解析，之后策略热更新仍然生效。
+ *
+ * <pre>
+ * OrderService service = new RetryProxyFactory(registry).create(OrderService.class, new RemoteOrderService());
+ * </pre>
+ *
+ * 异常处理：不可重试的异常原样抛出；重试耗尽时，若方法声明了 {@link RetryException} 则抛出它，
+ * 否则抛出最后一次attempt的异常，由结果触发的重试耗尽包装为 {@link java.lang.reflect.UndeclaredThrowableException}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 16:34:52
+ */
+@ThreadSafe
+public final class RetryProxyFactory {
+
+    private static final Object[] NO_ARGS = new Object[0];
+    private static final MethodType SPREAD_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    private final RetryerRegistry registry;
+
+    public RetryProxyFactory(@Nonnull RetryerRegistry registry) {
+        Preconditions.checkNotNull(registry, "registry may not be null");
+        this.registry = registry;
+    }
+
+    /**
+     * 创建代理
+     * @param type 接口
+     * @param target 被代理的实现
+     */
+    public <T> T create(@Nonnull Class<T> type, @Nonnull T target) {
+        Preconditions.checkNotNull(type, "type may not be null");
+        Preconditions.checkNotNull(target, "target may not be null");
+        Preconditions.checkArgument(type.isInterface(), "%s is not an interface", type.getName());
+
+        Retryable typeRetryable = type.getAnnotation(Retryable.class);
+        RetryProxyGenerator.Template template = RetryProxyGenerator.template(type);
+        if (template != null) {
+            Method[] methods = template.getRetryableMethods();
+            Object[] retryingInvokers = new Object[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                retryingInvokers[i] = retryingInvoker(methods[i], retryable(methods[i], typeRetryable));
+            }
+            return type.cast(template.newInstance(target, retryingInvokers));
+        }
+
+        Map<Method, Invoker> invokers = new HashMap<Method, Invoker>();
+        for (Method method : type.getMethods()) {
+            Retryable retryable = retryable(method, typeRetryable);
+            invokers.put(method, new Invoker(bind(method, target), retryable == null ? null : retryingInvoker(method, retryable)));
+        }
+        for (String name : new String[]{"equals", "hashCode", "toString"}) {
+            Method method = objectMethod(name);
+            invokers.put(method, new Invoker(bind(method, target), null));
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new RetryInvocationHandler(invokers)));
+    }
+
+    /**
+     * 方法上的注解优先于接口上的注解，都没有时不重试
+     */
+    @Nullable
+    static Retryable retryable(Method method, @Nullable Retryable typeRetryable) {
+        Retryable retryable = method.getAnnotation(Retryable.class);
+        return retryable == null ? typeRetryable : retryable;
+    }
+
+    private RetryingInvoker retryingInvoker(Method method, Retryable retryable) {
+        return new RetryingInvoker(method, registry.<Object>retryer(retryable.value()), declaresRetryException(method));
+    }
+
+    private static Method objectMethod(String name) {
+        try {
+            return "equals".equals(name) ? Object.class.getMethod(name, Object.class) : Object.class.getMethod(name);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 绑定目标对象并统一为 (Object[])Object
+     */
+    private static MethodHandle bind(Method method, Object target) {
+        MethodHandle handle;
+        try {
+            handle = MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException e) {
+            method.setAccessible(true);
+            try {
+                handle = MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException inaccessible) {
+                throw new IllegalArgumentException("cannot access " + method, inaccessible);
+            }
+        }
+        return handle.bindTo(target)
+                .asSpreader(Object[].class, method.getParameterTypes().length)
+                .asType(SPREAD_TYPE);
+    }
+
+    private static boolean declaresRetryException(Method method) {
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (exceptionType.isAssignableFrom(RetryException.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean canThrow(Method method, Throwable t) {
+        if (t instanceof RuntimeException || t instanceof Error) {
+            return true;
+        }
+        for (Class<?> exceptionType : method.getExceptionTypes()) {
+            if (exceptionType.isInstance(t)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X extends Throwable> RuntimeException sneakyThrow(Throwable t) throws X {
+        throw (X) t;
+    }
+
+    /**
+     * 通过 retryer 执行一次方法调用并按方法声明转换异常；
+     * 实现 {@link Function} 是为了让生成的代理类只引用 JDK 类型，apply 抛出的受检异常不经包装原样传给调用方
+     */
+    @Immutable
+    private static final class RetryingInvoker implements Function<Object, Object> {
+        private final Method method;
+        private final ReloadableRetryer<Object> retryer;
+        private final boolean declaresRetryException;
+
+        RetryingInvoker(Method method, ReloadableRetryer<Object> retryer, boolean declaresRetryException) {
+            this.method = method;
+            this.retryer = retryer;
+            this.declaresRetryException = declaresRetryException;
+        }
+
+        @SuppressWarnings("unchecked")
+        public Object apply(Object callable) {
+            try {
+                return call((Callable<Object>) callable);
+            } catch (Throwable t) {
+                throw RetryProxyFactory.<RuntimeException>sneakyThrow(t);
+            }
+        }
+
+        Object call(Callable<Object> callable) throws Throwable {
+            try {
+                return retryer.call(callable);
+            } catch (ExecutionException e) {
+                throw e.getCause() == null ? e : e.getCause();
+            } catch (RetryException e) {
+                Throwable cause = e.getCause();
+                if (declaresRetryException || cause == null || !canThrow(method, cause)) {
+                    throw e;
+                }
+                throw cause;
+            }
+        }
+    }
+
+    @Immutable
+    private static final class Invoker {
+        private final MethodHandle handle;
+        private final RetryingInvoker retryingInvoker;
+
+        Invoker(MethodHandle handle, @Nullable RetryingInvoker retryingInvoker) {
+            this.handle = handle;
+            this.retryingInvoker = retryingInvoker;
+        }
+
+        Object invoke(final Object[] args) throws Throwable {
+            if (retryingInvoker == null) {
+                return handle.invokeExact(args);
+            }
+            return retryingInvoker.call(new Callable<Object>() {
+                public Object call() throws Exception {
+                    try {
+                        return handle.invokeExact(args);
+                    } catch (Exception e) {
+                        throw e;
+                    } catch (Error e) {
+                        throw e;
+                    } catch (Throwable t) {
+                        throw new UndeclaredThrowableException(t);
+                    }
+                }
+            });
+        }
+    }
+
+    private static final class RetryInvocationHandler implements InvocationHandler {
+        private final Map<Method, Invoker> invokers;
+        /**
+         * 代理类传入的 Method 实例固定不变，按引用缓存以避免 {@link Method#equals} 比较；写时复制
+         */
+        private volatile IdentityHashMap<Method, Invoker> identityInvokers = new IdentityHashMap<Method, Invoker>();
+
+        RetryInvocationHandler(Map<Method, Invoker> invokers) {
+            this.invokers = invokers;
+        }
+
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Invoker invoker = identityInvokers.get(method);
+            if (invoker == null) {
+                invoker = invokers.get(method);
+                if (invoker == null) {
+                    throw new UnsupportedOperationException(method.toString());
+                }
+                synchronized (this) {
+                    IdentityHashMap<Method, Invoker> copy = new IdentityHashMap<Method, Invoker>(identityInvokers);
+                    copy.put(method, invoker);
+                    identityInvokers = copy;
+                }
+            }
+            return invoker.invoke(args == null ? NO_ARGS : args);
+        }
+    }
+}
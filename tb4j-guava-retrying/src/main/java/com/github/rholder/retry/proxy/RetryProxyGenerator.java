@@ -0,0 +1,680 @@
+package com.github.rholder.retry.proxy;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Function: 为公开接口生成代理类字节码，代理方法用 invokeinterface 直接调用目标对象，
+ * 没有 {@link java.lang.reflect.Proxy} 的 Object[] 参数数组和参数装箱。
+ * 重试方法把参数原样保存在为该方法生成的 {@link java.util.concurrent.Callable} 中交给 invoker 执行，
+ * 无参方法的 Callable 在创建代理时分配、之后复用。
+ *
+ * 生成的类只引用 JDK 类型和接口本身，定义在以接口的类加载器为父加载器的独立加载器中；
+ * 代码没有分支和异常表，不需要 StackMapTable。非公开接口、方法签名冲突等情况不生成，由调用方退回 Proxy。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 14:12:37
+ */
+final class RetryProxyGenerator {
+
+    private static final Template UNSUPPORTED = new Template(null, new Method[0]);
+
+    private static final ClassValue<Template> TEMPLATES = new ClassValue<Template>() {
+        @Override
+        protected Template computeValue(Class<?> type) {
+            try {
+                return generate(type);
+            } catch (RuntimeException e) {
+                return UNSUPPORTED;
+            } catch (LinkageError e) {
+                return UNSUPPORTED;
+            }
+        }
+    };
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String FUNCTION = "java/util/function/Function";
+    private static final String CALLABLE = "java/util/concurrent/Callable";
+    private static final String PACKAGE = "com/github/rholder/retry/proxy/";
+
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_PRIVATE = 0x0002;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ACONST_NULL = 0x01;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ILOAD = 0x15;
+    private static final int LLOAD = 0x16;
+    private static final int FLOAD = 0x17;
+    private static final int DLOAD = 0x18;
+    private static final int ALOAD = 0x19;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int AALOAD = 0x32;
+    private static final int POP = 0x57;
+    private static final int DUP = 0x59;
+    private static final int IRETURN = 0xac;
+    private static final int LRETURN = 0xad;
+    private static final int FRETURN = 0xae;
+    private static final int DRETURN = 0xaf;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int GETFIELD = 0xb4;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int INVOKEINTERFACE = 0xb9;
+    private static final int NEW = 0xbb;
+    private static final int CHECKCAST = 0xc0;
+
+    private RetryProxyGenerator() {
+    }
+
+    /**
+     * 取接口的代理模板，无法生成时返回 null
+     */
+    @Nullable
+    static Template template(Class<?> type) {
+        Template template = TEMPLATES.get(type);
+        return template == UNSUPPORTED ? null : template;
+    }
+
+    /**
+     * 生成好的代理类；构造参数为目标对象和与 {@link #getRetryableMethods()} 一一对应的 invoker
+     */
+    @Immutable
+    static final class Template {
+        private final Constructor<?> constructor;
+        private final Method[] retryableMethods;
+
+        Template(Constructor<?> constructor, Method[] retryableMethods) {
+            this.constructor = constructor;
+            this.retryableMethods = retryableMethods;
+        }
+
+        Method[] getRetryableMethods() {
+            return retryableMethods.clone();
+        }
+
+        Object newInstance(Object target, Object[] invokers) {
+            try {
+                return constructor.newInstance(target, invokers);
+            } catch (InstantiationException e) {
+                throw new IllegalStateException(e);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static Template generate(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return UNSUPPORTED;
+        }
+        List<Method> methods = new ArrayList<Method>();
+        Set<String> signatures = new HashSet<String>(Arrays.asList(
+                "equals(Ljava/lang/Object;)", "hashCode()", "toString()"));
+        for (Method method : type.getMethods()) {
+            if (Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+            String signature = method.getName() + parametersDescriptor(method.getParameterTypes());
+            if (signatures.contains(signature)) {
+                if (isObjectMethod(signature)) {
+                    continue;
+                }
+                // 多个父接口声明了同一签名，需要桥接方法，交给 Proxy
+                return UNSUPPORTED;
+            }
+            if (!isAccessible(method)) {
+                return UNSUPPORTED;
+            }
+            signatures.add(signature);
+            methods.add(method);
+        }
+
+        String proxyName = PACKAGE + type.getSimpleName() + "$$RetryProxy";
+        Retryable typeRetryable = type.getAnnotation(Retryable.class);
+        GeneratedClassLoader loader = new GeneratedClassLoader(type.getClassLoader());
+        List<Method> retryableMethods = new ArrayList<Method>();
+        List<String> callNames = new ArrayList<String>();
+        for (Method method : methods) {
+            if (RetryProxyFactory.retryable(method, typeRetryable) != null) {
+                String callName = proxyName + "$Call" + retryableMethods.size();
+                loader.define(callName, callClass(type, method, callName));
+                retryableMethods.add(method);
+                callNames.add(callName);
+            }
+        }
+        Class<?> proxyClass = loader.define(proxyName, proxyClass(type, methods, retryableMethods, callNames, proxyName));
+        try {
+            return new Template(proxyClass.getConstructor(Object.class, Object[].class),
+                    retryableMethods.toArray(new Method[retryableMethods.size()]));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static boolean isObjectMethod(String signature) {
+        return "equals(Ljava/lang/Object;)".equals(signature) || "hashCode()".equals(signature) || "toString()".equals(signature);
+    }
+
+    private static boolean isAccessible(Method method) {
+        if (!isPublic(method.getDeclaringClass()) || !isPublic(method.getReturnType())) {
+            return false;
+        }
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            if (!isPublic(parameterType)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isPublic(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+    }
+
+    /**
+     * public final class Xxx$$RetryProxy implements type：
+     * 非重试方法直接转发，重试方法为 invoker.apply(new Call(target, args...))，equals/hashCode/toString 转发给目标对象
+     */
+    private static byte[] proxyClass(Class<?> type, List<Method> methods, List<Method> retryableMethods,
+                                     List<String> callNames, String proxyName) {
+        String typeName = internalName(type);
+        String typeDescriptor = descriptor(type);
+        ClassFile cf = new ClassFile(proxyName, typeName);
+        cf.field(ACC_PRIVATE | ACC_FINAL, "target", typeDescriptor);
+        for (int k = 0; k < retryableMethods.size(); k++) {
+            cf.field(ACC_PRIVATE | ACC_FINAL, "invoker" + k, "L" + FUNCTION + ";");
+            if (retryableMethods.get(k).getParameterTypes().length == 0) {
+                cf.field(ACC_PRIVATE | ACC_FINAL, "call" + k, "L" + CALLABLE + ";");
+            }
+        }
+
+        Code init = new Code();
+        init.op(ALOAD_0).op(INVOKESPECIAL).u2(cf.methodRef(OBJECT, "<init>", "()V"));
+        init.op(ALOAD_0).op(ALOAD_1).op(CHECKCAST).u2(cf.classRef(typeName))
+                .op(PUTFIELD).u2(cf.fieldRef(proxyName, "target", typeDescriptor));
+        for (int k = 0; k < retryableMethods.size(); k++) {
+            init.op(ALOAD_0).op(ALOAD_2).pushInt(k).op(AALOAD).op(CHECKCAST).u2(cf.classRef(FUNCTION))
+                    .op(PUTFIELD).u2(cf.fieldRef(proxyName, "invoker" + k, "L" + FUNCTION + ";"));
+            if (retryableMethods.get(k).getParameterTypes().length == 0) {
+                String callName = callNames.get(k);
+                init.op(ALOAD_0).op(NEW).u2(cf.classRef(callName)).op(DUP)
+                        .op(ALOAD_1).op(CHECKCAST).u2(cf.classRef(typeName))
+                        .op(INVOKESPECIAL).u2(cf.methodRef(callName, "<init>", "(" + typeDescriptor + ")V"))
+                        .op(PUTFIELD).u2(cf.fieldRef(proxyName, "call" + k, "L" + CALLABLE + ";"));
+            }
+        }
+        init.op(RETURN);
+        cf.method(ACC_PUBLIC, "<init>", "(Ljava/lang/Object;[Ljava/lang/Object;)V", init, 5, 3);
+
+        for (Method method : methods) {
+            Class<?>[] parameterTypes = method.getParameterTypes();
+            String methodDescriptor = methodDescriptor(method);
+            int slots = slots(parameterTypes);
+            int k = retryableMethods.indexOf(method);
+            Code code = new Code();
+            if (k < 0) {
+                code.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(proxyName, "target", typeDescriptor));
+                loadArguments(code, parameterTypes, 1);
+                code.op(INVOKEINTERFACE).u2(cf.interfaceMethodRef(typeName, method.getName(), methodDescriptor))
+                        .u1(slots + 1).u1(0);
+                code.op(returnOpcode(method.getReturnType()));
+            } else {
+                code.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(proxyName, "invoker" + k, "L" + FUNCTION + ";"));
+                if (parameterTypes.length == 0) {
+                    code.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(proxyName, "call" + k, "L" + CALLABLE + ";"));
+                } else {
+                    String callName = callNames.get(k);
+                    code.op(NEW).u2(cf.classRef(callName)).op(DUP)
+                            .op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(proxyName, "target", typeDescriptor));
+                    loadArguments(code, parameterTypes, 1);
+                    code.op(INVOKESPECIAL).u2(cf.methodRef(callName, "<init>", callConstructorDescriptor(type, parameterTypes)));
+                }
+                code.op(INVOKEINTERFACE).u2(cf.interfaceMethodRef(FUNCTION, "apply", "(Ljava/lang/Object;)Ljava/lang/Object;"))
+                        .u1(2).u1(0);
+                unboxAndReturn(cf, code, method.getReturnType());
+            }
+            cf.method(ACC_PUBLIC, method.getName(), methodDescriptor, code, slots + 4, slots + 1);
+        }
+
+        forwardObjectMethod(cf, proxyName, typeDescriptor, "equals", "(Ljava/lang/Object;)Z");
+        forwardObjectMethod(cf, proxyName, typeDescriptor, "hashCode", "()I");
+        forwardObjectMethod(cf, proxyName, typeDescriptor, "toString", "()Ljava/lang/String;");
+        return cf.toByteArray();
+    }
+
+    private static void forwardObjectMethod(ClassFile cf, String proxyName, String typeDescriptor, String name, String methodDescriptor) {
+        boolean equals = "equals".equals(name);
+        Code code = new Code();
+        code.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(proxyName, "target", typeDescriptor));
+        if (equals) {
+            code.op(ALOAD_1);
+        }
+        code.op(INVOKEVIRTUAL).u2(cf.methodRef(OBJECT, name, methodDescriptor));
+        code.op("toString".equals(name) ? ARETURN : IRETURN);
+        cf.method(ACC_PUBLIC, name, methodDescriptor, code, 2, equals ? 2 : 1);
+    }
+
+    /**
+     * public final class Xxx$$RetryProxy$CallN implements Callable：保存目标对象和参数，call() 调用目标方法并装箱返回值
+     */
+    private static byte[] callClass(Class<?> type, Method method, String callName) {
+        String typeName = internalName(type);
+        String typeDescriptor = descriptor(type);
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        int slots = slots(parameterTypes);
+        ClassFile cf = new ClassFile(callName, CALLABLE);
+        cf.field(ACC_PRIVATE | ACC_FINAL, "target", typeDescriptor);
+        for (int i = 0; i < parameterTypes.length; i++) {
+            cf.field(ACC_PRIVATE | ACC_FINAL, "arg" + i, descriptor(parameterTypes[i]));
+        }
+
+        Code init = new Code();
+        init.op(ALOAD_0).op(INVOKESPECIAL).u2(cf.methodRef(OBJECT, "<init>", "()V"));
+        init.op(ALOAD_0).op(ALOAD_1).op(PUTFIELD).u2(cf.fieldRef(callName, "target", typeDescriptor));
+        int slot = 2;
+        for (int i = 0; i < parameterTypes.length; i++) {
+            init.op(ALOAD_0).op(loadOpcode(parameterTypes[i])).u1(slot)
+                    .op(PUTFIELD).u2(cf.fieldRef(callName, "arg" + i, descriptor(parameterTypes[i])));
+            slot += slots(parameterTypes[i]);
+        }
+        init.op(RETURN);
+        cf.method(ACC_PUBLIC, "<init>", callConstructorDescriptor(type, parameterTypes), init, 3, slots + 2);
+
+        Code call = new Code();
+        call.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(callName, "target", typeDescriptor));
+        for (int i = 0; i < parameterTypes.length; i++) {
+            call.op(ALOAD_0).op(GETFIELD).u2(cf.fieldRef(callName, "arg" + i, descriptor(parameterTypes[i])));
+        }
+        call.op(INVOKEINTERFACE).u2(cf.interfaceMethodRef(typeName, method.getName(), methodDescriptor(method)))
+                .u1(slots + 1).u1(0);
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            call.op(ACONST_NULL);
+        } else if (returnType.isPrimitive()) {
+            String box = boxName(returnType);
+            call.op(INVOKESTATIC).u2(cf.methodRef(box, "valueOf", "(" + descriptor(returnType) + ")L" + box + ";"));
+        }
+        call.op(ARETURN);
+        cf.method(ACC_PUBLIC, "call", "()Ljava/lang/Object;", call, Math.max(slots + 1, 2), 1);
+        return cf.toByteArray();
+    }
+
+    private static void loadArguments(Code code, Class<?>[] parameterTypes, int slot) {
+        for (Class<?> parameterType : parameterTypes) {
+            code.op(loadOpcode(parameterType)).u1(slot);
+            slot += slots(parameterType);
+        }
+    }
+
+    private static void unboxAndReturn(ClassFile cf, Code code, Class<?> returnType) {
+        if (returnType == void.class) {
+            code.op(POP).op(RETURN);
+        } else if (returnType.isPrimitive()) {
+            String box = boxName(returnType);
+            code.op(CHECKCAST).u2(cf.classRef(box))
+                    .op(INVOKEVIRTUAL).u2(cf.methodRef(box, returnType.getName() + "Value", "()" + descriptor(returnType)))
+                    .op(returnOpcode(returnType));
+        } else {
+            if (returnType != Object.class) {
+                code.op(CHECKCAST).u2(cf.classRef(internalName(returnType)));
+            }
+            code.op(ARETURN);
+        }
+    }
+
+    private static int loadOpcode(Class<?> type) {
+        if (type == long.class) {
+            return LLOAD;
+        } else if (type == float.class) {
+            return FLOAD;
+        } else if (type == double.class) {
+            return DLOAD;
+        } else if (type.isPrimitive()) {
+            return ILOAD;
+        }
+        return ALOAD;
+    }
+
+    private static int returnOpcode(Class<?> type) {
+        if (type == void.class) {
+            return RETURN;
+        } else if (type == long.class) {
+            return LRETURN;
+        } else if (type == float.class) {
+            return FRETURN;
+        } else if (type == double.class) {
+            return DRETURN;
+        } else if (type.isPrimitive()) {
+            return IRETURN;
+        }
+        return ARETURN;
+    }
+
+    private static String boxName(Class<?> type) {
+        if (type == boolean.class) {
+            return "java/lang/Boolean";
+        } else if (type == byte.class) {
+            return "java/lang/Byte";
+        } else if (type == char.class) {
+            return "java/lang/Character";
+        } else if (type == short.class) {
+            return "java/lang/Short";
+        } else if (type == int.class) {
+            return "java/lang/Integer";
+        } else if (type == long.class) {
+            return "java/lang/Long";
+        } else if (type == float.class) {
+            return "java/lang/Float";
+        }
+        return "java/lang/Double";
+    }
+
+    private static int slots(Class<?> type) {
+        return type == long.class || type == double.class ? 2 : 1;
+    }
+
+    private static int slots(Class<?>[] types) {
+        int slots = 0;
+        for (Class<?> type : types) {
+            slots += slots(type);
+        }
+        return slots;
+    }
+
+    private static String internalName(Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        } else if (!type.isPrimitive()) {
+            return "L" + internalName(type) + ";";
+        } else if (type == void.class) {
+            return "V";
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == long.class) {
+            return "J";
+        }
+        // byte/char/short/int/float/double 的描述符是类型名首字母大写
+        return String.valueOf(Character.toUpperCase(type.getName().charAt(0)));
+    }
+
+    private static String parametersDescriptor(Class<?>[] parameterTypes) {
+        StringBuilder sb = new StringBuilder("(");
+        for (Class<?> parameterType : parameterTypes) {
+            sb.append(descriptor(parameterType));
+        }
+        return sb.append(')').toString();
+    }
+
+    private static String methodDescriptor(Method method) {
+        return parametersDescriptor(method.getParameterTypes()) + descriptor(method.getReturnType());
+    }
+
+    private static String callConstructorDescriptor(Class<?> type, Class<?>[] parameterTypes) {
+        return "(" + descriptor(type) + parametersDescriptor(parameterTypes).substring(1) + "V";
+    }
+
+    private static final class GeneratedClassLoader extends ClassLoader {
+        GeneratedClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String internalName, byte[] bytes) {
+            return defineClass(internalName.replace('/', '.'), bytes, 0, bytes.length);
+        }
+    }
+
+    /**
+     * 方法体字节码
+     */
+    private static final class Code {
+        private final Bytes bytes = new Bytes();
+
+        Code op(int opcode) {
+            bytes.u1(opcode);
+            return this;
+        }
+
+        Code u1(int value) {
+            bytes.u1(value);
+            return this;
+        }
+
+        Code u2(int value) {
+            bytes.u2(value);
+            return this;
+        }
+
+        Code pushInt(int value) {
+            if (value <= 5) {
+                return op(ICONST_0 + value);
+            } else if (value <= Byte.MAX_VALUE) {
+                return op(BIPUSH).u1(value);
+            }
+            return op(SIPUSH).u2(value);
+        }
+    }
+
+    /**
+     * 最小的 class 文件写出器：版本 52（Java 8），只支持上面用到的常量类型、字段和带 Code 属性的方法
+     */
+    private static final class ClassFile {
+        private final Bytes constantPool = new Bytes();
+        private final Map<String, Integer> constants = new HashMap<String, Integer>();
+        private int constantCount = 1;
+        private final Bytes fields = new Bytes();
+        private int fieldCount;
+        private final Bytes methods = new Bytes();
+        private int methodCount;
+        private final int thisClass;
+        private final int interfaceClass;
+
+        ClassFile(String name, String interfaceName) {
+            this.thisClass = classRef(name);
+            this.interfaceClass = classRef(interfaceName);
+        }
+
+        int utf8(String value) {
+            Integer index = constants.get("U" + value);
+            if (index == null) {
+                constantPool.u1(1);
+                constantPool.utf(value);
+                index = add("U" + value);
+            }
+            return index;
+        }
+
+        int classRef(String internalName) {
+            Integer index = constants.get("C" + internalName);
+            if (index == null) {
+                int name = utf8(internalName);
+                constantPool.u1(7);
+                constantPool.u2(name);
+                index = add("C" + internalName);
+            }
+            return index;
+        }
+
+        int fieldRef(String owner, String name, String descriptor) {
+            return memberRef(9, owner, name, descriptor);
+        }
+
+        int methodRef(String owner, String name, String descriptor) {
+            return memberRef(10, owner, name, descriptor);
+        }
+
+        int interfaceMethodRef(String owner, String name, String descriptor) {
+            return memberRef(11, owner, name, descriptor);
+        }
+
+        private int memberRef(int tag, String owner, String name, String descriptor) {
+            String key = tag + owner + "." + name + descriptor;
+            Integer index = constants.get(key);
+            if (index == null) {
+                int ownerIndex = classRef(owner);
+                int nameAndType = nameAndType(name, descriptor);
+                constantPool.u1(tag);
+                constantPool.u2(ownerIndex);
+                constantPool.u2(nameAndType);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            String key = "N" + name + ":" + descriptor;
+            Integer index = constants.get(key);
+            if (index == null) {
+                int nameIndex = utf8(name);
+                int descriptorIndex = utf8(descriptor);
+                constantPool.u1(12);
+                constantPool.u2(nameIndex);
+                constantPool.u2(descriptorIndex);
+                index = add(key);
+            }
+            return index;
+        }
+
+        private int add(String key) {
+            int index = constantCount++;
+            constants.put(key, index);
+            return index;
+        }
+
+        void field(int access, String name, String descriptor) {
+            fields.u2(access);
+            fields.u2(utf8(name));
+            fields.u2(utf8(descriptor));
+            fields.u2(0);
+            fieldCount++;
+        }
+
+        void method(int access, String name, String descriptor, Code code, int maxStack, int maxLocals) {
+            methods.u2(access);
+            methods.u2(utf8(name));
+            methods.u2(utf8(descriptor));
+            methods.u2(1);
+            methods.u2(utf8("Code"));
+            methods.u4(12 + code.bytes.size());
+            methods.u2(maxStack);
+            methods.u2(maxLocals);
+            methods.u4(code.bytes.size());
+            methods.bytes(code.bytes);
+            methods.u2(0);
+            methods.u2(0);
+            methodCount++;
+        }
+
+        byte[] toByteArray() {
+            int superClass = classRef(OBJECT);
+            Bytes out = new Bytes();
+            out.u4(0xCAFEBABE);
+            out.u2(0);
+            out.u2(52);
+            out.u2(constantCount);
+            out.bytes(constantPool);
+            out.u2(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            out.u2(thisClass);
+            out.u2(superClass);
+            out.u2(1);
+            out.u2(interfaceClass);
+            out.u2(fieldCount);
+            out.bytes(fields);
+            out.u2(methodCount);
+            out.bytes(methods);
+            out.u2(0);
+            return out.toByteArray();
+        }
+    }
+
+    private static final class Bytes {
+        private byte[] buffer = new byte[256];
+        private int size;
+
+        void u1(int value) {
+            ensure(1);
+            buffer[size++] = (byte) value;
+        }
+
+        void u2(int value) {
+            u1(value >>> 8);
+            u1(value);
+        }
+
+        void u4(int value) {
+            u2(value >>> 16);
+            u2(value);
+        }
+
+        void bytes(Bytes other) {
+            ensure(other.size);
+            System.arraycopy(other.buffer, 0, buffer, size, other.size);
+            size += other.size;
+        }
+
+        /**
+         * class 文件使用的 modified UTF-8，与 {@link java.io.DataOutput#writeUTF} 相同
+         */
+        void utf(String value) {
+            Bytes encoded = new Bytes();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c >= 0x0001 && c <= 0x007F) {
+                    encoded.u1(c);
+                } else if (c <= 0x07FF) {
+                    encoded.u1(0xC0 | (c >> 6));
+                    encoded.u1(0x80 | (c & 0x3F));
+                } else {
+                    encoded.u1(0xE0 | (c >> 12));
+                    encoded.u1(0x80 | ((c >> 6) & 0x3F));
+                    encoded.u1(0x80 | (c & 0x3F));
+                }
+            }
+            u2(encoded.size);
+            bytes(encoded);
+        }
+
+        int size() {
+            return size;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, size);
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+            }
+        }
+    }
+}
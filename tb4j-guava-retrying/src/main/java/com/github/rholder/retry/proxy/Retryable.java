@@ -0,0 +1,26 @@
+package com.github.rholder.retry.proxy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Function: 标记需要重试的接口方法，由 {@link RetryProxyFactory} 创建的代理处理
+ * 标注在接口上时对接口的所有方法生效，方法上的注解优先
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 16:30:15
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Retryable {
+
+    /**
+     * @return {@link com.github.rholder.retry.RetryerRegistry} 中的 retryer 名称
+     */
+    String value();
+}
@@ -0,0 +1,80 @@
+package com.github.rholder.retry.saturation;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 缓存本地饱和度，由后台定时刷新，重试策略读取时只有一次 volatile 读
+ * 饱和度取所有信号中的最大值
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 11:03:44
+ */
+@ThreadSafe
+public final class SaturationMonitor {
+
+    private final List<SaturationSignal> signals;
+    private volatile double saturation;
+
+    private SaturationMonitor(List<SaturationSignal> signals) {
+        this.signals = signals;
+    }
+
+    public static SaturationMonitor newMonitor(SaturationSignal... signals) {
+        Preconditions.checkState(signals.length > 0, "Must have at least one saturation signal");
+        return new SaturationMonitor(ImmutableList.copyOf(signals));
+    }
+
+    /**
+     * 默认信号：CPU负载与GC后堆占用
+     */
+    public static SaturationMonitor newDefaultMonitor() {
+        return newMonitor(SaturationSignals.cpuLoad(), SaturationSignals.heapAfterGc());
+    }
+
+    /**
+     * 在给定调度器上定时刷新，取消返回的 future 即停止刷新
+     */
+    public ScheduledFuture<?> start(@Nonnull ScheduledExecutorService scheduler, long period, @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkArgument(period > 0L, "period must be > 0 but is %s", period);
+        return scheduler.scheduleAtFixedRate(new Runnable() {
+            public void run() {
+                refresh();
+            }
+        }, 0L, period, timeUnit);
+    }
+
+    /**
+     * 立即采样所有信号
+     */
+    public void refresh() {
+        double max = 0.0d;
+        for (SaturationSignal signal : signals) {
+            try {
+                max = Math.max(max, SaturationSignals.clamp(signal.sample()));
+            } catch (RuntimeException e) {
+                // 单个信号采样失败不影响其他信号
+            } catch (LinkageError e) {
+                // 信号依赖的类在当前运行时不存在，同样只跳过该信号
+            }
+        }
+        saturation = max;
+    }
+
+    /**
+     * @return 最近一次刷新得到的饱和度，[0, 1]
+     */
+    public double getSaturation() {
+        return saturation;
+    }
+}
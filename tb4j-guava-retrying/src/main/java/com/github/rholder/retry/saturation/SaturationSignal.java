@@ -0,0 +1,17 @@
+package com.github.rholder.retry.saturation;
+
+/**
+ * Function: 本地饱和度信号，如线程池队列深度、CPU负载、GC后堆占用
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 10:48:20
+ */
+public interface SaturationSignal {
+
+    /**
+     * 采样，可能有一定开销，由 {@link SaturationMonitor} 在后台定时调用
+     * @return 饱和度，[0, 1]，0 表示空闲，1 表示完全饱和
+     */
+    double sample();
+}
@@ -0,0 +1,163 @@
+package com.github.rholder.retry.saturation;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Function: factory for {@link SaturationSignal}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 10:52:06
+ */
+public final class SaturationSignals {
+
+    private SaturationSignals() {
+    }
+
+    /**
+     * 线程池队列深度，队列长度达到 saturatedQueueSize 时视为饱和
+     */
+    public static SaturationSignal executorQueue(@Nonnull ThreadPoolExecutor executor, int saturatedQueueSize) {
+        Preconditions.checkNotNull(executor, "executor may not be null");
+        Preconditions.checkArgument(saturatedQueueSize > 0, "saturatedQueueSize must be > 0 but is %s", saturatedQueueSize);
+        return new ExecutorQueueSignal(executor.getQueue(), saturatedQueueSize);
+    }
+
+    /**
+     * 进程CPU负载，取自 {@link OperatingSystemMXBean}；
+     * 运行时不提供进程级负载(com.sun.management 扩展)时使用系统平均负载 / CPU核数
+     */
+    public static SaturationSignal cpuLoad() {
+        return new CpuLoadSignal(ManagementFactory.getOperatingSystemMXBean());
+    }
+
+    /**
+     * 最近一次GC后老年代的占用，取各老年代内存池中的最大占比；
+     * Eden/Survivor 在每次 young GC 后都接近空或接近满，不反映内存压力，因此只取支持 usage threshold 的池，
+     * HotSpot 上只有老年代(及 G1 Old Gen、Tenured Gen 等)支持
+     */
+    public static SaturationSignal heapAfterGc() {
+        List<MemoryPoolMXBean> pools = new ArrayList<MemoryPoolMXBean>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()
+                    && pool.isCollectionUsageThresholdSupported()) {
+                pools.add(pool);
+            }
+        }
+        return new HeapAfterGcSignal(pools);
+    }
+
+    static double clamp(double value) {
+        if (Double.isNaN(value) || value < 0.0d) {
+            return 0.0d;
+        }
+        return value > 1.0d ? 1.0d : value;
+    }
+
+    @Immutable
+    private static final class ExecutorQueueSignal implements SaturationSignal {
+        private final BlockingQueue<Runnable> queue;
+        private final int saturatedQueueSize;
+
+        public ExecutorQueueSignal(BlockingQueue<Runnable> queue, int saturatedQueueSize) {
+            this.queue = queue;
+            this.saturatedQueueSize = saturatedQueueSize;
+        }
+
+        public double sample() {
+            return clamp((double) queue.size() / saturatedQueueSize);
+        }
+    }
+
+    /**
+     * com.sun.management.OperatingSystemMXBean 不属于 java.lang.management 规范，非 HotSpot 运行时或未加载 jdk.management 模块时不存在，
+     * 直接引用会在加载本类时抛出 {@link NoClassDefFoundError}；因此创建时按名称反射解析 getProcessCpuLoad，缺失时只用系统平均负载
+     */
+    @Immutable
+    private static final class CpuLoadSignal implements SaturationSignal {
+        private static final String PROCESS_CPU_LOAD_BEAN = "com.sun.management.OperatingSystemMXBean";
+
+        private final OperatingSystemMXBean osBean;
+        private final int processors;
+        @Nullable
+        private final Method processCpuLoad;
+
+        public CpuLoadSignal(OperatingSystemMXBean osBean) {
+            this.osBean = osBean;
+            this.processors = Math.max(1, osBean.getAvailableProcessors());
+            this.processCpuLoad = processCpuLoad(osBean);
+        }
+
+        @Nullable
+        private static Method processCpuLoad(OperatingSystemMXBean osBean) {
+            try {
+                Class<?> beanType = Class.forName(PROCESS_CPU_LOAD_BEAN);
+                return beanType.isInstance(osBean) ? beanType.getMethod("getProcessCpuLoad") : null;
+            } catch (ClassNotFoundException e) {
+                return null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            } catch (LinkageError e) {
+                return null;
+            }
+        }
+
+        public double sample() {
+            if (processCpuLoad != null) {
+                double load = processLoad();
+                if (load >= 0.0d) {
+                    return clamp(load);
+                }
+            }
+            return clamp(osBean.getSystemLoadAverage() / processors);
+        }
+
+        /**
+         * @return 进程CPU负载，不可用时为负数
+         */
+        private double processLoad() {
+            try {
+                return ((Number) processCpuLoad.invoke(osBean)).doubleValue();
+            } catch (IllegalAccessException e) {
+                return -1.0d;
+            } catch (InvocationTargetException e) {
+                return -1.0d;
+            }
+        }
+    }
+
+    @Immutable
+    private static final class HeapAfterGcSignal implements SaturationSignal {
+        private final List<MemoryPoolMXBean> pools;
+
+        public HeapAfterGcSignal(List<MemoryPoolMXBean> pools) {
+            this.pools = pools;
+        }
+
+        public double sample() {
+            double max = 0.0d;
+            for (MemoryPoolMXBean pool : pools) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (usage != null && usage.getMax() > 0L) {
+                    max = Math.max(max, (double) usage.getUsed() / usage.getMax());
+                }
+            }
+            return clamp(max);
+        }
+    }
+}
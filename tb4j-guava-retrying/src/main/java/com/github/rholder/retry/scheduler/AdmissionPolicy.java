@@ -0,0 +1,24 @@
+package com.github.rholder.retry.scheduler;
+
+/**
+ * Function: 等待队列已满时如何处理新进入的调用或重试
+ * 被拒绝或被挤出的调用以 {@link java.util.concurrent.RejectedExecutionException} 失败，cause 为其最后一次attempt的异常。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:04:36
+ */
+public enum AdmissionPolicy {
+    /**
+     * 拒绝新进入者
+     */
+    REJECT_NEWEST,
+    /**
+     * 挤出等待最久的一个
+     */
+    DROP_OLDEST,
+    /**
+     * 挤出优先级最低类别中等待最久的一个；新进入者自身就属于最低类别时拒绝它
+     */
+    SHED_LOWEST_PRIORITY
+}
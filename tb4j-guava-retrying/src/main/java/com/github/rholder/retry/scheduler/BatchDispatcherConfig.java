@@ -0,0 +1,98 @@
+package com.github.rholder.retry.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: {@link BatchRetryDispatcher} 的合并批次配置
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:34:12
+ */
+@Immutable
+public final class BatchDispatcherConfig {
+
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Executor workers;
+
+    private BatchDispatcherConfig(Builder builder) {
+        this.maxBatchSize = builder.maxBatchSize;
+        this.lingerNanos = builder.lingerNanos;
+        this.workers = builder.workers;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getLingerNanos() {
+        return lingerNanos;
+    }
+
+    /**
+     * @return 执行批量调用的线程池，为 null 时使用调度器
+     */
+    @Nullable
+    public Executor getWorkers() {
+        return workers;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchDispatcherConfig{maxBatchSize=" + maxBatchSize + ", lingerNanos=" + lingerNanos + "}";
+    }
+
+    @NotThreadSafe
+    public static final class Builder {
+        private int maxBatchSize = 100;
+        private long lingerNanos = TimeUnit.MILLISECONDS.toNanos(5L);
+        private Executor workers;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxBatchSize 一次批量调用的元素数上限，凑满时立即发出，默认 100
+         */
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            Preconditions.checkArgument(maxBatchSize >= 1, "maxBatchSize must be >= 1 but is %s", maxBatchSize);
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param linger 一批中第一个元素到期后最多再等待多久，期间到期的元素并入同一批，默认 5 毫秒
+         */
+        public Builder withLinger(long linger, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkArgument(linger >= 0L, "linger must be >= 0 but is %s", linger);
+            Preconditions.checkNotNull(timeUnit, "timeUnit may not be null");
+            this.lingerNanos = timeUnit.toNanos(linger);
+            return this;
+        }
+
+        /**
+         * @param workers 执行批量调用的线程池，默认使用调度器本身
+         */
+        public Builder withWorkers(@Nonnull Executor workers) {
+            Preconditions.checkNotNull(workers, "workers may not be null");
+            this.workers = workers;
+            return this;
+        }
+
+        public BatchDispatcherConfig build() {
+            return new BatchDispatcherConfig(this);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.rholder.retry.scheduler;
+
+import java.util.List;
+
+/**
+ * Function: 一次批量调用，由 {@link BatchRetryDispatcher} 把同一时间片内到期的元素合并后调用
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:31:26
+ */
+public interface BatchFunction<T, V> {
+
+    /**
+     * @return 与 items 按位置一一对应的结果；抛出异常时整批失败，每个元素按各自的策略决定是否重试
+     */
+    List<BatchResult<V>> apply(List<T> items) throws Exception;
+}
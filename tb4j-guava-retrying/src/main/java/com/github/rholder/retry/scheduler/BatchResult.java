@@ -0,0 +1,57 @@
+package com.github.rholder.retry.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: 批量调用中单个元素的结果，成功时持有结果，失败时持有异常
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:32:50
+ */
+@Immutable
+public final class BatchResult<V> {
+
+    private final V value;
+    private final Throwable failure;
+
+    private BatchResult(@Nullable V value, @Nullable Throwable failure) {
+        this.value = value;
+        this.failure = failure;
+    }
+
+    public static <V> BatchResult<V> success(@Nullable V value) {
+        return new BatchResult<V>(value, null);
+    }
+
+    /**
+     * @param failure 该元素的异常，按判定条件决定是否重试
+     */
+    public static <V> BatchResult<V> failure(@Nonnull Throwable failure) {
+        Preconditions.checkNotNull(failure, "failure may not be null");
+        return new BatchResult<V>(null, failure);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    @Nullable
+    public V getValue() {
+        return value;
+    }
+
+    @Nullable
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return failure == null ? "BatchResult{value=" + value + "}" : "BatchResult{failure=" + failure + "}";
+    }
+}
@@ -0,0 +1,263 @@
+package com.github.rholder.retry.scheduler;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Function: 把同一时间片内到期的attempt合并为一次批量调用的异步重试调度器
+ * 提交的元素与等待结束的重试进入同一个缓冲区：缓冲区凑满 maxBatchSize 时立即发出，否则在第一个元素进入后 linger 时间发出，
+ * 因此大量重试在几毫秒内同时到期时只产生少量批量调用。批量调用的结果按位置拆回各元素，
+ * 每个元素按自己的attempt次数与耗时独立执行判定、停止与等待策略。等待期间不占用线程。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildBatchDispatcher(ScheduledExecutorService, BatchFunction, BatchDispatcherConfig)} 创建。
+ *
+ * 返回的 future 的语义与 {@link com.github.rholder.retry.AsyncRetryer} 相同，取消它会把元素移出后续批次。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 00:38:05
+ */
+@ThreadSafe
+public final class BatchRetryDispatcher<T, V> {
+
+    private final RetryDecider<V> decider;
+    private final Ticker ticker;
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final BatchFunction<T, V> function;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+
+    @GuardedBy("this")
+    private List<Item> buffer = new ArrayList<Item>();
+    /**
+     * 当前缓冲区的编号，发出后递增，使已过时的 linger 定时不会提前发出下一批
+     */
+    @GuardedBy("this")
+    private long window;
+    @GuardedBy("this")
+    private ScheduledFuture<?> lingerTimer;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong attemptCount = new AtomicLong();
+
+    public BatchRetryDispatcher(@Nonnull StopStrategy stopStrategy,
+                                @Nonnull WaitStrategy waitStrategy,
+                                @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                                @Nonnull Collection<RetryListener> listeners,
+                                @Nonnull Ticker ticker,
+                                @Nonnull ScheduledExecutorService scheduler,
+                                @Nonnull BatchFunction<T, V> function,
+                                @Nonnull BatchDispatcherConfig config) {
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        Preconditions.checkNotNull(function, "function may not be null");
+        Preconditions.checkNotNull(config, "config may not be null");
+
+        this.decider = new RetryDecider<V>(stopStrategy, waitStrategy, rejectionPredicate, listeners);
+        this.ticker = ticker;
+        this.scheduler = scheduler;
+        this.workers = config.getWorkers() == null ? scheduler : config.getWorkers();
+        this.function = function;
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.lingerNanos = config.getLingerNanos();
+    }
+
+    /**
+     * 提交元素，它的第一次attempt同样与其他元素合并
+     */
+    public CompletableFuture<V> submit(T input) {
+        final Item item = new Item(input);
+        item.future.whenComplete(new BiConsumer<V, Throwable>() {
+            public void accept(V value, Throwable t) {
+                if (item.future.isCancelled()) {
+                    item.cancelBackoff();
+                }
+            }
+        });
+        enqueue(item);
+        return item.future;
+    }
+
+    /**
+     * @return 已发出的批量调用数
+     */
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * @return 各批量调用中的元素总数，即attempt总数
+     */
+    public long getAttemptCount() {
+        return attemptCount.get();
+    }
+
+    private void enqueue(Item item) {
+        List<Item> full = null;
+        synchronized (this) {
+            buffer.add(item);
+            if (buffer.size() >= maxBatchSize) {
+                full = takeBuffer();
+            } else if (lingerTimer == null) {
+                final long current = window;
+                lingerTimer = scheduler.schedule(new Runnable() {
+                    public void run() {
+                        onLingerExpired(current);
+                    }
+                }, lingerNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+    }
+
+    @GuardedBy("this")
+    private List<Item> takeBuffer() {
+        List<Item> batch = buffer;
+        buffer = new ArrayList<Item>();
+        window++;
+        if (lingerTimer != null) {
+            lingerTimer.cancel(false);
+            lingerTimer = null;
+        }
+        return batch;
+    }
+
+    private void onLingerExpired(long expired) {
+        List<Item> batch;
+        synchronized (this) {
+            if (expired != window || buffer.isEmpty()) {
+                return;
+            }
+            batch = takeBuffer();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(List<Item> batch) {
+        final List<Item> live = new ArrayList<Item>(batch.size());
+        for (Item item : batch) {
+            if (!item.future.isDone()) {
+                live.add(item);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        try {
+            workers.execute(new Runnable() {
+                public void run() {
+                    runBatch(live);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            for (Item item : live) {
+                item.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * 执行一次批量调用。
+     * 结果数量不符时整批的attempt失败，某个位置的结果为 null 时只有该元素的attempt失败
+     */
+    private void runBatch(List<Item> batch) {
+        batchCount.incrementAndGet();
+        attemptCount.addAndGet(batch.size());
+        List<T> inputs = new ArrayList<T>(batch.size());
+        for (Item item : batch) {
+            item.beginAttempt();
+            inputs.add(item.input);
+        }
+        List<BatchResult<V>> results = null;
+        Throwable failure = null;
+        try {
+            results = function.apply(inputs);
+            if (results == null || results.size() != inputs.size()) {
+                failure = new IllegalStateException("batch function returned " + (results == null ? "null" : results.size())
+                        + " results for " + inputs.size() + " items");
+            }
+        } catch (Throwable t) {
+            failure = t;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Item item = batch.get(i);
+            Attempt<V> attempt;
+            if (failure != null) {
+                attempt = item.failed(failure);
+            } else {
+                BatchResult<V> result = results.get(i);
+                if (result == null) {
+                    // 只有这个元素的attempt失败，其余元素照常判定
+                    attempt = item.failed(new IllegalStateException("batch function returned a null result at index " + i));
+                } else if (result.isSuccess()) {
+                    attempt = item.succeeded(result.getValue());
+                } else {
+                    attempt = item.failed(result.getFailure());
+                }
+            }
+            try {
+                onAttempt(item, attempt);
+            } catch (RuntimeException e) {
+                // 如调度器已关闭，只结束这个元素，不影响同批其余元素
+                item.future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private void onAttempt(final Item item, Attempt<V> attempt) {
+        long sleepTime;
+        try {
+            sleepTime = decider.decide(attempt);
+        } catch (Throwable t) {
+            item.future.completeExceptionally(t);
+            return;
+        }
+        if (sleepTime < 0L) {
+            decider.complete(item.future, attempt, sleepTime);
+        } else if (item.future.isDone()) {
+            return;
+        } else if (sleepTime == 0L) {
+            enqueue(item);
+        } else {
+            item.scheduleBackoff(scheduler, sleepTime);
+        }
+    }
+
+    private final class Item extends ScheduledCall<V> {
+        private final T input;
+
+        Item(T input) {
+            super(ticker);
+            this.input = input;
+        }
+
+        @Override
+        void onBackoffExpired() {
+            clearBackoff();
+            if (!future.isDone()) {
+                enqueue(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.github.rholder.retry.scheduler;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Function: 本包各调度器共用的attempt判定：通知监听器，按判定条件与停止策略结束调用，或按等待策略给出等待时长
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:41:08
+ */
+@Immutable
+final class RetryDecider<V> {
+
+    /**
+     * 以该attempt的结果或异常结束调用
+     */
+    static final long COMPLETE = -1L;
+    /**
+     * 停止重试，以 {@link RetryException} 结束调用
+     */
+    static final long STOP = -2L;
+
+    private final StopStrategy stopStrategy;
+    private final WaitStrategy waitStrategy;
+    private final Predicate<Attempt<V>> rejectionPredicate;
+    private final Collection<RetryListener> listeners;
+
+    RetryDecider(StopStrategy stopStrategy, WaitStrategy waitStrategy, Predicate<Attempt<V>> rejectionPredicate,
+                 Collection<RetryListener> listeners) {
+        this.stopStrategy = Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        this.waitStrategy = Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        this.rejectionPredicate = Preconditions.checkNotNull(rejectionPredicate, "rejectionPredicate may not be null");
+        this.listeners = Preconditions.checkNotNull(listeners, "listeners may not null");
+    }
+
+    /**
+     * 只做判定而不结束调用，调用方可以先完成自己的记账再通过 {@link #complete} 结束
+     * @return 下一次attempt前的等待，毫秒，不小于 0；或 {@link #COMPLETE}、{@link #STOP}
+     * @throws IllegalStateException 等待策略给出负的等待时长，否则会被当作 COMPLETE 或 STOP
+     * @throws RuntimeException 监听器、判定条件或策略抛出的异常，调用应以它结束
+     */
+    long decide(Attempt<V> attempt) {
+        for (RetryListener listener : listeners) {
+            listener.onRetry(attempt);
+        }
+        if (!rejectionPredicate.apply(attempt)) {
+            return COMPLETE;
+        }
+        if (stopStrategy.shouldStop(attempt)) {
+            return STOP;
+        }
+        long sleepTime = waitStrategy.computeSleepTime(attempt);
+        Preconditions.checkState(sleepTime >= 0L, "%s returned a negative sleep time: %s", waitStrategy, sleepTime);
+        return sleepTime;
+    }
+
+    void complete(CompletableFuture<V> future, Attempt<V> attempt, long decision) {
+        if (decision == STOP) {
+            future.completeExceptionally(new RetryException((int) attempt.getAttemptNumber(), attempt));
+        } else if (attempt.hasResult()) {
+            future.complete(attempt.getResult());
+        } else {
+            future.completeExceptionally(attempt.getExceptionCause());
+        }
+    }
+}
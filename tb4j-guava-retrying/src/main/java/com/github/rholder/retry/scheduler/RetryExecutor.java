@@ -0,0 +1,368 @@
+package com.github.rholder.retry.scheduler;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Function: 容量有界、按优先级调度的异步重试执行器
+ * 提交的调用与等待重试的调用都计入有界的等待队列，队列满时按 {@link AdmissionPolicy} 拒绝或挤出；
+ * 同时执行的attempt不超过 maxConcurrency，空出的名额按 {@link RetryPriority} 分配：第一次attempt与用户请求优先于后台重试。
+ * 等待间隔与是否停止仍由 {@link WaitStrategy}、{@link StopStrategy} 决定，等待期间不占用线程。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildExecutor(ScheduledExecutorService, RetryExecutorConfig)} 创建。
+ *
+ * 返回的 future 的语义与 {@link com.github.rholder.retry.AsyncRetryer} 相同，取消它会把调用移出队列。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:12:40
+ */
+@ThreadSafe
+public final class RetryExecutor<V> {
+
+    private static final int CLASSES = RetryPriority.values().length * 2;
+
+    private final RetryDecider<V> decider;
+    private final Ticker ticker;
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final AdmissionPolicy admissionPolicy;
+
+    /**
+     * 各类别可以立即执行的调用，按进入的先后顺序；被取消或挤出的调用随即移出，大小不超过 pending
+     */
+    @GuardedBy("this")
+    private final List<LinkedHashSet<Task>> ready = new ArrayList<LinkedHashSet<Task>>(CLASSES);
+    /**
+     * 各类别全部等待中的调用(可立即执行的与处于等待间隔中的)，按进入的先后顺序
+     */
+    @GuardedBy("this")
+    private final List<LinkedHashSet<Task>> pending = new ArrayList<LinkedHashSet<Task>>(CLASSES);
+    @GuardedBy("this")
+    private int pendingCount;
+    @GuardedBy("this")
+    private int inFlight;
+    @GuardedBy("this")
+    private long nextSeq;
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    public RetryExecutor(@Nonnull StopStrategy stopStrategy,
+                         @Nonnull WaitStrategy waitStrategy,
+                         @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                         @Nonnull Collection<RetryListener> listeners,
+                         @Nonnull Ticker ticker,
+                         @Nonnull ScheduledExecutorService scheduler,
+                         @Nonnull RetryExecutorConfig config) {
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        Preconditions.checkNotNull(config, "config may not be null");
+
+        this.decider = new RetryDecider<V>(stopStrategy, waitStrategy, rejectionPredicate, listeners);
+        this.ticker = ticker;
+        this.scheduler = scheduler;
+        this.workers = config.getWorkers() == null ? scheduler : config.getWorkers();
+        this.maxConcurrency = config.getMaxConcurrency();
+        this.queueCapacity = config.getQueueCapacity();
+        this.admissionPolicy = config.getAdmissionPolicy();
+        for (int i = 0; i < CLASSES; i++) {
+            ready.add(new LinkedHashSet<Task>());
+            pending.add(new LinkedHashSet<Task>());
+        }
+    }
+
+    /**
+     * 以 {@link RetryPriority#INTERACTIVE} 提交
+     */
+    public CompletableFuture<V> submit(@Nonnull Callable<V> callable) {
+        return submit(callable, RetryPriority.INTERACTIVE);
+    }
+
+    /**
+     * 提交调用；队列已满且按 {@link AdmissionPolicy} 被拒绝时返回的 future 立即失败
+     */
+    public CompletableFuture<V> submit(@Nonnull Callable<V> callable, @Nonnull RetryPriority priority) {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        Preconditions.checkNotNull(priority, "priority may not be null");
+        final Task task = new Task(callable, priority);
+        task.future.whenComplete(new BiConsumer<V, Throwable>() {
+            public void accept(V value, Throwable t) {
+                if (task.future.isCancelled()) {
+                    onCancelled(task);
+                }
+            }
+        });
+        Task displaced;
+        List<Task> toStart;
+        synchronized (this) {
+            displaced = admit(task);
+            if (displaced != task) {
+                ready.get(task.queueClass).add(task);
+            }
+            toStart = drain();
+        }
+        reject(displaced);
+        ScheduledCall.start(workers, toStart);
+        return task.future;
+    }
+
+    /**
+     * @return 等待中的调用数，含处于等待间隔中的重试
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * @return 该优先级等待中的调用数
+     */
+    public synchronized int getPendingCount(@Nonnull RetryPriority priority) {
+        return pending.get(priority.ordinal() * 2).size() + pending.get(priority.ordinal() * 2 + 1).size();
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    /**
+     * @return 因队列已满被拒绝或挤出的调用总数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    /**
+     * 放入等待队列
+     * @return 因此被挤出的调用；task 自身被拒绝时返回 task；无需挤出时为 null
+     */
+    @GuardedBy("this")
+    @Nullable
+    private Task admit(Task task) {
+        int queueClass = task.priority.ordinal() * 2 + (task.getAttemptNumber() > 0 ? 1 : 0);
+        Task displaced = null;
+        if (pendingCount >= queueCapacity) {
+            switch (admissionPolicy) {
+                case DROP_OLDEST:
+                    displaced = oldestPending();
+                    break;
+                case SHED_LOWEST_PRIORITY:
+                    int lowest = lowestPendingClass();
+                    if (lowest > queueClass) {
+                        displaced = pending.get(lowest).iterator().next();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            if (displaced == null) {
+                return task;
+            }
+            remove(displaced);
+        }
+        task.queueClass = queueClass;
+        task.seq = nextSeq++;
+        task.queued = true;
+        pending.get(queueClass).add(task);
+        pendingCount++;
+        return displaced;
+    }
+
+    @GuardedBy("this")
+    private Task oldestPending() {
+        Task oldest = null;
+        for (LinkedHashSet<Task> tasks : pending) {
+            if (!tasks.isEmpty()) {
+                Task first = tasks.iterator().next();
+                if (oldest == null || first.seq < oldest.seq) {
+                    oldest = first;
+                }
+            }
+        }
+        return oldest;
+    }
+
+    @GuardedBy("this")
+    private int lowestPendingClass() {
+        for (int i = CLASSES - 1; i >= 0; i--) {
+            if (!pending.get(i).isEmpty()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @GuardedBy("this")
+    private void remove(Task task) {
+        if (!task.queued) {
+            return;
+        }
+        task.queued = false;
+        pending.get(task.queueClass).remove(task);
+        ready.get(task.queueClass).remove(task);
+        pendingCount--;
+        task.cancelBackoff();
+    }
+
+    /**
+     * 按类别优先级取出可以执行的调用，直至达到并发上限
+     * @return 需要在锁外交给 workers 的调用，没有时为 null
+     */
+    @GuardedBy("this")
+    @Nullable
+    private List<Task> drain() {
+        List<Task> toStart = null;
+        int queueClass = 0;
+        while (inFlight < maxConcurrency && queueClass < CLASSES) {
+            LinkedHashSet<Task> tasks = ready.get(queueClass);
+            if (tasks.isEmpty()) {
+                queueClass++;
+                continue;
+            }
+            Task task = tasks.iterator().next();
+            remove(task);
+            inFlight++;
+            if (toStart == null) {
+                toStart = new ArrayList<Task>(2);
+            }
+            toStart.add(task);
+        }
+        return toStart;
+    }
+
+    private void reject(@Nullable Task task) {
+        if (task == null) {
+            return;
+        }
+        rejectedCount.incrementAndGet();
+        task.reject("retry queue is full (capacity " + queueCapacity + ", " + admissionPolicy + ")");
+    }
+
+    private void onCancelled(Task task) {
+        synchronized (this) {
+            remove(task);
+        }
+    }
+
+    /**
+     * 一次attempt结束，释放名额
+     */
+    private void finished() {
+        List<Task> toStart;
+        synchronized (this) {
+            inFlight--;
+            toStart = drain();
+        }
+        ScheduledCall.start(workers, toStart);
+    }
+
+    private void onAttempt(Task task, Attempt<V> attempt) {
+        long sleepTime;
+        try {
+            sleepTime = decider.decide(attempt);
+        } catch (Throwable t) {
+            finished();
+            task.future.completeExceptionally(t);
+            return;
+        }
+        // 先释放名额再结束调用，调用方看到结果时计数已经一致
+        if (sleepTime < 0L) {
+            finished();
+            decider.complete(task.future, attempt, sleepTime);
+            return;
+        }
+
+        Task displaced = null;
+        List<Task> toStart;
+        synchronized (this) {
+            inFlight--;
+            // 判定期间被取消的调用不再排队
+            if (!task.future.isDone()) {
+                displaced = admit(task);
+                if (displaced != task) {
+                    if (sleepTime == 0L) {
+                        ready.get(task.queueClass).add(task);
+                    } else {
+                        task.scheduleBackoff(scheduler, sleepTime);
+                    }
+                }
+            }
+            toStart = drain();
+        }
+        reject(displaced);
+        ScheduledCall.start(workers, toStart);
+    }
+
+    private void onBackoffExpired(Task task) {
+        List<Task> toStart;
+        synchronized (this) {
+            if (!task.queued || !task.isBackingOff()) {
+                return;
+            }
+            task.clearBackoff();
+            ready.get(task.queueClass).add(task);
+            toStart = drain();
+        }
+        ScheduledCall.start(workers, toStart);
+    }
+
+    /**
+     * 一次调用，队列状态由执行器的锁保护
+     */
+    private final class Task extends ScheduledCall<V> implements Runnable {
+        private final Callable<V> callable;
+        private final RetryPriority priority;
+        @GuardedBy("RetryExecutor.this")
+        private int queueClass;
+        @GuardedBy("RetryExecutor.this")
+        private long seq;
+        @GuardedBy("RetryExecutor.this")
+        private boolean queued;
+
+        Task(Callable<V> callable, RetryPriority priority) {
+            super(ticker);
+            this.callable = callable;
+            this.priority = priority;
+        }
+
+        /**
+         * 执行一次attempt
+         */
+        public void run() {
+            if (future.isDone()) {
+                finished();
+                return;
+            }
+            onAttempt(this, call(callable));
+        }
+
+        @Override
+        void onBackoffExpired() {
+            RetryExecutor.this.onBackoffExpired(this);
+        }
+
+        @Override
+        void onNotStarted() {
+            finished();
+        }
+    }
+}
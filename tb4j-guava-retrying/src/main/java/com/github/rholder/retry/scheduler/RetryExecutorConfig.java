@@ -0,0 +1,107 @@
+package com.github.rholder.retry.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.Executor;
+
+/**
+ * Function: {@link RetryExecutor} 的容量与并发配置
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:06:50
+ */
+@Immutable
+public final class RetryExecutorConfig {
+
+    private final int maxConcurrency;
+    private final int queueCapacity;
+    private final AdmissionPolicy admissionPolicy;
+    private final Executor workers;
+
+    private RetryExecutorConfig(Builder builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.queueCapacity = builder.queueCapacity;
+        this.admissionPolicy = builder.admissionPolicy;
+        this.workers = builder.workers;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public AdmissionPolicy getAdmissionPolicy() {
+        return admissionPolicy;
+    }
+
+    /**
+     * @return 执行attempt的线程池，为 null 时使用调度器
+     */
+    @Nullable
+    public Executor getWorkers() {
+        return workers;
+    }
+
+    @Override
+    public String toString() {
+        return "RetryExecutorConfig{maxConcurrency=" + maxConcurrency + ", queueCapacity=" + queueCapacity
+                + ", admissionPolicy=" + admissionPolicy + "}";
+    }
+
+    @NotThreadSafe
+    public static final class Builder {
+        private int maxConcurrency = 16;
+        private int queueCapacity = 1024;
+        private AdmissionPolicy admissionPolicy = AdmissionPolicy.REJECT_NEWEST;
+        private Executor workers;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxConcurrency 同时执行的attempt数上限，默认 16
+         */
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            Preconditions.checkArgument(maxConcurrency >= 1, "maxConcurrency must be >= 1 but is %s", maxConcurrency);
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity 等待执行(含处于等待间隔中)的调用数上限，默认 1024
+         * @param admissionPolicy 队列已满时的处理方式，默认 {@link AdmissionPolicy#REJECT_NEWEST}
+         */
+        public Builder withQueue(int queueCapacity, @Nonnull AdmissionPolicy admissionPolicy) {
+            Preconditions.checkArgument(queueCapacity >= 1, "queueCapacity must be >= 1 but is %s", queueCapacity);
+            Preconditions.checkNotNull(admissionPolicy, "admissionPolicy may not be null");
+            this.queueCapacity = queueCapacity;
+            this.admissionPolicy = admissionPolicy;
+            return this;
+        }
+
+        /**
+         * @param workers 执行attempt的线程池，默认使用调度器本身
+         */
+        public Builder withWorkers(@Nonnull Executor workers) {
+            Preconditions.checkNotNull(workers, "workers may not be null");
+            this.workers = workers;
+            return this;
+        }
+
+        public RetryExecutorConfig build() {
+            return new RetryExecutorConfig(this);
+        }
+    }
+}
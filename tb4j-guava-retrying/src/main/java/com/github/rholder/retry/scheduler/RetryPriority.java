@@ -0,0 +1,20 @@
+package com.github.rholder.retry.scheduler;
+
+/**
+ * Function: 调用的优先级类别
+ * 同一类别内第一次attempt先于重试；{@link #INTERACTIVE} 的全部attempt先于 {@link #BACKGROUND}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:03:11
+ */
+public enum RetryPriority {
+    /**
+     * 用户请求等有人在等待结果的调用
+     */
+    INTERACTIVE,
+    /**
+     * 后台任务
+     */
+    BACKGROUND
+}
@@ -0,0 +1,152 @@
+package com.github.rholder.retry.scheduler;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Attempts;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nullable;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 本包各调度器共用的一次调用的状态：future、attempt计数与耗时、等待间隔，以及交给线程池与拒绝的方式
+ * attemptNumber 与 lastAttempt 只在执行attempt的线程上修改，经由调度器的锁或线程池在线程间传递。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 10:52:17
+ */
+abstract class ScheduledCall<V> {
+
+    final CompletableFuture<V> future = new CompletableFuture<V>();
+    private final Ticker ticker;
+    private final long startTime;
+    private final Runnable backoffExpired = new Runnable() {
+        public void run() {
+            onBackoffExpired();
+        }
+    };
+    private int attemptNumber;
+    @Nullable
+    private Attempt<V> lastAttempt;
+    /**
+     * 处于等待间隔中时为等待的定时任务；调度器以它是否为 null 区分等待中与可执行的调用
+     */
+    private volatile ScheduledFuture<?> backoff;
+
+    ScheduledCall(Ticker ticker) {
+        this.ticker = ticker;
+        this.startTime = ticker.read();
+    }
+
+    /**
+     * 执行一次attempt
+     */
+    final Attempt<V> call(Callable<V> callable) {
+        beginAttempt();
+        try {
+            return succeeded(callable.call());
+        } catch (Throwable t) {
+            return failed(t);
+        }
+    }
+
+    /**
+     * 开始一次attempt，其结果由 {@link #succeeded(Object)} 或 {@link #failed(Throwable)} 记录
+     */
+    final void beginAttempt() {
+        attemptNumber++;
+    }
+
+    final Attempt<V> succeeded(@Nullable V value) {
+        lastAttempt = Attempts.newResultAttempt(value, attemptNumber, elapsedMillis());
+        return lastAttempt;
+    }
+
+    final Attempt<V> failed(Throwable cause) {
+        lastAttempt = Attempts.newExceptionAttempt(cause, attemptNumber, elapsedMillis());
+        return lastAttempt;
+    }
+
+    /**
+     * @return 已开始的attempt数
+     */
+    final int getAttemptNumber() {
+        return attemptNumber;
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(ticker.read() - startTime);
+    }
+
+    /**
+     * 等待 sleepMillis 后调用 {@link #onBackoffExpired()}
+     */
+    final void scheduleBackoff(ScheduledExecutorService scheduler, long sleepMillis) {
+        backoff = scheduler.schedule(backoffExpired, sleepMillis, TimeUnit.MILLISECONDS);
+    }
+
+    final boolean isBackingOff() {
+        return backoff != null;
+    }
+
+    /**
+     * 等待间隔已结束
+     */
+    final void clearBackoff() {
+        backoff = null;
+    }
+
+    /**
+     * 取消尚未结束的等待间隔
+     */
+    final void cancelBackoff() {
+        ScheduledFuture<?> pending = backoff;
+        if (pending != null) {
+            backoff = null;
+            pending.cancel(false);
+        }
+    }
+
+    abstract void onBackoffExpired();
+
+    /**
+     * 调用没有执行attempt(已经结束，或被 workers 拒绝)，释放它占用的名额；默认没有需要释放的名额
+     */
+    void onNotStarted() {
+    }
+
+    /**
+     * 以 {@link RejectedExecutionException} 结束调用，最近一次attempt的异常作为原因
+     */
+    final void reject(String message) {
+        RejectedExecutionException e = new RejectedExecutionException(message);
+        if (lastAttempt != null && lastAttempt.hasException()) {
+            e.initCause(lastAttempt.getExceptionCause());
+        }
+        future.completeExceptionally(e);
+    }
+
+    /**
+     * 在锁外把调用交给 workers；被拒绝的调用以该异常结束，并通过 {@link #onNotStarted()} 释放名额
+     */
+    static <C extends ScheduledCall<?> & Runnable> void start(Executor workers, @Nullable List<C> calls) {
+        if (calls == null) {
+            return;
+        }
+        for (C call : calls) {
+            try {
+                workers.execute(call);
+            } catch (RejectedExecutionException e) {
+                call.future.completeExceptionally(e);
+                call.onNotStarted();
+            }
+        }
+    }
+}
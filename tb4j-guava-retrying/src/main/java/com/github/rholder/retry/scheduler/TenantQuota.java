@@ -0,0 +1,55 @@
+package com.github.rholder.retry.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: 单个租户在 {@link TenantRetryScheduler} 中的份额
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:47:33
+ */
+@Immutable
+public final class TenantQuota {
+
+    private final int weight;
+    private final int maxInFlight;
+    private final int maxPending;
+
+    private TenantQuota(int weight, int maxInFlight, int maxPending) {
+        this.weight = weight;
+        this.maxInFlight = maxInFlight;
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @param weight 每轮可发起的attempt数，租户间按权重比例分配执行名额
+     * @param maxInFlight 同时执行的attempt数上限
+     * @param maxPending 等待中(含处于等待间隔中)的调用数上限，超出时只拒绝该租户的调用
+     */
+    public static TenantQuota of(int weight, int maxInFlight, int maxPending) {
+        Preconditions.checkArgument(weight >= 1, "weight must be >= 1 but is %s", weight);
+        Preconditions.checkArgument(maxInFlight >= 1, "maxInFlight must be >= 1 but is %s", maxInFlight);
+        Preconditions.checkArgument(maxPending >= 1, "maxPending must be >= 1 but is %s", maxPending);
+        return new TenantQuota(weight, maxInFlight, maxPending);
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public int getMaxPending() {
+        return maxPending;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantQuota{weight=" + weight + ", maxInFlight=" + maxInFlight + ", maxPending=" + maxPending + "}";
+    }
+}
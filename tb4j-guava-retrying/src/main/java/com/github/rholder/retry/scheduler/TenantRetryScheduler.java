@@ -0,0 +1,391 @@
+package com.github.rholder.retry.scheduler;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.listener.RetryListener;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Predicate;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.BiConsumer;
+
+/**
+ * Function: 按租户加权公平调度的异步重试执行器
+ * 每个租户有自己的等待队列与份额({@link TenantQuota})，执行名额按差额轮询(deficit round robin)在有待执行调用的租户间分配：
+ * 每轮租户获得与权重相等的额度，每发起一次attempt(无论第一次还是重试)消耗 1。
+ * 租户的等待数与并发数各自封顶，某个租户的重试风暴只会占满它自己的份额，其他租户的吞吐不受影响。
+ * 等待间隔与是否停止由 {@link WaitStrategy}、{@link StopStrategy} 决定，等待期间不占用线程。
+ * 通过 {@link com.github.rholder.retry.RetryerBuilder#buildTenantScheduler(ScheduledExecutorService, TenantSchedulerConfig)} 创建。
+ *
+ * 租户的状态与统计在第一次提交时创建并一直保留，租户键应来自有限的集合。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:58:26
+ */
+@ThreadSafe
+public final class TenantRetryScheduler<K, V> {
+
+    private final RetryDecider<V> decider;
+    private final Ticker ticker;
+    private final ScheduledExecutorService scheduler;
+    private final Executor workers;
+    private final TenantSchedulerConfig<K> config;
+
+    @GuardedBy("this")
+    private final Map<K, Tenant> tenants = new HashMap<K, Tenant>();
+    /**
+     * 有待执行调用的租户，队首的租户正在使用它这一轮的额度
+     */
+    @GuardedBy("this")
+    private final ArrayDeque<Tenant> active = new ArrayDeque<Tenant>();
+    @GuardedBy("this")
+    private int inFlight;
+
+    public TenantRetryScheduler(@Nonnull StopStrategy stopStrategy,
+                                @Nonnull WaitStrategy waitStrategy,
+                                @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                                @Nonnull Collection<RetryListener> listeners,
+                                @Nonnull Ticker ticker,
+                                @Nonnull ScheduledExecutorService scheduler,
+                                @Nonnull TenantSchedulerConfig<K> config) {
+        Preconditions.checkNotNull(ticker, "ticker may not be null");
+        Preconditions.checkNotNull(scheduler, "scheduler may not be null");
+        Preconditions.checkNotNull(config, "config may not be null");
+
+        this.decider = new RetryDecider<V>(stopStrategy, waitStrategy, rejectionPredicate, listeners);
+        this.ticker = ticker;
+        this.scheduler = scheduler;
+        this.workers = config.getWorkers() == null ? scheduler : config.getWorkers();
+        this.config = config;
+    }
+
+    /**
+     * 以 tenant 的份额提交调用；该租户的等待数已达上限时返回的 future 立即以 {@link RejectedExecutionException} 失败
+     */
+    public CompletableFuture<V> submit(@Nonnull K tenant, @Nonnull Callable<V> callable) {
+        Preconditions.checkNotNull(tenant, "tenant may not be null");
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        final Task task;
+        boolean admitted;
+        List<Task> toStart;
+        synchronized (this) {
+            Tenant state = tenants.get(tenant);
+            if (state == null) {
+                state = new Tenant(tenant, config.getQuota(tenant));
+                tenants.put(tenant, state);
+            }
+            task = new Task(state, callable);
+            state.submitted++;
+            admitted = state.pending < state.quota.getMaxPending();
+            if (admitted) {
+                enqueue(task);
+            } else {
+                state.rejected++;
+            }
+            toStart = drain();
+        }
+        if (admitted) {
+            task.future.whenComplete(new BiConsumer<V, Throwable>() {
+                public void accept(V value, Throwable t) {
+                    if (task.future.isCancelled()) {
+                        onCancelled(task);
+                    }
+                }
+            });
+        } else {
+            reject(task);
+        }
+        ScheduledCall.start(workers, toStart);
+        return task.future;
+    }
+
+    /**
+     * @return 该租户的统计，尚未提交过时为 null
+     */
+    @Nullable
+    public synchronized TenantStats getStats(@Nonnull K tenant) {
+        Tenant state = tenants.get(tenant);
+        return state == null ? null : state.snapshot();
+    }
+
+    /**
+     * @return 全部租户的统计
+     */
+    public synchronized List<TenantStats> getStats() {
+        List<TenantStats> stats = new ArrayList<TenantStats>(tenants.size());
+        for (Tenant state : tenants.values()) {
+            stats.add(state.snapshot());
+        }
+        return stats;
+    }
+
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    @GuardedBy("this")
+    private void enqueue(Task task) {
+        Tenant state = task.tenant;
+        task.queued = true;
+        state.pending++;
+        makeReady(task);
+    }
+
+    @GuardedBy("this")
+    private void makeReady(Task task) {
+        Tenant state = task.tenant;
+        state.ready.add(task);
+        if (!state.active) {
+            state.active = true;
+            active.add(state);
+        }
+    }
+
+    /**
+     * 差额轮询：队首租户在这一轮的额度内连续发起attempt，额度用完或达到自身并发上限时轮到下一个租户
+     * @return 需要在锁外交给 workers 的调用，没有时为 null
+     */
+    @GuardedBy("this")
+    @Nullable
+    private List<Task> drain() {
+        List<Task> toStart = null;
+        int blocked = 0;
+        while (inFlight < config.getMaxConcurrency() && !active.isEmpty()) {
+            Tenant state = active.peek();
+            Task next = state.peekReady();
+            if (next == null) {
+                active.poll();
+                state.active = false;
+                state.inTurn = false;
+                state.deficit = 0;
+                continue;
+            }
+            if (state.inFlight >= state.quota.getMaxInFlight()) {
+                active.add(active.poll());
+                state.inTurn = false;
+                if (++blocked >= active.size()) {
+                    break;
+                }
+                continue;
+            }
+            if (!state.inTurn) {
+                state.inTurn = true;
+                state.deficit += state.quota.getWeight();
+            }
+            if (state.deficit <= 0) {
+                active.add(active.poll());
+                state.inTurn = false;
+                continue;
+            }
+            state.ready.remove(next);
+            next.queued = false;
+            state.pending--;
+            state.deficit--;
+            state.inFlight++;
+            inFlight++;
+            blocked = 0;
+            if (toStart == null) {
+                toStart = new ArrayList<Task>(2);
+            }
+            toStart.add(next);
+        }
+        return toStart;
+    }
+
+    private void reject(Task task) {
+        task.reject("retry queue of tenant " + task.tenant.key + " is full (" + task.tenant.quota.getMaxPending() + ")");
+    }
+
+    private void onCancelled(Task task) {
+        synchronized (this) {
+            if (!task.queued) {
+                return;
+            }
+            task.queued = false;
+            task.tenant.pending--;
+            task.tenant.ready.remove(task);
+            task.cancelBackoff();
+        }
+    }
+
+    /**
+     * 一次attempt结束(或未能开始)，释放名额并按判定重新排队；统计先于 future 完成更新
+     * @param attempt 未能执行时为 null，此时 future 已经完成
+     * @param decision {@link RetryDecider#decide} 的判定
+     * @param error 判定时抛出的异常，调用以它结束
+     */
+    private void onAttempt(Task task, @Nullable Attempt<V> attempt, long decision, @Nullable Throwable error) {
+        boolean complete = false;
+        boolean rejected = false;
+        List<Task> toStart;
+        synchronized (this) {
+            Tenant state = task.tenant;
+            state.inFlight--;
+            inFlight--;
+            if (attempt != null) {
+                state.attempts++;
+                if (attempt.getAttemptNumber() > 1L) {
+                    state.retries++;
+                }
+            }
+            if (task.future.isDone()) {
+                // 未能开始，或执行期间被取消
+                if (attempt == null && !task.future.isCancelled()) {
+                    state.failed++;
+                }
+            } else if (error != null || decision < 0L) {
+                complete = true;
+                if (error == null && decision == RetryDecider.COMPLETE && attempt.hasResult()) {
+                    state.succeeded++;
+                } else {
+                    state.failed++;
+                }
+            } else if (state.pending >= state.quota.getMaxPending()) {
+                state.rejected++;
+                rejected = true;
+            } else {
+                task.queued = true;
+                state.pending++;
+                if (decision == 0L) {
+                    makeReady(task);
+                } else {
+                    task.scheduleBackoff(scheduler, decision);
+                }
+            }
+            toStart = drain();
+        }
+        if (error != null) {
+            task.future.completeExceptionally(error);
+        } else if (complete) {
+            decider.complete(task.future, attempt, decision);
+        } else if (rejected) {
+            reject(task);
+        }
+        ScheduledCall.start(workers, toStart);
+    }
+
+    private void onBackoffExpired(Task task) {
+        List<Task> toStart;
+        synchronized (this) {
+            if (!task.queued || !task.isBackingOff()) {
+                return;
+            }
+            task.clearBackoff();
+            makeReady(task);
+            toStart = drain();
+        }
+        ScheduledCall.start(workers, toStart);
+    }
+
+    /**
+     * 单个租户的队列、额度与统计
+     */
+    private final class Tenant {
+        private final K key;
+        private final TenantQuota quota;
+        /**
+         * 可以立即执行的调用，按进入的先后顺序；被取消的调用随即移出
+         */
+        @GuardedBy("TenantRetryScheduler.this")
+        private final LinkedHashSet<Task> ready = new LinkedHashSet<Task>();
+        @GuardedBy("TenantRetryScheduler.this")
+        private int pending;
+        @GuardedBy("TenantRetryScheduler.this")
+        private int inFlight;
+        @GuardedBy("TenantRetryScheduler.this")
+        private int deficit;
+        @GuardedBy("TenantRetryScheduler.this")
+        private boolean active;
+        @GuardedBy("TenantRetryScheduler.this")
+        private boolean inTurn;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long submitted;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long attempts;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long retries;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long succeeded;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long failed;
+        @GuardedBy("TenantRetryScheduler.this")
+        private long rejected;
+
+        Tenant(K key, TenantQuota quota) {
+            this.key = key;
+            this.quota = quota;
+        }
+
+        @Nullable
+        Task peekReady() {
+            return ready.isEmpty() ? null : ready.iterator().next();
+        }
+
+        TenantStats snapshot() {
+            return new TenantStats(key, inFlight, pending, submitted, attempts, retries, succeeded, failed, rejected);
+        }
+    }
+
+    /**
+     * 一次调用；queued 由调度器的锁保护
+     */
+    private final class Task extends ScheduledCall<V> implements Runnable {
+        private final Tenant tenant;
+        private final Callable<V> callable;
+        @GuardedBy("TenantRetryScheduler.this")
+        private boolean queued;
+
+        Task(Tenant tenant, Callable<V> callable) {
+            super(ticker);
+            this.tenant = tenant;
+            this.callable = callable;
+        }
+
+        /**
+         * 执行一次attempt
+         */
+        public void run() {
+            if (future.isDone()) {
+                onNotStarted();
+                return;
+            }
+            Attempt<V> attempt = call(callable);
+            long decision;
+            try {
+                decision = decider.decide(attempt);
+            } catch (Throwable t) {
+                onAttempt(this, attempt, RetryDecider.COMPLETE, t);
+                return;
+            }
+            onAttempt(this, attempt, decision, null);
+        }
+
+        @Override
+        void onBackoffExpired() {
+            TenantRetryScheduler.this.onBackoffExpired(this);
+        }
+
+        @Override
+        void onNotStarted() {
+            onAttempt(this, null, RetryDecider.COMPLETE, null);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.rholder.retry.scheduler;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Function: {@link TenantRetryScheduler} 的配置：总并发、各租户的份额以及执行attempt的线程池
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:49:15
+ */
+@Immutable
+public final class TenantSchedulerConfig<K> {
+
+    private final int maxConcurrency;
+    private final TenantQuota defaultQuota;
+    private final Map<K, TenantQuota> quotas;
+    private final Executor workers;
+
+    private TenantSchedulerConfig(Builder<K> builder) {
+        this.maxConcurrency = builder.maxConcurrency;
+        this.defaultQuota = builder.defaultQuota;
+        this.quotas = new HashMap<K, TenantQuota>(builder.quotas);
+        this.workers = builder.workers;
+    }
+
+    public static <K> Builder<K> newBuilder() {
+        return new Builder<K>();
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * @return 该租户的份额，未单独配置时为默认份额
+     */
+    public TenantQuota getQuota(K tenant) {
+        TenantQuota quota = quotas.get(tenant);
+        return quota == null ? defaultQuota : quota;
+    }
+
+    /**
+     * @return 执行attempt的线程池，为 null 时使用调度器
+     */
+    @Nullable
+    public Executor getWorkers() {
+        return workers;
+    }
+
+    @NotThreadSafe
+    public static final class Builder<K> {
+        private int maxConcurrency = 16;
+        private TenantQuota defaultQuota = TenantQuota.of(1, 4, 256);
+        private final Map<K, TenantQuota> quotas = new HashMap<K, TenantQuota>();
+        private Executor workers;
+
+        private Builder() {
+        }
+
+        /**
+         * @param maxConcurrency 所有租户同时执行的attempt数上限，默认 16
+         */
+        public Builder<K> withMaxConcurrency(int maxConcurrency) {
+            Preconditions.checkArgument(maxConcurrency >= 1, "maxConcurrency must be >= 1 but is %s", maxConcurrency);
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * @param quota 未单独配置的租户的份额，默认权重 1、并发 4、等待 256
+         */
+        public Builder<K> withDefaultQuota(@Nonnull TenantQuota quota) {
+            this.defaultQuota = Preconditions.checkNotNull(quota, "quota may not be null");
+            return this;
+        }
+
+        public Builder<K> withQuota(@Nonnull K tenant, @Nonnull TenantQuota quota) {
+            Preconditions.checkNotNull(tenant, "tenant may not be null");
+            Preconditions.checkNotNull(quota, "quota may not be null");
+            quotas.put(tenant, quota);
+            return this;
+        }
+
+        /**
+         * @param workers 执行attempt的线程池，默认使用调度器本身
+         */
+        public Builder<K> withWorkers(@Nonnull Executor workers) {
+            this.workers = Preconditions.checkNotNull(workers, "workers may not be null");
+            return this;
+        }
+
+        public TenantSchedulerConfig<K> build() {
+            return new TenantSchedulerConfig<K>(this);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.rholder.retry.scheduler;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Function: 单个租户在 {@link TenantRetryScheduler} 中的统计快照，计数自该租户第一次提交起累计
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 22:52:04
+ */
+@Immutable
+public final class TenantStats {
+
+    private final Object tenant;
+    private final int inFlight;
+    private final int pending;
+    private final long submitted;
+    private final long attempts;
+    private final long retries;
+    private final long succeeded;
+    private final long failed;
+    private final long rejected;
+
+    TenantStats(Object tenant, int inFlight, int pending, long submitted, long attempts, long retries,
+                long succeeded, long failed, long rejected) {
+        this.tenant = tenant;
+        this.inFlight = inFlight;
+        this.pending = pending;
+        this.submitted = submitted;
+        this.attempts = attempts;
+        this.retries = retries;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.rejected = rejected;
+    }
+
+    public Object getTenant() {
+        return tenant;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * @return 等待中的调用数，含处于等待间隔中的重试
+     */
+    public int getPending() {
+        return pending;
+    }
+
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return 第一次attempt之外的attempt数
+     */
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * @return 以异常结束的调用数，含停止重试，不含被拒绝
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return 因等待数超出份额被拒绝的调用数
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "TenantStats{" + tenant + ": inFlight=" + inFlight + ", pending=" + pending + ", submitted=" + submitted
+                + ", attempts=" + attempts + ", retries=" + retries + ", succeeded=" + succeeded + ", failed=" + failed
+                + ", rejected=" + rejected + "}";
+    }
+}
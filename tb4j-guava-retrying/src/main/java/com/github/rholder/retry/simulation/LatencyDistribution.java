@@ -0,0 +1,19 @@
+package com.github.rholder.retry.simulation;
+
+import java.util.Random;
+
+/**
+ * Function: 模拟后端的单次调用耗时分布
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 13:12:09
+ */
+public interface LatencyDistribution {
+
+    /**
+     * @param random 模拟器的随机源，保证相同种子得到相同结果
+     * @return 耗时，微秒
+     */
+    long sampleMicros(Random random);
+}
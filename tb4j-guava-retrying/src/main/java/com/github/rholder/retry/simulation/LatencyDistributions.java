@@ -0,0 +1,92 @@
+package com.github.rholder.retry.simulation;
+
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: factory for {@link LatencyDistribution}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 13:14:51
+ */
+public final class LatencyDistributions {
+
+    private LatencyDistributions() {
+    }
+
+    /**
+     * 固定耗时
+     */
+    public static LatencyDistribution constant(long latency, @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        return new ConstantLatency(timeUnit.toMicros(latency));
+    }
+
+    /**
+     * 指数分布耗时
+     */
+    public static LatencyDistribution exponential(long mean, @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        return new ExponentialLatency(timeUnit.toMicros(mean));
+    }
+
+    /**
+     * 对数正态分布耗时，长尾更接近真实服务
+     * @param median 中位数
+     * @param sigma 对数标准差，越大尾部越长
+     */
+    public static LatencyDistribution logNormal(long median, @Nonnull TimeUnit timeUnit, double sigma) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        return new LogNormalLatency(timeUnit.toMicros(median), sigma);
+    }
+
+    @Immutable
+    private static final class ConstantLatency implements LatencyDistribution {
+        private final long micros;
+
+        public ConstantLatency(long micros) {
+            Preconditions.checkArgument(micros >= 0L, "latency must be >= 0 but is %s", micros);
+            this.micros = micros;
+        }
+
+        public long sampleMicros(Random random) {
+            return micros;
+        }
+    }
+
+    @Immutable
+    private static final class ExponentialLatency implements LatencyDistribution {
+        private final long meanMicros;
+
+        public ExponentialLatency(long meanMicros) {
+            Preconditions.checkArgument(meanMicros > 0L, "mean must be > 0 but is %s", meanMicros);
+            this.meanMicros = meanMicros;
+        }
+
+        public long sampleMicros(Random random) {
+            return (long) (-Math.log(1.0d - random.nextDouble()) * meanMicros);
+        }
+    }
+
+    @Immutable
+    private static final class LogNormalLatency implements LatencyDistribution {
+        private final double mu;
+        private final double sigma;
+
+        public LogNormalLatency(long medianMicros, double sigma) {
+            Preconditions.checkArgument(medianMicros > 0L, "median must be > 0 but is %s", medianMicros);
+            Preconditions.checkArgument(sigma >= 0.0d, "sigma must be >= 0 but is %s", sigma);
+            this.mu = Math.log(medianMicros);
+            this.sigma = sigma;
+        }
+
+        public long sampleMicros(Random random) {
+            return (long) Math.exp(mu + sigma * random.nextGaussian());
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.github.rholder.retry.simulation;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Attempts;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.google.common.base.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 重试风暴离散事件模拟器
+ * 一批客户端请求按泊松过程到达，每个请求用真实的 {@link WaitStrategy}/{@link StopStrategy} 决定重试，
+ * 后端按容量、耗时分布、失败概率与故障窗口建模，全部运行在虚拟时间上，百万请求可在数秒内完成。
+ *
+ * <pre>
+ * SimulationReport report = RetryStormSimulation.newBuilder()
+ *         .withRequests(1000000)
+ *         .withArrivalRate(5000)
+ *         .withCapacity(200)
+ *         .withLatency(LatencyDistributions.logNormal(20, TimeUnit.MILLISECONDS, 0.5))
+ *         .withOutage(60, 90, TimeUnit.SECONDS)
+ *         .withWaitStrategy(WaitStrategies.exponentialWait(10, 5000, TimeUnit.MILLISECONDS))
+ *         .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+ *         .build()
+ *         .run();
+ * </pre>
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 13:20:36
+ */
+public final class RetryStormSimulation {
+
+    /**
+     * 模拟失败原因，不填充堆栈，可在停止/等待策略中按实例区分
+     */
+    public static final SimulatedFailure FAILURE = new SimulatedFailure("backend failure");
+    public static final SimulatedFailure OVERLOADED = new SimulatedFailure("backend overloaded");
+    public static final SimulatedFailure OUTAGE = new SimulatedFailure("backend outage");
+
+    private static final int ARRIVAL = 0;
+    private static final int ATTEMPT_START = 1;
+    private static final int ATTEMPT_SUCCESS = 2;
+    private static final int ATTEMPT_FAILURE = 3;
+    private static final int ATTEMPT_REJECTED = 4;
+    private static final int ATTEMPT_OUTAGE = 5;
+
+    private final int requests;
+    private final double arrivalRate;
+    private final WaitStrategy waitStrategy;
+    private final StopStrategy stopStrategy;
+    private final int capacity;
+    private final LatencyDistribution latency;
+    private final double failureProbability;
+    private final long rejectLatencyMicros;
+    private final long[] outageStarts;
+    private final long[] outageEnds;
+    private final long seed;
+    private final long bucketMicros;
+    private final double recoveryThreshold;
+
+    private RetryStormSimulation(SimulationBuilder builder) {
+        this.requests = builder.requests;
+        this.arrivalRate = builder.arrivalRate;
+        this.waitStrategy = builder.waitStrategy;
+        this.stopStrategy = builder.stopStrategy;
+        this.capacity = builder.capacity;
+        this.latency = builder.latency;
+        this.failureProbability = builder.failureProbability;
+        this.rejectLatencyMicros = builder.rejectLatencyMicros;
+        this.outageStarts = new long[builder.outages.size()];
+        this.outageEnds = new long[builder.outages.size()];
+        for (int i = 0; i < outageStarts.length; i++) {
+            outageStarts[i] = builder.outages.get(i)[0];
+            outageEnds[i] = builder.outages.get(i)[1];
+        }
+        this.seed = builder.seed;
+        this.bucketMicros = builder.bucketMicros;
+        this.recoveryThreshold = builder.recoveryThreshold;
+    }
+
+    public static SimulationBuilder newBuilder() {
+        return new SimulationBuilder();
+    }
+
+    /**
+     * 运行一次模拟。种子只决定到达、耗时与失败的抽样；随机的等待或停止策略默认使用进程共享的随机数，
+     * 此时两次运行的结果不同。需要可复现的结果时使用确定性策略，或每次运行前以固定种子创建策略，
+     * 如 {@link WaitStrategies#fullJitter(WaitStrategy, Random)}
+     */
+    public SimulationReport run() {
+        Random random = new Random(seed);
+        EventQueue events = new EventQueue(Math.max(16, Math.min(requests, 1 << 20)));
+        int[] attemptCounts = new int[requests];
+        long[] firstStarts = new long[requests];
+        long[] latencies = new long[requests];
+        BucketCounter buckets = new BucketCounter(bucketMicros);
+
+        int arrived = 0;
+        int succeeded = 0;
+        int gaveUp = 0;
+        long attempts = 0L;
+        long rejected = 0L;
+        int inFlight = 0;
+        int peakInFlight = 0;
+        long now = 0L;
+
+        events.add(0L, ARRIVAL, 0);
+        while (!events.isEmpty()) {
+            now = events.peekTime();
+            int type = events.peekType();
+            int request = events.peekRequest();
+            events.poll();
+
+            switch (type) {
+                case ARRIVAL:
+                    arrived++;
+                    if (arrived < requests) {
+                        long gap = (long) (-Math.log(1.0d - random.nextDouble()) / arrivalRate * 1000000.0d);
+                        events.add(now + gap, ARRIVAL, arrived);
+                    }
+                    firstStarts[request] = now;
+                    events.add(now, ATTEMPT_START, request);
+                    break;
+                case ATTEMPT_START:
+                    attempts++;
+                    attemptCounts[request]++;
+                    if (inOutage(now)) {
+                        events.add(now + rejectLatencyMicros, ATTEMPT_OUTAGE, request);
+                    } else if (inFlight >= capacity) {
+                        rejected++;
+                        events.add(now + rejectLatencyMicros, ATTEMPT_REJECTED, request);
+                    } else {
+                        inFlight++;
+                        peakInFlight = Math.max(peakInFlight, inFlight);
+                        boolean failed = random.nextDouble() < failureProbability;
+                        events.add(now + latency.sampleMicros(random), failed ? ATTEMPT_FAILURE : ATTEMPT_SUCCESS, request);
+                    }
+                    break;
+                case ATTEMPT_SUCCESS:
+                    inFlight--;
+                    buckets.record(now, true);
+                    latencies[succeeded++] = now - firstStarts[request];
+                    break;
+                default:
+                    SimulatedFailure cause;
+                    if (type == ATTEMPT_FAILURE) {
+                        inFlight--;
+                        cause = FAILURE;
+                    } else {
+                        cause = type == ATTEMPT_REJECTED ? OVERLOADED : OUTAGE;
+                    }
+                    buckets.record(now, false);
+                    Attempt<Object> attempt = Attempts.newExceptionAttempt(cause, attemptCounts[request],
+                            TimeUnit.MICROSECONDS.toMillis(now - firstStarts[request]));
+                    if (stopStrategy.shouldStop(attempt)) {
+                        gaveUp++;
+                    } else {
+                        long sleepMicros = TimeUnit.MILLISECONDS.toMicros(waitStrategy.computeSleepTime(attempt));
+                        events.add(now + sleepMicros, ATTEMPT_START, request);
+                    }
+                    break;
+            }
+        }
+
+        long[] successLatencies = Arrays.copyOf(latencies, succeeded);
+        Arrays.sort(successLatencies);
+        return new SimulationReport(requests, attempts, succeeded, gaveUp, rejected, peakInFlight, now,
+                recoveryMicros(buckets),
+                percentile(successLatencies, 0.50d), percentile(successLatencies, 0.90d),
+                percentile(successLatencies, 0.99d), percentile(successLatencies, 0.999d));
+    }
+
+    private boolean inOutage(long now) {
+        for (int i = 0; i < outageStarts.length; i++) {
+            if (now >= outageStarts[i] && now < outageEnds[i]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 最后一次故障结束后，首个成功率达到阈值的统计桶距故障结束的时间
+     */
+    private long recoveryMicros(BucketCounter buckets) {
+        if (outageEnds.length == 0) {
+            return -1L;
+        }
+        long lastEnd = 0L;
+        for (long end : outageEnds) {
+            lastEnd = Math.max(lastEnd, end);
+        }
+        for (int i = (int) (lastEnd / bucketMicros); i < buckets.size(); i++) {
+            long bucketStart = i * bucketMicros;
+            if (bucketStart >= lastEnd && buckets.total(i) > 0
+                    && (double) buckets.successes(i) / buckets.total(i) >= recoveryThreshold) {
+                return bucketStart - lastEnd;
+            }
+        }
+        return -1L;
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return -1L;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    /**
+     * 以 long[]/int[] 实现的二叉堆，避免每个事件分配对象；同一时间的事件按入队顺序出队
+     */
+    private static final class EventQueue {
+        private long[] times;
+        private long[] sequences;
+        private int[] payloads;
+        private int size;
+        private long nextSequence;
+
+        EventQueue(int initialCapacity) {
+            times = new long[initialCapacity];
+            sequences = new long[initialCapacity];
+            payloads = new int[initialCapacity];
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekTime() {
+            return times[0];
+        }
+
+        int peekType() {
+            return payloads[0] & 7;
+        }
+
+        int peekRequest() {
+            return payloads[0] >>> 3;
+        }
+
+        void add(long time, int type, int request) {
+            if (size == times.length) {
+                int newCapacity = size << 1;
+                times = Arrays.copyOf(times, newCapacity);
+                sequences = Arrays.copyOf(sequences, newCapacity);
+                payloads = Arrays.copyOf(payloads, newCapacity);
+            }
+            int i = size++;
+            long sequence = nextSequence++;
+            int payload = (request << 3) | type;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (!less(time, sequence, times[parent], sequences[parent])) {
+                    break;
+                }
+                move(parent, i);
+                i = parent;
+            }
+            set(i, time, sequence, payload);
+        }
+
+        void poll() {
+            int last = --size;
+            long time = times[last];
+            long sequence = sequences[last];
+            int payload = payloads[last];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                int right = child + 1;
+                if (right < size && less(times[right], sequences[right], times[child], sequences[child])) {
+                    child = right;
+                }
+                if (!less(times[child], sequences[child], time, sequence)) {
+                    break;
+                }
+                move(child, i);
+                i = child;
+            }
+            if (size > 0) {
+                set(i, time, sequence, payload);
+            }
+        }
+
+        private static boolean less(long time, long sequence, long otherTime, long otherSequence) {
+            return time < otherTime || (time == otherTime && sequence < otherSequence);
+        }
+
+        private void move(int from, int to) {
+            set(to, times[from], sequences[from], payloads[from]);
+        }
+
+        private void set(int i, long time, long sequence, int payload) {
+            times[i] = time;
+            sequences[i] = sequence;
+            payloads[i] = payload;
+        }
+    }
+
+    /**
+     * 按时间桶统计attempt成功数与总数
+     */
+    private static final class BucketCounter {
+        private final long bucketMicros;
+        private int[] successes = new int[64];
+        private int[] totals = new int[64];
+        private int size;
+
+        BucketCounter(long bucketMicros) {
+            this.bucketMicros = bucketMicros;
+        }
+
+        void record(long now, boolean success) {
+            int index = (int) (now / bucketMicros);
+            if (index >= totals.length) {
+                int newCapacity = Math.max(index + 1, totals.length << 1);
+                successes = Arrays.copyOf(successes, newCapacity);
+                totals = Arrays.copyOf(totals, newCapacity);
+            }
+            totals[index]++;
+            if (success) {
+                successes[index]++;
+            }
+            size = Math.max(size, index + 1);
+        }
+
+        int size() {
+            return size;
+        }
+
+        int total(int index) {
+            return totals[index];
+        }
+
+        int successes(int index) {
+            return successes[index];
+        }
+    }
+
+    /**
+     * 模拟失败，不填充堆栈
+     */
+    public static final class SimulatedFailure extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private SimulatedFailure(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Function: 配置和创建 {@link RetryStormSimulation}
+     */
+    public static final class SimulationBuilder {
+        private int requests = 100000;
+        private double arrivalRate = 1000.0d;
+        private WaitStrategy waitStrategy = WaitStrategies.noWait();
+        private StopStrategy stopStrategy = StopStrategies.stopAfterAttempt(3);
+        private int capacity = 100;
+        private LatencyDistribution latency = LatencyDistributions.exponential(10L, TimeUnit.MILLISECONDS);
+        private double failureProbability = 0.0d;
+        private long rejectLatencyMicros = 1000L;
+        private final List<long[]> outages = new ArrayList<long[]>();
+        private long seed = 42L;
+        private long bucketMicros = 100000L;
+        private double recoveryThreshold = 0.9d;
+
+        private SimulationBuilder() {
+        }
+
+        /**
+         * 模拟的请求总数
+         */
+        public SimulationBuilder withRequests(int requests) {
+            Preconditions.checkArgument(requests > 0, "requests must be > 0 but is %s", requests);
+            Preconditions.checkArgument(requests <= (Integer.MAX_VALUE >>> 3), "requests must be <= %s", Integer.MAX_VALUE >>> 3);
+            this.requests = requests;
+            return this;
+        }
+
+        /**
+         * 每秒到达的新请求数(不含重试)
+         */
+        public SimulationBuilder withArrivalRate(double requestsPerSecond) {
+            Preconditions.checkArgument(requestsPerSecond > 0.0d, "arrivalRate must be > 0 but is %s", requestsPerSecond);
+            this.arrivalRate = requestsPerSecond;
+            return this;
+        }
+
+        public SimulationBuilder withWaitStrategy(@Nonnull WaitStrategy waitStrategy) {
+            Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public SimulationBuilder withStopStrategy(@Nonnull StopStrategy stopStrategy) {
+            Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+            this.stopStrategy = stopStrategy;
+            return this;
+        }
+
+        /**
+         * 后端最大并发，超出时立即拒绝
+         */
+        public SimulationBuilder withCapacity(int capacity) {
+            Preconditions.checkArgument(capacity > 0, "capacity must be > 0 but is %s", capacity);
+            this.capacity = capacity;
+            return this;
+        }
+
+        public SimulationBuilder withLatency(@Nonnull LatencyDistribution latency) {
+            Preconditions.checkNotNull(latency, "latency may not be null");
+            this.latency = latency;
+            return this;
+        }
+
+        /**
+         * 正常处理的请求的失败概率
+         */
+        public SimulationBuilder withFailureProbability(double failureProbability) {
+            Preconditions.checkArgument(failureProbability >= 0.0d && failureProbability <= 1.0d,
+                    "failureProbability must be in [0, 1] but is %s", failureProbability);
+            this.failureProbability = failureProbability;
+            return this;
+        }
+
+        /**
+         * 拒绝(过载或故障)时的响应耗时
+         */
+        public SimulationBuilder withRejectLatency(long rejectLatency, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(rejectLatency >= 0L, "rejectLatency must be >= 0 but is %s", rejectLatency);
+            this.rejectLatencyMicros = timeUnit.toMicros(rejectLatency);
+            return this;
+        }
+
+        /**
+         * 故障窗口 [start, end)，期间所有attempt失败
+         */
+        public SimulationBuilder withOutage(long start, long end, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(start >= 0L && end > start, "outage must satisfy 0 <= start < end");
+            outages.add(new long[]{timeUnit.toMicros(start), timeUnit.toMicros(end)});
+            return this;
+        }
+
+        public SimulationBuilder withSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * 恢复时间的判定：故障结束后首个成功率达到 recoveryThreshold 的统计桶
+         */
+        public SimulationBuilder withRecovery(double recoveryThreshold, long bucket, @Nonnull TimeUnit timeUnit) {
+            Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+            Preconditions.checkArgument(recoveryThreshold > 0.0d && recoveryThreshold <= 1.0d,
+                    "recoveryThreshold must be in (0, 1] but is %s", recoveryThreshold);
+            Preconditions.checkArgument(timeUnit.toMicros(bucket) > 0L, "bucket must be > 0");
+            this.recoveryThreshold = recoveryThreshold;
+            this.bucketMicros = timeUnit.toMicros(bucket);
+            return this;
+        }
+
+        public RetryStormSimulation build() {
+            return new RetryStormSimulation(this);
+        }
+    }
+}
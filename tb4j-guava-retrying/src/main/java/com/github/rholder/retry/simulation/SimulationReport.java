@@ -0,0 +1,139 @@
+package com.github.rholder.retry.simulation;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: {@link RetryStormSimulation} 的运行结果
+ * 时间均为虚拟时间，毫秒为单位
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 13:58:12
+ */
+@Immutable
+public final class SimulationReport {
+
+    private final int requests;
+    private final long attempts;
+    private final int succeeded;
+    private final int gaveUp;
+    private final long rejectedAttempts;
+    private final int peakInFlight;
+    private final long durationMicros;
+    private final long recoveryMicros;
+    private final long p50Micros;
+    private final long p90Micros;
+    private final long p99Micros;
+    private final long p999Micros;
+
+    SimulationReport(int requests, long attempts, int succeeded, int gaveUp, long rejectedAttempts, int peakInFlight,
+                     long durationMicros, long recoveryMicros,
+                     long p50Micros, long p90Micros, long p99Micros, long p999Micros) {
+        this.requests = requests;
+        this.attempts = attempts;
+        this.succeeded = succeeded;
+        this.gaveUp = gaveUp;
+        this.rejectedAttempts = rejectedAttempts;
+        this.peakInFlight = peakInFlight;
+        this.durationMicros = durationMicros;
+        this.recoveryMicros = recoveryMicros;
+        this.p50Micros = p50Micros;
+        this.p90Micros = p90Micros;
+        this.p99Micros = p99Micros;
+        this.p999Micros = p999Micros;
+    }
+
+    public int getRequests() {
+        return requests;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * 停止策略放弃的请求数
+     */
+    public int getGaveUp() {
+        return gaveUp;
+    }
+
+    /**
+     * 后端因超出容量而拒绝的attempt数
+     */
+    public long getRejectedAttempts() {
+        return rejectedAttempts;
+    }
+
+    public int getPeakInFlight() {
+        return peakInFlight;
+    }
+
+    /**
+     * 负载放大倍数：attempt总数 / 请求数
+     */
+    public double getAmplification() {
+        return (double) attempts / requests;
+    }
+
+    /**
+     * 有效吞吐：每秒成功的请求数
+     */
+    public double getGoodput() {
+        return durationMicros == 0L ? 0.0d : succeeded * 1000000.0d / durationMicros;
+    }
+
+    public double getSuccessRatio() {
+        return (double) succeeded / requests;
+    }
+
+    public long getDurationMillis() {
+        return TimeUnit.MICROSECONDS.toMillis(durationMicros);
+    }
+
+    /**
+     * 最后一次故障结束到成功率恢复的时间，未配置故障或未恢复时为 -1
+     */
+    public long getRecoveryMillis() {
+        return recoveryMicros < 0L ? -1L : TimeUnit.MICROSECONDS.toMillis(recoveryMicros);
+    }
+
+    /**
+     * 成功请求的端到端耗时分位数(含重试与等待)，没有成功请求时为 -1
+     */
+    public double getLatencyP50Millis() {
+        return toMillis(p50Micros);
+    }
+
+    public double getLatencyP90Millis() {
+        return toMillis(p90Micros);
+    }
+
+    public double getLatencyP99Millis() {
+        return toMillis(p99Micros);
+    }
+
+    public double getLatencyP999Millis() {
+        return toMillis(p999Micros);
+    }
+
+    private static double toMillis(long micros) {
+        return micros < 0L ? -1.0d : micros / 1000.0d;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "requests=%d attempts=%d amplification=%.3f succeeded=%d gaveUp=%d successRatio=%.4f goodput=%.1f/s "
+                        + "rejected=%d peakInFlight=%d duration=%dms recovery=%dms p50=%.3fms p90=%.3fms p99=%.3fms p999=%.3fms",
+                requests, attempts, getAmplification(), succeeded, gaveUp, getSuccessRatio(), getGoodput(),
+                rejectedAttempts, peakInFlight, getDurationMillis(), getRecoveryMillis(),
+                getLatencyP50Millis(), getLatencyP90Millis(), getLatencyP99Millis(), getLatencyP999Millis());
+    }
+}
@@ -0,0 +1,62 @@
+package com.github.rholder.retry.time;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Ticker;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Function: 手动推进的虚拟时钟，同时作为 {@link BlockStrategy}：阻塞时立即把时间向前推进，不真正休眠
+ * 用于测试和模拟，使大量重试场景在毫秒内跑完且结果确定；也是纳秒 {@link LongSupplier}，
+ * 可直接交给 core 的 {@code withNanoClock} 与 {@link com.github.rholder.retry.cancel.CancellationSource#withTimeout(long, TimeUnit, LongSupplier)}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 11:40:18
+ */
+@ThreadSafe
+public final class ManualTicker extends Ticker implements BlockStrategy, LongSupplier {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    public ManualTicker() {
+    }
+
+    public ManualTicker(long startNanos) {
+        nanos.set(startNanos);
+    }
+
+    @Override
+    public long read() {
+        return nanos.get();
+    }
+
+    public long getAsLong() {
+        return read();
+    }
+
+    /**
+     * 推进时间
+     */
+    public ManualTicker advance(long duration, @Nonnull TimeUnit timeUnit) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkArgument(duration >= 0L, "duration must be >= 0 but is %s", duration);
+        nanos.addAndGet(timeUnit.toNanos(duration));
+        return this;
+    }
+
+    /**
+     * 阻塞即推进时间，sleepTime 为毫秒
+     */
+    public void block(long sleepTime) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        advance(sleepTime, TimeUnit.MILLISECONDS);
+    }
+}
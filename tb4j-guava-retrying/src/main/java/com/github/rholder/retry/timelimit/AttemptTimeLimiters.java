@@ -1,6 +1,8 @@
 package com.github.rholder.retry.timelimit;
 
+import com.github.rholder.retry.schedule.AttemptSchedule;
 import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.tracing.TraceContext;
 import com.google.common.base.Preconditions;
 import com.google.common.util.concurrent.SimpleTimeLimiter;
 import com.google.common.util.concurrent.TimeLimiter;
@@ -31,7 +33,7 @@ public class AttemptTimeLimiters {
     }
 
     /**
-     * 执行时间限制
+     * 执行时间限制；callable 在 executorService 的线程上执行，当前的 {@link TraceContext} 会随之传递
      * @param duration 实现限制
      * @param timeUnit 单位
      * @param executorService 控制线程管理
@@ -43,6 +45,16 @@ public class AttemptTimeLimiters {
         return new FixedAttemptTimeLimit<V>(duration, timeUnit, executorService);
     }
 
+    /**
+     * 按时间表中各次attempt的超时限制执行时间，时间表未设置超时的attempt不限制
+     * @param schedule 时间表
+     * @param executorService 控制线程管理
+     */
+    public static <V> PerAttemptTimeLimiter<V> scheduledTimeLimit(@Nonnull AttemptSchedule schedule, @Nonnull ExecutorService executorService) {
+        Preconditions.checkNotNull(schedule, "schedule may not be null");
+        Preconditions.checkNotNull(executorService, "executorService may not be null");
+        return new ScheduledAttemptTimeLimit<V>(SimpleTimeLimiter.create(executorService), schedule);
+    }
 
     /**
      * 无时间限制
@@ -80,7 +92,32 @@ public class AttemptTimeLimiters {
         }
 
         public V call(Callable<V> callable) throws Exception {
-            return timeLimiter.callWithTimeout(callable, duration, timeUnit);
+            return timeLimiter.callWithTimeout(TraceContext.wrap(callable), duration, timeUnit);
+        }
+    }
+
+    /**
+     * 按时间表逐次限制执行时间
+     * @param <V>
+     */
+    @Immutable
+    private static final class ScheduledAttemptTimeLimit<V> implements PerAttemptTimeLimiter<V> {
+
+        private final TimeLimiter timeLimiter;
+        private final AttemptSchedule schedule;
+
+        private ScheduledAttemptTimeLimit(TimeLimiter timeLimiter, AttemptSchedule schedule) {
+            this.timeLimiter = timeLimiter;
+            this.schedule = schedule;
+        }
+
+        public V call(Callable<V> callable) throws Exception {
+            return call(callable, 1L);
+        }
+
+        public V call(Callable<V> callable, long attemptNumber) throws Exception {
+            long timeout = schedule.getTimeoutMillis(attemptNumber);
+            return timeout < 0L ? callable.call() : timeLimiter.callWithTimeout(TraceContext.wrap(callable), timeout, TimeUnit.MILLISECONDS);
         }
     }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.google.common.base.Predicates;
+import com.google.common.util.concurrent.AsyncCallable;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AsyncRetryerTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testRetriesFailedFutures() throws Exception {
+        AsyncRetryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(10L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+                .buildAsync(scheduler);
+        final AtomicInteger calls = new AtomicInteger();
+        ListenableFuture<Integer> future = retryer.call(new AsyncCallable<Integer>() {
+            public ListenableFuture<Integer> call() {
+                if (calls.incrementAndGet() < 3) {
+                    return Futures.immediateFailedFuture(new IOException("flaky"));
+                }
+                return Futures.immediateFuture(calls.get());
+            }
+        });
+        assertEquals(Integer.valueOf(3), future.get(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testStopsWithRetryExceptionAndPassesOtherFailures() throws Exception {
+        AsyncRetryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(Predicates.equalTo(false))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .buildAsync(scheduler);
+        try {
+            retryer.call(new AsyncCallable<Boolean>() {
+                public ListenableFuture<Boolean> call() {
+                    return Futures.immediateFuture(false);
+                }
+            }).get(5L, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RetryException);
+            assertEquals(3, ((RetryException) e.getCause()).getNumberOfFailedAttempts());
+        }
+
+        try {
+            retryer.call(new AsyncCallable<Boolean>() {
+                public ListenableFuture<Boolean> call() {
+                    return Futures.immediateFailedFuture(new IllegalStateException("fatal"));
+                }
+            }).get(5L, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testAttemptTimeoutCancelsPendingFuture() throws Exception {
+        AsyncRetryer<String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(TimeoutException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withAsyncAttemptTimeout(20L, TimeUnit.MILLISECONDS)
+                .buildAsync(scheduler);
+        final SettableFuture<String> hanging = SettableFuture.create();
+        final AtomicInteger calls = new AtomicInteger();
+        ListenableFuture<String> future = retryer.call(new AsyncCallable<String>() {
+            public ListenableFuture<String> call() {
+                return calls.incrementAndGet() == 1 ? hanging : Futures.immediateFuture("ok");
+            }
+        });
+        assertEquals("ok", future.get(5L, TimeUnit.SECONDS));
+        assertTrue(hanging.isCancelled());
+    }
+
+    @Test
+    public void testCompletionStage() throws Exception {
+        AsyncRetryer<String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfException()
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .buildAsync(scheduler);
+        final AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> future = retryer.callStage(new Supplier<CompletionStage<String>>() {
+            public CompletionStage<String> get() {
+                CompletableFuture<String> stage = new CompletableFuture<String>();
+                if (calls.incrementAndGet() < 2) {
+                    stage.completeExceptionally(new IOException("flaky"));
+                } else {
+                    stage.complete("done");
+                }
+                return stage;
+            }
+        });
+        assertEquals("done", future.get(5L, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    public void testCancelStopsRetrying() throws Exception {
+        AsyncRetryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(Predicates.equalTo(false))
+                .withWaitStrategy(WaitStrategies.fixedWait(1L, TimeUnit.HOURS))
+                .buildAsync(scheduler);
+        final AtomicInteger calls = new AtomicInteger();
+        ListenableFuture<Boolean> future = retryer.call(new AsyncCallable<Boolean>() {
+            public ListenableFuture<Boolean> call() {
+                calls.incrementAndGet();
+                return Futures.immediateFuture(false);
+            }
+        });
+        assertTrue(future.cancel(true));
+        Thread.sleep(20L);
+        assertEquals(1, calls.get());
+    }
+}
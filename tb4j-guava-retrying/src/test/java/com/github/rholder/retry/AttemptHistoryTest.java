@@ -0,0 +1,144 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.time.ManualTicker;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AttemptHistoryTest {
+
+    @Test
+    public void testHistoryVisibleToStrategies() throws Exception {
+        final ManualTicker ticker = new ManualTicker();
+        final List<Long> averages = new ArrayList<Long>();
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfException()
+                .withAttemptHistory(2)
+                .withTicker(ticker)
+                .withWaitStrategy(new WaitStrategy() {
+                    public long computeSleepTime(Attempt failedAttempt) {
+                        AttemptHistory history = ((DetailedAttempt<?>) failedAttempt).getHistory();
+                        averages.add(TimeUnit.NANOSECONDS.toMillis(history.averageLatencyNanos(2)));
+                        return 5L * failedAttempt.getAttemptNumber();
+                    }
+                })
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        int result = retryer.call(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                int n = calls.incrementAndGet();
+                ticker.advance(10L * n, TimeUnit.MILLISECONDS);
+                if (n < 4) {
+                    throw new IOException("attempt " + n);
+                }
+                return n;
+            }
+        });
+        assertEquals(4, result);
+        // 容量为 2，平均值只覆盖最近两次
+        assertEquals(10L, averages.get(0).longValue());
+        assertEquals(15L, averages.get(1).longValue());
+        assertEquals(25L, averages.get(2).longValue());
+    }
+
+    @Test
+    public void testRingBuffer() {
+        AttemptHistory history = new AttemptHistory(3);
+        history.recordAttempt(1L, new IOException());
+        history.recordWait(100L);
+        history.recordAttempt(2L, null);
+        history.recordWait(200L);
+        history.recordAttempt(3L, new SocketTimeoutException());
+        history.recordAttempt(4L, new SocketTimeoutException());
+
+        assertEquals(3, history.size());
+        assertEquals(4L, history.getLatencyNanos(0));
+        assertEquals(2L, history.getLatencyNanos(2));
+        assertEquals(200L, history.getWaitMillis(2));
+        assertEquals(AttemptHistory.NO_EXCEPTION, history.getExceptionClassId(2));
+        assertSame(SocketTimeoutException.class, history.getExceptionClass(0));
+        assertNull(history.getExceptionClass(2));
+        assertEquals(AttemptHistory.classId(SocketTimeoutException.class), history.getExceptionClassId(1));
+        assertTrue(history.isExceptionOf(0, IOException.class));
+        assertFalse(history.isExceptionOf(2, IOException.class));
+        assertEquals(2, history.consecutiveExceptionsOf(SocketTimeoutException.class));
+        try {
+            history.getLatencyNanos(3);
+            fail("IndexOutOfBoundsException expected");
+        } catch (IndexOutOfBoundsException expected) {
+        }
+    }
+
+    @Test
+    public void testStopAfterConsecutiveFailures() throws Exception {
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfException()
+                .withAttemptHistory(4)
+                .withStopStrategy(StopStrategies.stopAfterConsecutiveFailuresOf(SocketTimeoutException.class, 3))
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            retryer.call(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    // 第 2 次不是超时，打断连续计数
+                    if (calls.incrementAndGet() == 2) {
+                        throw new IOException("refused");
+                    }
+                    throw new SocketTimeoutException("timeout");
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(5, e.getNumberOfFailedAttempts());
+        }
+    }
+
+    @Test
+    public void testConsecutiveFailuresRequiresHistory() {
+        RetryerBuilder<Integer> builder = RetryerBuilder.<Integer>newBuilder()
+                .retryIfException()
+                .withAttemptHistory(2)
+                .withStopStrategy(StopStrategies.anyOf(StopStrategies.stopAfterAttempt(10),
+                        StopStrategies.stopAfterConsecutiveFailuresOf(SocketTimeoutException.class, 3)));
+        try {
+            builder.build();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        RetryerBuilder.<Integer>newBuilder()
+                .withStopStrategy(StopStrategies.stopAfterConsecutiveFailuresOf(SocketTimeoutException.class, 1))
+                .build();
+    }
+}
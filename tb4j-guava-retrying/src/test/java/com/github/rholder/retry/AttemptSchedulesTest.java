@@ -0,0 +1,199 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.policy.RetryPolicies;
+import com.github.rholder.retry.schedule.AttemptSchedule;
+import com.github.rholder.retry.schedule.AttemptSchedules;
+import com.github.rholder.retry.time.ManualTicker;
+import com.google.common.base.Predicates;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class AttemptSchedulesTest {
+
+    @Test
+    public void testCompileMatchesDelegate() {
+        WaitStrategy exponential = WaitStrategies.exponentialWait(50L, 1000L, TimeUnit.MILLISECONDS);
+        WaitStrategy joined = WaitStrategies.join(exponential, WaitStrategies.fixedWait(10L, TimeUnit.MILLISECONDS));
+        AttemptSchedule schedule = AttemptSchedules.compile(joined, 8);
+        assertArrayEquals(new long[]{110L, 210L, 410L, 810L, 1010L, 1010L, 1010L, 1010L}, schedule.toWaitArray());
+        for (int attemptNumber = 1; attemptNumber <= 20; attemptNumber++) {
+            Attempt<Object> attempt = Attempts.newResultAttempt(null, attemptNumber, 0L);
+            assertEquals(joined.computeSleepTime(attempt), schedule.computeSleepTime(attempt));
+        }
+    }
+
+    @Test
+    public void testCompileRejectsRandomStrategies() {
+        try {
+            AttemptSchedules.compile(WaitStrategies.fullJitter(WaitStrategies.fixedWait(1L, TimeUnit.SECONDS)), 3);
+            fail("IllegalArgumentException expected");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    @Test
+    public void testJoinSaturates() {
+        WaitStrategy huge = WaitStrategies.fixedWait(Long.MAX_VALUE - 1L, TimeUnit.MILLISECONDS);
+        WaitStrategy joined = WaitStrategies.join(huge, huge);
+        assertEquals(Long.MAX_VALUE, joined.computeSleepTime(Attempts.newResultAttempt(null, 1L, 0L)));
+    }
+
+    @Test
+    public void testExplicitScheduleWithTerminalAttempt() throws Exception {
+        AttemptSchedule schedule = AttemptSchedules.of(TimeUnit.MILLISECONDS, 100L, 200L, 400L).withTerminalAttempt(4);
+        assertEquals(400L, schedule.getWaitMillis(10L));
+        assertEquals("AttemptSchedule{#1 wait=100ms, #2 wait=200ms, #3 wait=400ms, #4, stop}", schedule.toString());
+
+        ManualTicker ticker = new ManualTicker();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(Predicates.equalTo(false))
+                .withAttemptSchedule(schedule)
+                .withTicker(ticker)
+                .build();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() {
+                    return false;
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(4, e.getNumberOfFailedAttempts());
+            assertEquals(700L, TimeUnit.NANOSECONDS.toMillis(ticker.read()));
+        }
+    }
+
+    @Test
+    public void testPerAttemptTimeouts() throws Exception {
+        AttemptSchedule schedule = AttemptSchedules.of(TimeUnit.MILLISECONDS, 0L)
+                .withTimeouts(TimeUnit.MILLISECONDS, 20L, 2000L)
+                .withTerminalAttempt(3);
+        assertTrue(schedule.hasTimeouts());
+        assertEquals(2000L, schedule.getTimeoutMillis(5L));
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            final AtomicInteger calls = new AtomicInteger();
+            Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                    .retryIfExceptionOfType(TimeoutException.class)
+                    .withAttemptSchedule(schedule, executor)
+                    .build();
+            int result = retryer.call(new Callable<Integer>() {
+                public Integer call() throws Exception {
+                    if (calls.incrementAndGet() == 1) {
+                        Thread.sleep(500L);
+                    } else {
+                        Thread.sleep(50L);
+                    }
+                    return calls.get();
+                }
+            });
+            assertEquals(2, result);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testPoliciesCompileDeterministicWaits() {
+        WaitStrategy wait = RetryPolicies.parse("stopAfterAttempt=5,fibonacciWait=100ms..1s").getWaitStrategy();
+        assertTrue(wait instanceof AttemptSchedule);
+        assertArrayEquals(new long[]{100L, 100L, 200L, 300L}, ((AttemptSchedule) wait).toWaitArray());
+        assertFalse(RetryPolicies.parse("stopAfterAttempt=5,randomWait=1..2").getWaitStrategy() instanceof AttemptSchedule);
+    }
+
+    @Test
+    public void testBuilderCompilesDeterministicWaits() throws Exception {
+        CountingWait wait = new CountingWait();
+        ManualTicker ticker = new ManualTicker();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(Predicates.equalTo(false))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(4))
+                .withWaitStrategy(wait)
+                .withTicker(ticker)
+                .build();
+        assertEquals(3, wait.calls.get());
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() {
+                    return false;
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(4, e.getNumberOfFailedAttempts());
+        }
+        assertEquals(3, wait.calls.get());
+        assertEquals(60L, TimeUnit.NANOSECONDS.toMillis(ticker.read()));
+    }
+
+    @Test
+    public void testBuilderKeepsWaitWithHistoryDependentStop() throws Exception {
+        CountingWait wait = new CountingWait();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(Predicates.equalTo(false))
+                .withStopStrategy(StopStrategies.anyOf(StopStrategies.stopAfterAttempt(3),
+                        StopStrategies.stopAfterConsecutiveFailuresOf(TimeoutException.class, 2)))
+                .withWaitStrategy(wait)
+                .withAttemptHistory(2)
+                .withTicker(new ManualTicker())
+                .build();
+        assertEquals(0, wait.calls.get());
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() {
+                    return false;
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, e.getNumberOfFailedAttempts());
+        }
+        assertEquals(2, wait.calls.get());
+    }
+
+    /**
+     * 第 n 次attempt失败后等待 n * 10ms，并记录被调用的次数
+     */
+    private static final class CountingWait implements DeterministicWaitStrategy {
+        final AtomicInteger calls = new AtomicInteger();
+
+        public long computeSleepTime(Attempt failedAttempt) {
+            calls.incrementAndGet();
+            return failedAttempt.getAttemptNumber() * 10L;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.scheduler.BatchDispatcherConfig;
+import com.github.rholder.retry.scheduler.BatchFunction;
+import com.github.rholder.retry.scheduler.BatchResult;
+import com.github.rholder.retry.scheduler.BatchRetryDispatcher;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchRetryDispatcherTest {
+
+    private ScheduledExecutorService scheduler;
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private RetryerBuilder<String> builder(int attempts) {
+        return RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(20L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(attempts));
+    }
+
+    /**
+     * 记录每批的大小；编号为奇数的元素第一次attempt失败
+     */
+    private static final class FlakyBatch implements BatchFunction<Integer, String> {
+        private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<Integer>());
+        private final List<Integer> seen = Collections.synchronizedList(new ArrayList<Integer>());
+
+        public List<BatchResult<String>> apply(List<Integer> items) {
+            batchSizes.add(items.size());
+            List<BatchResult<String>> results = new ArrayList<BatchResult<String>>(items.size());
+            for (Integer item : items) {
+                boolean firstTime;
+                synchronized (seen) {
+                    firstTime = !seen.contains(item);
+                    seen.add(item);
+                }
+                results.add(item % 2 == 1 && firstTime
+                        ? BatchResult.<String>failure(new IOException("throttled " + item))
+                        : BatchResult.success("v" + item));
+            }
+            return results;
+        }
+    }
+
+    @Test
+    public void testRetriesDueTogetherAreCoalesced() throws Exception {
+        FlakyBatch batch = new FlakyBatch();
+        BatchRetryDispatcher<Integer, String> dispatcher = builder(3)
+                .buildBatchDispatcher(scheduler, batch, BatchDispatcherConfig.newBuilder()
+                        .withMaxBatchSize(1000)
+                        .withLinger(10L, TimeUnit.MILLISECONDS)
+                        .build());
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(dispatcher.submit(i));
+        }
+        for (int i = 0; i < 200; i++) {
+            assertEquals("v" + i, futures.get(i).get(5L, TimeUnit.SECONDS));
+        }
+        assertEquals(300L, dispatcher.getAttemptCount());
+        // 200 个第一次attempt与 100 个同时到期的重试，各自只需少数几次批量调用
+        assertTrue(batch.batchSizes.toString(), dispatcher.getBatchCount() <= 6L);
+        assertEquals(dispatcher.getBatchCount(), batch.batchSizes.size());
+    }
+
+    @Test
+    public void testFullBatchIsSentWithoutLinger() throws Exception {
+        FlakyBatch batch = new FlakyBatch();
+        BatchRetryDispatcher<Integer, String> dispatcher = builder(1)
+                .buildBatchDispatcher(scheduler, batch, BatchDispatcherConfig.newBuilder()
+                        .withMaxBatchSize(10)
+                        .withLinger(1L, TimeUnit.HOURS)
+                        .build());
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(dispatcher.submit(i * 2));
+        }
+        for (int i = 0; i < 20; i++) {
+            assertEquals("v" + i * 2, futures.get(i).get(5L, TimeUnit.SECONDS));
+        }
+        assertEquals(2L, dispatcher.getBatchCount());
+        assertEquals(10, batch.batchSizes.get(0).intValue());
+        assertEquals(10, batch.batchSizes.get(1).intValue());
+    }
+
+    @Test
+    public void testEachItemAppliesItsOwnStopStrategy() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        BatchRetryDispatcher<Integer, String> dispatcher = builder(3)
+                .buildBatchDispatcher(scheduler, new BatchFunction<Integer, String>() {
+                    public List<BatchResult<String>> apply(List<Integer> items) {
+                        calls.incrementAndGet();
+                        List<BatchResult<String>> results = new ArrayList<BatchResult<String>>();
+                        for (Integer item : items) {
+                            results.add(item < 0
+                                    ? BatchResult.<String>failure(new IOException("poison " + item))
+                                    : BatchResult.success("v" + item));
+                        }
+                        return results;
+                    }
+                }, BatchDispatcherConfig.newBuilder().withLinger(5L, TimeUnit.MILLISECONDS).build());
+        CompletableFuture<String> poison = dispatcher.submit(-1);
+        CompletableFuture<String> healthy = dispatcher.submit(1);
+        assertEquals("v1", healthy.get(5L, TimeUnit.SECONDS));
+        try {
+            poison.get(5L, TimeUnit.SECONDS);
+            fail("Expected RetryException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RetryException);
+            assertEquals(3, ((RetryException) e.getCause()).getNumberOfFailedAttempts());
+        }
+        assertEquals(4L, dispatcher.getAttemptCount());
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testWholeBatchFailureRetriesEveryItem() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        BatchRetryDispatcher<Integer, String> dispatcher = builder(3)
+                .buildBatchDispatcher(scheduler, new BatchFunction<Integer, String>() {
+                    public List<BatchResult<String>> apply(List<Integer> items) throws IOException {
+                        if (calls.incrementAndGet() == 1) {
+                            throw new IOException("endpoint unavailable");
+                        }
+                        if (items.contains(99)) {
+                            // 结果数与元素数不一致，整批以不重试的异常失败
+                            return Collections.emptyList();
+                        }
+                        List<BatchResult<String>> results = new ArrayList<BatchResult<String>>();
+                        for (Integer item : items) {
+                            results.add(BatchResult.success("v" + item));
+                        }
+                        return results;
+                    }
+                }, BatchDispatcherConfig.newBuilder().build());
+        CompletableFuture<String> first = dispatcher.submit(1);
+        CompletableFuture<String> second = dispatcher.submit(2);
+        assertEquals("v1", first.get(5L, TimeUnit.SECONDS));
+        assertEquals("v2", second.get(5L, TimeUnit.SECONDS));
+
+        try {
+            dispatcher.submit(99).get(5L, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testNullResultFailsOnlyThatItem() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        BatchRetryDispatcher<Integer, String> dispatcher = builder(1)
+                .buildBatchDispatcher(scheduler, new BatchFunction<Integer, String>() {
+                    public List<BatchResult<String>> apply(List<Integer> items) {
+                        calls.incrementAndGet();
+                        List<BatchResult<String>> results = new ArrayList<BatchResult<String>>();
+                        for (Integer item : items) {
+                            results.add(item == 0 ? null : BatchResult.success("v" + item));
+                        }
+                        return results;
+                    }
+                }, BatchDispatcherConfig.newBuilder().withLinger(20L, TimeUnit.MILLISECONDS).build());
+        CompletableFuture<String> broken = dispatcher.submit(0);
+        CompletableFuture<String> healthy = dispatcher.submit(1);
+        assertEquals("v1", healthy.get(5L, TimeUnit.SECONDS));
+        try {
+            broken.get(5L, TimeUnit.SECONDS);
+            fail("Expected ExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testUnsupportedSettingsAreRejected() {
+        BatchDispatcherConfig config = BatchDispatcherConfig.newBuilder().build();
+        try {
+            builder(3).withAttemptHistory(4).buildBatchDispatcher(scheduler, new FlakyBatch(), config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            builder(3).withAsyncAttemptTimeout(1L, TimeUnit.SECONDS).buildBatchDispatcher(scheduler, new FlakyBatch(), config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
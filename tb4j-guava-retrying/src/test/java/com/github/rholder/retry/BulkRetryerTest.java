@@ -0,0 +1,225 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.bulk.BulkConfig;
+import com.github.rholder.retry.bulk.BulkFunction;
+import com.github.rholder.retry.bulk.BulkReport;
+import com.github.rholder.retry.bulk.FailureMode;
+import com.github.rholder.retry.exception.BulkException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BulkRetryerTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private RetryerBuilder<String> builder() {
+        return RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(1L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3));
+    }
+
+    /**
+     * 记录读取了多少元素
+     */
+    private static Iterable<Integer> counting(final int size, final AtomicInteger pulled) {
+        return new Iterable<Integer>() {
+            public Iterator<Integer> iterator() {
+                return new Iterator<Integer>() {
+                    public boolean hasNext() {
+                        return pulled.get() < size;
+                    }
+
+                    public Integer next() {
+                        return pulled.getAndIncrement();
+                    }
+                };
+            }
+        };
+    }
+
+    @Test
+    public void testOrderedEmissionWithBoundedInFlight() throws Exception {
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Random random = new Random(7L);
+        final List<Integer> emitted = new ArrayList<Integer>();
+        final int maxInFlight = 4;
+        BulkReport<Integer> report = builder()
+                .buildBulk(executor, BulkConfig.newBuilder().withMaxInFlight(maxInFlight).build())
+                .map(counting(200, pulled), new BulkFunction<Integer, String>() {
+                    public String apply(Integer item) throws InterruptedException {
+                        int now = running.incrementAndGet();
+                        synchronized (maxRunning) {
+                            maxRunning.set(Math.max(maxRunning.get(), now));
+                        }
+                        int delay;
+                        synchronized (random) {
+                            delay = random.nextInt(3);
+                        }
+                        Thread.sleep(delay);
+                        running.decrementAndGet();
+                        return "v" + item;
+                    }
+                }, new BiConsumer<Integer, String>() {
+                    public void accept(Integer item, String value) {
+                        assertEquals("v" + item, value);
+                        // 已读取但尚未发出的元素不超过上限
+                        assertTrue(pulled.get() - emitted.size() <= maxInFlight);
+                        emitted.add(item);
+                    }
+                });
+        assertEquals(200L, report.getSucceeded());
+        assertEquals(0L, report.getFailed());
+        assertTrue(maxRunning.get() <= maxInFlight);
+        for (int i = 0; i < emitted.size(); i++) {
+            assertEquals(i, emitted.get(i).intValue());
+        }
+    }
+
+    @Test
+    public void testUnorderedEmissionDoesNotWaitForSlowItems() throws Exception {
+        final List<Integer> emitted = new ArrayList<Integer>();
+        BulkReport<Integer> report = builder()
+                .buildBulk(executor, BulkConfig.newBuilder().withMaxInFlight(3).withOrdered(false).build())
+                .map(Stream.of(0, 1, 2), new BulkFunction<Integer, String>() {
+                    public String apply(Integer item) throws InterruptedException {
+                        if (item == 0) {
+                            Thread.sleep(200L);
+                        }
+                        return "v" + item;
+                    }
+                }, new BiConsumer<Integer, String>() {
+                    public void accept(Integer item, String value) {
+                        emitted.add(item);
+                    }
+                });
+        assertEquals(3L, report.getSucceeded());
+        assertEquals(3, emitted.size());
+        assertEquals(0, emitted.get(2).intValue());
+    }
+
+    @Test
+    public void testRetriesEachItemAndCollectsFailures() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final List<Integer> emitted = new ArrayList<Integer>();
+        BulkReport<Integer> report = builder()
+                .buildBulk(executor, BulkConfig.newBuilder().withMaxInFlight(5).withFailureMode(FailureMode.COLLECT).build())
+                .map(IntStream.range(0, 20).boxed(), new BulkFunction<Integer, String>() {
+                    public String apply(Integer item) throws IOException {
+                        calls.incrementAndGet();
+                        if (item % 5 == 0) {
+                            throw new IOException("bad record " + item);
+                        }
+                        return "v" + item;
+                    }
+                }, new BiConsumer<Integer, String>() {
+                    public void accept(Integer item, String value) {
+                        emitted.add(item);
+                    }
+                });
+        assertEquals(16L, report.getSucceeded());
+        assertEquals(4L, report.getFailed());
+        assertEquals(16, emitted.size());
+        assertEquals(16 + 4 * 3, calls.get());
+        assertEquals(4, report.getFailures().size());
+        assertEquals(0L, report.getFailures().get(0).getIndex());
+        assertEquals(15, report.getFailures().get(3).getItem().intValue());
+        assertEquals(RetryOutcome.Status.EXHAUSTED, report.getFailures().get(3).getOutcome().getStatus());
+        assertTrue(report.getFailures().get(3).getOutcome().getFailureCause() instanceof IOException);
+    }
+
+    @Test
+    public void testSkipOnlyCountsFailures() throws Exception {
+        BulkReport<Integer> report = builder()
+                .buildBulk(executor, BulkConfig.newBuilder().withFailureMode(FailureMode.SKIP).build())
+                .map(IntStream.range(0, 10).boxed(), new BulkFunction<Integer, String>() {
+                    public String apply(Integer item) throws IOException {
+                        if (item % 2 == 0) {
+                            throw new IOException("bad record " + item);
+                        }
+                        return "v" + item;
+                    }
+                }, new BiConsumer<Integer, String>() {
+                    public void accept(Integer item, String value) {
+                    }
+                });
+        assertEquals(5L, report.getSucceeded());
+        assertEquals(5L, report.getFailed());
+        assertTrue(report.getFailures().isEmpty());
+    }
+
+    @Test
+    public void testFailFastStopsReadingTheSource() throws Exception {
+        AtomicInteger pulled = new AtomicInteger();
+        try {
+            builder()
+                    .buildBulk(executor, BulkConfig.newBuilder().withMaxInFlight(2).build())
+                    .map(counting(1000, pulled), new BulkFunction<Integer, String>() {
+                        public String apply(Integer item) throws IOException {
+                            if (item == 3) {
+                                throw new IOException("bad record");
+                            }
+                            return "v" + item;
+                        }
+                    }, new BiConsumer<Integer, String>() {
+                        public void accept(Integer item, String value) {
+                        }
+                    });
+            fail("Expected BulkException");
+        } catch (BulkException e) {
+            assertEquals(3L, e.getFailure().getIndex());
+            assertEquals(3L, e.getSucceeded());
+            assertTrue(e.getCause() instanceof IOException);
+        }
+        assertTrue(String.valueOf(pulled.get()), pulled.get() <= 6);
+    }
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.cancel.CancellableCallable;
+import com.github.rholder.retry.cancel.CancellationRegistration;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.time.ManualTicker;
+import com.google.common.base.Predicates;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class CancellationTest {
+
+    private static Retryer<Integer> slowRetryer() {
+        return RetryerBuilder.<Integer>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(10L, TimeUnit.SECONDS))
+                .build();
+    }
+
+    @Test
+    public void testCancelAbortsBackoffImmediately() throws Exception {
+        final CancellationSource source = CancellationSource.newSource();
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch firstAttempt = new CountDownLatch(1);
+        Thread canceller = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    firstAttempt.await();
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                source.cancel();
+            }
+        });
+        canceller.start();
+        long start = System.nanoTime();
+        RetryOutcome<Integer> outcome = slowRetryer().tryCall(new Callable<Integer>() {
+            public Integer call() throws IOException {
+                calls.incrementAndGet();
+                firstAttempt.countDown();
+                throw new IOException("down");
+            }
+        }, source.getToken());
+        canceller.join();
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000L);
+        assertEquals(RetryOutcome.Status.CANCELLED, outcome.getStatus());
+        assertEquals(1, calls.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+        try {
+            outcome.get();
+            fail("Expected CancellationException");
+        } catch (CancellationException expected) {
+        }
+    }
+
+    @Test
+    public void testAttemptChecksTokenCooperatively() throws Exception {
+        final CancellationSource source = CancellationSource.newSource();
+        final AtomicInteger calls = new AtomicInteger();
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfException()
+                .build();
+        try {
+            retryer.call(new CancellableCallable<Integer>() {
+                public Integer call(CancellationToken token) {
+                    if (calls.incrementAndGet() == 3) {
+                        source.cancel();
+                    }
+                    token.throwIfCancellationRequested();
+                    throw new IllegalStateException("not yet");
+                }
+            }, source.getToken());
+            fail("Expected CancellationException");
+        } catch (CancellationException expected) {
+        }
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testResultIsKeptWhenCancelledDuringLastAttempt() throws Exception {
+        final CancellationSource source = CancellationSource.newSource();
+        Integer result = slowRetryer().call(new Callable<Integer>() {
+            public Integer call() {
+                source.cancel();
+                return 7;
+            }
+        }, source.getToken());
+        assertEquals(7, result.intValue());
+    }
+
+    @Test
+    public void testAlreadyCancelledTokenMakesNoAttempt() throws Exception {
+        CancellationSource source = CancellationSource.newSource();
+        source.cancel();
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            slowRetryer().tryCall(new Callable<Integer>() {
+                public Integer call() {
+                    return calls.incrementAndGet();
+                }
+            }, source.getToken());
+            fail("Expected CancellationException");
+        } catch (CancellationException expected) {
+        }
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    public void testDeadlineSkipsBackoffThatWouldOverrunIt() throws Exception {
+        CancellationSource source = CancellationSource.withTimeout(1L, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        RetryOutcome<Integer> outcome = slowRetryer().tryCall(new Callable<Integer>() {
+            public Integer call() throws IOException {
+                throw new IOException("down");
+            }
+        }, source.getToken());
+        assertEquals(RetryOutcome.Status.CANCELLED, outcome.getStatus());
+        assertEquals(1, outcome.getAttemptCount());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000L);
+        assertFalse(source.isCancelled());
+    }
+
+    @Test
+    public void testDeadlineFollowsRetryerTicker() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfException()
+                .withTicker(ticker)
+                .withWaitStrategy(WaitStrategies.fixedWait(100L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.neverStop())
+                .build();
+        CancellationSource source = CancellationSource.withTimeout(250L, TimeUnit.MILLISECONDS, ticker);
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() throws IOException {
+                throw new IOException("down");
+            }
+        }, source.getToken());
+        // 0、100、200 毫秒各一次，第三次之后的等待会越过截止时间
+        assertEquals(RetryOutcome.Status.CANCELLED, outcome.getStatus());
+        assertEquals(3, outcome.getAttemptCount());
+    }
+
+    @Test
+    public void testCancellingSubmittedFutureStopsRetrying() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AtomicInteger calls = new AtomicInteger();
+            final CountDownLatch firstAttempt = new CountDownLatch(1);
+            Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                    .retryIfResult(Predicates.equalTo(0))
+                    .withWaitStrategy(WaitStrategies.fixedWait(10L, TimeUnit.SECONDS))
+                    .withStopStrategy(StopStrategies.neverStop())
+                    .build();
+            Future<Integer> future = retryer.submit(executor, new Callable<Integer>() {
+                public Integer call() {
+                    calls.incrementAndGet();
+                    firstAttempt.countDown();
+                    return 0;
+                }
+            });
+            firstAttempt.await();
+            assertTrue(future.cancel(false));
+
+            // 没有中断，若取消未传递到重试，单线程执行器在 10 秒内无法执行下一个任务
+            Future<String> next = executor.submit(new Callable<String>() {
+                public String call() {
+                    return "free";
+                }
+            });
+            assertEquals("free", next.get(5L, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testOnCancelCallbacks() {
+        CancellationSource source = CancellationSource.newSource();
+        final AtomicInteger runs = new AtomicInteger();
+        Runnable callback = new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        source.getToken().onCancel(callback);
+        source.cancel();
+        source.cancel();
+        assertEquals(1, runs.get());
+        source.getToken().onCancel(callback);
+        assertEquals(2, runs.get());
+        assertFalse(CancellationToken.none().isCancellationRequested());
+    }
+
+    @Test
+    public void testUnregisteredCallbackDoesNotRun() {
+        CancellationSource source = CancellationSource.newSource();
+        final AtomicInteger runs = new AtomicInteger();
+        Runnable callback = new Runnable() {
+            public void run() {
+                runs.incrementAndGet();
+            }
+        };
+        CancellationRegistration first = source.getToken().onCancel(callback);
+        source.getToken().onCancel(callback);
+        first.unregister();
+        first.unregister();
+        source.cancel();
+        assertEquals(1, runs.get());
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.bulk.BulkConfig;
+import com.github.rholder.retry.bulk.BulkFunction;
+import com.github.rholder.retry.bulk.BulkReport;
+import com.github.rholder.retry.bulk.FailureMode;
+import com.github.rholder.retry.deadletter.DeadLetter;
+import com.github.rholder.retry.deadletter.DeadLetterCodecs;
+import com.github.rholder.retry.deadletter.DeadLetterLog;
+import com.github.rholder.retry.deadletter.DeadLetterReader;
+import com.github.rholder.retry.deadletter.DeadLetterRetryer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class DeadLetterTest {
+
+    private Path dir;
+
+    @Before
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("dead-letters");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        DirectoryStream<Path> files = Files.newDirectoryStream(dir);
+        try {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        } finally {
+            files.close();
+        }
+        Files.delete(dir);
+    }
+
+    private DeadLetterLog<String> log(String name) throws IOException {
+        return DeadLetterLog.<String>newBuilder()
+                .withFile(dir.resolve(name))
+                .withCodec(DeadLetterCodecs.utf8())
+                .build();
+    }
+
+    private static List<DeadLetter<String>> readAll(Path file) throws IOException {
+        List<DeadLetter<String>> letters = new ArrayList<DeadLetter<String>>();
+        DeadLetterReader<String> reader = DeadLetterReader.open(file, DeadLetterCodecs.utf8());
+        try {
+            for (DeadLetter<String> letter = reader.next(); letter != null; letter = reader.next()) {
+                letters.add(letter);
+            }
+        } finally {
+            reader.close();
+        }
+        return letters;
+    }
+
+    private static final BulkFunction<String, String> REJECT_BAD = new BulkFunction<String, String>() {
+        public String apply(String item) throws IOException {
+            if (item.startsWith("bad")) {
+                throw new IOException("cannot process " + item);
+            }
+            return item.toUpperCase();
+        }
+    };
+
+    @Test
+    public void testExhaustedCallsAreWrittenWithTheirSummary() throws Exception {
+        DeadLetterLog<String> log = log("exhausted.dlq");
+        DeadLetterRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                .buildDeadLetter(log);
+        assertEquals("OK", retryer.call("ok", REJECT_BAD));
+        RetryOutcome<String> outcome = retryer.tryCall("bad-1", REJECT_BAD);
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        log.close();
+
+        assertEquals(1L, log.getWrittenCount());
+        assertEquals(0L, log.getDroppedCount());
+        List<DeadLetter<String>> letters = readAll(log.getFile());
+        assertEquals(1, letters.size());
+        DeadLetter<String> letter = letters.get(0);
+        assertEquals("bad-1", letter.getItem());
+        assertEquals(RetryOutcome.Status.EXHAUSTED, letter.getStatus());
+        assertEquals(2, letter.getAttemptCount());
+        assertEquals(IOException.class.getName(), letter.getFailureType());
+        assertEquals("cannot process bad-1", letter.getFailureMessage());
+        assertTrue(letter.getTimestampMillis() > 0L);
+    }
+
+    @Test
+    public void testConcurrentOffersAreAllWritten() throws Exception {
+        final DeadLetterLog<String> log = log("concurrent.dlq");
+        final DeadLetterRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                .buildDeadLetter(log);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        final CountDownLatch done = new CountDownLatch(4);
+        for (int t = 0; t < 4; t++) {
+            final int thread = t;
+            executor.execute(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < 500; i++) {
+                        retryer.tryCall("bad-" + thread + "-" + i, REJECT_BAD);
+                    }
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        executor.shutdown();
+        log.close();
+
+        assertEquals(2000L, log.getWrittenCount());
+        assertEquals(0L, log.getWriteFailureCount());
+        assertEquals(2000, readAll(log.getFile()).size());
+    }
+
+    @Test
+    public void testTornTailIsTruncatedOnReopen() throws Exception {
+        DeadLetterLog<String> log = log("torn.dlq");
+        DeadLetterRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                .buildDeadLetter(log);
+        retryer.tryCall("bad-1", REJECT_BAD);
+        retryer.tryCall("bad-2", REJECT_BAD);
+        log.close();
+        // 模拟写到一半时崩溃
+        Files.write(log.getFile(), new byte[]{0x44, 0x4C, 0x51, 0x31, 0, 0, 0, 100, 1, 2}, StandardOpenOption.APPEND);
+        assertEquals(2, readAll(log.getFile()).size());
+
+        log = log("torn.dlq");
+        RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                .buildDeadLetter(log)
+                .tryCall("bad-3", REJECT_BAD);
+        log.close();
+        List<DeadLetter<String>> letters = readAll(log.getFile());
+        assertEquals(3, letters.size());
+        assertEquals("bad-3", letters.get(2).getItem());
+    }
+
+    @Test
+    public void testCorruptMiddleRecordIsNotTruncated() throws Exception {
+        DeadLetterLog<String> log = log("corrupt.dlq");
+        DeadLetterRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                .buildDeadLetter(log);
+        for (String item : Arrays.asList("bad-1", "bad-2", "bad-3")) {
+            retryer.tryCall(item, REJECT_BAD);
+        }
+        log.close();
+        Path file = log.getFile();
+        long first;
+        DeadLetterReader<String> reader = DeadLetterReader.open(file, DeadLetterCodecs.utf8());
+        try {
+            reader.next();
+            first = reader.getPosition();
+        } finally {
+            reader.close();
+        }
+        // 损坏第二条记录的最后一个字节，第三条记录完好
+        byte[] content = Files.readAllBytes(file);
+        int length = ByteBuffer.wrap(content).getInt((int) first + 4);
+        content[(int) first + 12 + length - 1] ^= 0x7F;
+        Files.write(file, content);
+
+        try {
+            log("corrupt.dlq");
+            fail("IOException expected");
+        } catch (IOException expected) {
+            assertTrue(expected.getMessage(), expected.getMessage().contains("offset " + first));
+        }
+        assertEquals(content.length, Files.size(file));
+        reader = DeadLetterReader.open(file, DeadLetterCodecs.utf8());
+        try {
+            assertEquals("bad-1", reader.next().getItem());
+            reader.next();
+            fail("IOException expected");
+        } catch (IOException expected) {
+        } finally {
+            reader.close();
+        }
+
+        // 只有补零的尾部仍按写了一半处理
+        Files.write(dir.resolve("zeros.dlq"), Arrays.copyOf(Arrays.copyOf(content, (int) first), (int) first + 64));
+        log = log("zeros.dlq");
+        log.close();
+        assertEquals(first, Files.size(log.getFile()));
+        assertEquals(1, readAll(log.getFile()).size());
+    }
+
+    @Test
+    public void testReplayFeedsItemsBackThroughARetryer() throws Exception {
+        DeadLetterLog<String> log = log("first.dlq");
+        DeadLetterRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                .buildDeadLetter(log);
+        for (String item : Arrays.asList("bad-1", "bad-2", "bad-3")) {
+            retryer.tryCall(item, REJECT_BAD);
+        }
+        log.close();
+
+        // 下游恢复后只有 bad-2 仍然失败
+        DeadLetterLog<String> second = log("second.dlq");
+        DeadLetterRetryer<String, String> replayer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                .buildDeadLetter(second);
+        final List<String> replayed = new ArrayList<String>();
+        DeadLetterReader<String> reader = DeadLetterReader.open(log.getFile(), DeadLetterCodecs.utf8());
+        long succeeded;
+        try {
+            succeeded = reader.replay(replayer, new BulkFunction<String, String>() {
+                public String apply(String item) throws IOException {
+                    if (item.equals("bad-2")) {
+                        throw new IOException("still down");
+                    }
+                    replayed.add(item);
+                    return item;
+                }
+            });
+            assertNull(reader.next());
+        } finally {
+            reader.close();
+        }
+        second.close();
+
+        assertEquals(2L, succeeded);
+        assertEquals(Arrays.asList("bad-1", "bad-3"), replayed);
+        List<DeadLetter<String>> stillFailing = readAll(second.getFile());
+        assertEquals(1, stillFailing.size());
+        assertEquals("bad-2", stillFailing.get(0).getItem());
+        assertEquals(2, stillFailing.get(0).getAttemptCount());
+    }
+
+    @Test
+    public void testBulkFailuresGoToDeadLetters() throws Exception {
+        DeadLetterLog<String> log = log("bulk.dlq");
+        List<String> items = new ArrayList<String>();
+        for (int i = 0; i < 10; i++) {
+            items.add(i % 3 == 0 ? "bad-" + i : "ok-" + i);
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        BulkReport<String> report;
+        try {
+            report = RetryerBuilder.<String>newBuilder()
+                    .retryIfExceptionOfType(IOException.class)
+                    .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                    .buildBulk(executor, BulkConfig.newBuilder().withFailureMode(FailureMode.SKIP).build())
+                    .map(items, REJECT_BAD,
+                            new BiConsumer<String, String>() {
+                                public void accept(String item, String value) {
+                                }
+                            }, log);
+        } finally {
+            executor.shutdownNow();
+        }
+        log.close();
+
+        assertEquals(4L, report.getFailed());
+        List<DeadLetter<String>> letters = readAll(log.getFile());
+        assertEquals(4, letters.size());
+        assertEquals("bad-0", letters.get(0).getItem());
+        assertEquals("bad-9", letters.get(3).getItem());
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.failover.EndpointCallable;
+import com.github.rholder.retry.failover.EndpointPool;
+import com.github.rholder.retry.failover.FailoverRetryer;
+import com.github.rholder.retry.time.ManualTicker;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiters;
+import com.google.common.base.Predicates;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FailoverRetryerTest {
+
+    @Test
+    public void testRetryNeverLandsOnTheEndpointThatJustFailed() throws Exception {
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("a", "b", "c"))
+                .withOutlierEjection(1.0d, 1000)
+                .build();
+        FailoverRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(50))
+                .buildFailover(pool);
+        final List<String> visited = new ArrayList<String>();
+        RetryOutcome<String> outcome = retryer.tryCall(new EndpointCallable<String, String>() {
+            public String call(String endpoint) throws IOException {
+                visited.add(endpoint);
+                throw new IOException(endpoint + " down");
+            }
+        });
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        assertEquals(50, visited.size());
+        for (int i = 1; i < visited.size(); i++) {
+            assertFalse(visited.toString(), visited.get(i).equals(visited.get(i - 1)));
+        }
+    }
+
+    @Test
+    public void testTimedOutEndpointIsNotSelectedAgain() throws Exception {
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("a", "b"))
+                .withOutlierEjection(1.0d, 1000)
+                .build();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        final CountDownLatch release = new CountDownLatch(1);
+        try {
+            FailoverRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                    .retryIfException()
+                    .withAttemptTimeLimiter(AttemptTimeLimiters.<String>fixedTimeLimit(50L, TimeUnit.MILLISECONDS, executor))
+                    .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                    .buildFailover(pool);
+            final List<String> visited = Collections.synchronizedList(new ArrayList<String>());
+            RetryOutcome<String> outcome = retryer.tryCall(new EndpointCallable<String, String>() {
+                public String call(String endpoint) throws InterruptedException {
+                    visited.add(endpoint);
+                    if (visited.size() == 1) {
+                        // 第一次attempt挂起，直到超时之后才结束
+                        release.await();
+                    }
+                    return endpoint;
+                }
+            });
+            assertEquals(RetryOutcome.Status.SUCCEEDED, outcome.getStatus());
+            assertEquals(2, visited.size());
+            assertFalse(visited.toString(), visited.get(0).equals(visited.get(1)));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectedResultCountsAsEndpointFailure() throws Exception {
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("a", "b"))
+                .withOutlierEjection(1.0d, 1000)
+                .build();
+        FailoverRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfResult(Predicates.equalTo("busy"))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                .buildFailover(pool);
+        final List<String> visited = new ArrayList<String>();
+        RetryOutcome<String> outcome = retryer.tryCall(new EndpointCallable<String, String>() {
+            public String call(String endpoint) {
+                visited.add(endpoint);
+                return visited.size() == 1 ? "busy" : "ok";
+            }
+        });
+        assertEquals(RetryOutcome.Status.SUCCEEDED, outcome.getStatus());
+        assertFalse(visited.toString(), visited.get(0).equals(visited.get(1)));
+        assertTrue(pool.getErrorRate(visited.get(0)) > 0d);
+        assertEquals(0d, pool.getErrorRate(visited.get(1)), 0d);
+    }
+
+    @Test
+    public void testFailingEndpointIsEjectedAndGraduallyReadmitted() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("good", "bad"))
+                .withOutlierEjection(0.3d, 1)
+                .withEjectionDuration(10L, TimeUnit.SECONDS)
+                .withReadmissionWindow(10L, TimeUnit.SECONDS)
+                .withTicker(ticker)
+                .build();
+        FailoverRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withTicker(ticker)
+                .buildFailover(pool);
+        EndpointCallable<String, String> callable = new EndpointCallable<String, String>() {
+            public String call(String endpoint) throws IOException {
+                if (endpoint.equals("bad")) {
+                    throw new IOException("bad endpoint");
+                }
+                return endpoint;
+            }
+        };
+        for (int i = 0; i < 50 && !pool.isEjected("bad"); i++) {
+            assertEquals("good", retryer.call(callable));
+        }
+        assertTrue(pool.toString(), pool.isEjected("bad"));
+
+        Map<String, Integer> picks = countPicks(pool, 1000);
+        assertEquals(1000, picks.get("good").intValue());
+
+        // 摘除结束后处于恢复窗口前段，只承接少量流量
+        ticker.advance(11L, TimeUnit.SECONDS);
+        assertFalse(pool.isEjected("bad"));
+        int early = countPicks(pool, 2000).get("bad");
+        ticker.advance(8L, TimeUnit.SECONDS);
+        int late = countPicks(pool, 2000).get("bad");
+        assertTrue(early + " < " + late, early < late);
+    }
+
+    @Test
+    public void testPrefersLowerLatencyEndpoint() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("fast", "slow"))
+                .withTicker(ticker)
+                .build();
+        final ManualTicker clock = ticker;
+        FailoverRetryer<String, String> retryer = new FailoverRetryer<String, String>(
+                RetryerBuilder.<String>newBuilder().build(), pool, ticker);
+        EndpointCallable<String, String> callable = new EndpointCallable<String, String>() {
+            public String call(String endpoint) {
+                clock.advance(endpoint.equals("fast") ? 1L : 50L, TimeUnit.MILLISECONDS);
+                return endpoint;
+            }
+        };
+        retryer.call(callable);
+        retryer.call(callable);
+        int fast = 0;
+        for (int i = 0; i < 100; i++) {
+            if (retryer.call(callable).equals("fast")) {
+                fast++;
+            }
+        }
+        assertTrue(pool.toString(), pool.getLatencyNanos("slow") > pool.getLatencyNanos("fast"));
+        assertTrue(String.valueOf(fast), fast > 90);
+    }
+
+    @Test
+    public void testErrorRateDecaysWithoutNewSamples() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("a", "b"))
+                .withOutlierEjection(1.0d, 1000)
+                .withErrorDecay(1L, TimeUnit.SECONDS)
+                .withTicker(ticker)
+                .build();
+        new FailoverRetryer<String, String>(RetryerBuilder.<String>newBuilder().build(), pool, ticker)
+                .tryCall(new EndpointCallable<String, String>() {
+                    public String call(String endpoint) throws IOException {
+                        throw new IOException("down");
+                    }
+                });
+        String failed = pool.getErrorRate("a") > 0d ? "a" : "b";
+        double before = pool.getErrorRate(failed);
+        ticker.advance(3L, TimeUnit.SECONDS);
+        assertTrue(pool.getErrorRate(failed) < before / 10d);
+    }
+
+    @Test
+    public void testNeverEjectsMoreThanAllowed() throws Exception {
+        EndpointPool<String> pool = EndpointPool.<String>newBuilder()
+                .withEndpoints(Arrays.asList("a", "b"))
+                .withOutlierEjection(0.1d, 1)
+                .build();
+        FailoverRetryer<String, String> retryer = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(10))
+                .buildFailover(pool);
+        retryer.tryCall(new EndpointCallable<String, String>() {
+            public String call(String endpoint) throws IOException {
+                throw new IOException("down");
+            }
+        });
+        assertFalse(pool.isEjected("a") && pool.isEjected("b"));
+    }
+
+    private static Map<String, Integer> countPicks(EndpointPool<String> pool, int picks) {
+        Map<String, Integer> counts = new HashMap<String, Integer>();
+        for (String endpoint : pool.getEndpoints()) {
+            counts.put(endpoint, 0);
+        }
+        for (int i = 0; i < picks; i++) {
+            String endpoint = pool.select(null);
+            counts.put(endpoint, counts.get(endpoint) + 1);
+        }
+        return counts;
+    }
+}
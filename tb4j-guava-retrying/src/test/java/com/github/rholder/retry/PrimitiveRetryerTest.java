@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.budget.MappedFileRetryBudget;
+import com.github.rholder.retry.budget.RetryBudgets;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.primitive.BooleanCallable;
+import com.github.rholder.retry.primitive.BooleanRetryer;
+import com.github.rholder.retry.primitive.IntCallable;
+import com.github.rholder.retry.primitive.LongCallable;
+import com.github.rholder.retry.primitive.LongRetryer;
+import com.github.rholder.retry.primitive.VoidCallable;
+import com.github.rholder.retry.time.ManualTicker;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrimitiveRetryerTest {
+
+    @Test
+    public void testLongRetryerRetriesOnResult() throws Exception {
+        ManualTicker ticker = new ManualTicker();
+        LongRetryer retryer = RetryerBuilder.<Long>newBuilder()
+                .withWaitStrategy(WaitStrategies.fixedWait(100L, TimeUnit.MILLISECONDS))
+                .withTicker(ticker)
+                .buildLong(new LongPredicate() {
+                    public boolean test(long value) {
+                        return value < 3L;
+                    }
+                });
+        final AtomicInteger calls = new AtomicInteger();
+        long result = retryer.call(new LongCallable() {
+            public long call() {
+                return calls.incrementAndGet();
+            }
+        });
+        assertEquals(3L, result);
+        assertEquals(200L, ticker.read() / 1000000L);
+    }
+
+    @Test
+    public void testIntRetryerStopsWithSnapshot() throws Exception {
+        try {
+            RetryerBuilder.<Integer>newBuilder()
+                    .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                    .buildInt(new IntPredicate() {
+                        public boolean test(int value) {
+                            return value < 0;
+                        }
+                    })
+                    .call(new IntCallable() {
+                        public int call() {
+                            return -1;
+                        }
+                    });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, e.getNumberOfFailedAttempts());
+            assertEquals(3L, e.getLastFailedAttempt().getAttemptNumber());
+            assertEquals(Integer.valueOf(-1), e.getLastFailedAttempt().getResult());
+        }
+    }
+
+    @Test
+    public void testBooleanRetryerPollsUntilTrue() throws Exception {
+        BooleanRetryer retryer = RetryerBuilder.<Boolean>newBuilder()
+                .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+                .buildBoolean(false);
+        final AtomicInteger calls = new AtomicInteger();
+        assertTrue(retryer.call(new BooleanCallable() {
+            public boolean call() {
+                return calls.incrementAndGet() == 4;
+            }
+        }));
+        assertEquals(4, calls.get());
+        assertFalse(RetryerBuilder.<Boolean>newBuilder().buildBoolean().call(new BooleanCallable() {
+            public boolean call() {
+                return false;
+            }
+        }));
+    }
+
+    @Test
+    public void testVoidRetryerExceptions() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        RetryerBuilder.<Void>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .buildVoid()
+                .call(new VoidCallable() {
+                    public void call() throws IOException {
+                        if (calls.incrementAndGet() < 3) {
+                            throw new IOException("flaky");
+                        }
+                    }
+                });
+        assertEquals(3, calls.get());
+
+        try {
+            RetryerBuilder.<Void>newBuilder()
+                    .retryIfExceptionOfType(IOException.class)
+                    .buildVoid()
+                    .run(new Runnable() {
+                        public void run() {
+                            throw new IllegalStateException("fatal");
+                        }
+                    });
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testPrimitiveRetryerSharesRetryBudget() throws Exception {
+        File file = File.createTempFile("retry-budget", ".bin");
+        file.deleteOnExit();
+        MappedFileRetryBudget budget = RetryBudgets.mappedFile(file, 0.0d, 2);
+        final AtomicInteger calls = new AtomicInteger();
+        try {
+            RetryerBuilder.<Long>newBuilder()
+                    .retryIfExceptionOfType(IOException.class)
+                    .withRetryBudget(budget)
+                    .buildLong()
+                    .call(new LongCallable() {
+                        public long call() throws IOException {
+                            calls.incrementAndGet();
+                            throw new IOException("flaky");
+                        }
+                    });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, e.getNumberOfFailedAttempts());
+            assertEquals(3, calls.get());
+        } finally {
+            budget.close();
+        }
+    }
+
+    @Test
+    public void testPrimitiveRetryerRejectsRetryerOnlyConfiguration() {
+        try {
+            RetryerBuilder.<Long>newBuilder()
+                    .withAttemptHistory(4)
+                    .buildLong();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
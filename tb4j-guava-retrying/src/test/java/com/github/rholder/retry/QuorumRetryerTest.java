@@ -0,0 +1,167 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.exception.QuorumException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class QuorumRetryerTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private QuorumRetryer<String> quorumRetryer(int attempts) {
+        return RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(10L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(attempts))
+                .buildQuorum(executor);
+    }
+
+    private static Callable<String> replica(final String value, final long delayMillis) {
+        return new Callable<String>() {
+            public String call() throws InterruptedException {
+                Thread.sleep(delayMillis);
+                return value;
+            }
+        };
+    }
+
+    private static Callable<String> failing(final AtomicInteger calls) {
+        return new Callable<String>() {
+            public String call() throws IOException {
+                calls.incrementAndGet();
+                throw new IOException("replica down");
+            }
+        };
+    }
+
+    @Test
+    public void testReturnsOnceQuorumSucceedsAndCancelsTheSlowest() throws Exception {
+        final CountDownLatch slowInterrupted = new CountDownLatch(1);
+        Callable<String> slow = new Callable<String>() {
+            public String call() {
+                try {
+                    Thread.sleep(10000L);
+                } catch (InterruptedException e) {
+                    slowInterrupted.countDown();
+                }
+                return "slow";
+            }
+        };
+        long start = System.nanoTime();
+        List<String> results = quorumRetryer(3).call(Arrays.asList(replica("b", 80L), slow, replica("a", 10L)), 2);
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000L);
+        assertEquals(Arrays.asList("a", "b"), results);
+        assertTrue(slowInterrupted.await(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedReplicasAreRetried() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        Callable<String> flaky = new Callable<String>() {
+            public String call() throws IOException {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IOException("flaky");
+                }
+                return "recovered";
+            }
+        };
+        List<String> results = quorumRetryer(5).call(Arrays.asList(flaky, replica("ok", 0L)), 2);
+        assertEquals(2, results.size());
+        assertTrue(results.contains("recovered"));
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    public void testFailsAsSoonAsQuorumIsImpossible() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        List<Callable<String>> replicas = new ArrayList<Callable<String>>();
+        replicas.add(failing(calls));
+        replicas.add(failing(calls));
+        replicas.add(replica("never needed", 10000L));
+        long start = System.nanoTime();
+        try {
+            quorumRetryer(2).call(replicas, 2);
+            fail("Expected QuorumException");
+        } catch (QuorumException e) {
+            assertEquals(0, e.getSuccesses());
+            assertEquals(2, e.getFailures().size());
+            assertEquals(RetryOutcome.Status.EXHAUSTED, e.getFailures().get(0).getStatus());
+            assertTrue(e.getCause() instanceof IOException);
+            assertTrue(e.getMessage(), e.getMessage().startsWith("Quorum of 2 out of 3 replicas is unreachable"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000L);
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    public void testCancellingTheTokenAbortsAllReplicas() throws Exception {
+        final CancellationSource source = CancellationSource.newSource();
+        executor.execute(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(50L);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                source.cancel();
+            }
+        });
+        try {
+            quorumRetryer(3).call(Arrays.asList(replica("a", 10000L), replica("b", 10000L)), 1, source.getToken());
+            fail("Expected CancellationException");
+        } catch (CancellationException expected) {
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuorumLargerThanReplicasIsRejected() throws Exception {
+        quorumRetryer(1).call(Arrays.asList(replica("a", 0L)), 2);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.budget.MappedFileRetryBudget;
+import com.github.rholder.retry.budget.RetryBudgets;
+import com.github.rholder.retry.exception.RetryException;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryBudgetTest {
+
+    @Test
+    public void testMappedFileBudgetIsShared() throws IOException {
+        File file = File.createTempFile("retry-budget", ".bin");
+        file.deleteOnExit();
+        MappedFileRetryBudget first = RetryBudgets.mappedFile(file, 0.5d, 2);
+        MappedFileRetryBudget second = RetryBudgets.mappedFile(file, 0.5d, 2);
+
+        assertEquals(2.0d, first.getBalance(), 0.0001d);
+        assertTrue(first.tryWithdraw());
+        assertTrue(second.tryWithdraw());
+        assertFalse(first.tryWithdraw());
+        assertFalse(second.tryWithdraw());
+
+        second.deposit();
+        assertEquals(0.5d, first.getBalance(), 0.0001d);
+        first.deposit();
+        assertTrue(second.tryWithdraw());
+        assertEquals(0.0d, first.getBalance(), 0.0001d);
+
+        for (int i = 0; i < 10; i++) {
+            first.deposit();
+        }
+        assertEquals(2.0d, second.getBalance(), 0.0001d);
+        first.close();
+        second.close();
+    }
+
+    @Test
+    public void testClosedBudgetKeepsFileForOtherUsers() throws IOException {
+        File file = File.createTempFile("retry-budget", ".bin");
+        file.deleteOnExit();
+        MappedFileRetryBudget first = RetryBudgets.mappedFile(file, 1.0d, 2);
+        MappedFileRetryBudget second = RetryBudgets.mappedFile(file, 1.0d, 2);
+        assertEquals(first.isAtomic(), second.isAtomic());
+
+        first.close();
+        assertFalse(first.tryWithdraw());
+        first.deposit();
+        assertTrue(second.tryWithdraw());
+        assertEquals(1.0d, second.getBalance(), 0.0001d);
+        second.close();
+
+        MappedFileRetryBudget reopened = RetryBudgets.mappedFile(file, 1.0d, 2);
+        assertEquals(1.0d, reopened.getBalance(), 0.0001d);
+        reopened.close();
+    }
+
+    @Test
+    public void testRetryerStopsWhenBudgetExhausted() throws IOException, ExecutionException {
+        File file = File.createTempFile("retry-budget", ".bin");
+        file.deleteOnExit();
+        final AtomicInteger counter = new AtomicInteger();
+        MappedFileRetryBudget budget = RetryBudgets.mappedFile(file, 0.0d, 3);
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfException()
+                .withRetryBudget(budget)
+                .build();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    counter.incrementAndGet();
+                    throw new IOException();
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(4, e.getNumberOfFailedAttempts());
+            assertEquals(4, counter.get());
+        } finally {
+            budget.close();
+        }
+    }
+}
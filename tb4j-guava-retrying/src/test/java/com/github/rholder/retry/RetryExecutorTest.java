@@ -0,0 +1,297 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.scheduler.AdmissionPolicy;
+import com.github.rholder.retry.scheduler.RetryExecutor;
+import com.github.rholder.retry.scheduler.RetryExecutorConfig;
+import com.github.rholder.retry.scheduler.RetryPriority;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryExecutorTest {
+
+    private ScheduledExecutorService scheduler;
+    private final CountDownLatch gate = new CountDownLatch(1);
+    private final List<String> order = new CopyOnWriteArrayList<String>();
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        gate.countDown();
+        scheduler.shutdownNow();
+    }
+
+    private RetryExecutor<String> executor(int capacity, AdmissionPolicy policy) {
+        return RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(10L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .buildExecutor(scheduler, RetryExecutorConfig.newBuilder()
+                        .withMaxConcurrency(1)
+                        .withQueue(capacity, policy)
+                        .build());
+    }
+
+    /**
+     * 占住唯一的执行名额，直至 gate 打开
+     */
+    private CompletableFuture<String> occupy(RetryExecutor<String> executor) {
+        return executor.submit(new Callable<String>() {
+            public String call() throws InterruptedException {
+                gate.await();
+                return "blocker";
+            }
+        });
+    }
+
+    private Callable<String> recording(final String name) {
+        return new Callable<String>() {
+            public String call() {
+                order.add(name);
+                return name;
+            }
+        };
+    }
+
+    private static void assertRejected(CompletableFuture<String> future) throws Exception {
+        try {
+            future.get(5L, TimeUnit.SECONDS);
+            fail("Expected RejectedExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    /**
+     * 内部可立即执行队列的总长度
+     */
+    private static int readyCount(RetryExecutor<String> executor) throws Exception {
+        Field field = RetryExecutor.class.getDeclaredField("ready");
+        field.setAccessible(true);
+        synchronized (executor) {
+            int count = 0;
+            for (Object tasks : (List<?>) field.get(executor)) {
+                count += ((Collection<?>) tasks).size();
+            }
+            return count;
+        }
+    }
+
+    @Test
+    public void testInteractiveCallsRunBeforeBackground() throws Exception {
+        RetryExecutor<String> executor = executor(10, AdmissionPolicy.REJECT_NEWEST);
+        occupy(executor);
+        CompletableFuture<String> background = executor.submit(recording("background"), RetryPriority.BACKGROUND);
+        CompletableFuture<String> interactive = executor.submit(recording("interactive"), RetryPriority.INTERACTIVE);
+        assertEquals(2, executor.getPendingCount());
+        assertEquals(1, executor.getPendingCount(RetryPriority.BACKGROUND));
+        gate.countDown();
+        background.get(5L, TimeUnit.SECONDS);
+        interactive.get(5L, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("interactive", "background"), order);
+    }
+
+    @Test
+    public void testRejectNewest() throws Exception {
+        RetryExecutor<String> executor = executor(1, AdmissionPolicy.REJECT_NEWEST);
+        occupy(executor);
+        CompletableFuture<String> first = executor.submit(recording("first"));
+        assertRejected(executor.submit(recording("second")));
+        gate.countDown();
+        assertEquals("first", first.get(5L, TimeUnit.SECONDS));
+        assertEquals(1L, executor.getRejectedCount());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        RetryExecutor<String> executor = executor(1, AdmissionPolicy.DROP_OLDEST);
+        occupy(executor);
+        CompletableFuture<String> first = executor.submit(recording("first"));
+        CompletableFuture<String> second = executor.submit(recording("second"));
+        assertRejected(first);
+        gate.countDown();
+        assertEquals("second", second.get(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testDisplacedAndCancelledCallsLeaveTheReadyQueue() throws Exception {
+        RetryExecutor<String> executor = executor(10, AdmissionPolicy.DROP_OLDEST);
+        occupy(executor);
+        for (int i = 0; i < 10000; i++) {
+            CompletableFuture<String> future = executor.submit(recording("call-" + i), RetryPriority.values()[i % RetryPriority.values().length]);
+            if (i % 7 == 0) {
+                future.cancel(false);
+            }
+            assertTrue(readyCount(executor) <= 10);
+        }
+        assertTrue(executor.getPendingCount() <= 10);
+        assertEquals(executor.getPendingCount(), readyCount(executor));
+    }
+
+    @Test
+    public void testShedLowestPriority() throws Exception {
+        RetryExecutor<String> executor = executor(1, AdmissionPolicy.SHED_LOWEST_PRIORITY);
+        occupy(executor);
+        CompletableFuture<String> background = executor.submit(recording("background"), RetryPriority.BACKGROUND);
+        CompletableFuture<String> interactive = executor.submit(recording("interactive"), RetryPriority.INTERACTIVE);
+        assertRejected(background);
+        assertRejected(executor.submit(recording("another"), RetryPriority.INTERACTIVE));
+        gate.countDown();
+        assertEquals("interactive", interactive.get(5L, TimeUnit.SECONDS));
+        assertEquals(2L, executor.getRejectedCount());
+    }
+
+    @Test
+    public void testRetriesFollowWaitAndStopStrategies() throws Exception {
+        RetryExecutor<String> executor = executor(10, AdmissionPolicy.REJECT_NEWEST);
+        final AtomicInteger calls = new AtomicInteger();
+        CompletableFuture<String> recovered = executor.submit(new Callable<String>() {
+            public String call() throws IOException {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IOException("flaky");
+                }
+                return "ok";
+            }
+        });
+        assertEquals("ok", recovered.get(5L, TimeUnit.SECONDS));
+        assertEquals(3, calls.get());
+
+        CompletableFuture<String> exhausted = executor.submit(new Callable<String>() {
+            public String call() throws IOException {
+                throw new IOException("down");
+            }
+        });
+        try {
+            exhausted.get(5L, TimeUnit.SECONDS);
+            fail("Expected RetryException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RetryException);
+            assertEquals(3, ((RetryException) e.getCause()).getNumberOfFailedAttempts());
+        }
+        assertEquals(0, executor.getPendingCount());
+        assertEquals(0, executor.getInFlightCount());
+    }
+
+    @Test
+    public void testRetryRejectedWhenQueueIsFullKeepsLastCause() throws Exception {
+        RetryExecutor<String> executor = executor(1, AdmissionPolicy.REJECT_NEWEST);
+        final CountDownLatch failed = new CountDownLatch(1);
+        CompletableFuture<String> failing = executor.submit(new Callable<String>() {
+            public String call() throws Exception {
+                failed.countDown();
+                gate.await();
+                throw new IOException("down");
+            }
+        });
+        failed.await();
+        CompletableFuture<String> queued = executor.submit(recording("queued"));
+        gate.countDown();
+        try {
+            failing.get(5L, TimeUnit.SECONDS);
+            fail("Expected RejectedExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+            assertTrue(e.getCause().getCause() instanceof IOException);
+        }
+        assertEquals("queued", queued.get(5L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancelRemovesFromQueue() throws Exception {
+        RetryExecutor<String> executor = executor(10, AdmissionPolicy.REJECT_NEWEST);
+        occupy(executor);
+        CompletableFuture<String> queued = executor.submit(recording("cancelled"));
+        assertEquals(1, executor.getPendingCount());
+        queued.cancel(false);
+        assertEquals(0, executor.getPendingCount());
+        gate.countDown();
+        assertEquals("after", executor.submit(recording("after")).get(5L, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("after"), order);
+    }
+
+    @Test
+    public void testUnsupportedSettingsAreRejected() {
+        RetryExecutorConfig config = RetryExecutorConfig.newBuilder().build();
+        try {
+            RetryerBuilder.<String>newBuilder().withAttemptHistory(4).buildExecutor(scheduler, config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            RetryerBuilder.<String>newBuilder().withAsyncAttemptTimeout(1L, TimeUnit.SECONDS).buildExecutor(scheduler, config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    @Test
+    public void testNegativeSleepFailsTheCall() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        RetryExecutor<String> executor = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(new WaitStrategy() {
+                    public long computeSleepTime(Attempt failedAttempt) {
+                        return -1L;
+                    }
+                })
+                .buildExecutor(scheduler, RetryExecutorConfig.newBuilder().build());
+        CompletableFuture<String> future = executor.submit(new Callable<String>() {
+            public String call() throws IOException {
+                calls.incrementAndGet();
+                throw new IOException("flaky");
+            }
+        });
+        try {
+            future.get(5L, TimeUnit.SECONDS);
+            fail("Expected IllegalStateException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+        assertEquals(1, calls.get());
+    }
+}
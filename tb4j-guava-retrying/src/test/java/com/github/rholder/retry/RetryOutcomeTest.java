@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.time.ManualTicker;
+import com.google.common.base.Predicates;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryOutcomeTest {
+
+    private final Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+            .retryIfExceptionOfType(IOException.class)
+            .retryIfResult(Predicates.<Integer>isNull())
+            .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+            .build();
+
+    @Test
+    public void testSucceeded() {
+        final AtomicInteger calls = new AtomicInteger();
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                if (calls.incrementAndGet() < 2) {
+                    throw new IOException("flaky");
+                }
+                return 42;
+            }
+        });
+        assertTrue(outcome.isSuccess());
+        assertEquals(RetryOutcome.Status.SUCCEEDED, outcome.getStatus());
+        assertEquals(Integer.valueOf(42), outcome.getValue());
+        assertEquals(2, outcome.getAttemptCount());
+        assertNull(outcome.getFailureCause());
+    }
+
+    @Test
+    public void testExhaustedWithoutThrowing() throws Exception {
+        final IOException failure = new IOException("down");
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                throw failure;
+            }
+        });
+        assertFalse(outcome.isSuccess());
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        assertEquals(3, outcome.getAttemptCount());
+        assertSame(failure, outcome.getFailureCause());
+        assertEquals(Integer.valueOf(-1), outcome.orElse(-1));
+        try {
+            outcome.getValue();
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            outcome.get();
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, e.getNumberOfFailedAttempts());
+            assertSame(failure, e.getCause());
+            assertTrue(e.getMessage().startsWith("Retrying failed to complete successfully after 3 attempts. [attempts=3 "));
+            assertSame(outcome.getStats(), e.getStats());
+        }
+    }
+
+    @Test
+    public void testNonRetryableFailure() {
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() {
+                throw new IllegalStateException("fatal");
+            }
+        });
+        assertEquals(RetryOutcome.Status.FAILED, outcome.getStatus());
+        assertEquals(1, outcome.getAttemptCount());
+        try {
+            outcome.get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        } catch (RetryException e) {
+            fail("ExecutionException expected");
+        }
+    }
+
+    @Test
+    public void testExhaustedOnResult() {
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() {
+                return null;
+            }
+        });
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        assertNull(outcome.getFailureCause());
+        assertTrue(outcome.getLastAttempt().hasResult());
+    }
+
+    @Test
+    public void testLatencyBreakdown() throws Exception {
+        final ManualTicker ticker = new ManualTicker();
+        Retryer<Integer> timed = RetryerBuilder.<Integer>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withWaitStrategy(WaitStrategies.fixedWait(100L, TimeUnit.MILLISECONDS))
+                .withTicker(ticker)
+                .withRetryListener(new RetryListener() {
+                    public <V> void onRetry(Attempt<V> attempt) {
+                        RetryStats stats = ((DetailedAttempt<V>) attempt).getStats();
+                        assertEquals(attempt.getAttemptNumber() * 10L, TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos()));
+                        ticker.advance(1L, TimeUnit.MILLISECONDS);
+                    }
+                })
+                .build();
+        RetryOutcome<Integer> outcome = timed.tryCall(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                ticker.advance(10L, TimeUnit.MILLISECONDS);
+                throw new IOException("slow");
+            }
+        });
+        RetryStats stats = outcome.getStats();
+        assertEquals(3L, stats.getAttempts());
+        assertEquals(30L, TimeUnit.NANOSECONDS.toMillis(stats.getExecutionNanos()));
+        assertEquals(200L, TimeUnit.NANOSECONDS.toMillis(stats.getBlockedNanos()));
+        assertEquals(3L, TimeUnit.NANOSECONDS.toMillis(stats.getCallbackNanos()));
+        assertEquals(233L, TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()));
+        assertEquals("attempts=3 total=233.000ms execution=30.000ms blocked=200.000ms callbacks=3.000ms", stats.toString());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.policy.RetryPolicies;
+import com.github.rholder.retry.policy.RetryPolicy;
+import com.github.rholder.retry.time.ManualTicker;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryPoliciesTest {
+
+    @Test
+    public void testParse() {
+        RetryPolicy policy = RetryPolicies.parse("stopAfterAttempt=5, exponentialWait=100ms..10s");
+        assertFalse(policy.getStopStrategy().shouldStop(failedAttempt(4)));
+        assertTrue(policy.getStopStrategy().shouldStop(failedAttempt(5)));
+        assertEquals(100L, policy.getWaitStrategy().computeSleepTime(failedAttempt(1)));
+        assertEquals(200L, policy.getWaitStrategy().computeSleepTime(failedAttempt(2)));
+        assertEquals(10000L, policy.getWaitStrategy().computeSleepTime(failedAttempt(20)));
+        assertEquals(-1L, policy.getAttemptTimeoutMillis());
+    }
+
+    @Test
+    public void testParseJoinedWaitsWithJitterAndTimeout() {
+        RetryPolicy policy = RetryPolicies.parse("stopAfterDelay=1m,fixedWait=1s,incrementingWait=100+50,jitter=equal,timeout=250ms",
+                Executors.newCachedThreadPool());
+        assertEquals(250L, policy.getAttemptTimeoutMillis());
+        assertTrue(policy.getStopStrategy().shouldStop(Attempts.<Boolean>newExceptionAttempt(new RuntimeException(), 2, 60000L)));
+        for (int i = 0; i < 100; i++) {
+            long time = policy.getWaitStrategy().computeSleepTime(failedAttempt(3));
+            assertTrue(time >= 600L);
+            assertTrue(time <= 1200L);
+        }
+    }
+
+    @Test
+    public void testParseRejectsInvalidSpec() {
+        String[] specs = {"stopAfterAttempt=5,stopAfterDelay=1s", "unknown=1", "fixedWait=abc", "jitter=some", "randomWait=10"};
+        for (String spec : specs) {
+            try {
+                RetryPolicies.parse(spec);
+                fail("Expected IllegalArgumentException for " + spec);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testReloadableRetryer() throws ExecutionException {
+        final AtomicInteger counter = new AtomicInteger();
+        Callable<Boolean> callable = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                counter.incrementAndGet();
+                throw new IllegalStateException();
+            }
+        };
+        ReloadableRetryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfRuntimeException()
+                .withTicker(new ManualTicker())
+                .buildReloadable(RetryPolicies.parse("stopAfterAttempt=3,fixedWait=1s"));
+        try {
+            retryer.call(callable);
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, counter.get());
+        }
+
+        retryer.update("stopAfterAttempt=5,fixedWait=1s");
+        assertEquals("stopAfterAttempt=5,fixedWait=1s", retryer.getPolicy().getSpec());
+        counter.set(0);
+        try {
+            retryer.call(callable);
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(5, counter.get());
+            assertEquals(4000L, e.getLastFailedAttempt().getDelaySinceFirstAttempt());
+        }
+    }
+
+    private Attempt<Boolean> failedAttempt(long attemptNumber) {
+        return Attempts.<Boolean>newExceptionAttempt(new RuntimeException(), attemptNumber, 0L);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.proxy.RetryProxyFactory;
+import com.github.rholder.retry.proxy.Retryable;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryProxyFactoryTest {
+
+    public interface Inventory {
+        @Retryable("inventory")
+        int reserve(String sku, int quantity) throws IOException;
+
+        @Retryable("inventory")
+        void release(String sku) throws RetryException;
+
+        int available(String sku) throws IOException;
+    }
+
+    static class FlakyInventory implements Inventory {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public int reserve(String sku, int quantity) throws IOException {
+            if (calls.incrementAndGet() < 3) {
+                throw new IOException("flaky");
+            }
+            return quantity;
+        }
+
+        @Override
+        public void release(String sku) {
+            calls.incrementAndGet();
+            throw new IllegalStateException("always");
+        }
+
+        @Override
+        public int available(String sku) throws IOException {
+            calls.incrementAndGet();
+            throw new IOException("no retry");
+        }
+    }
+
+    public interface Meter {
+        @Retryable("meter")
+        long add(long delta, double scale, int[] values) throws IOException;
+
+        @Retryable("meter")
+        boolean ready();
+
+        String label(char prefix, float value);
+    }
+
+    static class FlakyMeter implements Meter {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public long add(long delta, double scale, int[] values) throws IOException {
+            if (calls.incrementAndGet() < 2) {
+                throw new IOException("flaky");
+            }
+            return (long) (delta * scale) + values.length;
+        }
+
+        @Override
+        public boolean ready() {
+            return calls.incrementAndGet() >= 3;
+        }
+
+        @Override
+        public String label(char prefix, float value) {
+            return prefix + String.valueOf(value);
+        }
+    }
+
+    interface Hidden {
+        @Retryable("hidden")
+        int next() throws IOException;
+    }
+
+    private final RetryerRegistry registry = RetryerRegistry.newBuilder()
+            .withDefaultPolicy("stopAfterAttempt=4")
+            .build();
+
+    @Test
+    public void testRetriesAnnotatedMethod() throws Exception {
+        FlakyInventory target = new FlakyInventory();
+        Inventory inventory = new RetryProxyFactory(registry).create(Inventory.class, target);
+        assertEquals(7, inventory.reserve("sku", 7));
+        assertEquals(3, target.calls.get());
+        assertEquals(3L, registry.metrics("inventory").getAttempts());
+    }
+
+    @Test
+    public void testExhaustedRetriesThrowDeclaredException() {
+        FlakyInventory target = new FlakyInventory();
+        Inventory inventory = new RetryProxyFactory(registry).create(Inventory.class, target);
+        try {
+            inventory.release("sku");
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(4, e.getNumberOfFailedAttempts());
+            assertEquals(4, target.calls.get());
+        }
+    }
+
+    @Test
+    public void testUnannotatedMethodIsNotRetried() {
+        FlakyInventory target = new FlakyInventory();
+        Inventory inventory = new RetryProxyFactory(registry).create(Inventory.class, target);
+        try {
+            inventory.available("sku");
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals("no retry", e.getMessage());
+            assertEquals(1, target.calls.get());
+        }
+        assertTrue(inventory.toString().contains("FlakyInventory"));
+    }
+
+    @Test
+    public void testGeneratedProxyPassesPrimitiveArguments() throws Exception {
+        FlakyMeter target = new FlakyMeter();
+        Meter meter = new RetryProxyFactory(registry).create(Meter.class, target);
+        assertFalse(Proxy.isProxyClass(meter.getClass()));
+        assertEquals((1L << 33) + 2, meter.add(1L << 32, 2.0d, new int[]{1, 2}));
+        assertEquals(2, target.calls.get());
+        assertTrue(meter.ready());
+        assertEquals(3, target.calls.get());
+        assertEquals("x1.5", meter.label('x', 1.5f));
+        assertEquals(target.hashCode(), meter.hashCode());
+        assertTrue(meter.equals(target));
+    }
+
+    @Test
+    public void testNonPublicInterfaceFallsBackToProxy() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        Hidden hidden = new RetryProxyFactory(registry).create(Hidden.class, new Hidden() {
+            @Override
+            public int next() throws IOException {
+                if (calls.incrementAndGet() < 2) {
+                    throw new IOException("flaky");
+                }
+                return calls.get();
+            }
+        });
+        assertTrue(Proxy.isProxyClass(hidden.getClass()));
+        assertEquals(2, hidden.next());
+    }
+}
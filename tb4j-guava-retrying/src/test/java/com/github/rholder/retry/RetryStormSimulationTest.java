@@ -0,0 +1,87 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.simulation.LatencyDistributions;
+import com.github.rholder.retry.simulation.RetryStormSimulation;
+import com.github.rholder.retry.simulation.SimulationReport;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RetryStormSimulationTest {
+
+    @Test
+    public void testHealthyBackendHasNoAmplification() {
+        SimulationReport report = RetryStormSimulation.newBuilder()
+                .withRequests(10000)
+                .withArrivalRate(1000)
+                .withCapacity(1000)
+                .withLatency(LatencyDistributions.constant(5, TimeUnit.MILLISECONDS))
+                .build()
+                .run();
+        assertEquals(10000L, report.getAttempts());
+        assertEquals(10000, report.getSucceeded());
+        assertEquals(1.0d, report.getAmplification(), 0.0001d);
+        assertEquals(5.0d, report.getLatencyP99Millis(), 0.0001d);
+    }
+
+    @Test
+    public void testOutageAmplifiesLoadAndIsDeterministic() {
+        RetryStormSimulation simulation = RetryStormSimulation.newBuilder()
+                .withRequests(50000)
+                .withArrivalRate(5000)
+                .withCapacity(100)
+                .withLatency(LatencyDistributions.exponential(10, TimeUnit.MILLISECONDS))
+                .withFailureProbability(0.01d)
+                .withOutage(2, 4, TimeUnit.SECONDS)
+                .withWaitStrategy(WaitStrategies.fixedWait(10, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+                .build();
+        SimulationReport report = simulation.run();
+        assertTrue(report.getAmplification() > 1.0d);
+        assertTrue(report.getGaveUp() > 0);
+        assertEquals(50000, report.getSucceeded() + report.getGaveUp());
+        assertTrue(report.getRecoveryMillis() >= 0L);
+        assertEquals(report.toString(), simulation.run().toString());
+    }
+
+    @Test
+    public void testSeededJitterIsReproducible() {
+        assertEquals(jitteredRun(7L).toString(), jitteredRun(7L).toString());
+    }
+
+    private static SimulationReport jitteredRun(long seed) {
+        return RetryStormSimulation.newBuilder()
+                .withRequests(20000)
+                .withArrivalRate(5000)
+                .withCapacity(50)
+                .withOutage(1, 2, TimeUnit.SECONDS)
+                .withWaitStrategy(WaitStrategies.fullJitter(WaitStrategies.exponentialWait(10, 1000, TimeUnit.MILLISECONDS),
+                        new Random(seed)))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(5))
+                .withSeed(seed)
+                .build()
+                .run();
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.time.ManualTicker;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiters;
+import com.github.rholder.retry.tracing.InMemorySpanExporter;
+import com.github.rholder.retry.tracing.RetrySpan;
+import com.github.rholder.retry.tracing.RetryTracer;
+import com.github.rholder.retry.tracing.RetryTracers;
+import com.github.rholder.retry.tracing.SpanData;
+import com.github.rholder.retry.tracing.SpanExporter;
+import com.github.rholder.retry.tracing.SpanExporters;
+import com.github.rholder.retry.tracing.TraceContext;
+import com.google.common.base.Predicates;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RetryTracingTest {
+
+    @Test
+    public void testSpansPerCallAttemptAndBackoff() throws Exception {
+        InMemorySpanExporter exporter = SpanExporters.inMemory(100);
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(30L, TimeUnit.MILLISECONDS))
+                .withTicker(new ManualTicker())
+                .withRetryTracer(RetryTracers.recording(exporter))
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        retryer.call(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                if (calls.incrementAndGet() < 3) {
+                    throw new IOException("flaky");
+                }
+                return 1;
+            }
+        });
+
+        List<SpanData> callSpans = exporter.getFinishedSpans(RetryTracer.CALL_SPAN);
+        List<SpanData> attemptSpans = exporter.getFinishedSpans(RetryTracer.ATTEMPT_SPAN);
+        List<SpanData> backoffSpans = exporter.getFinishedSpans(RetryTracer.BACKOFF_SPAN);
+        assertEquals(1, callSpans.size());
+        assertEquals(3, attemptSpans.size());
+        assertEquals(2, backoffSpans.size());
+
+        SpanData call = callSpans.get(0);
+        assertEquals(0L, call.getParentSpanId());
+        assertEquals("SUCCEEDED", call.getAttributes().get(RetryTracer.OUTCOME));
+        assertEquals(3L, call.getAttributes().get(RetryTracer.ATTEMPTS));
+        for (SpanData span : attemptSpans) {
+            assertEquals(call.getTraceId(), span.getTraceId());
+            assertEquals(call.getSpanId(), span.getParentSpanId());
+        }
+        assertEquals(1L, attemptSpans.get(0).getAttributes().get(RetryTracer.ATTEMPT_NUMBER));
+        assertEquals(IOException.class.getName(), attemptSpans.get(0).getAttributes().get(RetryTracer.EXCEPTION));
+        assertEquals("result", attemptSpans.get(2).getAttributes().get(RetryTracer.OUTCOME));
+        assertEquals(30L, backoffSpans.get(0).getAttributes().get(RetryTracer.SLEEP_MILLIS));
+    }
+
+    @Test
+    public void testContextPropagatesIntoTimeLimiterThreads() throws Exception {
+        InMemorySpanExporter exporter = SpanExporters.inMemory(100);
+        final RetryTracer tracer = RetryTracers.recording(exporter);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Retryer<String> retryer = RetryerBuilder.<String>newBuilder()
+                    .withStopStrategy(StopStrategies.stopAfterAttempt(1))
+                    .withAttemptTimeLimiter(AttemptTimeLimiters.<String>fixedTimeLimit(1L, TimeUnit.SECONDS, executor))
+                    .withRetryTracer(tracer)
+                    .build();
+            final String caller = Thread.currentThread().getName();
+            retryer.call(new Callable<String>() {
+                public String call() {
+                    assertFalse(caller.equals(Thread.currentThread().getName()));
+                    tracer.startSpan("downstream", TraceContext.current()).end();
+                    return "ok";
+                }
+            });
+            assertNull(TraceContext.current());
+        } finally {
+            executor.shutdownNow();
+        }
+        SpanData downstream = exporter.getFinishedSpans("downstream").get(0);
+        SpanData attempt = exporter.getFinishedSpans(RetryTracer.ATTEMPT_SPAN).get(0);
+        assertEquals(attempt.getSpanId(), downstream.getParentSpanId());
+        assertEquals(attempt.getTraceId(), downstream.getTraceId());
+    }
+
+    @Test
+    public void testCompositeTracerFeedsEveryTracer() throws Exception {
+        InMemorySpanExporter first = SpanExporters.inMemory(100);
+        InMemorySpanExporter second = SpanExporters.inMemory(100);
+        final RetryTracer tracer = RetryTracers.composite(RetryTracers.recording(first), RetryTracers.noop(),
+                RetryTracers.recording(second));
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfResult(Predicates.equalTo(0))
+                .withTicker(new ManualTicker())
+                .withRetryTracer(tracer)
+                .build();
+        final AtomicInteger calls = new AtomicInteger();
+        retryer.call(new Callable<Integer>() {
+            public Integer call() {
+                tracer.startSpan("downstream", TraceContext.current()).end();
+                return calls.incrementAndGet() < 2 ? 0 : 1;
+            }
+        });
+
+        for (InMemorySpanExporter exporter : new InMemorySpanExporter[]{first, second}) {
+            SpanData call = exporter.getFinishedSpans(RetryTracer.CALL_SPAN).get(0);
+            List<SpanData> attempts = exporter.getFinishedSpans(RetryTracer.ATTEMPT_SPAN);
+            List<SpanData> downstream = exporter.getFinishedSpans("downstream");
+            assertEquals(2, attempts.size());
+            assertEquals(2, downstream.size());
+            assertEquals(1, exporter.getFinishedSpans(RetryTracer.BACKOFF_SPAN).size());
+            for (int i = 0; i < 2; i++) {
+                assertEquals(call.getSpanId(), attempts.get(i).getParentSpanId());
+                assertEquals(attempts.get(i).getSpanId(), downstream.get(i).getParentSpanId());
+            }
+        }
+        assertSame(RetryTracers.noop(), RetryTracers.composite(RetryTracers.noop()));
+    }
+
+    @Test
+    public void testFileExporterWritesJsonLines() throws Exception {
+        File file = File.createTempFile("retry-spans", ".jsonl");
+        file.deleteOnExit();
+        SpanExporter exporter = SpanExporters.toFile(file);
+        RetrySpan span = RetryTracers.recording(exporter).startSpan("test \"span\"", null);
+        span.setAttribute("count", 2L).setAttribute("note", "a\nb").end();
+        span.end();
+        exporter.close();
+
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+        try {
+            String line = reader.readLine();
+            assertTrue(line, line.startsWith("{\"name\":\"test \\\"span\\\"\""));
+            assertTrue(line, line.endsWith("\"attributes\":{\"count\":2,\"note\":\"a\\u000ab\"}}"));
+            assertNull(reader.readLine());
+        } finally {
+            reader.close();
+        }
+    }
+
+    @Test
+    public void testJfrTracerRetriesLikeAnyOtherTracer() throws Exception {
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfResult(Predicates.equalTo(0))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                .withRetryTracer(RetryTracers.jfr("jfr-test"))
+                .build();
+        RetryOutcome<Integer> outcome = retryer.tryCall(new Callable<Integer>() {
+            public Integer call() {
+                return 0;
+            }
+        });
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        assertEquals(2, outcome.getAttemptCount());
+    }
+}
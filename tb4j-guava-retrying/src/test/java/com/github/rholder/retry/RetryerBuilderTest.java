@@ -23,6 +23,7 @@ import com.github.rholder.retry.Strategy.factory.StopStrategies;
 import com.github.rholder.retry.Strategy.factory.WaitStrategies;
 import com.github.rholder.retry.exception.RetryException;
 import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.time.ManualTicker;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import lombok.extern.slf4j.Slf4j;
@@ -456,6 +457,27 @@ public class RetryerBuilderTest {
         }
     }
 
+    @Test
+    public void testWithManualTicker() throws ExecutionException {
+        ManualTicker ticker = new ManualTicker();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .withTicker(ticker)
+                .withWaitStrategy(WaitStrategies.fixedWait(1, TimeUnit.MINUTES))
+                .withStopStrategy(StopStrategies.stopAfterDelay(1, TimeUnit.HOURS))
+                .retryIfResult(Predicates.<Boolean>alwaysTrue())
+                .build();
+        long start = System.currentTimeMillis();
+        try {
+            retryer.call(alwaysNull(new CountDownLatch(0)));
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(61, e.getNumberOfFailedAttempts());
+            assertEquals(TimeUnit.HOURS.toMillis(1), e.getLastFailedAttempt().getDelaySinceFirstAttempt());
+        }
+        assertEquals(TimeUnit.HOURS.toNanos(1), ticker.read());
+        assertTrue(System.currentTimeMillis() - start < 1000L);
+    }
+
     @Test
     public void testRetryListener_SuccessfulAttempt() throws Exception {
         final Map<Long, Attempt> attempts = new HashMap<Long, Attempt>();
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.time.ManualTicker;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RetryerRegistryTest {
+
+    @Test
+    public void testLazyCreationWithOverrides() throws Exception {
+        RetryerRegistry registry = RetryerRegistry.newBuilder()
+                .withDefaultPolicy("stopAfterAttempt=2,fixedWait=1s")
+                .withPolicy("payment", "stopAfterAttempt=4,fixedWait=1s,timeout=1s")
+                .withTicker(new ManualTicker())
+                .build();
+        assertTrue(registry.names().isEmpty());
+        assertNull(registry.metrics("orders"));
+
+        ReloadableRetryer<Boolean> orders = registry.retryer("orders");
+        assertSame(orders, registry.<Boolean>retryer("orders"));
+        assertEquals(2, failingCall(orders));
+        assertEquals(4, failingCall(registry.<Boolean>retryer("payment")));
+
+        assertEquals(2, registry.names().size());
+        assertEquals("stopAfterAttempt=4,fixedWait=1s,timeout=1s", registry.policies().get("payment").getSpec());
+        assertEquals(1L, registry.metrics("orders").getCalls());
+        assertEquals(1L, registry.metrics("orders").getRetries());
+        assertEquals(4L, registry.metrics("payment").getFailedAttempts());
+        registry.shutdown();
+    }
+
+    @Test
+    public void testUpdate() throws Exception {
+        RetryerRegistry registry = RetryerRegistry.newBuilder()
+                .withDefaultPolicy("stopAfterAttempt=2")
+                .build();
+        ReloadableRetryer<Boolean> orders = registry.retryer("orders");
+        registry.update("orders", "stopAfterAttempt=3");
+        registry.update("inventory", "stopAfterAttempt=5");
+        assertEquals(3, failingCall(orders));
+        assertEquals(5, failingCall(registry.<Boolean>retryer("inventory")));
+    }
+
+    @Test
+    public void testShutdownRejectsNewRetryers() {
+        RetryerRegistry registry = RetryerRegistry.newBuilder()
+                .withDefaultPolicy("stopAfterAttempt=2,timeout=1s")
+                .build();
+        ReloadableRetryer<Boolean> orders = registry.retryer("orders");
+        registry.shutdown();
+        assertSame(orders, registry.<Boolean>retryer("orders"));
+        try {
+            registry.retryer("payment");
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException e) {
+            assertEquals(1, registry.names().size());
+            assertNull(registry.metrics("payment"));
+        }
+        try {
+            registry.retryer(null);
+            fail("NullPointerException expected");
+        } catch (NullPointerException e) {
+            assertEquals("name may not be null", e.getMessage());
+        }
+    }
+
+    private int failingCall(ReloadableRetryer<Boolean> retryer) throws ExecutionException {
+        final AtomicInteger counter = new AtomicInteger();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                @Override
+                public Boolean call() throws Exception {
+                    counter.incrementAndGet();
+                    throw new IllegalStateException();
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            // expected
+        }
+        return counter.get();
+    }
+}
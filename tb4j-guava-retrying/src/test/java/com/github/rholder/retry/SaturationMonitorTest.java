@@ -0,0 +1,59 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.saturation.SaturationMonitor;
+import com.github.rholder.retry.saturation.SaturationSignal;
+import com.github.rholder.retry.saturation.SaturationSignals;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SaturationMonitorTest {
+
+    @Test
+    public void testFailingSignalDoesNotStopRefresh() {
+        SaturationMonitor monitor = SaturationMonitor.newMonitor(new SaturationSignal() {
+            @Override
+            public double sample() {
+                throw new NoClassDefFoundError("com/sun/management/OperatingSystemMXBean");
+            }
+        }, new SaturationSignal() {
+            @Override
+            public double sample() {
+                throw new IllegalStateException("unavailable");
+            }
+        }, new SaturationSignal() {
+            @Override
+            public double sample() {
+                return 0.7d;
+            }
+        });
+        monitor.refresh();
+        assertEquals(0.7d, monitor.getSaturation(), 0.0001d);
+    }
+
+    @Test
+    public void testDefaultSignalsSampleWithinRange() {
+        double cpu = SaturationSignals.cpuLoad().sample();
+        assertTrue(String.valueOf(cpu), cpu >= 0.0d && cpu <= 1.0d);
+        SaturationMonitor monitor = SaturationMonitor.newDefaultMonitor();
+        monitor.refresh();
+        assertTrue(monitor.getSaturation() >= 0.0d && monitor.getSaturation() <= 1.0d);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.RetryHintExtractor;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.factory.RetryHintExtractors;
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.saturation.SaturationMonitor;
+import com.github.rholder.retry.saturation.SaturationSignal;
+import com.google.common.base.Function;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StopStrategiesTest {
+
+    @Test
+    public void testNeverStop() {
+        assertFalse(StopStrategies.neverStop().shouldStop(failedAttempt(3, 6546L)));
+    }
+
+    @Test
+    public void testStopAfterAttempt() {
+        assertFalse(StopStrategies.stopAfterAttempt(3).shouldStop(failedAttempt(2, 6546L)));
+        assertTrue(StopStrategies.stopAfterAttempt(3).shouldStop(failedAttempt(3, 6546L)));
+        assertTrue(StopStrategies.stopAfterAttempt(3).shouldStop(failedAttempt(4, 6546L)));
+    }
+
+    @Test
+    public void testStopAfterDelayWithMilliseconds() {
+        assertFalse(StopStrategies.stopAfterDelay(1000L).shouldStop(failedAttempt(2, 999L)));
+        assertTrue(StopStrategies.stopAfterDelay(1000L).shouldStop(failedAttempt(2, 1000L)));
+        assertTrue(StopStrategies.stopAfterDelay(1000L).shouldStop(failedAttempt(2, 1001L)));
+    }
+
+    @Test
+    public void testStopAfterDelayWithTimeUnit() {
+        assertFalse(StopStrategies.stopAfterDelay(1, TimeUnit.SECONDS).shouldStop(failedAttempt(2, 999L)));
+        assertTrue(StopStrategies.stopAfterDelay(1, TimeUnit.SECONDS).shouldStop(failedAttempt(2, 1000L)));
+        assertTrue(StopStrategies.stopAfterDelay(1, TimeUnit.SECONDS).shouldStop(failedAttempt(2, 1001L)));
+    }
+
+    @Test
+    public void testStopAfterHintedDelay() {
+        RetryHintExtractor extractor = RetryHintExtractors.fromResult(Long.class, new Function<Long, Long>() {
+            @Override
+            public Long apply(Long input) {
+                return input;
+            }
+        });
+        assertFalse(StopStrategies.stopAfterHintedDelay(extractor, 1, TimeUnit.SECONDS).shouldStop(hintedAttempt(200L, 500L)));
+        assertTrue(StopStrategies.stopAfterHintedDelay(extractor, 1, TimeUnit.SECONDS).shouldStop(hintedAttempt(500L, 500L)));
+        assertFalse(StopStrategies.stopAfterHintedDelay(extractor, 1, TimeUnit.SECONDS).shouldStop(failedAttempt(2, 999L)));
+        assertTrue(StopStrategies.stopAfterHintedDelay(extractor, 1, TimeUnit.SECONDS).shouldStop(failedAttempt(2, 1000L)));
+    }
+
+    @Test
+    public void testStopWhenSaturated() {
+        final double[] load = {0.1d};
+        SaturationMonitor monitor = SaturationMonitor.newMonitor(new SaturationSignal() {
+            @Override
+            public double sample() {
+                return load[0];
+            }
+        });
+        monitor.refresh();
+        assertFalse(StopStrategies.stopWhenSaturated(monitor, 0.5d, 0.9d).shouldStop(failedAttempt(2, 0L)));
+        load[0] = 0.95d;
+        assertFalse(StopStrategies.stopWhenSaturated(monitor, 0.5d, 0.9d).shouldStop(failedAttempt(2, 0L)));
+        monitor.refresh();
+        assertTrue(StopStrategies.stopWhenSaturated(monitor, 0.5d, 0.9d).shouldStop(failedAttempt(2, 0L)));
+    }
+
+    @Test
+    public void testAnyOfWithSaturation() {
+        final double[] load = {0.1d};
+        SaturationMonitor monitor = SaturationMonitor.newMonitor(new SaturationSignal() {
+            @Override
+            public double sample() {
+                return load[0];
+            }
+        });
+        monitor.refresh();
+        StopStrategy stopStrategy = StopStrategies.anyOf(StopStrategies.stopAfterAttempt(3),
+                StopStrategies.stopWhenSaturated(monitor, 0.5d, 0.9d));
+        assertFalse(stopStrategy.shouldStop(failedAttempt(2, 0L)));
+        assertTrue(stopStrategy.shouldStop(failedAttempt(3, 0L)));
+        load[0] = 0.95d;
+        monitor.refresh();
+        assertTrue(stopStrategy.shouldStop(failedAttempt(1, 0L)));
+    }
+
+    public Attempt<Long> hintedAttempt(long hint, long delaySinceFirstAttempt) {
+        return Attempts.<Long>newResultAttempt(hint, 2, delaySinceFirstAttempt);
+    }
+
+    public Attempt<Boolean> failedAttempt(long attemptNumber, long delaySinceFirstAttempt) {
+        return Attempts.<Boolean>newExceptionAttempt(new RuntimeException(), attemptNumber, delaySinceFirstAttempt);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.Strategy.factory.StopStrategies;
+import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.scheduler.TenantQuota;
+import com.github.rholder.retry.scheduler.TenantRetryScheduler;
+import com.github.rholder.retry.scheduler.TenantSchedulerConfig;
+import com.github.rholder.retry.scheduler.TenantStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class TenantRetrySchedulerTest {
+
+    private ScheduledExecutorService scheduler;
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    @Before
+    public void setUp() {
+        scheduler = Executors.newScheduledThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        gate.countDown();
+        scheduler.shutdownNow();
+    }
+
+    private Callable<String> blocker() {
+        return new Callable<String>() {
+            public String call() throws InterruptedException {
+                gate.await();
+                return "blocker";
+            }
+        };
+    }
+
+    @Test
+    public void testSlotsAreSharedByWeight() throws Exception {
+        TenantRetryScheduler<String, String> tenants = RetryerBuilder.<String>newBuilder()
+                .buildTenantScheduler(scheduler, TenantSchedulerConfig.<String>newBuilder()
+                        .withMaxConcurrency(1)
+                        .withQuota("heavy", TenantQuota.of(3, 4, 100))
+                        .withQuota("light", TenantQuota.of(1, 4, 100))
+                        .build());
+        tenants.submit("blocker", blocker());
+        final List<String> order = new CopyOnWriteArrayList<String>();
+        List<CompletableFuture<String>> futures = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < 30; i++) {
+            for (final String tenant : new String[]{"light", "heavy"}) {
+                futures.add(tenants.submit(tenant, new Callable<String>() {
+                    public String call() {
+                        order.add(tenant);
+                        return tenant;
+                    }
+                }));
+            }
+        }
+        gate.countDown();
+        for (CompletableFuture<String> future : futures) {
+            future.get(5L, TimeUnit.SECONDS);
+        }
+        int heavy = 0;
+        for (String tenant : order.subList(0, 20)) {
+            if (tenant.equals("heavy")) {
+                heavy++;
+            }
+        }
+        assertEquals(order.toString(), 15, heavy);
+    }
+
+    @Test
+    public void testCancelledCallsLeaveTheTenantQueue() throws Exception {
+        TenantRetryScheduler<String, String> tenants = RetryerBuilder.<String>newBuilder()
+                .buildTenantScheduler(scheduler, TenantSchedulerConfig.<String>newBuilder()
+                        .withMaxConcurrency(1)
+                        .withQuota("impatient", TenantQuota.of(1, 1, 10))
+                        .build());
+        tenants.submit("blocker", blocker());
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(tenants.submit("impatient", blocker()).cancel(false));
+            assertTrue(readyCount(tenants, "impatient") <= 10);
+        }
+        assertEquals(0, readyCount(tenants, "impatient"));
+        assertEquals(0, tenants.getStats("impatient").getPending());
+    }
+
+    /**
+     * 租户内部可立即执行队列的长度
+     */
+    private static int readyCount(TenantRetryScheduler<String, String> tenants, String tenant) throws Exception {
+        Field tenantsField = TenantRetryScheduler.class.getDeclaredField("tenants");
+        tenantsField.setAccessible(true);
+        synchronized (tenants) {
+            Object state = ((Map<?, ?>) tenantsField.get(tenants)).get(tenant);
+            Field readyField = state.getClass().getDeclaredField("ready");
+            readyField.setAccessible(true);
+            return ((Collection<?>) readyField.get(state)).size();
+        }
+    }
+
+    @Test
+    public void testNoisyTenantOnlyDegradesItself() throws Exception {
+        TenantRetryScheduler<String, String> tenants = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withWaitStrategy(WaitStrategies.fixedWait(1L, TimeUnit.MILLISECONDS))
+                .withStopStrategy(StopStrategies.stopAfterAttempt(200))
+                .buildTenantScheduler(scheduler, TenantSchedulerConfig.<String>newBuilder()
+                        .withMaxConcurrency(2)
+                        .withQuota("noisy", TenantQuota.of(1, 1, 2))
+                        .build());
+        Callable<String> broken = new Callable<String>() {
+            public String call() throws Exception {
+                gate.await();
+                throw new IOException("broken integration");
+            }
+        };
+        // 一个在执行，两个在等待，第四个超出等待上限
+        CompletableFuture<String> storm1 = tenants.submit("noisy", broken);
+        CompletableFuture<String> storm2 = tenants.submit("noisy", broken);
+        CompletableFuture<String> storm3 = tenants.submit("noisy", broken);
+        CompletableFuture<String> overflow = tenants.submit("noisy", broken);
+        try {
+            overflow.get(5L, TimeUnit.SECONDS);
+            fail("Expected RejectedExecutionException");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        gate.countDown();
+
+        final AtomicInteger quietCalls = new AtomicInteger();
+        long start = System.nanoTime();
+        for (int i = 0; i < 50; i++) {
+            assertEquals("ok", tenants.submit("quiet", new Callable<String>() {
+                public String call() {
+                    quietCalls.incrementAndGet();
+                    return "ok";
+                }
+            }).get(5L, TimeUnit.SECONDS));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 5000L);
+        assertTrue(tenants.getStats("noisy").getInFlight() <= 1);
+
+        storm1.cancel(false);
+        storm2.cancel(false);
+        storm3.cancel(false);
+        TenantStats quiet = tenants.getStats("quiet");
+        assertEquals(50L, quiet.getSucceeded());
+        assertEquals(50L, quiet.getAttempts());
+        assertEquals(0L, quiet.getRetries());
+        TenantStats noisy = tenants.getStats("noisy");
+        // 重试回到已满的等待队列时同样被拒绝
+        assertTrue(noisy.toString(), noisy.getRejected() >= 1L);
+        assertEquals(4L, noisy.getSubmitted());
+        assertTrue(noisy.toString(), noisy.getRetries() > 0L);
+    }
+
+    @Test
+    public void testStatsCountRetriesAndFailures() throws Exception {
+        TenantRetryScheduler<String, String> tenants = RetryerBuilder.<String>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .buildTenantScheduler(scheduler, TenantSchedulerConfig.<String>newBuilder().build());
+        try {
+            tenants.submit("t", new Callable<String>() {
+                public String call() throws IOException {
+                    throw new IOException("down");
+                }
+            }).get(5L, TimeUnit.SECONDS);
+            fail("Expected RetryException");
+        } catch (ExecutionException expected) {
+        }
+        TenantStats stats = tenants.getStats("t");
+        assertEquals(3L, stats.getAttempts());
+        assertEquals(2L, stats.getRetries());
+        assertEquals(1L, stats.getFailed());
+        assertEquals(0, stats.getPending());
+        assertEquals(0, stats.getInFlight());
+        assertEquals(1, tenants.getStats().size());
+    }
+
+    @Test
+    public void testUnsupportedSettingsAreRejected() {
+        TenantSchedulerConfig<String> config = TenantSchedulerConfig.<String>newBuilder().build();
+        try {
+            RetryerBuilder.<String>newBuilder().withAttemptHistory(4).buildTenantScheduler(scheduler, config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+        try {
+            RetryerBuilder.<String>newBuilder().withAsyncAttemptTimeout(1L, TimeUnit.SECONDS).buildTenantScheduler(scheduler, config);
+            fail("IllegalStateException expected");
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
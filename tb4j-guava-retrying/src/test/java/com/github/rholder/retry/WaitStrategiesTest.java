@@ -16,8 +16,12 @@
 
 package com.github.rholder.retry;
 
+import com.github.rholder.retry.Strategy.RetryHintExtractor;
 import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.RetryHintExtractors;
 import com.github.rholder.retry.Strategy.factory.WaitStrategies;
+import com.github.rholder.retry.saturation.SaturationMonitor;
+import com.github.rholder.retry.saturation.SaturationSignal;
 import com.google.common.base.Function;
 import com.google.common.collect.Sets;
 import org.junit.Test;
@@ -170,12 +174,57 @@ public class WaitStrategiesTest {
         assertEquals(29L, retryAfterWait.computeSleepTime(failedRetryAfterAttempt(42, 7227)));
     }
 
+    @Test
+    public void testHintedWait() {
+        RetryHintExtractor extractor = RetryHintExtractors.firstOf(
+                RetryHintExtractors.fromException(RetryAfterException.class, customSleepFunction()),
+                RetryHintExtractors.fromResult(Long.class, identityFunction()));
+        WaitStrategy hintedWait = WaitStrategies.hintedWait(extractor,
+                WaitStrategies.fixedWait(5L, TimeUnit.MILLISECONDS), 100L, TimeUnit.MILLISECONDS);
+        assertEquals(29L, hintedWait.computeSleepTime(failedRetryAfterAttempt(1, 0L)));
+        assertEquals(42L, hintedWait.computeSleepTime(Attempts.<Long>newResultAttempt(42L, 1, 0L)));
+        assertEquals(100L, hintedWait.computeSleepTime(Attempts.<Long>newResultAttempt(5000L, 1, 0L)));
+        assertEquals(5L, hintedWait.computeSleepTime(failedAttempt(1, 0L)));
+    }
+
+    @Test
+    public void testHintedWaitWithJitter() {
+        RetryHintExtractor extractor = RetryHintExtractors.fromException(RetryAfterException.class, customSleepFunction());
+        WaitStrategy hintedWait = WaitStrategies.hintedWait(extractor, WaitStrategies.noWait(), 1.0d, 1L, TimeUnit.SECONDS);
+        for (int i = 0; i < 100; i++) {
+            long time = hintedWait.computeSleepTime(failedRetryAfterAttempt(1, 0L));
+            assertTrue(time >= 29L);
+            assertTrue(time <= 58L);
+        }
+    }
+
+    @Test
+    public void testSaturationStretchedWait() {
+        final double[] load = {0.0d};
+        SaturationMonitor monitor = SaturationMonitor.newMonitor(new SaturationSignal() {
+            @Override
+            public double sample() {
+                return load[0];
+            }
+        });
+        WaitStrategy stretchedWait = WaitStrategies.saturationStretchedWait(
+                WaitStrategies.fixedWait(100L, TimeUnit.MILLISECONDS), monitor, 5.0d);
+        monitor.refresh();
+        assertEquals(100L, stretchedWait.computeSleepTime(failedAttempt(1, 0L)));
+        load[0] = 0.5d;
+        monitor.refresh();
+        assertEquals(300L, stretchedWait.computeSleepTime(failedAttempt(1, 0L)));
+        load[0] = 2.0d;
+        monitor.refresh();
+        assertEquals(500L, stretchedWait.computeSleepTime(failedAttempt(1, 0L)));
+    }
+
     public Attempt<Boolean> failedAttempt(long attemptNumber, long delaySinceFirstAttempt) {
-        return new Retryer.ExceptionAttempt<Boolean>(new RuntimeException(), attemptNumber, delaySinceFirstAttempt);
+        return Attempts.<Boolean>newExceptionAttempt(new RuntimeException(), attemptNumber, delaySinceFirstAttempt);
     }
 
     public Attempt<Boolean> failedRetryAfterAttempt(long attemptNumber, long delaySinceFirstAttempt) {
-        return new Retryer.ExceptionAttempt<Boolean>(new RetryAfterException(), attemptNumber, delaySinceFirstAttempt);
+        return Attempts.<Boolean>newExceptionAttempt(new RetryAfterException(), attemptNumber, delaySinceFirstAttempt);
     }
 
     public Function<RuntimeException, Long> zeroSleepFunction() {
@@ -205,6 +254,15 @@ public class WaitStrategiesTest {
         };
     }
 
+    public Function<Long, Long> identityFunction() {
+        return new Function<Long, Long>() {
+            @Override
+            public Long apply(Long input) {
+                return input;
+            }
+        };
+    }
+
     public class RetryAfterException extends RuntimeException {
         private final long retryAfter = 29L;
 
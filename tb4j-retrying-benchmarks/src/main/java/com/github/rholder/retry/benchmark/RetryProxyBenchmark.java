@@ -0,0 +1,110 @@
+package com.github.rholder.retry.benchmark;
+
+import com.github.rholder.retry.ReloadableRetryer;
+import com.github.rholder.retry.RetryerRegistry;
+import com.github.rholder.retry.proxy.RetryProxyFactory;
+import com.github.rholder.retry.proxy.Retryable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: {@link RetryProxyFactory} 代理调用的开销，对照直接调用目标对象和直接使用 retryer
+ * 生成的代理类（公开接口）与退回 {@link java.lang.reflect.Proxy} 的代理（非公开接口）分开测量；
+ * 每次调用的分配量用 {@code java -jar benchmarks.jar RetryProxyBenchmark -prof gc} 查看。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 14:48:05
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RetryProxyBenchmark {
+
+    public interface Quote {
+        @Retryable("quote")
+        long price(String sku, int quantity);
+
+        @Retryable("quote")
+        long total();
+    }
+
+    interface HiddenQuote {
+        @Retryable("quote")
+        long price(String sku, int quantity);
+    }
+
+    static final class FixedQuote implements Quote, HiddenQuote {
+        public long price(String sku, int quantity) {
+            return quantity * 3L;
+        }
+
+        public long total() {
+            return 42L;
+        }
+    }
+
+    private FixedQuote target;
+    private ReloadableRetryer<Long> retryer;
+    private Quote generated;
+    private HiddenQuote reflective;
+    private String sku;
+    private int quantity;
+
+    @Setup
+    public void setUp() {
+        RetryerRegistry registry = RetryerRegistry.newBuilder()
+                .withDefaultPolicy("stopAfterAttempt=3")
+                .build();
+        RetryProxyFactory factory = new RetryProxyFactory(registry);
+        target = new FixedQuote();
+        retryer = registry.retryer("quote");
+        generated = factory.create(Quote.class, target);
+        reflective = factory.create(HiddenQuote.class, target);
+        sku = "sku";
+        quantity = 7;
+    }
+
+    @Benchmark
+    public long direct() {
+        return target.price(sku, quantity);
+    }
+
+    @Benchmark
+    public long retryer() throws Exception {
+        return retryer.call(new Callable<Long>() {
+            public Long call() {
+                return target.price(sku, quantity);
+            }
+        });
+    }
+
+    @Benchmark
+    public long generatedProxy() {
+        return generated.price(sku, quantity);
+    }
+
+    @Benchmark
+    public long generatedProxyNoArgs() {
+        return generated.total();
+    }
+
+    @Benchmark
+    public long reflectiveProxy() {
+        return reflective.price(sku, quantity);
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Function: 一次调用内最近若干次attempt的历史：耗时、失败后的等待以及异常类型
+ * 数据保存在定长的环形数组中，记录attempt时不分配对象；异常类型同时保存类型本身和整数 id，见 {@link #classId(Class)}。
+ * id 由 {@link ClassValue} 分配，不维护全局的 id 到类型的映射，类型卸载后其 id 不再被引用。
+ * 历史随调用推进而更新，只应在策略、监听器回调期间读取。通过 {@link DetailedAttempt#getHistory()} 获得；
+ * 记录方法由创建它的重试器在调用过程中使用。
+ *
+ * 下标 ago 从 0 开始，0 表示最近一次attempt。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 18:31:08
+ */
+@NotThreadSafe
+public final class AttemptHistory {
+
+    /**
+     * 结果attempt的类型 id
+     */
+    public static final int NO_EXCEPTION = 0;
+
+    private static final AtomicInteger NEXT_CLASS_ID = new AtomicInteger();
+    private static final ClassValue<Integer> CLASS_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_CLASS_ID.incrementAndGet();
+        }
+    };
+
+    static final AttemptHistory EMPTY = new AttemptHistory(0);
+
+    private final long[] latencyNanos;
+    private final long[] waitMillis;
+    private final int[] exceptionClassIds;
+    private final Class<?>[] exceptionClasses;
+    private long count;
+
+    AttemptHistory(int capacity) {
+        Preconditions.checkArgument(capacity >= 0, "capacity must be >= 0 but is %d", capacity);
+        this.latencyNanos = new long[capacity];
+        this.waitMillis = new long[capacity];
+        this.exceptionClassIds = new int[capacity];
+        this.exceptionClasses = new Class<?>[capacity];
+    }
+
+    /**
+     * @return 保留最近 capacity 次attempt的新历史，capacity 为 0 时返回共享的空历史，记录不产生任何效果
+     */
+    public static AttemptHistory newHistory(int capacity) {
+        return capacity == 0 ? EMPTY : new AttemptHistory(capacity);
+    }
+
+    /**
+     * @return 异常类型的 id，进程内稳定，大于 0
+     */
+    public static int classId(Class<? extends Throwable> exceptionClass) {
+        return CLASS_IDS.get(exceptionClass);
+    }
+
+    /**
+     * 记录一次attempt，等待时长在决定重试后由 {@link #recordWait(long)} 补充
+     */
+    public void recordAttempt(long latencyNanos, @Nullable Throwable exception) {
+        if (this.latencyNanos.length == 0) {
+            return;
+        }
+        int index = (int) (count++ % this.latencyNanos.length);
+        this.latencyNanos[index] = latencyNanos;
+        this.waitMillis[index] = 0L;
+        if (exception == null) {
+            this.exceptionClassIds[index] = NO_EXCEPTION;
+            this.exceptionClasses[index] = null;
+        } else {
+            this.exceptionClassIds[index] = CLASS_IDS.get(exception.getClass());
+            this.exceptionClasses[index] = exception.getClass();
+        }
+    }
+
+    /**
+     * 为最近一次attempt补充失败后的等待时长
+     */
+    public void recordWait(long waitMillis) {
+        if (count > 0L && latencyNanos.length > 0) {
+            this.waitMillis[index(0)] = waitMillis;
+        }
+    }
+
+    /**
+     * @return 最多保留的attempt数
+     */
+    public int capacity() {
+        return latencyNanos.length;
+    }
+
+    /**
+     * @return 当前保留的attempt数
+     */
+    public int size() {
+        return (int) Math.min(count, latencyNanos.length);
+    }
+
+    /**
+     * @return 该次attempt自身的耗时，纳秒
+     */
+    public long getLatencyNanos(int ago) {
+        return latencyNanos[index(ago)];
+    }
+
+    /**
+     * @return 该次attempt失败后的等待，毫秒；尚未决定等待时为 0
+     */
+    public long getWaitMillis(int ago) {
+        return waitMillis[index(ago)];
+    }
+
+    /**
+     * @return 该次attempt的异常类型 id，返回结果时为 {@link #NO_EXCEPTION}
+     */
+    public int getExceptionClassId(int ago) {
+        return exceptionClassIds[index(ago)];
+    }
+
+    /**
+     * @return 该次attempt的异常类型，返回结果时为 null
+     */
+    @Nullable
+    public Class<?> getExceptionClass(int ago) {
+        return exceptionClasses[index(ago)];
+    }
+
+    /**
+     * @return 该次attempt是否抛出 exceptionClass 或其子类
+     */
+    public boolean isExceptionOf(int ago, Class<? extends Throwable> exceptionClass) {
+        int id = getExceptionClassId(ago);
+        if (id == NO_EXCEPTION) {
+            return false;
+        }
+        if (id == CLASS_IDS.get(exceptionClass)) {
+            return true;
+        }
+        return exceptionClass.isAssignableFrom(getExceptionClass(ago));
+    }
+
+    /**
+     * @return 从最近一次起连续抛出 exceptionClass 或其子类的attempt数，不超过 {@link #size()}
+     */
+    public int consecutiveExceptionsOf(Class<? extends Throwable> exceptionClass) {
+        int size = size();
+        int consecutive = 0;
+        while (consecutive < size && isExceptionOf(consecutive, exceptionClass)) {
+            consecutive++;
+        }
+        return consecutive;
+    }
+
+    /**
+     * @return 最近 window 次attempt的平均耗时，纳秒；没有记录时为 0
+     */
+    public long averageLatencyNanos(int window) {
+        int n = Math.min(window, size());
+        if (n <= 0) {
+            return 0L;
+        }
+        long sum = 0L;
+        for (int ago = 0; ago < n; ago++) {
+            sum += getLatencyNanos(ago);
+        }
+        return sum / n;
+    }
+
+    private int index(int ago) {
+        if (ago < 0 || ago >= size()) {
+            throw new IndexOutOfBoundsException("ago must be in [0, " + size() + ") but is " + ago);
+        }
+        return (int) ((count - 1L - ago) % latencyNanos.length);
+    }
+}
@@ -0,0 +1,171 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: {@link Attempt} 实例的工厂类
+ * 重试器通过带 {@link RetryStats} 的方法为每次attempt创建 {@link DetailedAttempt}；
+ * 不经过重试器直接驱动重试策略的场景(如模拟、异步调度)使用只带序号和延迟的方法。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 13:05:27
+ */
+public final class Attempts {
+
+    private Attempts() {
+    }
+
+    /**
+     * 返回结果的attempt
+     * @param attemptNumber 序号，从1开始
+     * @param delaySinceFirstAttempt 第一次尝试至今延迟，毫秒
+     */
+    public static <V> Attempt<V> newResultAttempt(V result, long attemptNumber, long delaySinceFirstAttempt) {
+        return new ResultAttempt<V>(result, delaySinceFirstAttempt, AttemptHistory.EMPTY,
+                new RetryStats(attemptNumber, TimeUnit.MILLISECONDS.toNanos(delaySinceFirstAttempt), 0L, 0L, 0L));
+    }
+
+    /**
+     * 抛出异常的attempt
+     * @param attemptNumber 序号，从1开始
+     * @param delaySinceFirstAttempt 第一次尝试至今延迟，毫秒
+     */
+    public static <V> Attempt<V> newExceptionAttempt(@Nonnull Throwable cause, long attemptNumber, long delaySinceFirstAttempt) {
+        Preconditions.checkNotNull(cause, "cause may not be null");
+        return new ExceptionAttempt<V>(cause, delaySinceFirstAttempt, AttemptHistory.EMPTY,
+                new RetryStats(attemptNumber, TimeUnit.MILLISECONDS.toNanos(delaySinceFirstAttempt), 0L, 0L, 0L));
+    }
+
+    /**
+     * 返回结果的attempt，序号为 {@link RetryStats#getAttempts()}，延迟由 {@link RetryStats#getTotalNanos()} 换算
+     * @param stats 截至本次attempt结束时的耗时分解
+     */
+    public static <V> DetailedAttempt<V> newResultAttempt(V result, @Nonnull AttemptHistory history, @Nonnull RetryStats stats) {
+        Preconditions.checkNotNull(history, "history may not be null");
+        Preconditions.checkNotNull(stats, "stats may not be null");
+        return new ResultAttempt<V>(result, TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()), history, stats);
+    }
+
+    /**
+     * 抛出异常的attempt，序号为 {@link RetryStats#getAttempts()}，延迟由 {@link RetryStats#getTotalNanos()} 换算
+     * @param stats 截至本次attempt结束时的耗时分解
+     */
+    public static <V> DetailedAttempt<V> newExceptionAttempt(@Nonnull Throwable cause, @Nonnull AttemptHistory history,
+                                                             @Nonnull RetryStats stats) {
+        Preconditions.checkNotNull(cause, "cause may not be null");
+        Preconditions.checkNotNull(history, "history may not be null");
+        Preconditions.checkNotNull(stats, "stats may not be null");
+        return new ExceptionAttempt<V>(cause, TimeUnit.NANOSECONDS.toMillis(stats.getTotalNanos()), history, stats);
+    }
+
+    @Immutable
+    private static final class ResultAttempt<R> implements DetailedAttempt<R> {
+        private final R result;
+        private final long delaySinceFirstAttempt;
+        private final AttemptHistory history;
+        private final RetryStats stats;
+
+        ResultAttempt(R result, long delaySinceFirstAttempt, AttemptHistory history, RetryStats stats) {
+            this.result = result;
+            this.delaySinceFirstAttempt = delaySinceFirstAttempt;
+            this.history = history;
+            this.stats = stats;
+        }
+
+        public R get() throws ExecutionException {
+            return result;
+        }
+
+        public boolean hasResult() {
+            return true;
+        }
+
+        public boolean hasException() {
+            return false;
+        }
+
+        public R getResult() throws IllegalStateException {
+            return result;
+        }
+
+        public Throwable getExceptionCause() throws IllegalStateException {
+            throw new IllegalStateException("The attempt resulted in a result, not in an exception");
+        }
+
+        public long getAttemptNumber() {
+            return stats.getAttempts();
+        }
+
+        public long getDelaySinceFirstAttempt() {
+            return delaySinceFirstAttempt;
+        }
+
+        public AttemptHistory getHistory() {
+            return history;
+        }
+
+        public RetryStats getStats() {
+            return stats;
+        }
+    }
+
+    @Immutable
+    private static final class ExceptionAttempt<R> implements DetailedAttempt<R> {
+        private final Throwable cause;
+        private final long delaySinceFirstAttempt;
+        private final AttemptHistory history;
+        private final RetryStats stats;
+
+        ExceptionAttempt(Throwable cause, long delaySinceFirstAttempt, AttemptHistory history, RetryStats stats) {
+            this.cause = cause;
+            this.delaySinceFirstAttempt = delaySinceFirstAttempt;
+            this.history = history;
+            this.stats = stats;
+        }
+
+        /**
+         * ExecutionException 在此时才创建，未调用 get() 的失败attempt不必填充它的栈
+         */
+        public R get() throws ExecutionException {
+            throw new ExecutionException(cause);
+        }
+
+        public boolean hasResult() {
+            return false;
+        }
+
+        public boolean hasException() {
+            return true;
+        }
+
+        public R getResult() throws IllegalStateException {
+            throw new IllegalStateException("The attempt resulted in an exception, not in a result");
+        }
+
+        public Throwable getExceptionCause() throws IllegalStateException {
+            return cause;
+        }
+
+        public long getAttemptNumber() {
+            return stats.getAttempts();
+        }
+
+        public long getDelaySinceFirstAttempt() {
+            return delaySinceFirstAttempt;
+        }
+
+        public AttemptHistory getHistory() {
+            return history;
+        }
+
+        public RetryStats getStats() {
+            return stats;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.rholder.retry;
+
+/**
+ * Function: 附带本次调用attempt历史的 {@link Attempt}
+ * {@link com.github.rholder.retry.core.Retryer} 产生的attempt均实现此接口，策略可通过 instanceof 判断后读取历史；
+ * 未通过 {@link com.github.rholder.retry.core.RetryerBuilder#withAttemptHistory(int)} 开启时历史容量为 0。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 18:40:52
+ */
+public interface DetailedAttempt<V> extends Attempt<V> {
+
+    /**
+     * @return 本次调用的attempt历史，包含当前attempt
+     */
+    AttemptHistory getHistory();
+
+    /**
+     * @return 截至本次attempt结束时的耗时分解；本次attempt的监听器与判定尚未计入
+     */
+    RetryStats getStats();
+}
@@ -0,0 +1,131 @@
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Function: 一次重试调用的最终结果，由 {@link com.github.rholder.retry.core.Retryer#tryCall(java.util.concurrent.Callable)} 返回
+ * 成功时持有结果，失败时持有最后一次attempt和attempt次数；失败路径上不创建任何异常，
+ * 需要时可通过 {@link #get()} 按 {@link com.github.rholder.retry.core.Retryer#call(java.util.concurrent.Callable)} 的语义转换为异常。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 18:58:37
+ */
+@Immutable
+public final class RetryOutcome<V> {
+
+    public enum Status {
+        /**
+         * 得到了不需要重试的结果
+         */
+        SUCCEEDED,
+        /**
+         * 抛出了不需要重试的异常
+         */
+        FAILED,
+        /**
+         * 停止策略放弃了重试
+         */
+        EXHAUSTED,
+        /**
+         * 等待期间线程被中断
+         */
+        INTERRUPTED,
+        /**
+         * {@link com.github.rholder.retry.cancel.CancellationToken} 被取消或到期
+         */
+        CANCELLED
+    }
+
+    private final Status status;
+    private final Attempt<V> lastAttempt;
+    private final int attemptCount;
+    private final RetryStats stats;
+
+    /**
+     * 供重试器在调用结束时创建
+     */
+    public RetryOutcome(Status status, Attempt<V> lastAttempt, int attemptCount, RetryStats stats) {
+        this.status = status;
+        this.lastAttempt = lastAttempt;
+        this.attemptCount = attemptCount;
+        this.stats = stats;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isSuccess() {
+        return status == Status.SUCCEEDED;
+    }
+
+    /**
+     * @return 成功的结果
+     * @throws IllegalStateException 调用未成功
+     */
+    public V getValue() throws IllegalStateException {
+        Preconditions.checkState(status == Status.SUCCEEDED, "the call did not succeed: %s", status);
+        return lastAttempt.getResult();
+    }
+
+    /**
+     * @return 成功时为结果，否则为 defaultValue
+     */
+    public V orElse(@Nullable V defaultValue) {
+        return status == Status.SUCCEEDED ? lastAttempt.getResult() : defaultValue;
+    }
+
+    /**
+     * @return 最后一次attempt的异常，成功或因结果而放弃时为 null
+     */
+    @Nullable
+    public Throwable getFailureCause() {
+        return status != Status.SUCCEEDED && lastAttempt.hasException() ? lastAttempt.getExceptionCause() : null;
+    }
+
+    public Attempt<V> getLastAttempt() {
+        return lastAttempt;
+    }
+
+    public int getAttemptCount() {
+        return attemptCount;
+    }
+
+    /**
+     * @return 整个调用的耗时分解
+     */
+    public RetryStats getStats() {
+        return stats;
+    }
+
+    /**
+     * 按 {@link com.github.rholder.retry.core.Retryer#call(java.util.concurrent.Callable)} 的语义返回结果或抛出异常
+     * @throws ExecutionException 抛出了不需要重试的异常
+     * @throws RetryException 停止重试或等待时被中断
+     * @throws CancellationException 重试被取消
+     */
+    public V get() throws ExecutionException, RetryException, CancellationException {
+        switch (status) {
+            case SUCCEEDED:
+            case FAILED:
+                return lastAttempt.get();
+            case CANCELLED:
+                throw new CancellationException("retrying cancelled after " + attemptCount + " attempts [" + stats + "]");
+            default:
+                throw new RetryException(attemptCount, lastAttempt, stats);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "RetryOutcome{" + status + ", " + stats
+                + (lastAttempt.hasException() ? ", cause=" + lastAttempt.getExceptionCause() : "") + "}";
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.rholder.retry;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Locale;
+
+/**
+ * Function: 一次调用的耗时分解：执行attempt、阻塞等待、监听器与判定(含停止、等待策略)各自累计的时间
+ * 以 Retryer 的 ticker 计时；可从 {@code DetailedAttempt#getStats()}、{@code RetryOutcome#getStats()}
+ * 以及 {@link com.github.rholder.retry.exception.RetryException#getStats()} 获得，toString 适合直接打印到一行日志。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:52:40
+ */
+@Immutable
+public final class RetryStats {
+
+    private final long attempts;
+    private final long totalNanos;
+    private final long executionNanos;
+    private final long blockedNanos;
+    private final long callbackNanos;
+
+    public RetryStats(long attempts, long totalNanos, long executionNanos, long blockedNanos, long callbackNanos) {
+        this.attempts = attempts;
+        this.totalNanos = totalNanos;
+        this.executionNanos = executionNanos;
+        this.blockedNanos = blockedNanos;
+        this.callbackNanos = callbackNanos;
+    }
+
+    public long getAttempts() {
+        return attempts;
+    }
+
+    /**
+     * @return 第一次attempt开始至今的总耗时
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * @return 执行attempt的累计耗时，含时间限制器
+     */
+    public long getExecutionNanos() {
+        return executionNanos;
+    }
+
+    /**
+     * @return 阻塞在 {@link com.github.rholder.retry.Strategy.BlockStrategy} 中的累计耗时
+     */
+    public long getBlockedNanos() {
+        return blockedNanos;
+    }
+
+    /**
+     * @return 监听器、重试判定以及停止、等待策略的累计耗时
+     */
+    public long getCallbackNanos() {
+        return callbackNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "attempts=%d total=%.3fms execution=%.3fms blocked=%.3fms callbacks=%.3fms",
+                attempts, totalNanos / 1e6d, executionNanos / 1e6d, blockedNanos / 1e6d, callbackNanos / 1e6d);
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.rholder.retry.Strategy;
+
+/**
+ * Function: 等待时长只取决于attempt序号的等待策略，不依赖结果、异常、时间或随机数
+ * 这类策略可以预先编译为 {@code AttemptSchedule} 查表
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:52:36
+ */
+public interface DeterministicWaitStrategy extends WaitStrategy {
+}
@@ -0,0 +1,18 @@
+package com.github.rholder.retry.Strategy;
+
+/**
+ * Function: 依赖attempt历史的停止策略
+ * {@code RetryerBuilder} 在创建时检查历史容量不小于 {@link #getRequiredHistoryCapacity()}，
+ * 否则策略永远不会停止
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 09:41:18
+ */
+public interface HistoryDependentStopStrategy extends StopStrategy {
+
+    /**
+     * @return 需要的 {@code RetryerBuilder#withAttemptHistory(int)} 容量，0 表示不依赖历史
+     */
+    int getRequiredHistoryCapacity();
+}
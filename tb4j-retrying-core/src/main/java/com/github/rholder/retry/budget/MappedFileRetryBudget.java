@@ -0,0 +1,218 @@
+package com.github.rholder.retry.budget;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Function: 基于内存映射文件的跨进程重试预算
+ * 令牌以千分之一为单位保存在映射文件中，所有进程直接修改同一块共享内存，不经过任何网络服务。
+ * 在 Java 11 及以上创建的文件以 CAS 修改(atomic 模式)，在 Java 8 上创建的文件以 {@link FileLock} 保护读写(locked 模式)；
+ * 模式记录在文件中，之后打开同一文件的进程都按该模式访问，两种方式不会混用。
+ * Java 8 进程无法打开 atomic 模式的文件。同一文件的所有使用者需使用相同的 retryRatio 与 maxRetries。
+ *
+ * 文件布局(本机字节序)：
+ * <pre>
+ *   0  magic，最后写入，非 magic 表示尚未初始化
+ *   8  tokens(千分之一)
+ *  16  mode
+ * </pre>
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 10:14:52
+ */
+@ThreadSafe
+public final class MappedFileRetryBudget implements RetryBudget, Closeable {
+
+    private static final long MAGIC = 0x5245545259424447L; // "RETRYBDG"
+    private static final int MAGIC_OFFSET = 0;
+    private static final int TOKENS_OFFSET = 8;
+    private static final int MODE_OFFSET = 16;
+    private static final int FILE_SIZE = 64;
+    private static final long SCALE = 1000L;
+
+    private static final long MODE_ATOMIC = 1L;
+    private static final long MODE_LOCKED = 2L;
+
+    /**
+     * 文件锁由整个 JVM 持有，同一进程内对同一文件的两个通道同时加锁会抛出 OverlappingFileLockException，
+     * 因此进程内先按文件路径互斥
+     */
+    private static final ConcurrentMap<String, Object> PROCESS_LOCKS = new ConcurrentHashMap<String, Object>();
+
+    private final MappedByteBuffer buffer;
+    private final FileChannel channel;
+    private final Object processLock;
+    private final boolean atomic;
+    private final long depositAmount;
+    private final long maxTokens;
+    private volatile boolean closed;
+
+    MappedFileRetryBudget(File file, double retryRatio, int maxRetries) throws IOException {
+        Preconditions.checkArgument(retryRatio >= 0.0d, "retryRatio must be >= 0 but is %s", retryRatio);
+        Preconditions.checkArgument(maxRetries >= 0, "maxRetries must be >= 0 but is %s", maxRetries);
+        this.depositAmount = Math.round(retryRatio * SCALE);
+        this.maxTokens = maxRetries * SCALE;
+        this.processLock = processLock(file.getCanonicalPath());
+
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        this.channel = raf.getChannel();
+        try {
+            long mode;
+            synchronized (processLock) {
+                FileLock lock = channel.lock();
+                try {
+                    if (raf.length() < FILE_SIZE) {
+                        raf.setLength(FILE_SIZE);
+                    }
+                    this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_SIZE);
+                    this.buffer.order(ByteOrder.nativeOrder());
+                    mode = initialize();
+                } finally {
+                    lock.release();
+                }
+            }
+            if (mode == MODE_ATOMIC && !MappedLongs.isAtomic()) {
+                throw new IOException(file + " was created in atomic mode, which requires Java 11 or later");
+            }
+            if (mode != MODE_ATOMIC && mode != MODE_LOCKED) {
+                throw new IOException(file + " is not a retry budget file (mode " + mode + ")");
+            }
+            this.atomic = mode == MODE_ATOMIC;
+        } catch (IOException e) {
+            raf.close();
+            throw e;
+        } catch (RuntimeException e) {
+            raf.close();
+            throw e;
+        }
+    }
+
+    private static Object processLock(String path) {
+        Object lock = new Object();
+        Object existing = PROCESS_LOCKS.putIfAbsent(path, lock);
+        return existing != null ? existing : lock;
+    }
+
+    /**
+     * 持有文件锁时调用；首个打开文件的进程写入令牌与模式后才写 magic，其他进程在此之前看不到半初始化的文件
+     * @return 文件的访问模式
+     */
+    private long initialize() {
+        if (buffer.getLong(MAGIC_OFFSET) == MAGIC) {
+            return buffer.getLong(MODE_OFFSET);
+        }
+        long mode = MappedLongs.isAtomic() ? MODE_ATOMIC : MODE_LOCKED;
+        buffer.putLong(TOKENS_OFFSET, maxTokens);
+        buffer.putLong(MODE_OFFSET, mode);
+        buffer.putLong(MAGIC_OFFSET, MAGIC);
+        buffer.force();
+        return mode;
+    }
+
+    /**
+     * 关闭后不再存取令牌：tryWithdraw 返回 false，deposit 被忽略
+     */
+    public void deposit() {
+        if (depositAmount == 0L || closed) {
+            return;
+        }
+        if (atomic) {
+            long tokens;
+            long update;
+            do {
+                tokens = MappedLongs.getVolatile(buffer, TOKENS_OFFSET);
+                if (tokens >= maxTokens) {
+                    return;
+                }
+                update = Math.min(maxTokens, tokens + depositAmount);
+            } while (!MappedLongs.compareAndSet(buffer, TOKENS_OFFSET, tokens, update));
+        } else {
+            lockedAdd(depositAmount);
+        }
+    }
+
+    public boolean tryWithdraw() {
+        if (closed) {
+            return false;
+        }
+        if (atomic) {
+            long tokens;
+            do {
+                tokens = MappedLongs.getVolatile(buffer, TOKENS_OFFSET);
+                if (tokens < SCALE) {
+                    return false;
+                }
+            } while (!MappedLongs.compareAndSet(buffer, TOKENS_OFFSET, tokens, tokens - SCALE));
+            return true;
+        }
+        return lockedAdd(-SCALE);
+    }
+
+    public double getBalance() {
+        long tokens;
+        if (atomic) {
+            tokens = MappedLongs.getVolatile(buffer, TOKENS_OFFSET);
+        } else {
+            synchronized (processLock) {
+                tokens = buffer.getLong(TOKENS_OFFSET);
+            }
+        }
+        return (double) tokens / SCALE;
+    }
+
+    /**
+     * @return 文件是否以 CAS 访问
+     */
+    public boolean isAtomic() {
+        return atomic;
+    }
+
+    /**
+     * 关闭文件；映射在缓冲区被回收时才解除，文件本身保留，供其他进程继续使用
+     */
+    public void close() throws IOException {
+        synchronized (processLock) {
+            closed = true;
+            channel.close();
+        }
+    }
+
+    /**
+     * locked 模式：文件锁在进程间互斥，processLock 在进程内互斥
+     */
+    private boolean lockedAdd(long delta) {
+        synchronized (processLock) {
+            if (closed) {
+                return false;
+            }
+            try {
+                FileLock lock = channel.lock();
+                try {
+                    long tokens = buffer.getLong(TOKENS_OFFSET);
+                    long update = Math.min(maxTokens, tokens + delta);
+                    if (update < 0L) {
+                        return false;
+                    }
+                    buffer.putLong(TOKENS_OFFSET, update);
+                    return true;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+    }
+}
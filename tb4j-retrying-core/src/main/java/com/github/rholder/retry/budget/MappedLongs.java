@@ -0,0 +1,30 @@
+package com.github.rholder.retry.budget;
+
+import java.nio.MappedByteBuffer;
+
+/**
+ * Function: 映射内存上 long 的原子读写，供 {@link MappedFileRetryBudget} 使用
+ * 本类是 Java 8 下的版本，不提供原子操作，预算文件由 {@link java.nio.channels.FileLock} 保护；
+ * 在 Java 11 及以上运行时由 multi-release jar 中 META-INF/versions/11 下基于 VarHandle 的同名类替代。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 09:12:40
+ */
+final class MappedLongs {
+
+    private MappedLongs() {
+    }
+
+    static boolean isAtomic() {
+        return false;
+    }
+
+    static long getVolatile(MappedByteBuffer buffer, int offset) {
+        throw new UnsupportedOperationException("atomic access to mapped memory requires Java 11");
+    }
+
+    static boolean compareAndSet(MappedByteBuffer buffer, int offset, long expected, long update) {
+        throw new UnsupportedOperationException("atomic access to mapped memory requires Java 11");
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.rholder.retry.budget;
+
+/**
+ * Function: 重试预算，限制重试次数占调用次数的比例，避免故障时重试放大流量
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 10:02:11
+ */
+public interface RetryBudget {
+
+    /**
+     * 每次新的调用(第一次attempt)存入预算
+     */
+    void deposit();
+
+    /**
+     * 每次重试前从预算中取出一次重试机会
+     * @return <code>true</code> 允许重试
+     *         <code>false</code> 预算耗尽
+     */
+    boolean tryWithdraw();
+
+    /**
+     * @return 当前可用的重试次数
+     */
+    double getBalance();
+}
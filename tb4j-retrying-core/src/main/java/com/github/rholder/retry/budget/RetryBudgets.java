@@ -0,0 +1,84 @@
+package com.github.rholder.retry.budget;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Function: factory for {@link RetryBudget}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 10:05:37
+ */
+public final class RetryBudgets {
+
+    private RetryBudgets() {
+    }
+
+    /**
+     * 基于内存映射文件的重试预算，同一主机上映射同一文件的所有进程共享一个令牌池
+     * @param file 预算文件，不存在时创建
+     * @param retryRatio 每次调用存入的重试次数，如 0.1 表示重试不超过调用量的 10%
+     * @param maxRetries 令牌池上限(同时也是初始值)
+     * @return 不再使用时应关闭
+     * @throws IOException 无法映射文件，或文件由 Java 11 以 atomic 模式创建而当前运行时不支持
+     */
+    public static MappedFileRetryBudget mappedFile(@Nonnull File file, double retryRatio, int maxRetries) throws IOException {
+        Preconditions.checkNotNull(file, "file may not be null");
+        return new MappedFileRetryBudget(file, retryRatio, maxRetries);
+    }
+
+    /**
+     * 在 delegate 不停止时，再由预算决定是否允许重试
+     */
+    public static StopStrategy stopStrategy(@Nonnull RetryBudget budget, @Nonnull StopStrategy delegate) {
+        Preconditions.checkNotNull(budget, "budget may not be null");
+        Preconditions.checkNotNull(delegate, "delegate may not be null");
+        return new BudgetStopStrategy(budget, delegate);
+    }
+
+    /**
+     * 每次调用的第一次attempt向预算存入
+     */
+    public static RetryListener depositListener(@Nonnull RetryBudget budget) {
+        Preconditions.checkNotNull(budget, "budget may not be null");
+        return new DepositListener(budget);
+    }
+
+    @Immutable
+    private static final class BudgetStopStrategy implements StopStrategy {
+        private final RetryBudget budget;
+        private final StopStrategy delegate;
+
+        public BudgetStopStrategy(RetryBudget budget, StopStrategy delegate) {
+            this.budget = budget;
+            this.delegate = delegate;
+        }
+
+        public boolean shouldStop(Attempt failedAttempt) {
+            return delegate.shouldStop(failedAttempt) || !budget.tryWithdraw();
+        }
+    }
+
+    @Immutable
+    private static final class DepositListener implements RetryListener {
+        private final RetryBudget budget;
+
+        public DepositListener(RetryBudget budget) {
+            this.budget = budget;
+        }
+
+        public <V> void onRetry(Attempt<V> attempt) {
+            if (attempt.getAttemptNumber() == 1L) {
+                budget.deposit();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.github.rholder.retry.cancel;
+
+/**
+ * Function: 接收 {@link CancellationToken} 的attempt
+ * 不响应中断的长时间工作应在适当的位置调用 {@link CancellationToken#throwIfCancellationRequested()}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:33:05
+ */
+public interface CancellableCallable<V> {
+
+    V call(CancellationToken token) throws Exception;
+}
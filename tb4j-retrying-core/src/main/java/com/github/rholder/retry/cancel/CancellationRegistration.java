@@ -0,0 +1,17 @@
+package com.github.rholder.retry.cancel;
+
+/**
+ * Function: {@link CancellationToken#onCancel(Runnable)} 登记的回调
+ * 回调所保护的工作结束后应调用 {@link #unregister()}，否则长期存在的 token 会一直持有回调及其引用的对象。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 10:06:52
+ */
+public interface CancellationRegistration {
+
+    /**
+     * 移除回调；回调已执行或已移除时无效果
+     */
+    void unregister();
+}
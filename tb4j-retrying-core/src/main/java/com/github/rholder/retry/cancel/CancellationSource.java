@@ -0,0 +1,67 @@
+package com.github.rholder.retry.cancel;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Function: 一次或一组重试调用的取消句柄
+ * 把 {@link #getToken()} 交给 retryer，需要放弃时调用 {@link #cancel()}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:29:40
+ */
+@ThreadSafe
+public final class CancellationSource {
+
+    private final CancellationToken token;
+
+    private CancellationSource(LongSupplier nanoClock, long deadlineNanos) {
+        this.token = new CancellationToken(nanoClock, deadlineNanos);
+    }
+
+    public static CancellationSource newSource() {
+        return new CancellationSource(CancellationToken.SYSTEM_NANO_CLOCK, Long.MAX_VALUE);
+    }
+
+    /**
+     * @return token 在 timeout 之后到期的取消句柄，到期与调用 {@link #cancel()} 同样结束重试
+     * @see #withTimeout(long, TimeUnit, LongSupplier)
+     */
+    public static CancellationSource withTimeout(long timeout, @Nonnull TimeUnit timeUnit) {
+        return withTimeout(timeout, timeUnit, CancellationToken.SYSTEM_NANO_CLOCK);
+    }
+
+    /**
+     * 截止时间按 nanoClock(纳秒)计算，应与 retryer 的 {@link com.github.rholder.retry.core.RetryerBuilder#withNanoClock(LongSupplier)}
+     * 使用同一个时钟，否则截止时间与attempt耗时不在同一时间轴上；{@code ManualTicker} 可以直接传入
+     */
+    public static CancellationSource withTimeout(long timeout, @Nonnull TimeUnit timeUnit, @Nonnull LongSupplier nanoClock) {
+        Preconditions.checkNotNull(timeUnit, "timeUnit may not be null");
+        Preconditions.checkNotNull(nanoClock, "nanoClock may not be null");
+        Preconditions.checkArgument(timeout >= 0L, "timeout must be >= 0 but is %d", timeout);
+        long timeoutNanos = Math.min(timeUnit.toNanos(timeout), Long.MAX_VALUE / 2);
+        long deadlineNanos = nanoClock.getAsLong() + timeoutNanos;
+        return new CancellationSource(nanoClock, deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE - 1 : deadlineNanos);
+    }
+
+    public CancellationToken getToken() {
+        return token;
+    }
+
+    /**
+     * 请求取消：正在等待的重试立即结束，不再开始新的attempt，并执行 {@link CancellationToken#onCancel(Runnable)} 登记的回调。
+     * 正在执行的attempt不会被中断，需通过 token 主动检查。重复调用无效果。
+     */
+    public void cancel() {
+        token.cancel();
+    }
+
+    public boolean isCancelled() {
+        return token.isCancelled();
+    }
+}
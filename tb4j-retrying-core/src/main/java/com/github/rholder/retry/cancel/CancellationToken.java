@@ -0,0 +1,204 @@
+package com.github.rholder.retry.cancel;
+
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Function: 取消的只读视图，由 {@link CancellationSource#getToken()} 获得
+ * 传给 {@link com.github.rholder.retry.core.Retryer#call(java.util.concurrent.Callable, CancellationToken)} 后，取消会立即结束正在进行的等待并阻止后续attempt；
+ * 传给 {@link CancellableCallable} 的attempt可以在不响应中断的工作中用 {@link #throwIfCancellationRequested()} 主动检查。
+ * 设置了截止时间的 token 到期后同样视为已取消。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:31:16
+ */
+@ThreadSafe
+public final class CancellationToken {
+
+    static final LongSupplier SYSTEM_NANO_CLOCK = new LongSupplier() {
+        public long getAsLong() {
+            return System.nanoTime();
+        }
+    };
+    private static final CancellationToken NONE = new CancellationToken(SYSTEM_NANO_CLOCK, Long.MAX_VALUE);
+    private static final CancellationRegistration NOOP_REGISTRATION = new CancellationRegistration() {
+        public void unregister() {
+        }
+    };
+
+    private final LongSupplier nanoClock;
+    /**
+     * nanoClock 下的截止时间，Long.MAX_VALUE 表示没有截止时间
+     */
+    private final long deadlineNanos;
+    private volatile boolean cancelled;
+    @GuardedBy("this")
+    private Thread blockedThread;
+    /**
+     * cancel 中断了正在等待的线程，等待结束时只清除由它设置的中断标记
+     */
+    @GuardedBy("this")
+    private boolean interruptedBlockedThread;
+    @GuardedBy("this")
+    private Set<Callback> callbacks;
+
+    CancellationToken(LongSupplier nanoClock, long deadlineNanos) {
+        this.nanoClock = nanoClock;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * @return 永远不会被取消的 token
+     */
+    public static CancellationToken none() {
+        return NONE;
+    }
+
+    /**
+     * @return 是否已被取消或已过截止时间
+     */
+    public boolean isCancellationRequested() {
+        return cancelled || deadlineNanos != Long.MAX_VALUE && nanoClock.getAsLong() - deadlineNanos >= 0L;
+    }
+
+    /**
+     * @throws CancellationException 已被取消或已过截止时间
+     */
+    public void throwIfCancellationRequested() throws CancellationException {
+        if (cancelled) {
+            throw new CancellationException("cancellation requested");
+        }
+        if (isCancellationRequested()) {
+            throw new CancellationException("deadline exceeded");
+        }
+    }
+
+    /**
+     * @return 距截止时间的剩余时长，没有截止时间时为 Long.MAX_VALUE，已过期时不大于 0
+     */
+    public long remainingNanos() {
+        return deadlineNanos == Long.MAX_VALUE ? Long.MAX_VALUE : deadlineNanos - nanoClock.getAsLong();
+    }
+
+    /**
+     * 取消时执行 callback，可用于关闭连接等中断无法结束的工作；已取消时立即在当前线程执行。
+     * 截止时间到期不会触发 callback。
+     * @return 登记句柄，callback 保护的工作结束后应调用 {@link CancellationRegistration#unregister()}
+     */
+    public CancellationRegistration onCancel(@Nonnull Runnable callback) {
+        Preconditions.checkNotNull(callback, "callback may not be null");
+        if (this == NONE) {
+            return NOOP_REGISTRATION;
+        }
+        synchronized (this) {
+            if (!cancelled) {
+                if (callbacks == null) {
+                    callbacks = new LinkedHashSet<Callback>(4);
+                }
+                Callback registration = new Callback(callback);
+                callbacks.add(registration);
+                return registration;
+            }
+        }
+        callback.run();
+        return NOOP_REGISTRATION;
+    }
+
+    /**
+     * 代替 retryer 通过 blockStrategy 等待；只有在等待期间调用线程才会因取消被中断，
+     * 等待时长超过剩余时间时不再等待，直接视为到期
+     * @throws CancellationException 等待前或等待期间被取消，或等待会越过截止时间
+     * @throws InterruptedException 等待期间被其他原因中断
+     */
+    public void block(@Nonnull BlockStrategy blockStrategy, long sleepMillis) throws InterruptedException, CancellationException {
+        if (this == NONE) {
+            blockStrategy.block(sleepMillis);
+            return;
+        }
+        if (TimeUnit.MILLISECONDS.toNanos(sleepMillis) >= remainingNanos()) {
+            throw new CancellationException("deadline exceeded");
+        }
+        synchronized (this) {
+            throwIfCancellationRequested();
+            blockedThread = Thread.currentThread();
+        }
+        boolean interruptedByCancel;
+        try {
+            blockStrategy.block(sleepMillis);
+        } catch (InterruptedException e) {
+            if (cancelled) {
+                CancellationException cancellation = new CancellationException("cancellation requested");
+                cancellation.initCause(e);
+                throw cancellation;
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                blockedThread = null;
+                interruptedByCancel = interruptedBlockedThread;
+                interruptedBlockedThread = false;
+            }
+        }
+        if (interruptedByCancel) {
+            // 取消发生在等待返回之后、登记清除之前，清除它留下的中断标记；其他来源的中断保持不变
+            Thread.interrupted();
+        }
+        if (cancelled) {
+            throw new CancellationException("cancellation requested");
+        }
+    }
+
+    void cancel() {
+        Set<Callback> toRun;
+        synchronized (this) {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            if (blockedThread != null) {
+                interruptedBlockedThread = true;
+                blockedThread.interrupt();
+            }
+            toRun = callbacks;
+            callbacks = null;
+        }
+        if (toRun != null) {
+            for (Callback callback : toRun) {
+                callback.callback.run();
+            }
+        }
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * 按对象标识登记，同一个 Runnable 可以登记多次
+     */
+    private final class Callback implements CancellationRegistration {
+        private final Runnable callback;
+
+        Callback(Runnable callback) {
+            this.callback = callback;
+        }
+
+        public void unregister() {
+            synchronized (CancellationToken.this) {
+                if (callbacks != null) {
+                    callbacks.remove(this);
+                }
+            }
+        }
+    }
+}
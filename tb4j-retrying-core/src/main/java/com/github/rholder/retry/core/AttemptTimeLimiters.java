@@ -0,0 +1,125 @@
+package com.github.rholder.retry.core;
+
+import com.github.rholder.retry.schedule.AttemptSchedule;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.timelimit.PerAttemptTimeLimiter;
+import com.github.rholder.retry.tracing.TraceContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Function: 不依赖 Guava 的 {@link AttemptTimeLimiter} 工厂类
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 11:58:14
+ */
+public final class AttemptTimeLimiters {
+
+    private AttemptTimeLimiters() {
+    }
+
+    /**
+     * 无时间限制，在调用线程上执行
+     */
+    public static <V> AttemptTimeLimiter<V> noTimeLimit() {
+        return new NoAttemptTimeLimit<V>();
+    }
+
+    /**
+     * 执行时间限制：callable 在 executorService 的线程上执行，超时后被中断，attempt 以 {@link TimeoutException} 失败；
+     * 当前的 {@link TraceContext} 会随之传递
+     */
+    public static <V> AttemptTimeLimiter<V> fixedTimeLimit(long duration, @Nonnull TimeUnit timeUnit,
+                                                           @Nonnull ExecutorService executorService) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkNotNull(executorService, "executorService may not be null");
+        Preconditions.checkArgument(duration > 0L, "duration must be > 0 but is %s", duration);
+        return new FixedAttemptTimeLimit<V>(duration, timeUnit, executorService);
+    }
+
+    /**
+     * 按时间表中各次attempt的超时限制执行时间，时间表未设置超时的attempt在调用线程上执行、不限制
+     */
+    public static <V> PerAttemptTimeLimiter<V> scheduledTimeLimit(@Nonnull AttemptSchedule schedule,
+                                                                  @Nonnull ExecutorService executorService) {
+        Preconditions.checkNotNull(schedule, "schedule may not be null");
+        Preconditions.checkNotNull(executorService, "executorService may not be null");
+        return new ScheduledAttemptTimeLimit<V>(schedule, executorService);
+    }
+
+    /**
+     * 在 executorService 上执行 callable 并最多等待 timeoutNanos；
+     * callable 抛出的异常原样抛出，使重试判定看到的是它本身，Error 包装在 ExecutionException 中
+     */
+    private static <V> V callWithTimeout(Callable<V> callable, long timeoutNanos, ExecutorService executorService) throws Exception {
+        Future<V> future = executorService.submit(TraceContext.wrap(callable));
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            throw e;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Immutable
+    private static final class NoAttemptTimeLimit<V> implements AttemptTimeLimiter<V> {
+        public V call(Callable<V> callable) throws Exception {
+            return callable.call();
+        }
+    }
+
+    @Immutable
+    private static final class FixedAttemptTimeLimit<V> implements AttemptTimeLimiter<V> {
+        private final long duration;
+        private final TimeUnit timeUnit;
+        private final ExecutorService executorService;
+
+        FixedAttemptTimeLimit(long duration, TimeUnit timeUnit, ExecutorService executorService) {
+            this.duration = duration;
+            this.timeUnit = timeUnit;
+            this.executorService = executorService;
+        }
+
+        public V call(Callable<V> callable) throws Exception {
+            return callWithTimeout(callable, timeUnit.toNanos(duration), executorService);
+        }
+    }
+
+    @Immutable
+    private static final class ScheduledAttemptTimeLimit<V> implements PerAttemptTimeLimiter<V> {
+        private final AttemptSchedule schedule;
+        private final ExecutorService executorService;
+
+        ScheduledAttemptTimeLimit(AttemptSchedule schedule, ExecutorService executorService) {
+            this.schedule = schedule;
+            this.executorService = executorService;
+        }
+
+        public V call(Callable<V> callable) throws Exception {
+            return call(callable, 1L);
+        }
+
+        public V call(Callable<V> callable, long attemptNumber) throws Exception {
+            long timeout = schedule.getTimeoutMillis(attemptNumber);
+            return timeout < 0L ? callable.call()
+                    : callWithTimeout(callable, TimeUnit.MILLISECONDS.toNanos(timeout), executorService);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.rholder.retry.core;
+
+import javax.annotation.Nullable;
+
+/**
+ * Function: core 模块各包共用的参数检查，与 Guava Preconditions 的用法和信息格式相同(只替换 %s，多余参数附加在方括号中)，
+ * 使 core 不依赖 Guava
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 11:36:08
+ */
+public final class Preconditions {
+
+    private Preconditions() {
+    }
+
+    public static <T> T checkNotNull(T reference, @Nullable Object errorMessage) {
+        if (reference == null) {
+            throw new NullPointerException(String.valueOf(errorMessage));
+        }
+        return reference;
+    }
+
+    public static void checkArgument(boolean expression, @Nullable String template, @Nullable Object... args) {
+        if (!expression) {
+            throw new IllegalArgumentException(format(template, args));
+        }
+    }
+
+    public static void checkState(boolean expression, @Nullable String template, @Nullable Object... args) {
+        if (!expression) {
+            throw new IllegalStateException(format(template, args));
+        }
+    }
+
+    private static String format(@Nullable String template, @Nullable Object... args) {
+        template = String.valueOf(template);
+        if (args == null || args.length == 0) {
+            return template;
+        }
+        StringBuilder builder = new StringBuilder(template.length() + 16 * args.length);
+        int start = 0;
+        int i = 0;
+        while (i < args.length) {
+            int placeholder = template.indexOf("%s", start);
+            if (placeholder == -1) {
+                break;
+            }
+            builder.append(template, start, placeholder).append(args[i++]);
+            start = placeholder + 2;
+        }
+        builder.append(template, start, template.length());
+        if (i < args.length) {
+            builder.append(" [").append(args[i++]);
+            while (i < args.length) {
+                builder.append(", ").append(args[i++]);
+            }
+            builder.append(']');
+        }
+        return builder.toString();
+    }
+}
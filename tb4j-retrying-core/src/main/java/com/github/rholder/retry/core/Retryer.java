@@ -0,0 +1,362 @@
+package com.github.rholder.retry.core;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.AttemptHistory;
+import com.github.rholder.retry.Attempts;
+import com.github.rholder.retry.DetailedAttempt;
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.RetryStats;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.cancel.CancellableCallable;
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.cancel.CancellationToken;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.timelimit.PerAttemptTimeLimiter;
+import com.github.rholder.retry.tracing.RetrySpan;
+import com.github.rholder.retry.tracing.RetryTracer;
+import com.github.rholder.retry.tracing.RetryTracers;
+import com.github.rholder.retry.tracing.TraceContext;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Function: 不依赖 Guava 的重试器，判定条件使用 {@link Predicate}，计时使用 {@link LongSupplier}(纳秒)
+ * 停止、等待、阻塞策略与时间限制器与 guava-retrying 共用同一组接口；监听器、attempt历史、追踪与取消都在这里实现，
+ * guava-retrying 的 Retryer 只把 Guava 的 Predicate、Ticker 转换后委托给它。通过 {@link RetryerBuilder} 创建。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 12:06:40
+ */
+@Immutable
+public final class Retryer<V> {
+
+    private final AttemptTimeLimiter<V> attemptTimeLimiter;
+    private final PerAttemptTimeLimiter<V> perAttemptTimeLimiter;
+    private final StopStrategy stopStrategy;
+    private final WaitStrategy waitStrategy;
+    private final BlockStrategy blockStrategy;
+    private final Predicate<Attempt<V>> rejectionPredicate;
+    private final LongSupplier nanoClock;
+    private final Collection<RetryListener> listeners;
+    private final int attemptHistoryCapacity;
+    /**
+     * 未开启追踪时为 null，调用路径上不做任何追踪相关的操作
+     */
+    private final RetryTracer tracer;
+
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull LongSupplier nanoClock) {
+        this(attemptTimeLimiter, stopStrategy, waitStrategy, blockStrategy, rejectionPredicate, nanoClock,
+                Collections.<RetryListener>emptyList(), 0, null);
+    }
+
+    /**
+     * @param listeners 每次attempt结束后按顺序回调
+     * @param attemptHistoryCapacity 每次调用保留的attempt历史条数，见 {@link DetailedAttempt#getHistory()}
+     * @param tracer 追踪，为 null 或 {@link RetryTracers#noop()} 时不追踪
+     */
+    public Retryer(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter,
+                   @Nonnull StopStrategy stopStrategy,
+                   @Nonnull WaitStrategy waitStrategy,
+                   @Nonnull BlockStrategy blockStrategy,
+                   @Nonnull Predicate<Attempt<V>> rejectionPredicate,
+                   @Nonnull LongSupplier nanoClock,
+                   @Nonnull Collection<RetryListener> listeners,
+                   int attemptHistoryCapacity,
+                   @Nullable RetryTracer tracer) {
+        Preconditions.checkNotNull(attemptTimeLimiter, "timeLimiter may not be null");
+        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        Preconditions.checkNotNull(blockStrategy, "blockStrategy may not be null");
+        Preconditions.checkNotNull(rejectionPredicate, "rejectionPredicate may not be null");
+        Preconditions.checkNotNull(nanoClock, "nanoClock may not be null");
+        Preconditions.checkNotNull(listeners, "listeners may not null");
+        Preconditions.checkArgument(attemptHistoryCapacity >= 0, "attemptHistoryCapacity must be >= 0 but is %d", attemptHistoryCapacity);
+        this.attemptTimeLimiter = attemptTimeLimiter;
+        this.perAttemptTimeLimiter = attemptTimeLimiter instanceof PerAttemptTimeLimiter
+                ? (PerAttemptTimeLimiter<V>) attemptTimeLimiter : null;
+        this.stopStrategy = stopStrategy;
+        this.waitStrategy = waitStrategy;
+        this.blockStrategy = blockStrategy;
+        this.rejectionPredicate = rejectionPredicate;
+        this.nanoClock = nanoClock;
+        this.listeners = listeners;
+        this.attemptHistoryCapacity = attemptHistoryCapacity;
+        this.tracer = tracer == RetryTracers.noop() ? null : tracer;
+    }
+
+    /**
+     * 执行 callable，结果或异常命中重试条件时按停止、等待策略重试
+     * @throws ExecutionException callable 抛出了不需要重试的异常
+     * @throws RetryException 停止重试，或等待时被中断(此时保留线程的中断状态)
+     */
+    public V call(Callable<V> callable) throws ExecutionException, RetryException {
+        return execute(callable, (CancellationToken) null).get();
+    }
+
+    /**
+     * 与 {@link #call(Callable)} 相同，token 被取消时立即结束等待并不再开始新的attempt
+     * @throws CancellationException 重试因 token 被取消或到期而结束
+     */
+    public V call(Callable<V> callable, @Nonnull CancellationToken token)
+            throws ExecutionException, RetryException, CancellationException {
+        Preconditions.checkNotNull(token, "token may not be null");
+        return execute(callable, token).get();
+    }
+
+    /**
+     * 与 {@link #call(Callable, CancellationToken)} 相同，token 同时传给每次attempt供其主动检查
+     */
+    public V call(CancellableCallable<V> callable, @Nonnull CancellationToken token)
+            throws ExecutionException, RetryException, CancellationException {
+        Preconditions.checkNotNull(token, "token may not be null");
+        return execute(bind(callable, token), token).get();
+    }
+
+    /**
+     * 与 {@link #call(Callable)} 相同，但以 {@link RetryOutcome} 返回结果或最终失败而不抛出异常，
+     * 热点循环中重试耗尽时不必构造和展开异常
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable) {
+        return execute(callable, (CancellationToken) null);
+    }
+
+    /**
+     * 与 {@link #tryCall(Callable)} 相同，token 被取消时以 {@link RetryOutcome.Status#CANCELLED} 结束
+     * @throws CancellationException 调用开始前 token 已被取消，此时还没有任何attempt
+     */
+    public RetryOutcome<V> tryCall(Callable<V> callable, @Nonnull CancellationToken token) throws CancellationException {
+        Preconditions.checkNotNull(token, "token may not be null");
+        return execute(callable, token);
+    }
+
+    /**
+     * @see #tryCall(Callable, CancellationToken)
+     */
+    public RetryOutcome<V> tryCall(CancellableCallable<V> callable, @Nonnull CancellationToken token) throws CancellationException {
+        Preconditions.checkNotNull(token, "token may not be null");
+        return execute(bind(callable, token), token);
+    }
+
+    /**
+     * 在 executor 上执行重试；返回的 future 被取消时一并取消重试，等待中的重试立即结束，
+     * 而不是像直接提交 {@link #wrap(Callable)} 那样只能依靠中断
+     */
+    public Future<V> submit(@Nonnull Executor executor, Callable<V> callable) {
+        Preconditions.checkNotNull(executor, "executor may not be null");
+        final RetryerCallable<V> retryerCallable = wrap(callable);
+        FutureTask<V> task = new FutureTask<V>(retryerCallable) {
+            @Override
+            public boolean cancel(boolean mayInterruptIfRunning) {
+                boolean cancelled = super.cancel(mayInterruptIfRunning);
+                if (cancelled) {
+                    retryerCallable.cancel();
+                }
+                return cancelled;
+            }
+        };
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * 封装callable成RetryerCallable，每个 RetryerCallable 有自己的取消句柄
+     */
+    public RetryerCallable<V> wrap(Callable<V> callable) {
+        return new RetryerCallable<V>(this, callable);
+    }
+
+    private static <V> Callable<V> bind(final CancellableCallable<V> callable, final CancellationToken token) {
+        Preconditions.checkNotNull(callable, "callable may not be null");
+        return new Callable<V>() {
+            public V call() throws Exception {
+                return callable.call(token);
+            }
+        };
+    }
+
+    /**
+     * @param token 为 null 时不检查取消
+     */
+    private RetryOutcome<V> execute(Callable<V> callable, @Nullable CancellationToken token) {
+        if (token != null) {
+            token.throwIfCancellationRequested();
+        }
+        if (tracer == null) {
+            return execute(callable, token, null);
+        }
+        RetrySpan callSpan = tracer.startSpan(RetryTracer.CALL_SPAN, TraceContext.current());
+        RetryOutcome<V> outcome = null;
+        try {
+            outcome = execute(callable, token, callSpan);
+            return outcome;
+        } finally {
+            if (outcome != null) {
+                callSpan.setAttribute(RetryTracer.OUTCOME, outcome.getStatus().name())
+                        .setAttribute(RetryTracer.ATTEMPTS, outcome.getAttemptCount());
+            }
+            callSpan.end();
+        }
+    }
+
+    /**
+     * @param callSpan 调用的 span，未开启追踪时为 null
+     */
+    private RetryOutcome<V> execute(Callable<V> callable, @Nullable CancellationToken token, @Nullable RetrySpan callSpan) {
+        long startTime = nanoClock.getAsLong();
+        AttemptHistory history = AttemptHistory.newHistory(attemptHistoryCapacity);
+        long executionNanos = 0L;
+        long blockedNanos = 0L;
+        long callbackNanos = 0L;
+        long attemptStartTime = startTime;
+        for (int attemptNumber = 1; ; attemptNumber++) {
+            RetrySpan attemptSpan = callSpan == null ? null
+                    : tracer.startSpan(RetryTracer.ATTEMPT_SPAN, callSpan).setAttribute(RetryTracer.ATTEMPT_NUMBER, attemptNumber);
+            Attempt<V> attempt;
+            long now;
+            try {
+                V result = invoke(callable, attemptNumber, attemptSpan);
+                now = nanoClock.getAsLong();
+                executionNanos += now - attemptStartTime;
+                history.recordAttempt(now - attemptStartTime, null);
+                attempt = Attempts.newResultAttempt(result, history,
+                        new RetryStats(attemptNumber, now - startTime, executionNanos, blockedNanos, callbackNanos));
+            } catch (Throwable t) {
+                now = nanoClock.getAsLong();
+                executionNanos += now - attemptStartTime;
+                history.recordAttempt(now - attemptStartTime, t);
+                attempt = Attempts.newExceptionAttempt(t, history,
+                        new RetryStats(attemptNumber, now - startTime, executionNanos, blockedNanos, callbackNanos));
+            }
+            if (attemptSpan != null) {
+                if (attempt.hasException()) {
+                    attemptSpan.setAttribute(RetryTracer.OUTCOME, "exception")
+                            .setAttribute(RetryTracer.EXCEPTION, attempt.getExceptionCause().getClass().getName());
+                } else {
+                    attemptSpan.setAttribute(RetryTracer.OUTCOME, "result");
+                }
+                attemptSpan.end();
+            }
+
+            for (RetryListener listener : listeners) {
+                listener.onRetry(attempt);
+            }
+
+            RetryOutcome.Status status = null;
+            if (!rejectionPredicate.test(attempt)) {
+                status = attempt.hasResult() ? RetryOutcome.Status.SUCCEEDED : RetryOutcome.Status.FAILED;
+            } else if (token != null && token.isCancellationRequested()) {
+                status = RetryOutcome.Status.CANCELLED;
+            } else if (stopStrategy.shouldStop(attempt)) {
+                status = RetryOutcome.Status.EXHAUSTED;
+            }
+            long sleepTime = status == null ? waitStrategy.computeSleepTime(attempt) : 0L;
+            long blockStartTime = nanoClock.getAsLong();
+            callbackNanos += blockStartTime - now;
+            if (status != null) {
+                return new RetryOutcome<V>(status, attempt, attemptNumber,
+                        new RetryStats(attemptNumber, blockStartTime - startTime, executionNanos, blockedNanos, callbackNanos));
+            }
+
+            history.recordWait(sleepTime);
+            RetrySpan backoffSpan = callSpan == null ? null
+                    : tracer.startSpan(RetryTracer.BACKOFF_SPAN, callSpan).setAttribute(RetryTracer.SLEEP_MILLIS, sleepTime);
+            try {
+                if (token == null) {
+                    blockStrategy.block(sleepTime);
+                } else {
+                    token.block(blockStrategy, sleepTime);
+                }
+            } catch (CancellationException e) {
+                long cancelledTime = nanoClock.getAsLong();
+                blockedNanos += cancelledTime - blockStartTime;
+                return new RetryOutcome<V>(RetryOutcome.Status.CANCELLED, attempt, attemptNumber,
+                        new RetryStats(attemptNumber, cancelledTime - startTime, executionNanos, blockedNanos, callbackNanos));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                long interruptedTime = nanoClock.getAsLong();
+                blockedNanos += interruptedTime - blockStartTime;
+                return new RetryOutcome<V>(RetryOutcome.Status.INTERRUPTED, attempt, attemptNumber,
+                        new RetryStats(attemptNumber, interruptedTime - startTime, executionNanos, blockedNanos, callbackNanos));
+            } finally {
+                if (backoffSpan != null) {
+                    backoffSpan.end();
+                }
+            }
+            attemptStartTime = nanoClock.getAsLong();
+            blockedNanos += attemptStartTime - blockStartTime;
+            if (token != null && token.isCancellationRequested()) {
+                return new RetryOutcome<V>(RetryOutcome.Status.CANCELLED, attempt, attemptNumber,
+                        new RetryStats(attemptNumber, attemptStartTime - startTime, executionNanos, blockedNanos, callbackNanos));
+            }
+        }
+    }
+
+    /**
+     * 执行一次attempt；追踪时 attemptSpan 在执行期间作为当前 span
+     */
+    private V invoke(Callable<V> callable, int attemptNumber, @Nullable RetrySpan attemptSpan) throws Exception {
+        RetrySpan previous = attemptSpan == null ? null : TraceContext.attach(attemptSpan);
+        try {
+            return perAttemptTimeLimiter == null
+                    ? attemptTimeLimiter.call(callable) : perAttemptTimeLimiter.call(callable, attemptNumber);
+        } finally {
+            if (attemptSpan != null) {
+                TraceContext.restore(previous);
+            }
+        }
+    }
+
+    /**
+     * 绑定了重试器和取消句柄的 {@link Callable}
+     */
+    public static final class RetryerCallable<X> implements Callable<X> {
+        private final Retryer<X> retryer;
+        private final Callable<X> callable;
+        private final CancellationSource cancellation = CancellationSource.newSource();
+
+        private RetryerCallable(Retryer<X> retryer, Callable<X> callable) {
+            this.retryer = retryer;
+            this.callable = callable;
+        }
+
+        /**
+         * @see Retryer#call(Callable, CancellationToken)
+         */
+        public X call() throws ExecutionException, RetryException {
+            return retryer.call(callable, cancellation.getToken());
+        }
+
+        /**
+         * 取消进行中以及之后的调用，见 {@link CancellationSource#cancel()}
+         */
+        public void cancel() {
+            cancellation.cancel();
+        }
+
+        public CancellationToken getCancellationToken() {
+            return cancellation.getToken();
+        }
+    }
+}
@@ -0,0 +1,403 @@
+package com.github.rholder.retry.core;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.DetailedAttempt;
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.BlockStrategy;
+import com.github.rholder.retry.Strategy.HistoryDependentStopStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.Strategy.factory.BlockStrategies;
+import com.github.rholder.retry.budget.RetryBudget;
+import com.github.rholder.retry.budget.RetryBudgets;
+import com.github.rholder.retry.listener.RetryListener;
+import com.github.rholder.retry.schedule.AttemptSchedule;
+import com.github.rholder.retry.schedule.AttemptSchedules;
+import com.github.rholder.retry.timelimit.AttemptTimeLimiter;
+import com.github.rholder.retry.tracing.RetryTracer;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Function: 配置和创建 {@link Retryer}，默认值与 guava-retrying 的 RetryerBuilder 相同：
+ * 从不停止、不等待、Thread.sleep 阻塞、不限制attempt时间、只有命中 retryIf 条件时重试。
+ * guava-retrying 的 RetryerBuilder 把配置转交给它，异步、调度类重试器也从它取得生效的策略，两者共用同一份配置。
+ * 确定性等待策略在创建时编译为 {@link AttemptSchedule}，计算等待只需查表。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 12:14:09
+ */
+public final class RetryerBuilder<V> {
+
+    /**
+     * 停止策略不限定attempt数时预先编译的等待项数，超出部分仍交给原策略计算
+     */
+    private static final int COMPILED_ATTEMPTS = 64;
+    private static final int MAX_COMPILED_ATTEMPTS = 1024;
+
+    private static final LongSupplier SYSTEM_NANO_CLOCK = new LongSupplier() {
+        public long getAsLong() {
+            return System.nanoTime();
+        }
+    };
+
+    private AttemptTimeLimiter<V> attemptTimeLimiter;
+    private StopStrategy stopStrategy;
+    private WaitStrategy waitStrategy;
+    private BlockStrategy blockStrategy;
+    private LongSupplier nanoClock;
+    private RetryBudget retryBudget;
+    private int attemptHistoryCapacity;
+    private RetryTracer tracer;
+    private Predicate<Attempt<V>> rejectionPredicate = new Predicate<Attempt<V>>() {
+        public boolean test(Attempt<V> attempt) {
+            return false;
+        }
+    };
+    private List<RetryListener> listeners = new ArrayList<RetryListener>();
+
+    private RetryerBuilder() {
+    }
+
+    public static <V> RetryerBuilder<V> newBuilder() {
+        return new RetryerBuilder<V>();
+    }
+
+    /**
+     * 添加监听器，每次attempt结束后按添加顺序回调
+     */
+    public RetryerBuilder<V> withRetryListener(@Nonnull RetryListener listener) {
+        Preconditions.checkNotNull(listener, "listener may not be null");
+        listeners.add(listener);
+        return this;
+    }
+
+    public RetryerBuilder<V> withWaitStrategy(@Nonnull WaitStrategy waitStrategy) throws IllegalStateException {
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        Preconditions.checkState(this.waitStrategy == null, "a wait strategy has already been set %s", this.waitStrategy);
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
+    public RetryerBuilder<V> withStopStrategy(@Nonnull StopStrategy stopStrategy) throws IllegalStateException {
+        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        Preconditions.checkState(this.stopStrategy == null, "a stop strategy has already been set %s", this.stopStrategy);
+        this.stopStrategy = stopStrategy;
+        return this;
+    }
+
+    public RetryerBuilder<V> withBlockStrategy(@Nonnull BlockStrategy blockStrategy) throws IllegalStateException {
+        Preconditions.checkNotNull(blockStrategy, "blockStrategy may not be null");
+        Preconditions.checkState(this.blockStrategy == null, "a block strategy has already been set %s", this.blockStrategy);
+        this.blockStrategy = blockStrategy;
+        return this;
+    }
+
+    /**
+     * 与 guava-retrying 相同，重复设置时替换之前的时间限制器
+     */
+    public RetryerBuilder<V> withAttemptTimeLimiter(@Nonnull AttemptTimeLimiter<V> attemptTimeLimiter) {
+        Preconditions.checkNotNull(attemptTimeLimiter, "attemptTimeLimiter may not be null");
+        this.attemptTimeLimiter = attemptTimeLimiter;
+        return this;
+    }
+
+    /**
+     * 重试预算：停止策略允许重试时，还需从预算中取得重试机会
+     */
+    public RetryerBuilder<V> withRetryBudget(@Nonnull RetryBudget retryBudget) throws IllegalStateException {
+        Preconditions.checkNotNull(retryBudget, "retryBudget may not be null");
+        Preconditions.checkState(this.retryBudget == null, "a retry budget has already been set %s", this.retryBudget);
+        this.retryBudget = retryBudget;
+        return this;
+    }
+
+    /**
+     * 追踪每次调用、attempt与等待，见 {@link RetryTracer}；默认不追踪。
+     * 只能设置一次，多个 tracer 用 {@link com.github.rholder.retry.tracing.RetryTracers#composite(RetryTracer...)} 组合
+     */
+    public RetryerBuilder<V> withRetryTracer(@Nonnull RetryTracer tracer) throws IllegalStateException {
+        Preconditions.checkNotNull(tracer, "tracer may not be null");
+        Preconditions.checkState(this.tracer == null, "a tracer has already been set %s", this.tracer);
+        this.tracer = tracer;
+        return this;
+    }
+
+    /**
+     * 每次调用保留最近 capacity 次attempt的历史，策略可通过 {@link DetailedAttempt#getHistory()} 读取
+     */
+    public RetryerBuilder<V> withAttemptHistory(int capacity) throws IllegalStateException {
+        Preconditions.checkArgument(capacity > 0, "capacity must be > 0 but is %d", capacity);
+        Preconditions.checkState(attemptHistoryCapacity == 0, "an attempt history has already been set %s", attemptHistoryCapacity);
+        this.attemptHistoryCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * 使用时间表作为等待策略；时间表设置了终止attempt时同时作为停止策略
+     * @throws IllegalArgumentException 时间表包含超时，需使用 {@link #withAttemptSchedule(AttemptSchedule, ExecutorService)}
+     */
+    public RetryerBuilder<V> withAttemptSchedule(@Nonnull AttemptSchedule schedule) throws IllegalStateException, IllegalArgumentException {
+        Preconditions.checkNotNull(schedule, "schedule may not be null");
+        Preconditions.checkArgument(!schedule.hasTimeouts(), "a schedule with timeouts requires an ExecutorService");
+        withWaitStrategy(schedule);
+        if (schedule.getTerminalAttempt() > 0) {
+            withStopStrategy(schedule);
+        }
+        return this;
+    }
+
+    /**
+     * 使用时间表作为等待、停止策略，并按时间表限制各次attempt的执行时间，见 {@link AttemptTimeLimiters#scheduledTimeLimit}
+     */
+    public RetryerBuilder<V> withAttemptSchedule(@Nonnull AttemptSchedule schedule, @Nonnull ExecutorService executorService) throws IllegalStateException {
+        Preconditions.checkNotNull(schedule, "schedule may not be null");
+        Preconditions.checkState(attemptTimeLimiter == null, "an attempt time limiter has already been set %s", attemptTimeLimiter);
+        withWaitStrategy(schedule);
+        if (schedule.getTerminalAttempt() > 0) {
+            withStopStrategy(schedule);
+        }
+        this.attemptTimeLimiter = AttemptTimeLimiters.scheduledTimeLimit(schedule, executorService);
+        return this;
+    }
+
+    /**
+     * 计算 {@link Attempt#getDelaySinceFirstAttempt()} 的时钟，单位纳秒，默认 {@link System#nanoTime()}；测试时可替换为手动时钟。
+     * 若时钟同时是 {@link BlockStrategy}(如 guava-retrying 的 ManualTicker)且未设置阻塞策略，则同时作为阻塞策略
+     */
+    public RetryerBuilder<V> withNanoClock(@Nonnull LongSupplier nanoClock) throws IllegalStateException {
+        Preconditions.checkNotNull(nanoClock, "nanoClock may not be null");
+        Preconditions.checkState(this.nanoClock == null, "a nano clock has already been set %s", this.nanoClock);
+        this.nanoClock = nanoClock;
+        return this;
+    }
+
+    public RetryerBuilder<V> retryIfException() {
+        return retryIf(new ExceptionClassPredicate<V>(Exception.class));
+    }
+
+    public RetryerBuilder<V> retryIfRuntimeException() {
+        return retryIf(new ExceptionClassPredicate<V>(RuntimeException.class));
+    }
+
+    public RetryerBuilder<V> retryIfExceptionOfType(@Nonnull Class<? extends Throwable> exceptionClass) {
+        Preconditions.checkNotNull(exceptionClass, "exceptionClass may not be null");
+        return retryIf(new ExceptionClassPredicate<V>(exceptionClass));
+    }
+
+    public RetryerBuilder<V> retryIfException(@Nonnull Predicate<Throwable> exceptionPredicate) {
+        Preconditions.checkNotNull(exceptionPredicate, "exceptionPredicate may not be null");
+        return retryIf(new ExceptionPredicate<V>(exceptionPredicate));
+    }
+
+    public RetryerBuilder<V> retryIfResult(@Nonnull Predicate<V> resultPredicate) {
+        Preconditions.checkNotNull(resultPredicate, "resultPredicate may not be null");
+        return retryIf(new ResultPredicate<V>(resultPredicate));
+    }
+
+    /**
+     * attempt命中 predicate 时重试，与其他 retryIf 条件是或的关系
+     */
+    public RetryerBuilder<V> retryIf(@Nonnull Predicate<Attempt<V>> predicate) {
+        Preconditions.checkNotNull(predicate, "predicate may not be null");
+        rejectionPredicate = rejectionPredicate.or(predicate);
+        return this;
+    }
+
+    public Retryer<V> build() throws IllegalStateException {
+        return create(stopStrategy, waitStrategy, attemptTimeLimiter);
+    }
+
+    /**
+     * 使用外部提供的停止、等待策略与时间限制器创建，如按热更新的重试策略重建 retryer
+     * @throws IllegalStateException 本 builder 已设置了停止策略、等待策略或时间限制器
+     */
+    public Retryer<V> build(@Nonnull StopStrategy stopStrategy, @Nonnull WaitStrategy waitStrategy,
+                            @Nonnull AttemptTimeLimiter<V> attemptTimeLimiter) throws IllegalStateException {
+        Preconditions.checkNotNull(stopStrategy, "stopStrategy may not be null");
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        Preconditions.checkNotNull(attemptTimeLimiter, "attemptTimeLimiter may not be null");
+        Preconditions.checkState(this.stopStrategy == null && this.waitStrategy == null && this.attemptTimeLimiter == null,
+                "stop strategy, wait strategy and attempt time limiter are provided externally");
+        return create(stopStrategy, waitStrategy, attemptTimeLimiter);
+    }
+
+    /**
+     * @return 配置相同的新 builder，之后对两者的修改互不影响；可作为模板反复创建 retryer
+     */
+    public RetryerBuilder<V> copy() {
+        RetryerBuilder<V> copy = new RetryerBuilder<V>();
+        copy.attemptTimeLimiter = attemptTimeLimiter;
+        copy.stopStrategy = stopStrategy;
+        copy.waitStrategy = waitStrategy;
+        copy.blockStrategy = blockStrategy;
+        copy.nanoClock = nanoClock;
+        copy.retryBudget = retryBudget;
+        copy.attemptHistoryCapacity = attemptHistoryCapacity;
+        copy.tracer = tracer;
+        copy.rejectionPredicate = rejectionPredicate;
+        copy.listeners = new ArrayList<RetryListener>(listeners);
+        return copy;
+    }
+
+    /*
+     * 以下方法供使用本 builder 的配置、但自行执行和调度attempt的重试器(如 guava-retrying 的异步、调度类重试器)取得生效的配置
+     */
+
+    /**
+     * @return 生效的停止策略：未设置时从不停止，附加重试预算
+     * @throws IllegalStateException 停止策略依赖attempt历史，这类重试器不记录历史
+     */
+    public StopStrategy buildStopStrategy() throws IllegalStateException {
+        return effectiveStopStrategy(stopStrategy, 0);
+    }
+
+    /**
+     * @return 生效的等待策略：未设置时不等待，确定性策略编译为时间表
+     */
+    public WaitStrategy buildWaitStrategy() {
+        return effectiveWaitStrategy(waitStrategy, stopStrategy);
+    }
+
+    /**
+     * @return 生效的阻塞策略：未设置时若时钟同时是阻塞策略则使用时钟，否则 Thread.sleep
+     */
+    public BlockStrategy buildBlockStrategy() {
+        if (blockStrategy != null) {
+            return blockStrategy;
+        }
+        return nanoClock instanceof BlockStrategy ? (BlockStrategy) nanoClock : BlockStrategies.threadSleepStrategy();
+    }
+
+    /**
+     * @return 所有 retryIf 条件的组合，命中时重试
+     */
+    public Predicate<Attempt<V>> buildRejectionPredicate() {
+        return rejectionPredicate;
+    }
+
+    /**
+     * @return 生效的监听器，设置了重试预算时包含向预算存入的监听器
+     */
+    public List<RetryListener> buildListeners() {
+        if (retryBudget == null) {
+            return new ArrayList<RetryListener>(listeners);
+        }
+        List<RetryListener> theListeners = new ArrayList<RetryListener>(listeners);
+        theListeners.add(RetryBudgets.depositListener(retryBudget));
+        return theListeners;
+    }
+
+    /**
+     * 时间限制器、追踪与attempt历史只由 {@link Retryer} 实现，不经过它执行attempt时设置了这些配置报错而不是静默忽略
+     * @param target 创建的重试器名称，用于错误信息
+     */
+    public void checkRetryerOnly(String target) throws IllegalStateException {
+        Preconditions.checkState(attemptTimeLimiter == null, "an AttemptTimeLimiter is not supported by %s", target);
+        Preconditions.checkState(tracer == null, "a RetryTracer is not supported by %s", target);
+        Preconditions.checkState(attemptHistoryCapacity == 0, "an attempt history is not supported by %s", target);
+    }
+
+    private Retryer<V> create(@Nullable StopStrategy stopStrategy, @Nullable WaitStrategy waitStrategy,
+                              @Nullable AttemptTimeLimiter<V> attemptTimeLimiter) throws IllegalStateException {
+        return new Retryer<V>(
+                attemptTimeLimiter == null ? AttemptTimeLimiters.<V>noTimeLimit() : attemptTimeLimiter,
+                effectiveStopStrategy(stopStrategy, attemptHistoryCapacity),
+                effectiveWaitStrategy(waitStrategy, stopStrategy),
+                buildBlockStrategy(),
+                rejectionPredicate,
+                nanoClock == null ? SYSTEM_NANO_CLOCK : nanoClock,
+                buildListeners(),
+                attemptHistoryCapacity,
+                tracer);
+    }
+
+    /**
+     * 未设置时从不停止；检查历史容量并附加重试预算
+     * @param historyCapacity 创建的重试器提供的历史容量
+     */
+    private StopStrategy effectiveStopStrategy(@Nullable StopStrategy stopStrategy, int historyCapacity) throws IllegalStateException {
+        StopStrategy theStopStrategy = stopStrategy == null ? StopStrategies.neverStop() : stopStrategy;
+        checkHistoryCapacity(theStopStrategy, historyCapacity);
+        return retryBudget == null ? theStopStrategy : RetryBudgets.stopStrategy(retryBudget, theStopStrategy);
+    }
+
+    /**
+     * 未设置时不等待；确定性等待策略编译为时间表，停止策略依赖attempt历史时保持原策略。
+     * stopAfterAttempt 只编译会用到的项，其他停止策略编译前 {@link #COMPILED_ATTEMPTS} 项
+     */
+    private static WaitStrategy effectiveWaitStrategy(@Nullable WaitStrategy waitStrategy, @Nullable StopStrategy stopStrategy) {
+        if (waitStrategy == null) {
+            return WaitStrategies.noWait();
+        }
+        if (!(waitStrategy instanceof DeterministicWaitStrategy) || waitStrategy instanceof AttemptSchedule
+                || stopStrategy instanceof HistoryDependentStopStrategy) {
+            return waitStrategy;
+        }
+        int maxAttemptNumber = stopStrategy == null ? 0 : StopStrategies.getMaxAttemptNumber(stopStrategy);
+        if (maxAttemptNumber == 1) {
+            return waitStrategy;
+        }
+        int attempts = maxAttemptNumber > 1 ? Math.min(maxAttemptNumber - 1, MAX_COMPILED_ATTEMPTS) : COMPILED_ATTEMPTS;
+        return AttemptSchedules.compile(waitStrategy, attempts);
+    }
+
+    /**
+     * 历史容量不足时依赖历史的停止策略永远不会停止，在创建时报错
+     * @param capacity 创建的重试器提供的历史容量，异步与调度类重试器不记录历史
+     */
+    private static void checkHistoryCapacity(StopStrategy stopStrategy, int capacity) throws IllegalStateException {
+        if (stopStrategy instanceof HistoryDependentStopStrategy) {
+            int required = ((HistoryDependentStopStrategy) stopStrategy).getRequiredHistoryCapacity();
+            Preconditions.checkState(required <= capacity,
+                    "the stop strategy requires an attempt history of at least %s but the capacity is %s", required, capacity);
+        }
+    }
+
+    @Immutable
+    private static final class ExceptionClassPredicate<V> implements Predicate<Attempt<V>> {
+        private final Class<? extends Throwable> exceptionClass;
+
+        ExceptionClassPredicate(Class<? extends Throwable> exceptionClass) {
+            this.exceptionClass = exceptionClass;
+        }
+
+        public boolean test(Attempt<V> attempt) {
+            return attempt.hasException() && exceptionClass.isAssignableFrom(attempt.getExceptionCause().getClass());
+        }
+    }
+
+    @Immutable
+    private static final class ResultPredicate<V> implements Predicate<Attempt<V>> {
+        private final Predicate<V> delegate;
+
+        ResultPredicate(Predicate<V> delegate) {
+            this.delegate = delegate;
+        }
+
+        public boolean test(Attempt<V> attempt) {
+            return attempt.hasResult() && delegate.test(attempt.getResult());
+        }
+    }
+
+    @Immutable
+    private static final class ExceptionPredicate<V> implements Predicate<Attempt<V>> {
+        private final Predicate<Throwable> delegate;
+
+        ExceptionPredicate(Predicate<Throwable> delegate) {
+            this.delegate = delegate;
+        }
+
+        public boolean test(Attempt<V> attempt) {
+            return attempt.hasException() && delegate.test(attempt.getExceptionCause());
+        }
+    }
+}
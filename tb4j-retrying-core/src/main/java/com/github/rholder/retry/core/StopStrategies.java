@@ -1,64 +1,42 @@
-package com.github.rholder.retry.Strategy.factory;
+package com.github.rholder.retry.core;
 
 import com.github.rholder.retry.Attempt;
 import com.github.rholder.retry.Strategy.StopStrategy;
-import com.google.common.base.Preconditions;
+
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
 import java.util.concurrent.TimeUnit;
 
 /**
- * Function: factory for  {@link StopStrategy}实例的工厂类
+ * Function: 不依赖 Guava 的 {@link StopStrategy} 工厂类，guava-retrying 的同名工厂返回相同的实现
  *
  * @author liujianlong[liujl24@yusys.com.cn]
  * @description:
- * @date 2022/4/18 14:05:42
- * @study final 修饰类表类不可被继承，用于不可拓展的类上
+ * @date 2026/10/20 11:41:25
  */
 public final class StopStrategies {
 
-    private static final StopStrategy NEVER_STOP = new NeverStopStrategy();;
+    private static final StopStrategy NEVER_STOP = new NeverStopStrategy();
 
-    /**
-     * @study 工厂方法私有构造，统一对象创建入口
-     */
-    private StopStrategies(){}
+    private StopStrategies() {
+    }
 
     /**
-     * 返回重不停止策略
-     * @return
-     * @study 不可变的策略直接声明static返回
+     * 从不停止
      */
-    public static StopStrategy neverStop(){
+    public static StopStrategy neverStop() {
         return NEVER_STOP;
     }
 
     /**
-     * 返回一个失败N次后停止策略
-     * @param attemptNumber
-     * @return
+     * 第 attemptNumber 次attempt失败后停止
      */
     public static StopStrategy stopAfterAttempt(int attemptNumber) {
         return new StopAfterAttemptStrategy(attemptNumber);
     }
 
     /**
-     * 返回一个给定延迟后停止策略
-     * @param delayInMillis
-     * @return
-     * @deprecated Use {@link #stopAfterDelay(long, TimeUnit)} instead.
-     */
-    @Deprecated
-    public static StopStrategy stopAfterDelay(long delayInMillis){
-        return stopAfterDelay(delayInMillis,TimeUnit.MILLISECONDS);
-    }
-
-    /**
-     * 返回一个给定延迟后停止策略
-     * @param duration
-     * @param timeUnit
-     * @return
-     * @Study todo
+     * 第一次attempt开始后经过 duration 停止
      */
     public static StopStrategy stopAfterDelay(long duration, @Nonnull TimeUnit timeUnit) {
         Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
@@ -66,20 +44,21 @@ public final class StopStrategies {
     }
 
     /**
-     * 从不停止
+     * @return stopAfterAttempt 的最大attempt数，其他停止策略返回 0
      */
+    static int getMaxAttemptNumber(StopStrategy stopStrategy) {
+        return stopStrategy instanceof StopAfterAttemptStrategy ? ((StopAfterAttemptStrategy) stopStrategy).maxAttemptNumber : 0;
+    }
+
     @Immutable
-    private static final class NeverStopStrategy implements StopStrategy{
+    private static final class NeverStopStrategy implements StopStrategy {
         public boolean shouldStop(Attempt failedAttempt) {
             return false;
         }
     }
 
-    /**
-     * 尝试次数超过最大次数停止
-     */
     @Immutable
-    private static final class StopAfterAttemptStrategy implements StopStrategy{
+    private static final class StopAfterAttemptStrategy implements StopStrategy {
         private final int maxAttemptNumber;
 
         public StopAfterAttemptStrategy(int maxAttemptNumber) {
@@ -92,12 +71,8 @@ public final class StopStrategies {
         }
     }
 
-    /**
-     * 流程超时停止
-     */
     @Immutable
-    private static final class StopAfterDelayStrategy implements StopStrategy{
-
+    private static final class StopAfterDelayStrategy implements StopStrategy {
         private final long maxDelay;
 
         public StopAfterDelayStrategy(long maxDelay) {
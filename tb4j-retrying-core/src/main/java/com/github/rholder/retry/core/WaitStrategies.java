@@ -1,49 +1,49 @@
-package com.github.rholder.retry.Strategy.factory;
+package com.github.rholder.retry.core;
 
 import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
 import com.github.rholder.retry.Strategy.WaitStrategy;
-import com.google.common.base.Function;
-import com.google.common.base.Preconditions;
-import com.google.common.collect.Lists;
 
 import javax.annotation.Nonnull;
 import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
- * Function: factory for {@link WaitStrategy}
+ * Function: 不依赖 Guava 的 {@link WaitStrategy} 工厂类，guava-retrying 的同名工厂返回相同的实现
  *
  * @author liujianlong[liujl24@yusys.com.cn]
  * @description:
- * @date 2022/4/18 14:53:33
+ * @date 2026/10/20 11:47:52
  */
 public final class WaitStrategies {
 
     private static final WaitStrategy NO_WAIT_STRATEGY = new FixedWaitStrategy(0L);
+    private static final Random RANDOM = new Random();
 
     private WaitStrategies() {
     }
 
     /**
      * 重试前不等待
-     * @return
      */
-    public static WaitStrategy noWait(){
+    public static WaitStrategy noWait() {
         return NO_WAIT_STRATEGY;
     }
 
     /**
      * 固定等待时长策略
      */
-    public static WaitStrategy fixedWait(long sleepTime, @Nonnull TimeUnit timeUnit) throws IllegalStateException {
+    public static WaitStrategy fixedWait(long sleepTime, @Nonnull TimeUnit timeUnit) {
         Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
         return new FixedWaitStrategy(timeUnit.toMillis(sleepTime));
     }
 
     /**
-     * 随机时长等待策略
+     * 在 [0, maximumTime) 中随机等待
      */
     public static WaitStrategy randomWait(long maximumTime, @Nonnull TimeUnit timeUnit) {
         Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
@@ -51,7 +51,7 @@ public final class WaitStrategies {
     }
 
     /**
-     * 随机时长等待策略
+     * 在 [minimumTime, maximumTime) 中随机等待
      */
     public static WaitStrategy randomWait(long minimumTime,
                                           @Nonnull TimeUnit minimumTimeUnit,
@@ -59,13 +59,11 @@ public final class WaitStrategies {
                                           @Nonnull TimeUnit maximumTimeUnit) {
         Preconditions.checkNotNull(minimumTimeUnit, "The minimum time unit may not be null");
         Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
-        return new RandomWaitStrategy(minimumTimeUnit.toMillis(minimumTime),
-                maximumTimeUnit.toMillis(maximumTime));
+        return new RandomWaitStrategy(minimumTimeUnit.toMillis(minimumTime), maximumTimeUnit.toMillis(maximumTime));
     }
 
-
     /**
-     * 递增等待策略
+     * 递增等待策略：initialSleepTime 起每次增加 increment
      */
     public static WaitStrategy incrementingWait(long initialSleepTime,
                                                 @Nonnull TimeUnit initialSleepTimeUnit,
@@ -78,58 +76,71 @@ public final class WaitStrategies {
     }
 
     /**
-     * 指数等待策略
+     * 指数等待策略：multiplier * 2^attemptNumber 毫秒，不超过 maximumTime
      */
-    public static WaitStrategy exponentialWait() {
-        return new ExponentialWaitStrategy(1, Long.MAX_VALUE);
-    }
-
-    public static WaitStrategy exponentialWait(long maximumTime,
-                                               @Nonnull TimeUnit maximumTimeUnit) {
+    public static WaitStrategy exponentialWait(long multiplier, long maximumTime, @Nonnull TimeUnit maximumTimeUnit) {
         Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
-        return new ExponentialWaitStrategy(1, maximumTimeUnit.toMillis(maximumTime));
+        return new ExponentialWaitStrategy(multiplier, maximumTimeUnit.toMillis(maximumTime));
     }
 
-    public static WaitStrategy exponentialWait(long multiplier,
-                                               long maximumTime,
-                                               @Nonnull TimeUnit maximumTimeUnit) {
+    /**
+     * 斐波那契数列等待策略：multiplier * fib(attemptNumber) 毫秒，不超过 maximumTime
+     */
+    public static WaitStrategy fibonacciWait(long multiplier, long maximumTime, @Nonnull TimeUnit maximumTimeUnit) {
         Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
-        return new ExponentialWaitStrategy(multiplier, maximumTimeUnit.toMillis(maximumTime));
+        return new FibonacciWaitStrategy(multiplier, maximumTimeUnit.toMillis(maximumTime));
     }
 
+    /**
+     * 复合等待策略，各策略等待时长之和，溢出时取 {@link Long#MAX_VALUE}；
+     * 全部为 {@link DeterministicWaitStrategy} 时结果同样是确定性的
+     */
+    public static WaitStrategy join(WaitStrategy... waitStrategies) {
+        Preconditions.checkState(waitStrategies.length > 0, "Must have at least one wait strategy");
+        List<WaitStrategy> waitStrategyList = Arrays.asList(waitStrategies.clone());
+        Preconditions.checkState(!waitStrategyList.contains(null), "Cannot have a null wait strategy");
+        for (WaitStrategy waitStrategy : waitStrategyList) {
+            if (!(waitStrategy instanceof DeterministicWaitStrategy)) {
+                return new CompositeWaitStrategy(waitStrategyList);
+            }
+        }
+        return new DeterministicCompositeWaitStrategy(waitStrategyList);
+    }
 
     /**
-     * 斐波那契数列等待策略
+     * 全抖动：在 [0, delegate] 中随机等待，随机数取自 random；以固定种子的 random 创建时抖动序列可复现
      */
-    public static WaitStrategy fibonacciWait() {
-        return new FibonacciWaitStrategy(1, Long.MAX_VALUE);
+    public static WaitStrategy fullJitter(@Nonnull WaitStrategy delegate, @Nonnull Random random) {
+        Preconditions.checkNotNull(delegate, "delegate may not be null");
+        Preconditions.checkNotNull(random, "random may not be null");
+        return new JitterWaitStrategy(delegate, 0.0d, random);
     }
 
-    public static WaitStrategy fibonacciWait(long maximumTime,
-                                             @Nonnull TimeUnit maximumTimeUnit) {
-        Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
-        return new FibonacciWaitStrategy(1, maximumTimeUnit.toMillis(maximumTime));
+    /**
+     * 全抖动，随机数取自进程共享的随机数
+     */
+    public static WaitStrategy fullJitter(@Nonnull WaitStrategy delegate) {
+        return fullJitter(delegate, RANDOM);
     }
 
-    public static WaitStrategy fibonacciWait(long multiplier,
-                                             long maximumTime,
-                                             @Nonnull TimeUnit maximumTimeUnit) {
-        Preconditions.checkNotNull(maximumTimeUnit, "The maximum time unit may not be null");
-        return new FibonacciWaitStrategy(multiplier, maximumTimeUnit.toMillis(maximumTime));
+    /**
+     * 等值抖动：在 [delegate / 2, delegate] 中随机等待，随机数取自 random
+     */
+    public static WaitStrategy equalJitter(@Nonnull WaitStrategy delegate, @Nonnull Random random) {
+        Preconditions.checkNotNull(delegate, "delegate may not be null");
+        Preconditions.checkNotNull(random, "random may not be null");
+        return new JitterWaitStrategy(delegate, 0.5d, random);
     }
 
     /**
-     * 符合等待策略
+     * 等值抖动，随机数取自进程共享的随机数
      */
-    public static WaitStrategy join(WaitStrategy... waitStrategies) {
-        Preconditions.checkState(waitStrategies.length > 0, "Must have at least one wait strategy");
-        List<WaitStrategy> waitStrategyList = Lists.newArrayList(waitStrategies);
-        Preconditions.checkState(!waitStrategyList.contains(null), "Cannot have a null wait strategy");
-        return new CompositeWaitStrategy(waitStrategyList);
+    public static WaitStrategy equalJitter(@Nonnull WaitStrategy delegate) {
+        return equalJitter(delegate, RANDOM);
     }
 
     /**
-     * 异常等待策略
+     * 异常等待策略：最后一次attempt抛出 exceptionClass(或其子类)时等待 function 返回的毫秒数，否则不等待
      */
     public static <T extends Throwable> WaitStrategy exceptionWait(@Nonnull Class<T> exceptionClass,
                                                                    @Nonnull Function<T, Long> function) {
@@ -138,13 +149,8 @@ public final class WaitStrategies {
         return new ExceptionWaitStrategy<T>(exceptionClass, function);
     }
 
-
-    /**
-     * 固定等待时长策略
-     * @Study @Immutable声明注解，无实际功能，声明类是线程安全，不变的
-     */
     @Immutable
-    private static final class FixedWaitStrategy implements WaitStrategy {
+    private static final class FixedWaitStrategy implements DeterministicWaitStrategy {
         private final long sleepTime;
 
         public FixedWaitStrategy(long sleepTime) {
@@ -155,16 +161,10 @@ public final class WaitStrategies {
         public long computeSleepTime(Attempt failedAttempt) {
             return sleepTime;
         }
-
     }
 
-    /**
-     * 在[minimum,maximum] 中产生一个随机时长等待策略
-     */
     @Immutable
-    private static final class RandomWaitStrategy implements WaitStrategy{
-
-        private static final Random RANDOM = new Random();
+    private static final class RandomWaitStrategy implements WaitStrategy {
         private final long minimum;
         private final long maximum;
 
@@ -181,12 +181,8 @@ public final class WaitStrategies {
         }
     }
 
-    /**
-     * 递增等待策略
-     * @eg: IncrementingWaitStrategy(10, 10), 则重试等待时长： 10，20，30......
-     */
     @Immutable
-    private static final class IncrementingWaitStrategy implements WaitStrategy{
+    private static final class IncrementingWaitStrategy implements DeterministicWaitStrategy {
         private final long initialSleepTime;
         private final long increment;
 
@@ -202,17 +198,12 @@ public final class WaitStrategies {
         }
     }
 
-    /**
-     * 指数等待策略
-     * 乘数 multiplier * 重试次数的平方，并且限定最大值
-     */
     @Immutable
-    private static final class ExponentialWaitStrategy implements WaitStrategy {
+    private static final class ExponentialWaitStrategy implements DeterministicWaitStrategy {
         private final long multiplier;
         private final long maximumWait;
 
-        public ExponentialWaitStrategy(long multiplier,
-                                       long maximumWait) {
+        public ExponentialWaitStrategy(long multiplier, long maximumWait) {
             Preconditions.checkArgument(multiplier > 0L, "multiplier must be > 0 but is %d", multiplier);
             Preconditions.checkArgument(maximumWait >= 0L, "maximumWait must be >= 0 but is %d", maximumWait);
             Preconditions.checkArgument(multiplier < maximumWait, "multiplier must be < maximumWait but is %d", multiplier);
@@ -230,11 +221,8 @@ public final class WaitStrategies {
         }
     }
 
-    /**
-     * 斐波那契数列等待策略
-     */
     @Immutable
-    private static final class FibonacciWaitStrategy implements WaitStrategy {
+    private static final class FibonacciWaitStrategy implements DeterministicWaitStrategy {
         private final long multiplier;
         private final long maximumWait;
 
@@ -247,13 +235,10 @@ public final class WaitStrategies {
         }
 
         public long computeSleepTime(Attempt failedAttempt) {
-            long fib = fib(failedAttempt.getAttemptNumber());
-            long result = multiplier * fib;
-
+            long result = multiplier * fib(failedAttempt.getAttemptNumber());
             if (result > maximumWait || result < 0L) {
                 result = maximumWait;
             }
-
             return result >= 0L ? result : 0L;
         }
 
@@ -275,43 +260,71 @@ public final class WaitStrategies {
         }
     }
 
-
-    /**
-     * 复合等待策略
-     */
     @Immutable
-    private static final class CompositeWaitStrategy implements WaitStrategy {
-        private final List<WaitStrategy> waitStrategies;
+    private static class CompositeWaitStrategy implements WaitStrategy {
+        private final WaitStrategy[] waitStrategies;
 
         public CompositeWaitStrategy(List<WaitStrategy> waitStrategies) {
-            Preconditions.checkState(!waitStrategies.isEmpty(), "Need at least one wait strategy");
-            this.waitStrategies = waitStrategies;
+            this.waitStrategies = waitStrategies.toArray(new WaitStrategy[waitStrategies.size()]);
         }
 
         public long computeSleepTime(Attempt failedAttempt) {
             long waitTime = 0L;
             for (WaitStrategy waitStrategy : waitStrategies) {
                 waitTime += waitStrategy.computeSleepTime(failedAttempt);
+                if (waitTime < 0L) {
+                    return Long.MAX_VALUE;
+                }
             }
             return waitTime;
         }
     }
 
+    @Immutable
+    private static final class DeterministicCompositeWaitStrategy extends CompositeWaitStrategy implements DeterministicWaitStrategy {
+
+        public DeterministicCompositeWaitStrategy(List<WaitStrategy> waitStrategies) {
+            super(waitStrategies);
+        }
+    }
+
     /**
-     * 异常等待策略
-     * @param <T>
+     * 在 [delegate * floor, delegate] 中随机等待
      */
+    @Immutable
+    private static final class JitterWaitStrategy implements WaitStrategy {
+        private final WaitStrategy delegate;
+        private final double floor;
+        private final Random random;
+
+        public JitterWaitStrategy(WaitStrategy delegate, double floor, Random random) {
+            this.delegate = delegate;
+            this.floor = floor;
+            this.random = random;
+        }
+
+        public long computeSleepTime(Attempt failedAttempt) {
+            long sleepTime = delegate.computeSleepTime(failedAttempt);
+            long minimum = (long) (sleepTime * floor);
+            long range = sleepTime - minimum;
+            if (range <= 0L) {
+                return sleepTime;
+            }
+            return Math.min(sleepTime, minimum + (long) (random.nextDouble() * ((double) range + 1.0d)));
+        }
+    }
+
     @Immutable
     private static final class ExceptionWaitStrategy<T extends Throwable> implements WaitStrategy {
         private final Class<T> exceptionClass;
         private final Function<T, Long> function;
 
-        public ExceptionWaitStrategy(@Nonnull Class<T> exceptionClass, @Nonnull Function<T, Long> function) {
+        public ExceptionWaitStrategy(Class<T> exceptionClass, Function<T, Long> function) {
             this.exceptionClass = exceptionClass;
             this.function = function;
         }
 
-        @SuppressWarnings({"ThrowableResultOfMethodCallIgnored", "ConstantConditions", "unchecked"})
+        @SuppressWarnings("unchecked")
         public long computeSleepTime(Attempt lastAttempt) {
             if (lastAttempt.hasException()) {
                 Throwable cause = lastAttempt.getExceptionCause();
@@ -322,5 +335,4 @@ public final class WaitStrategies {
             return 0L;
         }
     }
-
 }
@@ -0,0 +1,77 @@
+package com.github.rholder.retry.exception;
+
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.RetryStats;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Objects;
+
+/**
+ * Function:
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2022/4/18 15:38:02
+ */
+@Immutable
+public final class RetryException extends Exception{
+
+    private final int numberOfFailedAttempts;
+    private final Attempt<?> lastFailedAttempt;
+    private final RetryStats stats;
+
+    /**
+     * 默认信息在 {@link #getMessage()} 时才拼接，重试风暴中大量抛出时不必为此付出代价
+     */
+    public RetryException(int numberOfFailedAttempts, @Nonnull Attempt<?> lastFailedAttempt) {
+        this(null, numberOfFailedAttempts, lastFailedAttempt);
+    }
+
+    /**
+     * @param stats 整个调用的耗时分解，会附加在默认信息之后
+     */
+    public RetryException(int numberOfFailedAttempts, @Nonnull Attempt<?> lastFailedAttempt, @Nullable RetryStats stats) {
+        this(null, numberOfFailedAttempts, lastFailedAttempt, stats);
+    }
+
+    public RetryException(String message, int numberOfFailedAttempts, Attempt<?> lastFailedAttempt) {
+        this(message, numberOfFailedAttempts, lastFailedAttempt, null);
+    }
+
+    private RetryException(String message, int numberOfFailedAttempts, Attempt<?> lastFailedAttempt, RetryStats stats) {
+        super(message, Objects.requireNonNull(lastFailedAttempt, "Last attempt was null").hasException() ? lastFailedAttempt.getExceptionCause() : null);
+        this.numberOfFailedAttempts = numberOfFailedAttempts;
+        this.lastFailedAttempt = lastFailedAttempt;
+        this.stats = stats;
+    }
+
+    @Override
+    public String getMessage() {
+        String message = super.getMessage();
+        if (message != null) {
+            return message;
+        }
+        message = "Retrying failed to complete successfully after " + numberOfFailedAttempts + " attempts.";
+        return stats == null ? message : message + " [" + stats + "]";
+    }
+
+    public int getNumberOfFailedAttempts() {
+        return numberOfFailedAttempts;
+    }
+
+    public Attempt<?> getLastFailedAttempt() {
+        return lastFailedAttempt;
+    }
+
+    /**
+     * @return 整个调用的耗时分解，不是由重试器抛出时可能为 null
+     */
+    @Nullable
+    public RetryStats getStats() {
+        return stats;
+    }
+}
+
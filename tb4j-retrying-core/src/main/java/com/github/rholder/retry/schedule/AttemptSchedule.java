@@ -0,0 +1,167 @@
+package com.github.rholder.retry.schedule;
+
+import com.github.rholder.retry.Attempt;
+import com.github.rholder.retry.Attempts;
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.StopStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: 预先计算好的重试时间表：每次attempt失败后的等待时长、可选的单次attempt超时以及终止的attempt序号
+ * 计算等待只是一次数组读取，整张表可以在启动时打印和断言。通过 {@link AttemptSchedules} 创建。
+ *
+ * 同时是等待策略和停止策略；超出表长度的attempt，等待时长交给编译来源的策略计算，显式给出的表则沿用最后一项。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 18:03:45
+ */
+@Immutable
+public final class AttemptSchedule implements DeterministicWaitStrategy, StopStrategy {
+
+    private static final long[] NO_TIMEOUTS = new long[0];
+
+    /**
+     * waits[i] 为第 i + 1 次attempt失败后的等待，毫秒
+     */
+    private final long[] waits;
+    private final WaitStrategy overflow;
+    private final long[] timeouts;
+    private final int terminalAttempt;
+
+    AttemptSchedule(long[] waits, @Nullable WaitStrategy overflow, long[] timeouts, int terminalAttempt) {
+        Preconditions.checkArgument(waits.length > 0, "a schedule needs at least one wait");
+        this.waits = waits;
+        this.overflow = overflow;
+        this.timeouts = timeouts;
+        this.terminalAttempt = terminalAttempt;
+    }
+
+    AttemptSchedule(long[] waits, @Nullable WaitStrategy overflow) {
+        this(waits, overflow, NO_TIMEOUTS, 0);
+    }
+
+    public long computeSleepTime(Attempt failedAttempt) {
+        long attemptNumber = failedAttempt.getAttemptNumber();
+        if (attemptNumber <= waits.length) {
+            return waits[(int) attemptNumber - 1];
+        }
+        return overflow == null ? waits[waits.length - 1] : overflow.computeSleepTime(failedAttempt);
+    }
+
+    public boolean shouldStop(Attempt failedAttempt) {
+        return terminalAttempt > 0 && failedAttempt.getAttemptNumber() >= terminalAttempt;
+    }
+
+    /**
+     * @return 第 attemptNumber 次attempt失败后的等待，毫秒
+     */
+    public long getWaitMillis(long attemptNumber) {
+        Preconditions.checkArgument(attemptNumber >= 1L, "attemptNumber must be >= 1 but is %d", attemptNumber);
+        return computeSleepTime(Attempts.newResultAttempt(null, attemptNumber, 0L));
+    }
+
+    /**
+     * @return 第 attemptNumber 次attempt的超时，毫秒；没有设置超时时为 -1
+     */
+    public long getTimeoutMillis(long attemptNumber) {
+        Preconditions.checkArgument(attemptNumber >= 1L, "attemptNumber must be >= 1 but is %d", attemptNumber);
+        if (timeouts.length == 0) {
+            return -1L;
+        }
+        return timeouts[(int) Math.min(attemptNumber, timeouts.length) - 1];
+    }
+
+    public boolean hasTimeouts() {
+        return timeouts.length > 0;
+    }
+
+    /**
+     * @return 在该序号的attempt失败后停止，0 表示不由时间表决定停止
+     */
+    public int getTerminalAttempt() {
+        return terminalAttempt;
+    }
+
+    /**
+     * @return 表中预先计算的等待项数
+     */
+    public int size() {
+        return waits.length;
+    }
+
+    /**
+     * 在第 terminalAttempt 次attempt失败后停止
+     */
+    public AttemptSchedule withTerminalAttempt(int terminalAttempt) {
+        Preconditions.checkArgument(terminalAttempt >= 1, "terminalAttempt must be >= 1 but is %d", terminalAttempt);
+        return new AttemptSchedule(waits, overflow, timeouts, terminalAttempt);
+    }
+
+    /**
+     * 为各次attempt设置超时，超出部分沿用最后一项
+     */
+    public AttemptSchedule withTimeouts(@Nonnull TimeUnit timeUnit, long... timeouts) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkArgument(timeouts.length > 0, "at least one timeout is required");
+        long[] millis = new long[timeouts.length];
+        for (int i = 0; i < timeouts.length; i++) {
+            Preconditions.checkArgument(timeouts[i] > 0L, "timeout must be > 0 but is %d", timeouts[i]);
+            millis[i] = timeUnit.toMillis(timeouts[i]);
+        }
+        return new AttemptSchedule(waits, overflow, millis, terminalAttempt);
+    }
+
+    /**
+     * @return 等待表的副本
+     */
+    public long[] toWaitArray() {
+        return waits.clone();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AttemptSchedule{");
+        int rows = terminalAttempt > 0 ? terminalAttempt : Math.max(waits.length, timeouts.length);
+        for (int attemptNumber = 1; attemptNumber <= rows; attemptNumber++) {
+            sb.append(attemptNumber == 1 ? "" : ", ").append('#').append(attemptNumber);
+            if (timeouts.length > 0) {
+                sb.append(" timeout=").append(getTimeoutMillis(attemptNumber)).append("ms");
+            }
+            if (attemptNumber != terminalAttempt) {
+                sb.append(" wait=").append(getWaitMillis(attemptNumber)).append("ms");
+            }
+        }
+        if (terminalAttempt > 0) {
+            sb.append(", stop");
+        } else {
+            sb.append(", ... ").append(overflow == null ? "repeat" : overflow.toString());
+        }
+        return sb.append('}').toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AttemptSchedule)) {
+            return false;
+        }
+        AttemptSchedule that = (AttemptSchedule) o;
+        return terminalAttempt == that.terminalAttempt && Arrays.equals(waits, that.waits)
+                && Arrays.equals(timeouts, that.timeouts) && (overflow == null ? that.overflow == null : overflow.equals(that.overflow));
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * Arrays.hashCode(waits) + Arrays.hashCode(timeouts)) + terminalAttempt;
+    }
+}
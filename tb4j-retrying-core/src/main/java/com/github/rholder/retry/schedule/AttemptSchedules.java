@@ -0,0 +1,52 @@
+package com.github.rholder.retry.schedule;
+
+import com.github.rholder.retry.Attempts;
+import com.github.rholder.retry.Strategy.DeterministicWaitStrategy;
+import com.github.rholder.retry.Strategy.WaitStrategy;
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: factory for {@link AttemptSchedule}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 18:12:20
+ */
+public final class AttemptSchedules {
+
+    private AttemptSchedules() {
+    }
+
+    /**
+     * 把确定性等待策略(固定、递增、指数、斐波那契以及它们的 join)编译为时间表，预先计算前 attempts 项
+     * @throws IllegalArgumentException 策略不是 {@link DeterministicWaitStrategy}
+     */
+    public static AttemptSchedule compile(@Nonnull WaitStrategy waitStrategy, int attempts) throws IllegalArgumentException {
+        Preconditions.checkNotNull(waitStrategy, "waitStrategy may not be null");
+        Preconditions.checkArgument(waitStrategy instanceof DeterministicWaitStrategy,
+                "only deterministic wait strategies can be compiled but got %s", waitStrategy);
+        Preconditions.checkArgument(attempts >= 1, "attempts must be >= 1 but is %d", attempts);
+        long[] waits = new long[attempts];
+        for (int i = 0; i < attempts; i++) {
+            waits[i] = Math.max(0L, waitStrategy.computeSleepTime(Attempts.newResultAttempt(null, i + 1, 0L)));
+        }
+        return new AttemptSchedule(waits, waitStrategy);
+    }
+
+    /**
+     * 显式给出各次attempt失败后的等待，超出部分沿用最后一项
+     */
+    public static AttemptSchedule of(@Nonnull TimeUnit timeUnit, long... waits) {
+        Preconditions.checkNotNull(timeUnit, "The time unit may not be null");
+        Preconditions.checkArgument(waits.length > 0, "at least one wait is required");
+        long[] millis = new long[waits.length];
+        for (int i = 0; i < waits.length; i++) {
+            Preconditions.checkArgument(waits[i] >= 0L, "wait must be >= 0 but is %d", waits[i]);
+            millis[i] = timeUnit.toMillis(waits[i]);
+        }
+        return new AttemptSchedule(millis, null);
+    }
+}
@@ -0,0 +1,18 @@
+package com.github.rholder.retry.timelimit;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Function: 按attempt序号决定时限的限制器，Retryer 会传入当前attempt序号
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 17:58:10
+ */
+public interface PerAttemptTimeLimiter<V> extends AttemptTimeLimiter<V> {
+
+    /**
+     * @param attemptNumber 当前attempt序号，从1开始
+     */
+    V call(Callable<V> callable, long attemptNumber) throws Exception;
+}
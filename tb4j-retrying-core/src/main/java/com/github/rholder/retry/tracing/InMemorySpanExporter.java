@@ -0,0 +1,59 @@
+package com.github.rholder.retry.tracing;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Function: 把结束的 span 保存在内存中，供测试和排查使用；最多保留 capacity 个，超出后丢弃最早的
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:26:14
+ */
+@ThreadSafe
+public final class InMemorySpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final Deque<SpanData> spans = new ArrayDeque<SpanData>();
+
+    InMemorySpanExporter(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public synchronized void export(SpanData span) {
+        if (spans.size() == capacity) {
+            spans.removeFirst();
+        }
+        spans.addLast(span);
+    }
+
+    /**
+     * @return 已结束 span 的副本，按结束顺序
+     */
+    public synchronized List<SpanData> getFinishedSpans() {
+        return new ArrayList<SpanData>(spans);
+    }
+
+    /**
+     * @return 指定名称的已结束 span
+     */
+    public synchronized List<SpanData> getFinishedSpans(String name) {
+        List<SpanData> result = new ArrayList<SpanData>();
+        for (SpanData span : spans) {
+            if (span.getName().equals(name)) {
+                result.add(span);
+            }
+        }
+        return result;
+    }
+
+    public synchronized void reset() {
+        spans.clear();
+    }
+
+    public void close() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.github.rholder.retry.tracing;
+
+/**
+ * Function: JDK Flight Recorder 追踪的入口，见 {@link RetryTracers#jfr(String)}
+ * 本类是 Java 8 下的版本，JFR 不可用，直接返回 {@link RetryTracers#noop()}；
+ * 在 Java 11 及以上运行时由 multi-release jar 中 META-INF/versions/11 下的同名类替代。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:12:38
+ */
+final class JfrTracerFactory {
+
+    private JfrTracerFactory() {
+    }
+
+    static boolean isAvailable() {
+        return false;
+    }
+
+    static RetryTracer create(String retryerName) {
+        return RetryTracers.noop();
+    }
+}
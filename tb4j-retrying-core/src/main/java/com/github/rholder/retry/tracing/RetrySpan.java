@@ -0,0 +1,18 @@
+package com.github.rholder.retry.tracing;
+
+/**
+ * Function: 一段被追踪的区间，由 {@link RetryTracer#startSpan(String, RetrySpan)} 创建
+ * 属性只在 {@link #end()} 之前设置有效；end 可重复调用，只有第一次生效
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:10:44
+ */
+public interface RetrySpan {
+
+    RetrySpan setAttribute(String key, long value);
+
+    RetrySpan setAttribute(String key, String value);
+
+    void end();
+}
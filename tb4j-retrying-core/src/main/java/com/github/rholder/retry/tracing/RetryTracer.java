@@ -0,0 +1,46 @@
+package com.github.rholder.retry.tracing;
+
+import javax.annotation.Nullable;
+
+/**
+ * Function: 重试追踪的 SPI
+ * {@link com.github.rholder.retry.core.Retryer} 为每次调用创建 {@link #CALL_SPAN}，其下为每次attempt创建 {@link #ATTEMPT_SPAN}，
+ * 为每次等待创建 {@link #BACKOFF_SPAN}；attempt执行期间该 span 是 {@link TraceContext#current()}，
+ * 被调用方可以在其下继续创建子 span。实现需线程安全。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:12:03
+ */
+public interface RetryTracer {
+
+    String CALL_SPAN = "retry.call";
+    String ATTEMPT_SPAN = "retry.attempt";
+    String BACKOFF_SPAN = "retry.backoff";
+
+    /**
+     * attempt序号，attempt span 上
+     */
+    String ATTEMPT_NUMBER = "retry.attempt.number";
+    /**
+     * attempt span 上为 result 或 exception；call span 上为 {@link com.github.rholder.retry.RetryOutcome.Status}
+     */
+    String OUTCOME = "retry.outcome";
+    /**
+     * 异常类名
+     */
+    String EXCEPTION = "retry.exception";
+    /**
+     * 计划等待时长，毫秒，backoff span 上
+     */
+    String SLEEP_MILLIS = "retry.sleep.millis";
+    /**
+     * attempt总数，call span 上
+     */
+    String ATTEMPTS = "retry.attempts";
+
+    /**
+     * @param parent 父 span，为 null 时开始新的 trace
+     */
+    RetrySpan startSpan(String name, @Nullable RetrySpan parent);
+}
@@ -0,0 +1,238 @@
+package com.github.rholder.retry.tracing;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Function: factory for {@link RetryTracer}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:34:05
+ */
+public final class RetryTracers {
+
+    private static final RetryTracer NOOP_TRACER = new NoopRetryTracer();
+    private static final RetrySpan NOOP_SPAN = new NoopRetrySpan();
+
+    private RetryTracers() {
+    }
+
+    /**
+     * 不追踪；{@link com.github.rholder.retry.core.RetryerBuilder} 遇到它时完全跳过追踪逻辑
+     */
+    public static RetryTracer noop() {
+        return NOOP_TRACER;
+    }
+
+    /**
+     * 记录 span 并在结束时交给 exporter，无需外部采集服务
+     */
+    public static RetryTracer recording(@Nonnull SpanExporter exporter) {
+        Preconditions.checkNotNull(exporter, "exporter may not be null");
+        return new RecordingRetryTracer(exporter);
+    }
+
+    /**
+     * 以 JDK Flight Recorder 事件记录attempt、等待、放弃以及attempt超时，事件名 com.github.rholder.retry.*；
+     * 事件默认关闭，关闭时每个 span 只有一次开关判断。需要 Java 11 及以上，否则等同于 {@link #noop()}
+     * @param retryerName 写入事件的 retryer 名称
+     */
+    public static RetryTracer jfr(@Nonnull String retryerName) {
+        Preconditions.checkNotNull(retryerName, "retryerName may not be null");
+        return JfrTracerFactory.create(retryerName);
+    }
+
+    /**
+     * 把每个 span 同时交给多个 tracer，例如 JFR 与 {@link #recording(SpanExporter)} 同时使用；noop tracer 被忽略。
+     * 父 span 由组合后的 tracer 创建时，各 tracer 收到各自的父 span，因此被调用方应通过组合后的 tracer 创建子 span
+     */
+    public static RetryTracer composite(@Nonnull RetryTracer... tracers) {
+        Preconditions.checkNotNull(tracers, "tracers may not be null");
+        List<RetryTracer> active = new ArrayList<RetryTracer>();
+        for (RetryTracer tracer : tracers) {
+            Preconditions.checkNotNull(tracer, "tracer may not be null");
+            if (tracer != NOOP_TRACER) {
+                active.add(tracer);
+            }
+        }
+        if (active.isEmpty()) {
+            return NOOP_TRACER;
+        }
+        if (active.size() == 1) {
+            return active.get(0);
+        }
+        return new CompositeRetryTracer(active.toArray(new RetryTracer[active.size()]));
+    }
+
+    /**
+     * @return 当前运行时是否支持 {@link #jfr(String)}
+     */
+    public static boolean isJfrAvailable() {
+        return JfrTracerFactory.isAvailable();
+    }
+
+    @Immutable
+    private static final class NoopRetryTracer implements RetryTracer {
+        public RetrySpan startSpan(String name, @Nullable RetrySpan parent) {
+            return NOOP_SPAN;
+        }
+    }
+
+    @Immutable
+    private static final class NoopRetrySpan implements RetrySpan {
+        public RetrySpan setAttribute(String key, long value) {
+            return this;
+        }
+
+        public RetrySpan setAttribute(String key, String value) {
+            return this;
+        }
+
+        public void end() {
+        }
+    }
+
+    @Immutable
+    private static final class CompositeRetryTracer implements RetryTracer {
+        private final RetryTracer[] tracers;
+
+        CompositeRetryTracer(RetryTracer[] tracers) {
+            this.tracers = tracers;
+        }
+
+        public RetrySpan startSpan(String name, @Nullable RetrySpan parent) {
+            RetrySpan[] parents = null;
+            if (parent instanceof CompositeRetrySpan && ((CompositeRetrySpan) parent).tracer == this) {
+                parents = ((CompositeRetrySpan) parent).spans;
+            }
+            RetrySpan[] spans = new RetrySpan[tracers.length];
+            for (int i = 0; i < tracers.length; i++) {
+                spans[i] = tracers[i].startSpan(name, parents == null ? parent : parents[i]);
+            }
+            return new CompositeRetrySpan(this, spans);
+        }
+    }
+
+    /**
+     * 线程安全性与组成它的 span 相同
+     */
+    private static final class CompositeRetrySpan implements RetrySpan {
+        private final CompositeRetryTracer tracer;
+        private final RetrySpan[] spans;
+
+        CompositeRetrySpan(CompositeRetryTracer tracer, RetrySpan[] spans) {
+            this.tracer = tracer;
+            this.spans = spans;
+        }
+
+        public RetrySpan setAttribute(String key, long value) {
+            for (RetrySpan span : spans) {
+                span.setAttribute(key, value);
+            }
+            return this;
+        }
+
+        public RetrySpan setAttribute(String key, String value) {
+            for (RetrySpan span : spans) {
+                span.setAttribute(key, value);
+            }
+            return this;
+        }
+
+        public void end() {
+            for (RetrySpan span : spans) {
+                span.end();
+            }
+        }
+    }
+
+    @ThreadSafe
+    private static final class RecordingRetryTracer implements RetryTracer {
+        private static final Random RANDOM = new Random();
+        private final SpanExporter exporter;
+
+        RecordingRetryTracer(SpanExporter exporter) {
+            this.exporter = exporter;
+        }
+
+        public RetrySpan startSpan(String name, @Nullable RetrySpan parent) {
+            long spanId = nextId();
+            if (parent instanceof RecordingRetrySpan) {
+                RecordingRetrySpan recordingParent = (RecordingRetrySpan) parent;
+                return new RecordingRetrySpan(exporter, name, recordingParent.traceId, spanId, recordingParent.spanId);
+            }
+            return new RecordingRetrySpan(exporter, name, nextId(), spanId, 0L);
+        }
+
+        private static long nextId() {
+            long id;
+            do {
+                id = RANDOM.nextLong();
+            } while (id == 0L);
+            return id;
+        }
+    }
+
+    /**
+     * 属性的写入与 end 由同一把锁保护，允许跨线程结束
+     */
+    @ThreadSafe
+    private static final class RecordingRetrySpan implements RetrySpan {
+        private final SpanExporter exporter;
+        private final String name;
+        private final long traceId;
+        private final long spanId;
+        private final long parentSpanId;
+        private final long startEpochMicros = TimeUnit.MILLISECONDS.toMicros(System.currentTimeMillis());
+        private final long startNanos = System.nanoTime();
+        private final String threadName = Thread.currentThread().getName();
+        private final Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+        private boolean ended;
+
+        RecordingRetrySpan(SpanExporter exporter, String name, long traceId, long spanId, long parentSpanId) {
+            this.exporter = exporter;
+            this.name = name;
+            this.traceId = traceId;
+            this.spanId = spanId;
+            this.parentSpanId = parentSpanId;
+        }
+
+        public synchronized RetrySpan setAttribute(String key, long value) {
+            if (!ended) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        public synchronized RetrySpan setAttribute(String key, String value) {
+            if (!ended) {
+                attributes.put(key, value);
+            }
+            return this;
+        }
+
+        public void end() {
+            SpanData data;
+            synchronized (this) {
+                if (ended) {
+                    return;
+                }
+                ended = true;
+                data = new SpanData(name, traceId, spanId, parentSpanId, startEpochMicros, System.nanoTime() - startNanos,
+                        threadName, attributes);
+            }
+            exporter.export(data);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.github.rholder.retry.tracing;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Function: 已结束 span 的不可变快照，由 {@link RetryTracers#recording(SpanExporter)} 产生
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:20:31
+ */
+@Immutable
+public final class SpanData {
+
+    private final String name;
+    private final long traceId;
+    private final long spanId;
+    private final long parentSpanId;
+    private final long startEpochMicros;
+    private final long durationNanos;
+    private final String threadName;
+    private final Map<String, Object> attributes;
+
+    SpanData(String name, long traceId, long spanId, long parentSpanId, long startEpochMicros, long durationNanos,
+             String threadName, Map<String, Object> attributes) {
+        this.name = name;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.startEpochMicros = startEpochMicros;
+        this.durationNanos = durationNanos;
+        this.threadName = threadName;
+        this.attributes = Collections.unmodifiableMap(new LinkedHashMap<String, Object>(attributes));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTraceId() {
+        return traceId;
+    }
+
+    public long getSpanId() {
+        return spanId;
+    }
+
+    /**
+     * @return 父 span 的 id，根 span 为 0
+     */
+    public long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public long getStartEpochMicros() {
+        return startEpochMicros;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return 创建 span 的线程名
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * @return 属性，值为 Long 或 String
+     */
+    public Map<String, Object> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return 单行 JSON
+     */
+    public String toJson() {
+        StringBuilder sb = new StringBuilder(160);
+        sb.append("{\"name\":");
+        quote(sb, name);
+        sb.append(",\"traceId\":\"").append(Long.toHexString(traceId))
+                .append("\",\"spanId\":\"").append(Long.toHexString(spanId))
+                .append("\",\"parentSpanId\":\"").append(Long.toHexString(parentSpanId))
+                .append("\",\"startEpochMicros\":").append(startEpochMicros)
+                .append(",\"durationNanos\":").append(durationNanos)
+                .append(",\"thread\":");
+        quote(sb, threadName);
+        sb.append(",\"attributes\":{");
+        boolean first = true;
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            if (!first) {
+                sb.append(',');
+            }
+            first = false;
+            quote(sb, entry.getKey());
+            sb.append(':');
+            if (entry.getValue() instanceof Long) {
+                sb.append(entry.getValue());
+            } else {
+                quote(sb, String.valueOf(entry.getValue()));
+            }
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static void quote(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
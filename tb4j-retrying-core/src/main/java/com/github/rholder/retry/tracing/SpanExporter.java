@@ -0,0 +1,15 @@
+package com.github.rholder.retry.tracing;
+
+import java.io.Closeable;
+
+/**
+ * Function: 接收结束的 span，由 {@link RetryTracers#recording(SpanExporter)} 调用；实现需线程安全
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:17:50
+ */
+public interface SpanExporter extends Closeable {
+
+    void export(SpanData span);
+}
@@ -0,0 +1,76 @@
+package com.github.rholder.retry.tracing;
+
+import com.github.rholder.retry.core.Preconditions;
+
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.ThreadSafe;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+
+/**
+ * Function: factory for {@link SpanExporter}
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:29:47
+ */
+public final class SpanExporters {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private SpanExporters() {
+    }
+
+    /**
+     * 内存导出，最多保留 capacity 个 span
+     */
+    public static InMemorySpanExporter inMemory(int capacity) {
+        Preconditions.checkArgument(capacity > 0, "capacity must be > 0 but is %d", capacity);
+        return new InMemorySpanExporter(capacity);
+    }
+
+    /**
+     * 以 JSON Lines 追加写入文件，每个 span 一行，见 {@link SpanData#toJson()}；
+     * 写入失败不影响重试，失败后不再写入
+     * @throws IOException 文件无法打开
+     */
+    public static SpanExporter toFile(@Nonnull File file) throws IOException {
+        Preconditions.checkNotNull(file, "file may not be null");
+        return new FileSpanExporter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file, true), UTF_8)));
+    }
+
+    /**
+     * 写入文件
+     */
+    @ThreadSafe
+    private static final class FileSpanExporter implements SpanExporter {
+        private final Writer writer;
+        private boolean failed;
+
+        FileSpanExporter(Writer writer) {
+            this.writer = writer;
+        }
+
+        public synchronized void export(SpanData span) {
+            if (failed) {
+                return;
+            }
+            try {
+                writer.write(span.toJson());
+                writer.write('\n');
+                writer.flush();
+            } catch (IOException e) {
+                failed = true;
+            }
+        }
+
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+}
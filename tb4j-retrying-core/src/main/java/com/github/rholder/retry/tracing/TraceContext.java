@@ -0,0 +1,67 @@
+package com.github.rholder.retry.tracing;
+
+import javax.annotation.Nullable;
+import java.util.concurrent.Callable;
+
+/**
+ * Function: 当前线程上正在进行的 span，用于把追踪上下文传递给在其它线程上执行的attempt
+ * (如 {@link com.github.rholder.retry.timelimit.AttemptTimeLimiters} 的线程池)
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 19:15:26
+ */
+public final class TraceContext {
+
+    private static final ThreadLocal<RetrySpan> CURRENT = new ThreadLocal<RetrySpan>();
+
+    private TraceContext() {
+    }
+
+    /**
+     * @return 当前线程的 span，没有时为 null
+     */
+    @Nullable
+    public static RetrySpan current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 设置当前线程的 span
+     * @return 之前的 span，需交给 {@link #restore(RetrySpan)}
+     */
+    @Nullable
+    public static RetrySpan attach(@Nullable RetrySpan span) {
+        RetrySpan previous = CURRENT.get();
+        CURRENT.set(span);
+        return previous;
+    }
+
+    public static void restore(@Nullable RetrySpan previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * 捕获当前 span，在执行 callable 的线程上恢复；没有当前 span 时原样返回
+     */
+    public static <V> Callable<V> wrap(final Callable<V> callable) {
+        final RetrySpan span = CURRENT.get();
+        if (span == null) {
+            return callable;
+        }
+        return new Callable<V>() {
+            public V call() throws Exception {
+                RetrySpan previous = attach(span);
+                try {
+                    return callable.call();
+                } finally {
+                    restore(previous);
+                }
+            }
+        };
+    }
+}
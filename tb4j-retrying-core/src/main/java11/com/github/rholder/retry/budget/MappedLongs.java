@@ -0,0 +1,34 @@
+package com.github.rholder.retry.budget;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+/**
+ * Function: 映射内存上 long 的原子读写，Java 11 版本，通过 byte buffer view 的 {@link VarHandle} 直接 CAS 共享内存
+ * offset 须按 8 字节对齐；映射区域从页边界开始，因此文件中按 8 字节对齐的偏移即对齐。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/20 09:14:05
+ */
+final class MappedLongs {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private MappedLongs() {
+    }
+
+    static boolean isAtomic() {
+        return true;
+    }
+
+    static long getVolatile(MappedByteBuffer buffer, int offset) {
+        return (long) LONGS.getVolatile(buffer, offset);
+    }
+
+    static boolean compareAndSet(MappedByteBuffer buffer, int offset, long expected, long update) {
+        return LONGS.compareAndSet(buffer, offset, expected, update);
+    }
+}
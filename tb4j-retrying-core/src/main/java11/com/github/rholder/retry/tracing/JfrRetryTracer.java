@@ -0,0 +1,249 @@
+package com.github.rholder.retry.tracing;
+
+import com.github.rholder.retry.RetryOutcome;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Function: 把 {@link RetryTracer} 的 span 转换为 JFR 事件
+ * attempt span 对应 {@link AttemptEvent}，并在异常为超时时另外提交 {@link TimeoutEvent}；backoff span 对应 {@link BackoffEvent}；
+ * call span 只在停止重试、被中断或被取消时提交 {@link GiveUpEvent}。事件类型未开启时 startSpan 只做一次开关判断并返回空 span。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:15:47
+ */
+@Immutable
+final class JfrRetryTracer implements RetryTracer {
+
+    private static final EventType ATTEMPT_TYPE = EventType.getEventType(AttemptEvent.class);
+    private static final EventType BACKOFF_TYPE = EventType.getEventType(BackoffEvent.class);
+    private static final EventType GIVE_UP_TYPE = EventType.getEventType(GiveUpEvent.class);
+    private static final EventType TIMEOUT_TYPE = EventType.getEventType(TimeoutEvent.class);
+
+    private final String retryerName;
+
+    JfrRetryTracer(String retryerName) {
+        this.retryerName = retryerName;
+    }
+
+    public RetrySpan startSpan(String name, @Nullable RetrySpan parent) {
+        if (ATTEMPT_SPAN.equals(name)) {
+            if (ATTEMPT_TYPE.isEnabled() || TIMEOUT_TYPE.isEnabled()) {
+                return new AttemptSpan(retryerName);
+            }
+        } else if (BACKOFF_SPAN.equals(name)) {
+            if (BACKOFF_TYPE.isEnabled()) {
+                return new BackoffSpan(retryerName);
+            }
+        } else if (CALL_SPAN.equals(name)) {
+            if (GIVE_UP_TYPE.isEnabled()) {
+                return new CallSpan(retryerName);
+            }
+        }
+        return RetryTracers.noop().startSpan(name, parent);
+    }
+
+    static boolean isTimeout(@Nullable String exceptionClass) {
+        return "java.util.concurrent.TimeoutException".equals(exceptionClass)
+                || "com.google.common.util.concurrent.UncheckedTimeoutException".equals(exceptionClass);
+    }
+
+    @NotThreadSafe
+    private static final class AttemptSpan implements RetrySpan {
+        private final AttemptEvent attempt = new AttemptEvent();
+        private final TimeoutEvent timeout;
+        private boolean ended;
+
+        AttemptSpan(String retryerName) {
+            attempt.retryerName = retryerName;
+            attempt.begin();
+            if (TIMEOUT_TYPE.isEnabled()) {
+                timeout = new TimeoutEvent();
+                timeout.retryerName = retryerName;
+                timeout.begin();
+            } else {
+                timeout = null;
+            }
+        }
+
+        public RetrySpan setAttribute(String key, long value) {
+            if (ATTEMPT_NUMBER.equals(key)) {
+                attempt.attemptNumber = value;
+            }
+            return this;
+        }
+
+        public RetrySpan setAttribute(String key, String value) {
+            if (OUTCOME.equals(key)) {
+                attempt.outcome = value;
+            } else if (EXCEPTION.equals(key)) {
+                attempt.exceptionClass = value;
+            }
+            return this;
+        }
+
+        public void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            attempt.end();
+            if (attempt.shouldCommit()) {
+                attempt.commit();
+            }
+            if (timeout != null && isTimeout(attempt.exceptionClass)) {
+                timeout.attemptNumber = attempt.attemptNumber;
+                timeout.exceptionClass = attempt.exceptionClass;
+                timeout.end();
+                if (timeout.shouldCommit()) {
+                    timeout.commit();
+                }
+            }
+        }
+    }
+
+    @NotThreadSafe
+    private static final class BackoffSpan implements RetrySpan {
+        private final BackoffEvent backoff = new BackoffEvent();
+        private boolean ended;
+
+        BackoffSpan(String retryerName) {
+            backoff.retryerName = retryerName;
+            backoff.begin();
+        }
+
+        public RetrySpan setAttribute(String key, long value) {
+            if (SLEEP_MILLIS.equals(key)) {
+                backoff.sleepMillis = value;
+            }
+            return this;
+        }
+
+        public RetrySpan setAttribute(String key, String value) {
+            return this;
+        }
+
+        public void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            backoff.end();
+            if (backoff.shouldCommit()) {
+                backoff.commit();
+            }
+        }
+    }
+
+    /**
+     * 成功或因不需要重试的异常结束时不提交
+     */
+    @NotThreadSafe
+    private static final class CallSpan implements RetrySpan {
+        private final GiveUpEvent giveUp = new GiveUpEvent();
+        private boolean ended;
+
+        CallSpan(String retryerName) {
+            giveUp.retryerName = retryerName;
+            giveUp.begin();
+        }
+
+        public RetrySpan setAttribute(String key, long value) {
+            if (ATTEMPTS.equals(key)) {
+                giveUp.attempts = value;
+            }
+            return this;
+        }
+
+        public RetrySpan setAttribute(String key, String value) {
+            if (OUTCOME.equals(key)) {
+                giveUp.outcome = value;
+            }
+            return this;
+        }
+
+        public void end() {
+            if (ended) {
+                return;
+            }
+            ended = true;
+            if (!RetryOutcome.Status.EXHAUSTED.name().equals(giveUp.outcome)
+                    && !RetryOutcome.Status.INTERRUPTED.name().equals(giveUp.outcome)
+                    && !RetryOutcome.Status.CANCELLED.name().equals(giveUp.outcome)) {
+                return;
+            }
+            giveUp.end();
+            if (giveUp.shouldCommit()) {
+                giveUp.commit();
+            }
+        }
+    }
+
+    @Name("com.github.rholder.retry.Attempt")
+    @Label("Retry Attempt")
+    @Category("Retry")
+    @Description("一次attempt的执行")
+    @StackTrace(false)
+    static final class AttemptEvent extends Event {
+        @Label("Retryer")
+        String retryerName;
+        @Label("Attempt Number")
+        long attemptNumber;
+        @Label("Outcome")
+        String outcome;
+        @Label("Exception Class")
+        String exceptionClass;
+    }
+
+    @Name("com.github.rholder.retry.Backoff")
+    @Label("Retry Backoff")
+    @Category("Retry")
+    @Description("两次attempt之间的等待")
+    @StackTrace(false)
+    static final class BackoffEvent extends Event {
+        @Label("Retryer")
+        String retryerName;
+        @Label("Planned Sleep")
+        @Timespan(Timespan.MILLISECONDS)
+        long sleepMillis;
+    }
+
+    @Name("com.github.rholder.retry.GiveUp")
+    @Label("Retry Give Up")
+    @Category("Retry")
+    @Description("停止重试、等待时被中断或被取消，持续时间为整个调用")
+    @StackTrace(false)
+    static final class GiveUpEvent extends Event {
+        @Label("Retryer")
+        String retryerName;
+        @Label("Attempts")
+        long attempts;
+        @Label("Outcome")
+        String outcome;
+    }
+
+    @Name("com.github.rholder.retry.Timeout")
+    @Label("Retry Attempt Timeout")
+    @Category("Retry")
+    @Description("attempt因时间限制器超时")
+    @StackTrace(false)
+    static final class TimeoutEvent extends Event {
+        @Label("Retryer")
+        String retryerName;
+        @Label("Attempt Number")
+        long attemptNumber;
+        @Label("Exception Class")
+        String exceptionClass;
+    }
+}
@@ -0,0 +1,23 @@
+package com.github.rholder.retry.tracing;
+
+/**
+ * Function: JDK Flight Recorder 追踪的入口，见 {@link RetryTracers#jfr(String)}
+ * 本类是 multi-release jar 中 Java 11 的版本，返回以 JFR 事件记录的 {@link JfrRetryTracer}。
+ *
+ * @author liujianlong[liujl24@yusys.com.cn]
+ * @description:
+ * @date 2026/10/19 20:14:02
+ */
+final class JfrTracerFactory {
+
+    private JfrTracerFactory() {
+    }
+
+    static boolean isAvailable() {
+        return true;
+    }
+
+    static RetryTracer create(String retryerName) {
+        return new JfrRetryTracer(retryerName);
+    }
+}
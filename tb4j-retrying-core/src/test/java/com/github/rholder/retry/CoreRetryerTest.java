@@ -0,0 +1,197 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import com.github.rholder.retry.cancel.CancellationSource;
+import com.github.rholder.retry.core.Retryer;
+import com.github.rholder.retry.core.RetryerBuilder;
+import com.github.rholder.retry.core.StopStrategies;
+import com.github.rholder.retry.core.WaitStrategies;
+import com.github.rholder.retry.exception.RetryException;
+import com.github.rholder.retry.listener.RetryListener;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * core 模块只依赖 JDK，这里不能引用 Guava
+ */
+public class CoreRetryerTest {
+
+    @Test
+    public void testRetryIfResultAndException() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        Retryer<Integer> retryer = RetryerBuilder.<Integer>newBuilder()
+                .retryIfExceptionOfType(IOException.class)
+                .retryIfResult(new Predicate<Integer>() {
+                    public boolean test(Integer result) {
+                        return result < 4;
+                    }
+                })
+                .build();
+        Integer result = retryer.call(new Callable<Integer>() {
+            public Integer call() throws Exception {
+                int attempt = counter.incrementAndGet();
+                if (attempt == 1) {
+                    throw new IOException("flaky");
+                }
+                return attempt;
+            }
+        });
+        assertEquals(Integer.valueOf(4), result);
+        assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void testStopAfterAttemptThrowsRetryException() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfRuntimeException()
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withWaitStrategy(WaitStrategies.fixedWait(1L, TimeUnit.MILLISECONDS))
+                .build();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() {
+                    counter.incrementAndGet();
+                    throw new IllegalStateException("always");
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(3, e.getNumberOfFailedAttempts());
+            assertTrue(e.getLastFailedAttempt().getExceptionCause() instanceof IllegalStateException);
+        }
+        assertEquals(3, counter.get());
+    }
+
+    @Test
+    public void testStopAfterDelayUsesNanoClock() throws Exception {
+        final AtomicLong nanos = new AtomicLong();
+        final AtomicInteger counter = new AtomicInteger();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(new Predicate<Boolean>() {
+                    public boolean test(Boolean result) {
+                        return !result;
+                    }
+                })
+                .withStopStrategy(StopStrategies.stopAfterDelay(1L, TimeUnit.SECONDS))
+                .withNanoClock(new LongSupplier() {
+                    public long getAsLong() {
+                        return nanos.get();
+                    }
+                })
+                .build();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() {
+                    counter.incrementAndGet();
+                    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(300L));
+                    return false;
+                }
+            });
+            fail("RetryException expected");
+        } catch (RetryException e) {
+            assertEquals(1200L, e.getLastFailedAttempt().getDelaySinceFirstAttempt());
+        }
+        assertEquals(4, counter.get());
+    }
+
+    @Test
+    public void testExceptionNotRetriedIsWrapped() throws Exception {
+        final IOException cause = new IOException("not retried");
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfRuntimeException()
+                .build();
+        try {
+            retryer.call(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    throw cause;
+                }
+            });
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertSame(cause, e.getCause());
+        }
+    }
+
+    @Test
+    public void testListenersHistoryAndTryCall() {
+        final List<Long> attempts = new ArrayList<Long>();
+        final AtomicInteger counter = new AtomicInteger();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfRuntimeException()
+                .withStopStrategy(StopStrategies.stopAfterAttempt(3))
+                .withAttemptHistory(2)
+                .withRetryListener(new RetryListener() {
+                    public <V> void onRetry(Attempt<V> attempt) {
+                        attempts.add(attempt.getAttemptNumber());
+                    }
+                })
+                .build();
+        RetryOutcome<Boolean> outcome = retryer.tryCall(new Callable<Boolean>() {
+            public Boolean call() {
+                counter.incrementAndGet();
+                throw new IllegalStateException("always");
+            }
+        });
+        assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+        assertEquals(3, outcome.getAttemptCount());
+        assertEquals(3L, outcome.getStats().getAttempts());
+        assertEquals(3, counter.get());
+        assertEquals(3, attempts.size());
+        AttemptHistory history = ((DetailedAttempt<Boolean>) outcome.getLastAttempt()).getHistory();
+        assertEquals(2, history.size());
+        assertTrue(history.isExceptionOf(0, IllegalStateException.class));
+    }
+
+    @Test
+    public void testCancelledTokenEndsRetrying() {
+        final CancellationSource source = CancellationSource.newSource();
+        Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                .retryIfResult(new Predicate<Boolean>() {
+                    public boolean test(Boolean result) {
+                        return !result;
+                    }
+                })
+                .build();
+        RetryOutcome<Boolean> outcome = retryer.tryCall(new Callable<Boolean>() {
+            public Boolean call() {
+                source.cancel();
+                return false;
+            }
+        }, source.getToken());
+        assertEquals(RetryOutcome.Status.CANCELLED, outcome.getStatus());
+        assertEquals(1, outcome.getAttemptCount());
+        assertFalse(outcome.isSuccess());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * target/classes 不是 multi-release jar，类路径上加载的总是 Java 8 版本的类。
+ * 本加载器按 multi-release jar 的规则，优先从 META-INF/versions/11 读取指定前缀的类并自行定义，
+ * 使这些类彼此链接到 Java 11 版本；其他类委托给父加载器。
+ */
+public final class MultiReleaseClassLoader extends ClassLoader {
+
+    private static final String VERSIONED = "META-INF/versions/11/";
+
+    private final String[] classPrefixes;
+
+    public MultiReleaseClassLoader(ClassLoader parent, String... classPrefixes) {
+        super(parent);
+        this.classPrefixes = classPrefixes;
+    }
+
+    /**
+     * @return 类路径上是否有该类的 Java 11 版本
+     */
+    public static boolean hasVersionedClass(ClassLoader loader, String className) {
+        return loader.getResource(VERSIONED + resourceName(className)) != null;
+    }
+
+    @Override
+    protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        if (!isVersioned(name)) {
+            return super.loadClass(name, resolve);
+        }
+        synchronized (getClassLoadingLock(name)) {
+            Class<?> loaded = findLoadedClass(name);
+            if (loaded != null) {
+                return loaded;
+            }
+            InputStream in = getParent().getResourceAsStream(VERSIONED + resourceName(name));
+            if (in == null) {
+                in = getParent().getResourceAsStream(resourceName(name));
+            }
+            if (in == null) {
+                throw new ClassNotFoundException(name);
+            }
+            try (InputStream classFile = in) {
+                byte[] bytes = classFile.readAllBytes();
+                return defineClass(name, bytes, 0, bytes.length);
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    private boolean isVersioned(String name) {
+        for (String prefix : classPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String resourceName(String className) {
+        return className.replace('.', '/') + ".class";
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry.budget;
+
+import com.github.rholder.retry.MultiReleaseClassLoader;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * 只在 JDK 11+ 下编译运行(multi-release-java11 profile)。
+ * 通过 {@link MultiReleaseClassLoader} 加载 Java 11 版本的 MappedLongs，
+ * 并让 MappedFileRetryBudget 链接到它，直接测试基于 VarHandle 的 CAS 路径。
+ */
+public class MappedLongsJava11Test {
+
+    private static final String MAPPED_LONGS = "com.github.rholder.retry.budget.MappedLongs";
+    private static final String BUDGET = "com.github.rholder.retry.budget.MappedFileRetryBudget";
+
+    private final ClassLoader loader = new MultiReleaseClassLoader(getClass().getClassLoader(), MAPPED_LONGS, BUDGET);
+
+    @Test
+    public void testVersionedClassIsAtomic() throws Exception {
+        assertTrue("multi-release output missing", MultiReleaseClassLoader.hasVersionedClass(getClass().getClassLoader(), MAPPED_LONGS));
+        assertTrue((Boolean) mappedLongs("isAtomic").invoke(null));
+        assertFalse(MappedLongs.isAtomic());
+    }
+
+    @Test
+    public void testCompareAndSetIsVisibleAcrossMappings() throws Exception {
+        File file = tempFile();
+        RandomAccessFile first = new RandomAccessFile(file, "rw");
+        RandomAccessFile second = new RandomAccessFile(file, "rw");
+        try {
+            MappedByteBuffer a = map(first);
+            MappedByteBuffer b = map(second);
+            Method compareAndSet = mappedLongs("compareAndSet", MappedByteBuffer.class, int.class, long.class, long.class);
+            Method getVolatile = mappedLongs("getVolatile", MappedByteBuffer.class, int.class);
+
+            assertTrue((Boolean) compareAndSet.invoke(null, a, 8, 0L, 42L));
+            assertEquals(42L, getVolatile.invoke(null, b, 8));
+            assertFalse((Boolean) compareAndSet.invoke(null, b, 8, 0L, 7L));
+            assertTrue((Boolean) compareAndSet.invoke(null, b, 8, 42L, 7L));
+            assertEquals(7L, getVolatile.invoke(null, a, 8));
+            assertEquals(7L, a.getLong(8));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentIncrementsAreNotLost() throws Exception {
+        File file = tempFile();
+        RandomAccessFile first = new RandomAccessFile(file, "rw");
+        RandomAccessFile second = new RandomAccessFile(file, "rw");
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final MappedByteBuffer[] buffers = {map(first), map(second)};
+            final Method compareAndSet = mappedLongs("compareAndSet", MappedByteBuffer.class, int.class, long.class, long.class);
+            final Method getVolatile = mappedLongs("getVolatile", MappedByteBuffer.class, int.class);
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int t = 0; t < 4; t++) {
+                final MappedByteBuffer buffer = buffers[t % 2];
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws Exception {
+                        for (int i = 0; i < 10000; i++) {
+                            long value;
+                            do {
+                                value = (Long) getVolatile.invoke(null, buffer, 16);
+                            } while (!(Boolean) compareAndSet.invoke(null, buffer, 16, value, value + 1L));
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+            assertEquals(40000L, getVolatile.invoke(null, buffers[0], 16));
+        } finally {
+            executor.shutdownNow();
+            first.close();
+            second.close();
+        }
+    }
+
+    @Test
+    public void testBudgetSharedAcrossInstancesUsesAtomicMode() throws Exception {
+        File file = tempFile();
+        Constructor<?> constructor = loader.loadClass(BUDGET).getDeclaredConstructor(File.class, double.class, int.class);
+        constructor.setAccessible(true);
+        final RetryBudget first = (RetryBudget) constructor.newInstance(file, 1.0d, 1000);
+        final RetryBudget second = (RetryBudget) constructor.newInstance(file, 1.0d, 1000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertTrue((Boolean) first.getClass().getMethod("isAtomic").invoke(first));
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < 4; t++) {
+                final RetryBudget budget = t % 2 == 0 ? first : second;
+                futures.add(executor.submit(new Callable<Integer>() {
+                    public Integer call() {
+                        int withdrawn = 0;
+                        for (int i = 0; i < 500; i++) {
+                            if (budget.tryWithdraw()) {
+                                withdrawn++;
+                            }
+                        }
+                        return withdrawn;
+                    }
+                }));
+            }
+            int withdrawn = 0;
+            for (Future<Integer> future : futures) {
+                withdrawn += future.get();
+            }
+            assertEquals(1000, withdrawn);
+            assertEquals(0.0d, second.getBalance(), 0.0001d);
+            first.deposit();
+            assertEquals(1.0d, second.getBalance(), 0.0001d);
+        } finally {
+            executor.shutdownNow();
+            ((Closeable) first).close();
+            ((Closeable) second).close();
+        }
+    }
+
+    private Method mappedLongs(String name, Class<?>... parameterTypes) throws Exception {
+        Method method = loader.loadClass(MAPPED_LONGS).getDeclaredMethod(name, parameterTypes);
+        method.setAccessible(true);
+        return method;
+    }
+
+    private static File tempFile() throws IOException {
+        File file = File.createTempFile("mapped-longs", ".bin");
+        file.deleteOnExit();
+        return file;
+    }
+
+    private static MappedByteBuffer map(RandomAccessFile raf) throws IOException {
+        raf.setLength(64);
+        MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, 64);
+        buffer.order(ByteOrder.nativeOrder());
+        return buffer;
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2012-2015 Ray Holder
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.rholder.retry.tracing;
+
+import com.github.rholder.retry.MultiReleaseClassLoader;
+import com.github.rholder.retry.RetryOutcome;
+import com.github.rholder.retry.core.AttemptTimeLimiters;
+import com.github.rholder.retry.core.Retryer;
+import com.github.rholder.retry.core.RetryerBuilder;
+import com.github.rholder.retry.core.StopStrategies;
+import com.github.rholder.retry.core.WaitStrategies;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * 只在 JDK 11+ 下编译运行(multi-release-java11 profile)。
+ * 通过 {@link MultiReleaseClassLoader} 取得 Java 11 版本的 JfrTracerFactory，
+ * 在 {@link Recording} 中执行重试并读回提交的事件。
+ */
+public class JfrRetryTracerJava11Test {
+
+    private static final String FACTORY = "com.github.rholder.retry.tracing.JfrTracerFactory";
+    private static final String TRACER = "com.github.rholder.retry.tracing.JfrRetryTracer";
+
+    private static final String ATTEMPT = "com.github.rholder.retry.Attempt";
+    private static final String BACKOFF = "com.github.rholder.retry.Backoff";
+    private static final String GIVE_UP = "com.github.rholder.retry.GiveUp";
+    private static final String TIMEOUT = "com.github.rholder.retry.Timeout";
+
+    /**
+     * 事件类按名称注册到 JFR，所有测试共用一个加载器，避免同名事件类被定义多次
+     */
+    private static final ClassLoader LOADER = new MultiReleaseClassLoader(JfrRetryTracerJava11Test.class.getClassLoader(), FACTORY, TRACER);
+
+    @Test
+    public void testEventsCarryRetryerAttemptAndException() throws Exception {
+        List<RecordedEvent> events = record(jfr("jfr-test"));
+
+        List<RecordedEvent> attempts = events(events, ATTEMPT);
+        assertEquals(2, attempts.size());
+        for (int i = 0; i < attempts.size(); i++) {
+            assertEquals("jfr-test", attempts.get(i).getString("retryerName"));
+            assertEquals(i + 1L, attempts.get(i).getLong("attemptNumber"));
+            assertEquals("exception", attempts.get(i).getString("outcome"));
+        }
+        assertEquals(IOException.class.getName(), attempts.get(0).getString("exceptionClass"));
+        assertEquals(TimeoutException.class.getName(), attempts.get(1).getString("exceptionClass"));
+
+        List<RecordedEvent> backoffs = events(events, BACKOFF);
+        assertEquals(1, backoffs.size());
+        assertEquals("jfr-test", backoffs.get(0).getString("retryerName"));
+
+        List<RecordedEvent> timeouts = events(events, TIMEOUT);
+        assertEquals(1, timeouts.size());
+        assertEquals("jfr-test", timeouts.get(0).getString("retryerName"));
+        assertEquals(2L, timeouts.get(0).getLong("attemptNumber"));
+        assertEquals(TimeoutException.class.getName(), timeouts.get(0).getString("exceptionClass"));
+
+        List<RecordedEvent> giveUps = events(events, GIVE_UP);
+        assertEquals(1, giveUps.size());
+        assertEquals("jfr-test", giveUps.get(0).getString("retryerName"));
+        assertEquals(2L, giveUps.get(0).getLong("attempts"));
+        assertEquals(RetryOutcome.Status.EXHAUSTED.name(), giveUps.get(0).getString("outcome"));
+    }
+
+    @Test
+    public void testCompositeRecordsJfrEventsAndExportedSpans() throws Exception {
+        InMemorySpanExporter exporter = SpanExporters.inMemory(100);
+        List<RecordedEvent> events = record(RetryTracers.composite(jfr("composite"), RetryTracers.recording(exporter)));
+
+        assertEquals(2, events(events, ATTEMPT).size());
+        assertEquals(1, events(events, GIVE_UP).size());
+        assertEquals("composite", events(events, GIVE_UP).get(0).getString("retryerName"));
+
+        SpanData call = exporter.getFinishedSpans(RetryTracer.CALL_SPAN).get(0);
+        List<SpanData> attemptSpans = exporter.getFinishedSpans(RetryTracer.ATTEMPT_SPAN);
+        assertEquals(2, attemptSpans.size());
+        for (SpanData span : attemptSpans) {
+            assertEquals(call.getSpanId(), span.getParentSpanId());
+        }
+        assertEquals(1, exporter.getFinishedSpans(RetryTracer.BACKOFF_SPAN).size());
+    }
+
+    private RetryTracer jfr(String retryerName) throws Exception {
+        Method create = LOADER.loadClass(FACTORY).getDeclaredMethod("create", String.class);
+        create.setAccessible(true);
+        RetryTracer tracer = (RetryTracer) create.invoke(null, retryerName);
+        assertEquals(TRACER, tracer.getClass().getName());
+        return tracer;
+    }
+
+    /**
+     * 第一次attempt抛出 IOException，第二次超过时间限制；之后停止重试
+     */
+    private static List<RecordedEvent> record(RetryTracer tracer) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Path file = Files.createTempFile("retry", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String event : new String[]{ATTEMPT, BACKOFF, GIVE_UP, TIMEOUT}) {
+                recording.enable(event);
+            }
+            recording.start();
+            Retryer<Boolean> retryer = RetryerBuilder.<Boolean>newBuilder()
+                    .retryIfException()
+                    .withStopStrategy(StopStrategies.stopAfterAttempt(2))
+                    .withWaitStrategy(WaitStrategies.fixedWait(1L, TimeUnit.MILLISECONDS))
+                    .withAttemptTimeLimiter(AttemptTimeLimiters.<Boolean>fixedTimeLimit(100L, TimeUnit.MILLISECONDS, executor))
+                    .withRetryTracer(tracer)
+                    .build();
+            final AtomicInteger calls = new AtomicInteger();
+            RetryOutcome<Boolean> outcome = retryer.tryCall(new Callable<Boolean>() {
+                public Boolean call() throws Exception {
+                    if (calls.incrementAndGet() == 1) {
+                        throw new IOException("flaky");
+                    }
+                    Thread.sleep(10000L);
+                    return true;
+                }
+            });
+            assertEquals(RetryOutcome.Status.EXHAUSTED, outcome.getStatus());
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> events(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> result = new ArrayList<RecordedEvent>();
+        for (RecordedEvent event : events) {
+            if (event.getEventType().getName().equals(name)) {
+                result.add(event);
+            }
+        }
+        Collections.sort(result, new Comparator<RecordedEvent>() {
+            public int compare(RecordedEvent a, RecordedEvent b) {
+                return a.getStartTime().compareTo(b.getStartTime());
+            }
+        });
+        return result;
+    }
+}